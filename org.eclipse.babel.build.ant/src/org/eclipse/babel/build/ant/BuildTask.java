@@ -103,6 +103,10 @@ public class BuildTask extends Task {
         config.setLongReport(longReport);
     }
 
+    public void setReproducible(boolean reproducible) {
+        config.setReproducible(reproducible);
+    }
+
     public void setIncludeXmlReport(boolean xml) {
         config.setIncludeXmlReport(xml);
     }
@@ -0,0 +1,229 @@
+package org.eclipse.babel.build.ant.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.build.core.Configuration;
+import org.eclipse.babel.build.core.Filter;
+import org.eclipse.babel.build.core.LocaleGroup;
+import org.eclipse.babel.build.core.LocaleProxy;
+import org.eclipse.babel.build.core.PluginProxy;
+import org.eclipse.babel.build.core.Range;
+import org.eclipse.babel.build.core.ResourceProxy;
+import org.eclipse.babel.build.core.coverage.LanguagePackCoverageReport;
+import org.eclipse.babel.build.core.coverage.PluginCoverageInformation;
+import org.eclipse.babel.build.core.eclipsetarget.EclipseTarget;
+import org.eclipse.babel.build.core.reports.CoverageReport;
+import org.eclipse.babel.build.core.reports.HtmlCoverageReport;
+import org.eclipse.babel.build.core.reports.XmlCoverageReport;
+import org.eclipse.babel.build.core.translationcatalogue.TranslationCatalogue;
+import org.eclipse.babel.build.core.xml.Element;
+import org.eclipse.babel.build.core.xml.XmlWriter;
+import org.w3c.dom.Document;
+
+public class TestCoverageReportStreaming extends TestCase {
+    private static final int PLUGINS = 50;
+    private static final int RESOURCES = 20;
+
+    private File root;
+    private Set<LocaleProxy> locales;
+    private List<PluginProxy> plugins;
+    private LanguagePackCoverageReport coverage;
+    private TestConfiguration config;
+
+    @Override
+    protected void setUp() throws Exception {
+        root = File.createTempFile("coverage", "");
+        root.delete();
+        root.mkdir();
+
+        locales = new LinkedHashSet<LocaleProxy>();
+        locales.add(new LocaleProxy("de"));
+        locales.add(new LocaleProxy("fr"));
+        locales.add(new LocaleProxy("pt_BR"));
+        for (LocaleProxy locale : locales) {
+            // the translation catalogue expects a folder per locale
+            new File(root, locale.getName()).mkdir();
+        }
+
+        plugins = new ArrayList<PluginProxy>();
+        coverage = new LanguagePackCoverageReport(locales);
+        for (int p = 0; p < PLUGINS; p++) {
+            List<ResourceProxy> resources = new ArrayList<ResourceProxy>();
+            for (int r = 0; r < RESOURCES; r++) {
+                resources.add(new ResourceProxy("nl/messages" + r
+                        + ".properties"));
+            }
+            PluginProxy plugin = new PluginProxy(new File(root,
+                    "org.example.plugin" + p + "_1.0.0"), resources, false,
+                    false);
+            plugins.add(plugin);
+
+            PluginCoverageInformation info = new PluginCoverageInformation(
+                    plugin);
+            int l = 0;
+            for (LocaleProxy locale : locales) {
+                info.setPluginMatchingForLocale(locale, Boolean
+                        .valueOf((p + l) % 4 != 0));
+                for (int r = 0; r < RESOURCES; r++) {
+                    boolean matched = (p + r + l) % 3 != 0;
+                    info.setResourceCoverageForLocale(locale, resources.get(r),
+                            Boolean.valueOf(matched), matched ? (p * r + l) % 101
+                                    : 0);
+                }
+                l++;
+            }
+            coverage.addPluginCoverageToReport(info);
+        }
+
+        config = new TestConfiguration();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (File file : root.listFiles()) {
+            file.delete();
+        }
+        root.delete();
+    }
+
+    public void testXmlReport() throws Exception {
+        XmlCoverageReport report = new XmlCoverageReport(config, coverage);
+        assertSameOutput(report.build(), report);
+    }
+
+    public void testHtmlReport() throws Exception {
+        HtmlCoverageReport report = new HtmlCoverageReport(config, coverage);
+        assertSameOutput(report.build(), report);
+    }
+
+    public void testLongHtmlReport() throws Exception {
+        config.longReport = true;
+        HtmlCoverageReport report = new HtmlCoverageReport(config, coverage);
+        assertSameOutput(report.build(), report);
+    }
+
+    public void testEscaping() throws Exception {
+        List<ResourceProxy> resources = new ArrayList<ResourceProxy>();
+        resources.add(new ResourceProxy("nl/<a & \"b\">.properties"));
+        PluginProxy plugin = new PluginProxy(new File(root, "org.example_1.0.0"),
+                resources, false, false);
+        PluginCoverageInformation info = new PluginCoverageInformation(plugin);
+        for (LocaleProxy locale : locales) {
+            info.setPluginMatchingForLocale(locale, Boolean.TRUE);
+            info.setResourceCoverageForLocale(locale, resources.get(0),
+                    Boolean.TRUE, 100);
+        }
+        coverage = new LanguagePackCoverageReport(locales);
+        coverage.addPluginCoverageToReport(info);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new XmlCoverageReport(config, coverage).render(out);
+        Document document = DocumentBuilderFactory.newInstance()
+                .newDocumentBuilder().parse(
+                        new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("nl/<a & \"b\">.properties", document
+                .getElementsByTagName("resource").item(0).getAttributes()
+                .getNamedItem("location").getNodeValue());
+    }
+
+    private void assertSameOutput(Element tree, CoverageReport report)
+            throws Exception {
+        ByteArrayOutputStream built = new ByteArrayOutputStream();
+        tree.render(new XmlWriter(built));
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        report.render(streamed);
+
+        assertEquals(built.toString(), streamed.toString("UTF-8"));
+    }
+
+    private class TestConfiguration implements Configuration {
+        private final Date timestamp = new Date();
+        private final TranslationCatalogue translations;
+        private boolean longReport;
+
+        TestConfiguration() throws Exception {
+            translations = new TranslationCatalogue(root, locales);
+        }
+
+        public EclipseTarget eclipseInstall() {
+            return new EclipseTarget(plugins);
+        }
+
+        public TranslationCatalogue translations() {
+            return translations;
+        }
+
+        public Date timestamp() {
+            return timestamp;
+        }
+
+        public File workingDirectory() {
+            return root;
+        }
+
+        public boolean includePseudoTranslations() {
+            return false;
+        }
+
+        public Range compatibilityRange() {
+            return null;
+        }
+
+        public File reportLocation() {
+            return new File(root, "coverage.xml");
+        }
+
+        public boolean includeResource(PluginProxy plugin,
+                ResourceProxy resource) {
+            return !resource.getRelativePath().endsWith("0.properties");
+        }
+
+        public List<Filter> filters() {
+            return new ArrayList<Filter>();
+        }
+
+        public Set<LocaleProxy> locales() {
+            return locales;
+        }
+
+        public Set<LocaleGroup> localeGroups() {
+            return new HashSet<LocaleGroup>();
+        }
+
+        public Set<String> excludeList() {
+            return new HashSet<String>();
+        }
+
+        public void notifyProgress(String fragmentName) {
+        }
+
+        public boolean includeXmlReport() {
+            return true;
+        }
+
+        public boolean longReport() {
+            return longReport;
+        }
+
+        public boolean reproducible() {
+            return false;
+        }
+
+        public String localeExtension() {
+            return "";
+        }
+    }
+}
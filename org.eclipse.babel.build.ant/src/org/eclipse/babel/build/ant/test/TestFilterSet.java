@@ -0,0 +1,101 @@
+package org.eclipse.babel.build.ant.test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.build.core.Filter;
+import org.eclipse.babel.build.core.FilterSet;
+import org.eclipse.babel.build.core.PluginProxy;
+import org.eclipse.babel.build.core.ResourceProxy;
+
+public class TestFilterSet extends TestCase {
+    private static final String[] PATTERNS = { "^META-INF/.*", ".*\\.gif",
+            "org\\.eclipse\\.ui/icons/.*", "org.eclipse.jdt.ui/.*\\.html",
+            "org\\.eclipse\\.help/.*", "^org\\.eclipse\\.core\\.runtime/about\\.html",
+            "plugin\\.properties", "(a)\\1/.*", "org\\.eclipse\\.ui/*.*",
+            "org\\.eclipse\\.uix?/nl/.*", "foo/.*|.*/bar\\.txt", "" };
+
+    private static final String[] PLUGINS = { "org.eclipse.ui_3.4.0",
+            "org.eclipse.jdt.ui_3.4.0", "org.eclipse.help_3.3.0",
+            "org.eclipse.core.runtime_3.4.0", "org.eclipse.uix_1.0.0", "aa",
+            "foo", "org.eclipse.ui.workbench_3.4.0" };
+
+    private static final String[] RESOURCES = { "META-INF/MANIFEST.MF",
+            "icons/full/obj16/file.gif", "icons/sample.png", "about.html",
+            "doc/index.html", "plugin.properties", "nl/de/plugin.properties",
+            "org.eclipse.help/nested.txt", "foo/bar.txt", "x/bar.txt",
+            "plugin.xml", "aa/file" };
+
+    public void testSameResultAsFilters() {
+        List<Filter> filters = new ArrayList<Filter>();
+        for (String pattern : PATTERNS) {
+            filters.add(new Filter(pattern));
+        }
+        assertSameResult(filters);
+    }
+
+    public void testEachFilterAlone() {
+        for (String pattern : PATTERNS) {
+            assertSameResult(Arrays.asList(new Filter(pattern)));
+        }
+    }
+
+    public void testNoFilters() {
+        FilterSet set = new FilterSet(new ArrayList<Filter>());
+        assertTrue(set.includeResource(plugin("org.eclipse.ui_3.4.0"),
+                new ResourceProxy("plugin.xml")));
+    }
+
+    public void testInclusiveFilterTakesPrecedence() {
+        List<Filter> filters = new ArrayList<Filter>();
+        filters.add(new Filter("org\\.eclipse\\.ui/icons/keep\\.gif") {
+            @Override
+            public boolean isInclusive() {
+                return true;
+            }
+        });
+        filters.add(new Filter(".*\\.gif"));
+        FilterSet set = new FilterSet(filters);
+        PluginProxy plugin = plugin("org.eclipse.ui_3.4.0");
+        assertTrue(set.includeResource(plugin, new ResourceProxy(
+                "icons/keep.gif")));
+        assertFalse(set.includeResource(plugin, new ResourceProxy(
+                "icons/drop.gif")));
+        assertSameResult(filters);
+    }
+
+    private void assertSameResult(List<Filter> filters) {
+        FilterSet set = new FilterSet(filters);
+        for (String pluginName : PLUGINS) {
+            PluginProxy plugin = plugin(pluginName);
+            for (String path : RESOURCES) {
+                ResourceProxy resource = new ResourceProxy(path);
+                assertEquals(pluginName + "/" + path + " " + filters, Boolean
+                        .valueOf(includeResource(filters, plugin, resource)),
+                        Boolean.valueOf(set.includeResource(plugin, resource)));
+            }
+        }
+    }
+
+    /**
+     * The filters checked one after another, as the configurations used to.
+     */
+    private boolean includeResource(List<Filter> filters, PluginProxy plugin,
+            ResourceProxy resource) {
+        for (Filter filter : filters) {
+            if (filter.matches(plugin, resource)) {
+                return filter.isInclusive();
+            }
+        }
+        return true;
+    }
+
+    private PluginProxy plugin(String name) {
+        return new PluginProxy(new File(name), new ArrayList<ResourceProxy>(),
+                false, false);
+    }
+}
@@ -0,0 +1,124 @@
+package org.eclipse.babel.build.ant.test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarFile;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.build.core.CommandLineConfiguration;
+import org.eclipse.babel.build.core.languagepack.LanguagePack;
+
+public class TestIncrementalLanguagePack extends TestCase {
+    private static final String[] PLUGINS = { "org.example.a",
+            "org.example.b", "org.example.c" };
+
+    private File root;
+    private File eclipse;
+    private File translations;
+    private File work;
+
+    @Override
+    protected void setUp() throws Exception {
+        root = File.createTempFile("languagepack", "");
+        root.delete();
+        eclipse = new File(root, "install");
+        translations = new File(root, "translations");
+        work = new File(root, "work");
+
+        new File(eclipse, "eclipse/features").mkdirs();
+        for (String plugin : PLUGINS) {
+            write(new File(eclipse, "eclipse/plugins/" + plugin
+                    + "_1.0.0/plugin.properties"), "name=Name\n"
+                    + "description=Description\n");
+            write(new File(translations, "de/eclipse/plugins/" + plugin
+                    + "/plugin.properties"), "name=Name (de)\n");
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(root);
+    }
+
+    public void testFirstBuildGeneratesAllFragments() throws Exception {
+        assertEquals(PLUGINS.length, generate().size());
+    }
+
+    public void testUnchangedFragmentsAreCopied() throws Exception {
+        generate();
+        assertEquals(0, generate().size());
+        assertFragmentContains("org.example.a", "plugin_de.properties");
+        assertFragmentContains("org.example.b", "plugin_de.properties");
+        assertFragmentContains("org.example.c", "plugin_de.properties");
+    }
+
+    public void testChangedTranslationRegeneratesOneFragment()
+            throws Exception {
+        generate();
+        write(new File(translations,
+                "de/eclipse/plugins/org.example.b/plugin.properties"),
+                "name=Name (de)\ndescription=Beschreibung\n");
+
+        List<File> generated = generate();
+        assertEquals(Arrays.asList(fragment("org.example.b")), generated);
+        assertFragmentContains("org.example.a", "plugin_de.properties");
+        assertFragmentContains("org.example.c", "plugin_de.properties");
+    }
+
+    public void testInterruptedBuildRegeneratesAllFragments()
+            throws Exception {
+        generate();
+        new File(work, "fragments.sha256").delete();
+        assertEquals(PLUGINS.length, generate().size());
+    }
+
+    private List<File> generate() throws Exception {
+        CommandLineConfiguration config = new CommandLineConfiguration(
+                "--working-directory", work.getAbsolutePath(), "--locales",
+                "de", "--translation-archive", translations.getAbsolutePath(),
+                "--eclipse-archive", eclipse.getAbsolutePath());
+        LanguagePack languagePack = new LanguagePack(config);
+        languagePack.generate();
+        return languagePack.getGeneratedFragments();
+    }
+
+    private File fragment(String plugin) {
+        return new File(work.getAbsolutePath() + File.separator
+                + "eclipse/plugins/" + plugin + ".nl_de_1.0.0.jar");
+    }
+
+    private void assertFragmentContains(String plugin, String entry)
+            throws IOException {
+        JarFile jar = new JarFile(fragment(plugin));
+        try {
+            assertNotNull(jar.getEntry(entry));
+        } finally {
+            jar.close();
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("ISO-8859-1"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
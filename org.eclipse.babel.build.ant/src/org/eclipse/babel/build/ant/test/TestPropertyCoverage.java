@@ -0,0 +1,154 @@
+package org.eclipse.babel.build.ant.test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.build.core.CommandLineConfiguration;
+import org.eclipse.babel.build.core.LocaleProxy;
+import org.eclipse.babel.build.core.coverage.LanguagePackCoverageReport;
+import org.eclipse.babel.build.core.coverage.PluginCoverageInformation;
+import org.eclipse.babel.build.core.coverage.ResourceCoverageInformation;
+import org.eclipse.babel.build.core.languagepack.LanguagePack;
+
+public class TestPropertyCoverage extends TestCase {
+    private static final String PLUGIN = "org.example.a";
+    private static final String[] RESOURCES = { "plugin.properties",
+            "nl/messages.properties", "OSGI-INF/l10n/bundle.properties" };
+    private static final String[] LOCALES = { "de", "fr", "pt_BR", "ja" };
+    private static final String[] KEYS = { "one", "two", "three", "four",
+            "five", "six", "seven" };
+
+    private File root;
+    private File eclipse;
+    private File translations;
+
+    @Override
+    protected void setUp() throws Exception {
+        root = File.createTempFile("coverage", "");
+        root.delete();
+        eclipse = new File(root, "install");
+        translations = new File(root, "translations");
+
+        new File(eclipse, "eclipse/features").mkdirs();
+        for (int r = 0; r < RESOURCES.length; r++) {
+            write(new File(eclipse, "eclipse/plugins/" + PLUGIN + "_1.0.0/"
+                    + RESOURCES[r]), KEYS.length);
+            for (int l = 0; l < LOCALES.length; l++) {
+                // a different subset of the keys for every locale and
+                // resource, including translations with obsolete keys
+                write(new File(translations, LOCALES[l] + "/eclipse/plugins/"
+                        + PLUGIN + "/" + RESOURCES[r]), (r + 2 * l) % 9);
+            }
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(root);
+    }
+
+    public void testPercentagesMatchSequentialComputation() throws Exception {
+        LanguagePackCoverageReport report = generate();
+
+        assertEquals(1, report.getPluginCoverageReports().size());
+        PluginCoverageInformation plugin = report.getPluginCoverageReports()
+                .get(0);
+        for (String resource : RESOURCES) {
+            ResourceCoverageInformation info = plugin.getResourceCoverage()
+                    .get(resource);
+            assertNotNull(resource, info);
+            for (String locale : LOCALES) {
+                assertEquals(resource + " " + locale, Integer
+                        .valueOf(expectedCoverage(resource, locale)), info
+                        .getMatchedPercentageForLocale(new LocaleProxy(locale)));
+            }
+        }
+    }
+
+    public void testRepeatedBuildsGiveSamePercentages() throws Exception {
+        PluginCoverageInformation first = generate()
+                .getPluginCoverageReports().get(0);
+        PluginCoverageInformation second = generate()
+                .getPluginCoverageReports().get(0);
+
+        for (String resource : RESOURCES) {
+            for (String locale : LOCALES) {
+                LocaleProxy proxy = new LocaleProxy(locale);
+                assertEquals(first.getResourceCoverage().get(resource)
+                        .getMatchedPercentageForLocale(proxy), second
+                        .getResourceCoverage().get(resource)
+                        .getMatchedPercentageForLocale(proxy));
+            }
+        }
+    }
+
+    private LanguagePackCoverageReport generate() throws Exception {
+        CommandLineConfiguration config = new CommandLineConfiguration(
+                "--working-directory", new File(root, "work")
+                        .getAbsolutePath(), "--locales", "de,fr,pt_BR,ja",
+                "--translation-archive", translations.getAbsolutePath(),
+                "--eclipse-archive", eclipse.getAbsolutePath());
+        return new LanguagePack(config).generate();
+    }
+
+    /**
+     * Computes the coverage of a resource the way it was computed before the
+     * keys of the original resources were cached, one locale after another.
+     */
+    private int expectedCoverage(String resource, String locale)
+            throws IOException {
+        Set<Object> properties = new HashSet<Object>(load(
+                new File(eclipse, "eclipse/plugins/" + PLUGIN + "_1.0.0/"
+                        + resource)).keySet());
+        Properties translated = load(new File(translations, locale
+                + "/eclipse/plugins/" + PLUGIN + "/" + resource));
+
+        int initialSize = properties.size();
+        initialSize = initialSize < 1 ? 1 : initialSize;
+        properties.removeAll(translated.keySet());
+        return (100 * (initialSize - properties.size())) / initialSize;
+    }
+
+    private static Properties load(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        return properties;
+    }
+
+    private static void write(File file, int keys) throws IOException {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            for (int i = 0; i < keys; i++) {
+                String key = i < KEYS.length ? KEYS[i] : "obsolete" + i;
+                out.write((key + "=" + key + "\n").getBytes("ISO-8859-1"));
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,230 @@
+package org.eclipse.babel.build.ant.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.build.core.CommandLineConfiguration;
+import org.eclipse.babel.build.core.languagepack.LanguagePack;
+
+public class TestReproducibleLanguagePack extends TestCase {
+    private static final String PLUGIN = "org.example.a";
+    private static final String[] RESOURCES = { "plugin.properties",
+            "about.html", "nl/messages.properties",
+            "OSGI-INF/l10n/bundle.properties" };
+    private static final String[] LOCALES = { "fr", "de" };
+
+    private File root;
+    private File eclipse;
+    private File translations;
+
+    @Override
+    protected void setUp() throws Exception {
+        root = File.createTempFile("languagepack", "");
+        root.delete();
+        eclipse = new File(root, "install");
+        translations = new File(root, "translations");
+
+        new File(eclipse, "eclipse/features").mkdirs();
+        for (String resource : RESOURCES) {
+            write(new File(eclipse, "eclipse/plugins/" + PLUGIN + "_1.0.0/"
+                    + resource), "key=Value\n");
+            for (String locale : LOCALES) {
+                write(new File(translations, locale + "/eclipse/plugins/"
+                        + PLUGIN + "/" + resource), "key=Value (" + locale
+                        + ")\n");
+            }
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(root);
+    }
+
+    public void testSameInputsGiveIdenticalJars() throws Exception {
+        File first = generate("first");
+        File second = generate("second");
+
+        assertTrue(first.exists());
+        assertTrue(Arrays.equals(read(first), read(second)));
+    }
+
+    public void testEntriesAreSortedWithFixedTime() throws Exception {
+        JarFile jar = new JarFile(generate("work"));
+        try {
+            List<String> names = new ArrayList<String>();
+            long time = -1;
+            for (Enumeration<JarEntry> entries = jar.entries(); entries
+                    .hasMoreElements();) {
+                JarEntry entry = entries.nextElement();
+                names.add(entry.getName());
+                if (time == -1) {
+                    time = entry.getTime();
+                }
+                assertEquals(entry.getName(), time, entry.getTime());
+            }
+
+            assertEquals(JarFile.MANIFEST_NAME, names.remove(0));
+            List<String> sorted = new ArrayList<String>(names);
+            Collections.sort(sorted);
+            assertEquals(sorted, names);
+            assertTrue(names.contains("about.html"));
+            assertTrue(names.contains("nl/messages_de.properties"));
+        } finally {
+            jar.close();
+        }
+    }
+
+    public void testSameJarsInEveryTimeZone() throws Exception {
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            File utc = generate("utc");
+            TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+            File losAngeles = generate("los-angeles");
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+            File kolkata = generate("kolkata");
+
+            assertTrue(Arrays.equals(read(utc), read(losAngeles)));
+            assertTrue(Arrays.equals(read(utc), read(kolkata)));
+
+            // the entries hold the fixed time as UTC date and time
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            Calendar expected = new GregorianCalendar(1980,
+                    Calendar.FEBRUARY, 1);
+            JarFile jar = new JarFile(kolkata);
+            try {
+                assertEquals(expected.getTimeInMillis(), jar.getEntry(
+                        "about.html").getTime());
+            } finally {
+                jar.close();
+            }
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    public void testSourceDateEpochGivesSameJarsInEveryTimeZone()
+            throws Exception {
+        long epoch = 1300000000L;
+        File utc = generateInNewVm("utc", "UTC", epoch);
+        File losAngeles = generateInNewVm("los-angeles",
+                "America/Los_Angeles", epoch);
+
+        assertTrue(Arrays.equals(read(utc), read(losAngeles)));
+
+        TimeZone defaultZone = TimeZone.getDefault();
+        JarFile jar = new JarFile(losAngeles);
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            assertEquals(epoch * 1000, jar.getEntry("about.html").getTime());
+        } finally {
+            TimeZone.setDefault(defaultZone);
+            jar.close();
+        }
+    }
+
+    /**
+     * Generates the language pack in a new VM with the given default time
+     * zone and SOURCE_DATE_EPOCH.
+     */
+    private File generateInNewVm(String workDirectory, String zone,
+            long epoch) throws Exception {
+        File work = new File(root, workDirectory);
+        ProcessBuilder builder = new ProcessBuilder(new File(System
+                .getProperty("java.home"), "bin/java").getPath(),
+                "-Duser.timezone=" + zone, "-cp", System
+                        .getProperty("java.class.path"), getClass().getName(),
+                work.getPath(), eclipse.getPath(), translations.getPath());
+        builder.environment().put("SOURCE_DATE_EPOCH", Long.toString(epoch));
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        read(process.getInputStream());
+        assertEquals(0, process.waitFor());
+        return getJar(work);
+    }
+
+    /**
+     * Generates a language pack in the working directory given as the first
+     * argument from the Eclipse install and the translations given as the
+     * second and third.
+     */
+    public static void main(String[] args) throws Exception {
+        generate(new File(args[0]), new File(args[1]), new File(args[2]));
+    }
+
+    private File generate(String workDirectory) throws Exception {
+        File work = new File(root, workDirectory);
+        generate(work, eclipse, translations);
+        return getJar(work);
+    }
+
+    private static void generate(File work, File eclipse, File translations)
+            throws Exception {
+        CommandLineConfiguration config = new CommandLineConfiguration(
+                "--working-directory", work.getAbsolutePath(), "--locales",
+                "fr,de", "--translation-archive",
+                translations.getAbsolutePath(), "--eclipse-archive",
+                eclipse.getAbsolutePath(), "--reproducible");
+        new LanguagePack(config).generate();
+    }
+
+    private static File getJar(File work) {
+        return new File(work, "eclipse/plugins/" + PLUGIN + ".nl_1.0.0.jar");
+    }
+
+    private static byte[] read(File file) throws IOException {
+        return read(new FileInputStream(file));
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            byte[] buf = new byte[1024];
+            int len;
+            while ((len = in.read(buf)) > 0) {
+                bytes.write(buf, 0, len);
+            }
+        } finally {
+            in.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("ISO-8859-1"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
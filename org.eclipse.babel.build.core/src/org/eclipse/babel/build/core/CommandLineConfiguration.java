@@ -44,9 +44,11 @@ public class CommandLineConfiguration implements Configuration {
     private File report;
     private final Set<String> excludeList;
     private List<Filter> reportFilters;
+    private FilterSet reportFilterSet;
 
     private final boolean includeXmlReport;
     private final boolean longReport;
+    private final boolean reproducible;
     private String localeExtension;
 
     final static String TOKEN = Messages.getString("Characters_locale_token"); //$NON-NLS-1$
@@ -55,7 +57,8 @@ public class CommandLineConfiguration implements Configuration {
         Options opts = new Options("--working-directory=", "--locales=",
                 "--translation-archive=!", "--eclipse-archive=!",
                 "--coverage-report=", "--exclude-list=",
-                "--report-ignore-list=", "--xml", "--long-report").parse(args);
+                "--report-ignore-list=", "--xml", "--long-report",
+                "--reproducible").parse(args);
 
         Set<LocaleProxy> locales = helper.getLocales(opts.get("--locales"));
         Set<LocaleGroup> localeGroups = helper.getLocaleGroups(opts
@@ -77,9 +80,12 @@ public class CommandLineConfiguration implements Configuration {
         }
 
         reportFilters = buildFilterList(opts.get("--report-ignore-list", ""));
+        reportFilterSet = new FilterSet(reportFilters);
 
         includeXmlReport = opts.isSet("--xml");
         longReport = opts.isSet("--long-report");
+        reproducible = opts.isSet("--reproducible")
+                || helper.getSourceDateEpoch() != null;
 
         localeExtension = "";
         if (this.locales.size() == 1 && this.localeGroups.isEmpty()) {
@@ -147,12 +153,7 @@ public class CommandLineConfiguration implements Configuration {
     }
 
     public boolean includeResource(PluginProxy plugin, ResourceProxy resource) {
-        for (Filter filter : reportFilters) {
-            if (filter.matches(plugin, resource)) {
-                return filter.isInclusive();
-            }
-        }
-        return true;
+        return reportFilterSet.includeResource(plugin, resource);
     }
 
     public Set<LocaleProxy> locales() {
@@ -233,6 +234,10 @@ public class CommandLineConfiguration implements Configuration {
         return longReport;
     }
 
+    public boolean reproducible() {
+        return reproducible;
+    }
+
     public final String localeExtension() {
         return localeExtension;
     }
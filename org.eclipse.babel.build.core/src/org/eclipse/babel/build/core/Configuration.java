@@ -31,6 +31,12 @@ import org.eclipse.babel.build.core.translationcatalogue.TranslationCatalogue;
  */
 public interface Configuration {
     public static class helper {
+        /**
+         * The environment variable holding the time reproducible builds use
+         * for their output, in seconds since the epoch.
+         */
+        public static final String SOURCE_DATE_EPOCH = "SOURCE_DATE_EPOCH"; //$NON-NLS-1$
+
         /**
          * This class should not be instantiated.
          */
@@ -118,6 +124,26 @@ public interface Configuration {
             return locales;
         }
 
+        /**
+         * Retrieves the time set in the {@link #SOURCE_DATE_EPOCH}
+         * environment variable.
+         * 
+         * @return The time in milliseconds since the epoch, or
+         *         <code>null</code> if the variable is not set to a number.
+         */
+        public static Long getSourceDateEpoch() {
+            String value = System.getenv(SOURCE_DATE_EPOCH);
+            if (value == null) {
+                return null;
+            }
+
+            try {
+                return Long.valueOf(Long.parseLong(value.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
         public static Set<LocaleGroup> getLocaleGroups(String specifier) {
             Set<LocaleGroup> set = new HashSet<LocaleGroup>();
             if (null == specifier) {
@@ -259,5 +285,15 @@ public interface Configuration {
 
     public boolean longReport();
 
+    /**
+     * Retrieve whether the generated jars should be reproducible, so that the
+     * same inputs always lead to the same bytes: entries are sorted by name,
+     * stamped with the time from {@link helper#getSourceDateEpoch()} (or a
+     * fixed time) and the manifest attributes are written in a fixed order.
+     * 
+     * @return Whether or not to generate reproducible jars.
+     */
+    public boolean reproducible();
+
     public String localeExtension();
 }
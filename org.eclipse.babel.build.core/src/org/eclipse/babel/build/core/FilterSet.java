@@ -0,0 +1,214 @@
+package org.eclipse.babel.build.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * An ordered list of {@link Filter}s, evaluated the same way as checking each
+ * filter in turn: the first filter matching a resource decides whether it is
+ * included, and resources no filter matches are included.
+ *
+ * Rather than running two regular expressions per filter and resource, the
+ * patterns of consecutive filters that agree on {@link Filter#isInclusive()}
+ * are joined into one alternation. Patterns that begin with a literal plugin
+ * name followed by '/' can only match resources of that plugin; they are kept
+ * in a separate pattern per plugin name, which is only run for the resources
+ * of that plugin.
+ */
+public class FilterSet {
+    private static final Pattern BACK_REFERENCE = Pattern
+            .compile("\\\\(\\d|k<)");
+
+    private final List<Group> groups = new ArrayList<Group>();
+
+    public FilterSet(List<Filter> filters) {
+        int start = 0;
+        while (start < filters.size()) {
+            boolean inclusive = filters.get(start).isInclusive();
+            int end = start + 1;
+            while (end < filters.size()
+                    && filters.get(end).isInclusive() == inclusive) {
+                end++;
+            }
+            groups.add(new Group(filters.subList(start, end), inclusive));
+            start = end;
+        }
+    }
+
+    /**
+     * Determines whether the given resource passes the filters.
+     *
+     * @param plugin
+     *            The plugin containing the resource.
+     * @param resource
+     *            The resource in question.
+     * @return The {@link Filter#isInclusive()} value of the first filter
+     *         matching the resource, or <code>true</code> if none does.
+     */
+    public boolean includeResource(PluginProxy plugin, ResourceProxy resource) {
+        String relativePath = resource.getRelativePath();
+        String absolutePath = plugin.getName() + "/" + relativePath;
+        for (Group group : groups) {
+            if (group.matches(plugin.getName(), relativePath, absolutePath)) {
+                return group.inclusive;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the plugin name a pattern starts with, if it can only match paths
+     * starting with that name and a '/'.
+     *
+     * @param pattern
+     *            The regular expression of a filter.
+     * @return The plugin name, or <code>null</code> if the pattern does not
+     *         start with a literal name.
+     */
+    static String getPluginPrefix(String pattern) {
+        if (pattern.indexOf('|') >= 0) {
+            // an alternative could match anything
+            return null;
+        }
+        StringBuilder name = new StringBuilder();
+        int i = pattern.startsWith("^") ? 1 : 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < pattern.length()
+                    && pattern.charAt(i + 1) == '.') {
+                c = '.';
+                i++;
+            } else if (c == '/') {
+                if (i + 1 < pattern.length()
+                        && isQuantifier(pattern.charAt(i + 1))) {
+                    return null;
+                }
+                break;
+            } else if (!Character.isLetterOrDigit(c) && c != '_' && c != '-') {
+                return null;
+            }
+            if (i + 1 < pattern.length()
+                    && isQuantifier(pattern.charAt(i + 1))) {
+                return null;
+            }
+            name.append(c);
+            i++;
+        }
+        if (i >= pattern.length() || name.length() == 0) {
+            return null;
+        }
+        return name.toString();
+    }
+
+    private static boolean isQuantifier(char c) {
+        return c == '*' || c == '?' || c == '+' || c == '{';
+    }
+
+    /**
+     * Consecutive filters with the same inclusiveness, which may be tested
+     * in any order.
+     */
+    private static class Group {
+        private final boolean inclusive;
+        private final List<Pattern> anyPlugin = new ArrayList<Pattern>();
+        private final Map<String, List<Pattern>> byPlugin = new HashMap<String, List<Pattern>>();
+
+        Group(List<Filter> filters, boolean inclusive) {
+            this.inclusive = inclusive;
+
+            List<String> common = new ArrayList<String>();
+            Map<String, List<String>> bucketed = new LinkedHashMap<String, List<String>>();
+            for (Filter filter : filters) {
+                String pattern = filter.getPattern();
+                if (BACK_REFERENCE.matcher(pattern).find()) {
+                    // group numbers change when joined with other patterns
+                    anyPlugin.add(Pattern.compile(pattern));
+                    continue;
+                }
+                String plugin = getPluginPrefix(pattern);
+                if (plugin == null) {
+                    common.add(pattern);
+                } else {
+                    List<String> patterns = bucketed.get(plugin);
+                    if (patterns == null) {
+                        patterns = new ArrayList<String>();
+                        bucketed.put(plugin, patterns);
+                    }
+                    patterns.add(pattern);
+                }
+            }
+            anyPlugin.addAll(join(common));
+            for (Map.Entry<String, List<String>> entry : bucketed.entrySet()) {
+                byPlugin.put(entry.getKey(), join(entry.getValue()));
+            }
+        }
+
+        boolean matches(String pluginName, String relativePath,
+                String absolutePath) {
+            for (Pattern pattern : anyPlugin) {
+                if (pattern.matcher(relativePath).matches()
+                        || pattern.matcher(absolutePath).matches()) {
+                    return true;
+                }
+            }
+            if (byPlugin.isEmpty()) {
+                return false;
+            }
+            if (matchesAny(byPlugin.get(pluginName), absolutePath)) {
+                return true;
+            }
+            // the relative path may itself start with a plugin name
+            int slash = relativePath.indexOf('/');
+            return slash > 0
+                    && matchesAny(byPlugin.get(relativePath.substring(0,
+                            slash)), relativePath);
+        }
+
+        private static boolean matchesAny(List<Pattern> patterns, String path) {
+            if (patterns != null) {
+                for (Pattern pattern : patterns) {
+                    if (pattern.matcher(path).matches()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Compiles the patterns into a single alternation, or separately if
+         * they cannot be combined.
+         */
+        private static List<Pattern> join(List<String> patterns) {
+            List<Pattern> compiled = new ArrayList<Pattern>();
+            if (patterns.isEmpty()) {
+                return compiled;
+            }
+            if (patterns.size() == 1) {
+                compiled.add(Pattern.compile(patterns.get(0)));
+                return compiled;
+            }
+            StringBuilder alternation = new StringBuilder();
+            for (String pattern : patterns) {
+                if (alternation.length() > 0) {
+                    alternation.append('|');
+                }
+                alternation.append("(?:").append(pattern).append(')');
+            }
+            try {
+                compiled.add(Pattern.compile(alternation.toString()));
+            } catch (PatternSyntaxException e) {
+                // e.g. the same group name used by two patterns
+                for (String pattern : patterns) {
+                    compiled.add(Pattern.compile(pattern));
+                }
+            }
+            return compiled;
+        }
+    }
+}
@@ -59,9 +59,11 @@ public class LazyConfiguration implements Configuration {
     private boolean includePseudoTranslations = false;
     private boolean includeXmlReport = false;
     private boolean longReport = false;
+    private boolean reproducible = helper.getSourceDateEpoch() != null;
     private String localeExtension;
 
     private final List<Filter> filters = new LinkedList<Filter>();
+    private FilterSet filterSet;
     private final Set<LocaleProxy> locales = new HashSet<LocaleProxy>();
     private final Set<LocaleGroup> localeGroups = new HashSet<LocaleGroup>();
     private final Set<String> excludeList = new HashSet<String>();
@@ -126,6 +128,7 @@ public class LazyConfiguration implements Configuration {
                     "setX methods cannot be called once the instance has been validated.");
         }
         this.filters.addAll(filters);
+        filterSet = null;
     }
 
     public boolean includePseudoTranslations() {
@@ -152,13 +155,10 @@ public class LazyConfiguration implements Configuration {
                     "LazyConfiguration must be validated before this method may be called");
         }
 
-        for (Filter filter : filters) {
-            if (filter.matches(plugin, resource)) {
-                return filter.isInclusive();
-            }
+        if (filterSet == null) {
+            filterSet = new FilterSet(filters);
         }
-
-        return true;
+        return filterSet.includeResource(plugin, resource);
     }
 
     public Set<LocaleProxy> locales() {
@@ -312,6 +312,7 @@ public class LazyConfiguration implements Configuration {
 
     public void addFilter(Filter filter) {
         filters.add(filter);
+        filterSet = null;
     }
 
     public void notifyProgress(String fragmentName) {
@@ -354,6 +355,24 @@ public class LazyConfiguration implements Configuration {
         this.longReport = longReport;
     }
 
+    public boolean reproducible() {
+        if (!isValidated()) {
+            throw new IllegalStateException(
+                    "LazyConfiguration must be validated before this method may be called");
+        }
+
+        return reproducible;
+    }
+
+    public void setReproducible(boolean reproducible) {
+        if (isValidated()) {
+            throw new IllegalStateException(
+                    "setX methods cannot be called once the instance has been validated.");
+        }
+
+        this.reproducible = reproducible;
+    }
+
     public String localeExtension() {
         if (!isValidated()) {
             throw new IllegalStateException(
@@ -0,0 +1,246 @@
+package org.eclipse.babel.build.core.languagepack;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.eclipse.babel.build.core.Messages;
+
+/**
+ * Records a SHA-256 digest of the inputs of every NL fragment generated in a
+ * working directory, so that the next build can copy a fragment from the
+ * previous language pack instead of generating it again when its inputs have
+ * not changed.
+ *
+ * The manifest is deleted when a build starts and only written back once the
+ * build completes, so an interrupted build leads to a full rebuild rather
+ * than to reusing fragments nobody has recorded a digest for.
+ */
+class FragmentManifest {
+
+    static final String FILE_NAME = "fragments.sha256"; //$NON-NLS-1$
+    private static final String PREVIOUS_SUFFIX = ".previous"; //$NON-NLS-1$
+
+    private final File workDirectory;
+    private final File languagePackDirectory;
+    private final File previousDirectory;
+    private final Properties previousDigests = new Properties();
+    private final Properties digests = new Properties();
+    private final List<File> generated = new ArrayList<File>();
+
+    FragmentManifest(File workDirectory) {
+        this.workDirectory = workDirectory;
+        this.languagePackDirectory = new File(workDirectory,
+                Messages.getString("Paths_eclipse_directory_name")); //$NON-NLS-1$
+        this.previousDirectory = new File(workDirectory,
+                languagePackDirectory.getName() + PREVIOUS_SUFFIX);
+    }
+
+    /**
+     * Loads the digests of the previous build and moves its language pack
+     * aside, where fragments can be copied from. If there is no manifest, or
+     * the language pack cannot be moved, nothing will be reused.
+     */
+    void preparePreviousBuild() throws IOException {
+        File manifest = new File(workDirectory, FILE_NAME);
+        deleteDirectory(previousDirectory);
+        if (!manifest.exists() || !languagePackDirectory.exists()) {
+            manifest.delete();
+            return;
+        }
+
+        InputStream in = new FileInputStream(manifest);
+        try {
+            previousDigests.load(in);
+        } finally {
+            in.close();
+        }
+        manifest.delete();
+
+        if (!languagePackDirectory.renameTo(previousDirectory)) {
+            previousDigests.clear();
+        }
+    }
+
+    /**
+     * Records the digest of a fragment's inputs and, if the previous build
+     * generated the same fragment from the same inputs, copies it.
+     *
+     * @param fragment
+     *            The jar or directory of the fragment in the language pack.
+     * @param digest
+     *            The digest of the fragment's inputs.
+     * @return <code>true</code> if the previous fragment was copied, or
+     *         <code>false</code> if the fragment has to be generated.
+     */
+    boolean reuse(File fragment, String digest) {
+        String key = getKey(fragment);
+        digests.setProperty(key, digest);
+
+        File previous = new File(previousDirectory, key);
+        if (digest.equals(previousDigests.getProperty(key))
+                && previous.exists()) {
+            try {
+                copy(previous, fragment);
+                return true;
+            } catch (IOException e) {
+                // The fragment is generated again instead
+                deleteDirectory(fragment);
+            }
+        }
+        generated.add(fragment);
+        return false;
+    }
+
+    /**
+     * Writes the recorded digests and deletes the previous language pack.
+     */
+    void save() throws IOException {
+        OutputStream out = new FileOutputStream(new File(workDirectory,
+                FILE_NAME));
+        try {
+            digests.store(out, null);
+        } finally {
+            out.close();
+        }
+        deleteDirectory(previousDirectory);
+    }
+
+    /**
+     * @return The fragments generated rather than copied from the previous
+     *         build.
+     */
+    List<File> getGeneratedFragments() {
+        return Collections.unmodifiableList(generated);
+    }
+
+    private String getKey(File fragment) {
+        String path = fragment.getAbsolutePath().substring(
+                languagePackDirectory.getAbsolutePath().length() + 1);
+        return path.replace(File.separatorChar, '/');
+    }
+
+    private static void copy(File source, File target) throws IOException {
+        if (source.isDirectory()) {
+            target.mkdirs();
+            for (File child : source.listFiles()) {
+                copy(child, new File(target, child.getName()));
+            }
+            return;
+        }
+
+        InputStream in = new FileInputStream(source);
+        try {
+            OutputStream out = new FileOutputStream(target);
+            try {
+                byte[] buf = new byte[8192];
+                int len;
+                while ((len = in.read(buf)) > 0) {
+                    out.write(buf, 0, len);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+        target.setLastModified(source.lastModified());
+    }
+
+    private static boolean deleteDirectory(File path) {
+        if (path.isDirectory()) {
+            for (File file : path.listFiles()) {
+                deleteDirectory(file);
+            }
+        }
+        return path.delete();
+    }
+
+    /**
+     * Accumulates the inputs of one fragment into a SHA-256 digest.
+     */
+    static class Digest {
+        private final MessageDigest digest;
+
+        Digest() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void update(String value) {
+            try {
+                digest.update(value.getBytes("UTF-8")); //$NON-NLS-1$
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            digest.update((byte) 0);
+        }
+
+        /**
+         * Adds the content of a file.
+         */
+        void updateContent(File file) throws IOException {
+            InputStream in = new FileInputStream(file);
+            try {
+                byte[] buf = new byte[8192];
+                int len;
+                while ((len = in.read(buf)) > 0) {
+                    digest.update(buf, 0, len);
+                }
+            } finally {
+                in.close();
+            }
+            digest.update((byte) 0);
+        }
+
+        /**
+         * Adds the content of the given file or, if it does not exist, the
+         * path, size and modification time of the nearest existing file
+         * containing it (a resource inside a jar plug-in or an Eclipse
+         * archive).
+         */
+        void updateResource(File file) throws IOException {
+            if (file.isFile()) {
+                updateContent(file);
+                return;
+            }
+            File existing = file.getAbsoluteFile();
+            while (existing != null && !existing.exists()) {
+                existing = existing.getParentFile();
+            }
+            if (existing == null) {
+                update(file.getAbsolutePath());
+                return;
+            }
+            update(existing.getAbsolutePath());
+            update(Long.toString(existing.length()));
+            update(Long.toString(existing.lastModified()));
+        }
+
+        /**
+         * Completes the digest.
+         *
+         * @return The digest as a hexadecimal string.
+         */
+        String finish() {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        }
+    }
+}
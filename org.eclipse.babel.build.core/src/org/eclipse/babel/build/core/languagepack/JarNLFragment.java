@@ -15,15 +15,32 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
 
 import org.eclipse.babel.build.core.Configuration;
 import org.eclipse.babel.build.core.LocaleProxy;
@@ -44,14 +61,38 @@ import org.eclipse.babel.build.core.translationcatalogue.TranslationCatalogue;
  */
 public class JarNLFragment implements NLFragment {
 
+    private static final byte[] CRLF = { '\r', '\n' };
+
     private File directory;
     private PluginProxy eclipseInstallPlugin;
 
     private Map<String, Set<Object>> propertiesMap = new HashMap<String, Set<Object>>();
+    private final ConcurrentMap<String, Set<Object>> originalKeys = new ConcurrentHashMap<String, Set<Object>>();
     private FragmentEclipseTargetMediator mediator;
+    private FragmentManifest previousBuild;
+    private ExecutorService executor;
 
     public JarNLFragment(File directory, PluginProxy eclipseInstallPlugin,
             EclipseTarget eclipseTarget) throws Exception {
+        this(directory, eclipseInstallPlugin, eclipseTarget, null, null);
+    }
+
+    /**
+     * @param previousBuild
+     *            The digests of the previous build, to copy the fragment from
+     *            if its inputs have not changed, or <code>null</code> to
+     *            always generate it.
+     * @param executor
+     *            The executor of the language pack build to compute the
+     *            property coverage of the locales on, or <code>null</code> to
+     *            compute it on the calling thread. It is not shut down by the
+     *            fragment.
+     */
+    JarNLFragment(File directory, PluginProxy eclipseInstallPlugin,
+            EclipseTarget eclipseTarget, FragmentManifest previousBuild,
+            ExecutorService executor) throws Exception {
+        this.previousBuild = previousBuild;
+        this.executor = executor;
         this.directory = new File(directory.getAbsolutePath() + JAR_EXTENSION);
         this.eclipseInstallPlugin = eclipseInstallPlugin;
         if (eclipseTarget.isArchive()) {
@@ -81,9 +122,11 @@ public class JarNLFragment implements NLFragment {
         Map<String, PluginProxy> translationCataloguePluginMap = getPluginOrFeatureForSpecifiedLocales(
                 config, eclipseInstallPlugin);
 
-        // The output stream that will be used to write to the jar nl fragment
-        JarOutputStream out = null;
-        FileOutputStream fileOut = null;
+        // The entries of the jar nl fragment, in the order they are written
+        List<Entry> entries = new ArrayList<Entry>();
+
+        // The properties files whose coverage is computed for each locale
+        Map<LocaleProxy, LocaleCoverage> propertyCoverage = new LinkedHashMap<LocaleProxy, LocaleCoverage>();
 
         PluginCoverageInformation coverage = new PluginCoverageInformation(
                 eclipseInstallPlugin);
@@ -114,14 +157,8 @@ public class JarNLFragment implements NLFragment {
                         if (resource.getRelativePath().equalsIgnoreCase(
                                 ABOUT_FILE)
                                 && !aboutAdded) {
-                            if (out == null) {
-                                fileOut = new FileOutputStream(directory);
-                                out = new JarOutputStream(fileOut,
-                                        composeManifestContent(config
-                                                .localeExtension()));
-                            }
-                            aboutAdded = mediator.writeAboutHtmlFile(
-                                    resource.getFileResource(), out);
+                            entries.add(new Entry(ABOUT_FILE, resource, null));
+                            aboutAdded = true;
                         }
                         // Want to make sure that this block of code is not
                         // executed for a Manifest file
@@ -132,24 +169,27 @@ public class JarNLFragment implements NLFragment {
                                             translationArchivePlugin, resource);
 
                             if (translationResource != null) {
-                                if (out == null) {
-                                    fileOut = new FileOutputStream(directory);
-                                    out = new JarOutputStream(fileOut,
-                                            composeManifestContent(config
-                                                    .localeExtension()));
-                                }
-                                writeResource(out, translationResource, locale);
+                                entries.add(new Entry(getEntryName(
+                                        translationResource, locale),
+                                        translationResource, locale));
 
                                 if (resource
                                         .getRelativePath()
                                         .endsWith(
                                                 Messages.getString("Extensions_properties"))) { //$NON-NLS-1$
                                     // If the resource is a properties file,
-                                    // then compute property coverage
-                                    int value = computePropertyCoverageForLocale(
-                                            resource, translationResource);
-                                    coverage.setResourceCoverageForLocale(
-                                            locale, resource, true, value);
+                                    // then compute property coverage along
+                                    // with the other resources of the locale
+                                    LocaleCoverage localeCoverage = propertyCoverage
+                                            .get(locale);
+                                    if (localeCoverage == null) {
+                                        localeCoverage = new LocaleCoverage(
+                                                locale);
+                                        propertyCoverage.put(locale,
+                                                localeCoverage);
+                                    }
+                                    localeCoverage.add(resource,
+                                            translationResource);
                                 } else {
                                     // Mark that this resource has been matched
                                     // for this locale
@@ -168,10 +208,17 @@ public class JarNLFragment implements NLFragment {
                 coverage.setPluginMatchingForLocale(locale,
                         pluginIsMatchedToThisLocale);
             }
-            // Complete the ZIP file
-            if (out != null) {
-                out.close();
-                fileOut.close();
+
+            computePropertyCoverage(propertyCoverage.values(), coverage);
+
+            if (config.reproducible()) {
+                Collections.sort(entries);
+            }
+
+            if (!entries.isEmpty()
+                    && (previousBuild == null || !previousBuild.reuse(directory,
+                            computeInputDigest(entries, config)))) {
+                writeFragment(entries, config);
             }
         } catch (IOException e) {
             System.out.println(e.getMessage());
@@ -180,6 +227,92 @@ public class JarNLFragment implements NLFragment {
         return coverage;
     }
 
+    /**
+     * Computes the digest of everything the fragment is generated from: the
+     * plug-in it belongs to, the content of the translated resources and the
+     * locales they are written for.
+     */
+    private String computeInputDigest(List<Entry> entries,
+            Configuration config) throws IOException {
+        FragmentManifest.Digest digest = new FragmentManifest.Digest();
+        digest.update(eclipseInstallPlugin.getName());
+        digest.update(eclipseInstallPlugin.getVersion());
+        digest.update(config.localeExtension());
+        if (config.reproducible()) {
+            digest.update(Long.toString(getEntryTime()));
+        }
+        for (Entry entry : entries) {
+            if (entry.locale == null) {
+                // The about.html file is copied from the plug-in
+                digest.update(ABOUT_FILE);
+                digest.updateResource(entry.resource.getFileResource());
+            } else {
+                digest.update(entry.locale.getName());
+                digest.update(entry.resource.getRelativePath());
+                digest.updateContent(entry.resource.getFileResource());
+            }
+        }
+        return digest.finish();
+    }
+
+    private void writeFragment(List<Entry> entries, Configuration config)
+            throws Exception {
+        Manifest manifest = composeManifestContent(config.localeExtension());
+        FileOutputStream fileOut = new FileOutputStream(directory);
+        JarOutputStream out;
+        if (config.reproducible()) {
+            out = new ReproducibleJarOutputStream(fileOut, manifest,
+                    getEntryTime());
+        } else {
+            out = new JarOutputStream(fileOut, manifest);
+        }
+        try {
+            for (Entry entry : entries) {
+                if (entry.locale == null) {
+                    mediator.writeAboutHtmlFile(
+                            entry.resource.getFileResource(), out);
+                } else {
+                    writeResource(out, entry.resource, entry.locale);
+                }
+            }
+        } finally {
+            // Complete the ZIP file
+            out.close();
+            fileOut.close();
+        }
+    }
+
+    /**
+     * Computes the property coverage of every locale in a task of its own and
+     * records the results once all tasks are done.
+     */
+    private void computePropertyCoverage(Collection<LocaleCoverage> locales,
+            PluginCoverageInformation coverage) throws Exception {
+        if (executor != null && locales.size() > 1) {
+            for (Future<LocaleCoverage> result : executor.invokeAll(locales)) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+        } else {
+            for (LocaleCoverage locale : locales) {
+                locale.call();
+            }
+        }
+
+        for (LocaleCoverage locale : locales) {
+            for (int i = 0; i < locale.resources.size(); i++) {
+                coverage.setResourceCoverageForLocale(locale.locale,
+                        locale.resources.get(i), true, locale.values[i]);
+            }
+        }
+    }
+
     private int computePropertyCoverageForLocale(
             ResourceProxy eclipseTargetResource,
             ResourceProxy translationResource) throws Exception {
@@ -187,15 +320,37 @@ public class JarNLFragment implements NLFragment {
         InputStream transIn = new FileInputStream(
                 translationResource.getFileResource());
         Properties transProperty = new Properties();
-        transProperty.load(transIn);
+        try {
+            transProperty.load(transIn);
+        } finally {
+            transIn.close();
+        }
+
+        // The set of properties within the eclipse target resource
+        Set<Object> properties = new HashSet<Object>(
+                getOriginalKeys(eclipseTargetResource));
 
-        // Load the set of properties within the eclipse target resource
-        Set<Object> properties;
+        // Compute the amount of eclipse target resource properties covered by
+        // the translation resource
+        int initialSize = properties.size();
+        initialSize = initialSize < 1 ? 1 : initialSize;
+        properties.removeAll(transProperty.keySet());
+        return (100 * (initialSize - properties.size())) / initialSize;
+    }
+
+    /**
+     * Returns the keys of a properties file of the eclipse target plug-in,
+     * which are loaded once for all locales.
+     */
+    private Set<Object> getOriginalKeys(ResourceProxy eclipseTargetResource)
+            throws Exception {
+        String path = eclipseTargetResource.getCanonicalPath();
         if (this.eclipseInstallPlugin.isJar()) {
-            properties = new HashSet<Object>(
-                    this.propertiesMap.get(eclipseTargetResource
-                            .getCanonicalPath()));
-        } else {
+            return this.propertiesMap.get(path);
+        }
+
+        Set<Object> keys = originalKeys.get(path);
+        if (keys == null) {
             InputStream in = mediator
                     .getResourceAsStream(eclipseTargetResource);
             Properties property = new Properties();
@@ -203,16 +358,13 @@ public class JarNLFragment implements NLFragment {
                 property.load(in);
                 in.close();
             }
-            properties = new HashSet<Object>(property.keySet());
+            keys = new HashSet<Object>(property.keySet());
+            Set<Object> loaded = originalKeys.putIfAbsent(path, keys);
+            if (loaded != null) {
+                keys = loaded;
+            }
         }
-        transIn.close();
-
-        // Compute the amount of eclipse target resource properties covered by
-        // the translation resource
-        int initialSize = properties.size();
-        initialSize = initialSize < 1 ? 1 : initialSize;
-        properties.removeAll(transProperty.keySet());
-        return (100 * (initialSize - properties.size())) / initialSize;
+        return keys;
     }
 
     private Manifest composeManifestContent(String localeExtension)
@@ -257,6 +409,55 @@ public class JarNLFragment implements NLFragment {
         return manifest;
     }
 
+    /**
+     * Returns the time given to the entries of reproducible jars: the time in
+     * the SOURCE_DATE_EPOCH environment variable or, if it is not set, a
+     * fixed time in UTC.
+     */
+    private static long getEntryTime() {
+        Long epoch = Configuration.helper.getSourceDateEpoch();
+        if (epoch != null) {
+            return epoch.longValue();
+        }
+        Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC")); //$NON-NLS-1$
+        calendar.clear();
+        calendar.set(1980, Calendar.FEBRUARY, 1);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * Writes the main attributes of the manifest with the manifest version
+     * first and the others sorted by name, instead of in the order of the
+     * manifest's hash map.
+     */
+    private static void writeManifest(Manifest manifest, OutputStream out)
+            throws IOException {
+        Attributes attributes = manifest.getMainAttributes();
+        List<String> names = new ArrayList<String>();
+        for (Object name : attributes.keySet()) {
+            if (!Attributes.Name.MANIFEST_VERSION.equals(name)) {
+                names.add(name.toString());
+            }
+        }
+        Collections.sort(names);
+        names.add(0, Attributes.Name.MANIFEST_VERSION.toString());
+
+        for (String name : names) {
+            byte[] header = (name + ": " + attributes.getValue(name)) //$NON-NLS-1$
+                    .getBytes("UTF-8"); //$NON-NLS-1$
+            // Lines are at most 72 bytes, continued after a space
+            int length = Math.min(header.length, 72);
+            out.write(header, 0, length);
+            for (int i = length; i < header.length; i += 71) {
+                out.write(CRLF);
+                out.write(' ');
+                out.write(header, i, Math.min(header.length - i, 71));
+            }
+            out.write(CRLF);
+        }
+        out.write(CRLF);
+    }
+
     private boolean writeResource(JarOutputStream out,
             ResourceProxy translationResource, LocaleProxy locale) {
         try {
@@ -264,14 +465,9 @@ public class JarNLFragment implements NLFragment {
             FileInputStream in = new FileInputStream(new File(
                     translationResource.getFileResource().getAbsolutePath()));
 
-            // The path of the resource entry in the language pack
-            String temp = determineTranslatedResourceName(translationResource,
-                    locale);
-            temp = temp.replace(File.separator,
-                    Messages.getString("Characters_entry_separator")); //$NON-NLS-1$
-
             // Add ZIP entry to output stream.
-            out.putNextEntry(new JarEntry(temp));
+            out.putNextEntry(new JarEntry(getEntryName(translationResource,
+                    locale)));
 
             // Transfer bytes from the translation archive file to the new
             // language pack ZIP file
@@ -290,6 +486,17 @@ public class JarNLFragment implements NLFragment {
         }
     }
 
+    /**
+     * Returns the path of the resource entry in the language pack.
+     */
+    private String getEntryName(ResourceProxy translationResource,
+            LocaleProxy locale) {
+        String name = determineTranslatedResourceName(translationResource,
+                locale);
+        return name.replace(File.separator,
+                Messages.getString("Characters_entry_separator")); //$NON-NLS-1$
+    }
+
     public String determineTranslatedResourceName(ResourceProxy resource,
             LocaleProxy locale) {
         String resourceName = resource.getRelativePath();
@@ -320,6 +527,96 @@ public class JarNLFragment implements NLFragment {
         }
         return config.translations().getPluginForSpecifiedLocales(plugin);
     }
+    /**
+     * A resource to be written to the fragment, either a translated resource
+     * for a locale or, without a locale, the plug-in's about.html file.
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final String name;
+        private final ResourceProxy resource;
+        private final LocaleProxy locale;
+
+        Entry(String name, ResourceProxy resource, LocaleProxy locale) {
+            this.name = name;
+            this.resource = resource;
+            this.locale = locale;
+        }
+
+        public int compareTo(Entry other) {
+            return name.compareTo(other.name);
+        }
+    }
+
+    /**
+     * The properties files of the plug-in translated for one locale, whose
+     * property coverage is computed by {@link #call()}.
+     */
+    private class LocaleCoverage implements Callable<LocaleCoverage> {
+        private final LocaleProxy locale;
+        private final List<ResourceProxy> resources = new ArrayList<ResourceProxy>();
+        private final List<ResourceProxy> translations = new ArrayList<ResourceProxy>();
+        private int[] values;
+
+        LocaleCoverage(LocaleProxy locale) {
+            this.locale = locale;
+        }
+
+        void add(ResourceProxy resource, ResourceProxy translationResource) {
+            resources.add(resource);
+            translations.add(translationResource);
+        }
+
+        public LocaleCoverage call() throws Exception {
+            values = new int[resources.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = computePropertyCoverageForLocale(resources.get(i),
+                        translations.get(i));
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Writes the manifest in a fixed order and gives every entry the same
+     * time, dropping the extra fields and comments of entries copied from
+     * other jars.
+     *
+     * Zip entries store a local date and time, which JarEntry.setTime
+     * converts to in the default time zone. The time is shifted by the
+     * zone's offset, so that every entry holds the UTC date and time
+     * whatever the zone of the build.
+     */
+    private static class ReproducibleJarOutputStream extends JarOutputStream {
+        private final long time;
+
+        ReproducibleJarOutputStream(OutputStream out, Manifest manifest,
+                long time) throws IOException {
+            super(out);
+            this.time = time;
+            putNextEntry(new JarEntry(JarFile.MANIFEST_NAME));
+            writeManifest(manifest, this);
+            closeEntry();
+        }
+
+        @Override
+        public void putNextEntry(ZipEntry entry) throws IOException {
+            JarEntry copy = new JarEntry(entry.getName());
+            copy.setTime(toLocalTime(time));
+            super.putNextEntry(copy);
+        }
+
+        /**
+         * Returns the time whose date and time in the default zone are the
+         * given time's date and time in UTC.
+         */
+        private static long toLocalTime(long utcTime) {
+            TimeZone zone = TimeZone.getDefault();
+            long local = utcTime - zone.getOffset(utcTime);
+            // the offset may differ at the shifted time across a DST change
+            return utcTime - zone.getOffset(local);
+        }
+    }
+
     /*
      * private String incrementRelease(String oldVersion) { if
      * (oldVersion.matches(VERSION_FORMAT_WITH_QUALIFIER)) { oldVersion =
@@ -11,6 +11,9 @@
 package org.eclipse.babel.build.core.languagepack;
 
 import java.io.File;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.eclipse.babel.build.core.Configuration;
 import org.eclipse.babel.build.core.Messages;
@@ -24,6 +27,7 @@ public class LanguagePack {
 
     private Configuration config;
     private File absoluteWorkDirectory;
+    private FragmentManifest previousBuild;
 
     public LanguagePack(Configuration config) {
         this.config = config;
@@ -31,12 +35,11 @@ public class LanguagePack {
 
     /**
      * Generates a language pack on disk and returns a report with coverage
-     * information.
+     * information. Fragments whose inputs have not changed since the previous
+     * build in the same working directory are copied from that build.
      */
     public LanguagePackCoverageReport generate()
             throws InvalidFilenameException, FailedDeletionException, Exception {
-        NLFragment fragment;
-        File parentFragmentDirectory;
         EclipseTarget eclipseInstall = config.eclipseInstall();
         LanguagePackCoverageReport coverage;
 
@@ -47,6 +50,26 @@ public class LanguagePack {
         coverage = new LanguagePackCoverageReport(config.translations()
                 .getAllLocales());
 
+        // One pool for the property coverage of all fragments
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime
+                .getRuntime().availableProcessors());
+        try {
+            generateFragments(eclipseInstall, coverage, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        previousBuild.save();
+
+        return coverage;
+    }
+
+    private void generateFragments(EclipseTarget eclipseInstall,
+            LanguagePackCoverageReport coverage, ExecutorService executor)
+            throws Exception {
+        NLFragment fragment;
+        File parentFragmentDirectory;
+
         // For each plugin in the eclipse archive
         for (PluginProxy plugin : eclipseInstall.getPlugins().values()) {
 
@@ -69,7 +92,7 @@ public class LanguagePack {
 
             // At present, all NL fragments are jarred
             fragment = new JarNLFragment(parentFragmentDirectory, plugin,
-                    eclipseInstall);
+                    eclipseInstall, previousBuild, executor);
 
             coverage.addPluginCoverageToReport(fragment
                     .generateFragment(this.config));
@@ -99,23 +122,34 @@ public class LanguagePack {
             // Instantiate the new fragment with its directory, and generate it
             if (!feature.isJar()) {
                 fragment = new NonJarNLFragment(parentFragmentDirectory,
-                        feature);
+                        feature, previousBuild);
             } else {
                 fragment = new JarNLFragment(parentFragmentDirectory, feature,
-                        eclipseInstall);
+                        eclipseInstall, previousBuild, executor);
             }
             coverage.addPluginCoverageToReport(fragment
                     .generateFragment(this.config));
         }
+    }
 
-        return coverage;
+    /**
+     * Returns the fragments the last call to {@link #generate()} actually
+     * generated, leaving out those copied from the previous build.
+     */
+    public List<File> getGeneratedFragments() {
+        return previousBuild.getGeneratedFragments();
     }
 
     private void setupLanguagePackLocation() throws InvalidFilenameException,
             FailedDeletionException {
 
+        previousBuild = new FragmentManifest(this.absoluteWorkDirectory);
+
         if (this.absoluteWorkDirectory.exists()) {
             try {
+                // Keep the previous language pack to copy fragments from
+                previousBuild.preparePreviousBuild();
+
                 File eclipseFolder = new File(this.absoluteWorkDirectory,
                         Messages.getString("Paths_eclipse_directory_name")); //$NON-NLS-1$
                 if (eclipseFolder.exists()) {
@@ -17,7 +17,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -50,17 +52,28 @@ public class NonJarNLFragment implements NLFragment {
             .getString("Filename_bundle_classpath"); //$NON-NLS-1$
     private JarOutputStream bundleClasspathStream = null;
     private PluginProxy eclipseInstallPlugin;
+    private FragmentManifest previousBuild;
 
     public NonJarNLFragment(File directory, PluginProxy eclipseInstallPlugin) {
+        this(directory, eclipseInstallPlugin, null);
+    }
+
+    /**
+     * @param previousBuild
+     *            The digests of the previous build, to copy the fragment from
+     *            if its inputs have not changed, or <code>null</code> to
+     *            always generate it.
+     */
+    NonJarNLFragment(File directory, PluginProxy eclipseInstallPlugin,
+            FragmentManifest previousBuild) {
         this.directory = directory;
         this.eclipseInstallPlugin = eclipseInstallPlugin;
+        this.previousBuild = previousBuild;
     }
 
     public PluginCoverageInformation generateFragment(Configuration config)
             throws Exception {
 
-        directory.mkdir();
-
         TranslationCatalogue translationCatalogue = config.translations();
         Set<LocaleProxy> locales = config.locales();
 
@@ -74,6 +87,9 @@ public class NonJarNLFragment implements NLFragment {
 
         boolean pluginIsMatchedToAnyLocale = false;
 
+        // The files of the fragment, in the order they are written
+        List<Entry> entries = new ArrayList<Entry>();
+
         PluginCoverageInformation coverage = new PluginCoverageInformation(
                 eclipseInstallPlugin);
 
@@ -95,11 +111,7 @@ public class NonJarNLFragment implements NLFragment {
                         // If the resource is the Manifest file
                         if (resource.getRelativePath().equalsIgnoreCase(
                                 MANIFEST_PATH)) {
-                            FileOutputStream fileOut = new FileOutputStream(
-                                    new File(directory, MANIFEST_PATH));
-                            Manifest manifest = composeManifestContent(config
-                                    .localeExtension());
-                            manifest.write(fileOut);
+                            entries.add(new Entry(resource, null));
                         } else {
                             // Retrieve the translation resource
                             ResourceProxy translationResource = translationCatalogue
@@ -113,8 +125,8 @@ public class NonJarNLFragment implements NLFragment {
                              * found in the TranslationArchive
                              */
                             if (translationResource != null) {
-                                writeResource(eclipseInstallPlugin,
-                                        translationResource, locale);
+                                entries.add(new Entry(translationResource,
+                                        locale));
 
                                 // TODO: Look for percentage of coverage for
                                 // property files only
@@ -148,12 +160,11 @@ public class NonJarNLFragment implements NLFragment {
 
             }
 
-            if (!pluginIsMatchedToAnyLocale) {
-                directory.delete();
-            }
-
-            if (bundleClasspathStream != null) {
-                bundleClasspathStream.close();
+            if (pluginIsMatchedToAnyLocale
+                    && (previousBuild == null || !previousBuild.reuse(directory,
+                            computeInputDigest(entries,
+                                    config.localeExtension())))) {
+                writeFragment(entries, config.localeExtension());
             }
         } catch (IOException e) {
             System.out.println(e.getMessage());
@@ -163,6 +174,53 @@ public class NonJarNLFragment implements NLFragment {
         return coverage;
     }
 
+    /**
+     * Computes the digest of everything the fragment is generated from: the
+     * feature it belongs to, the content of the translated resources and the
+     * locales they are written for.
+     */
+    private String computeInputDigest(List<Entry> entries,
+            String localeExtension) throws IOException {
+        FragmentManifest.Digest digest = new FragmentManifest.Digest();
+        digest.update(eclipseInstallPlugin.getName());
+        digest.update(eclipseInstallPlugin.getVersion());
+        digest.update(localeExtension);
+        for (Entry entry : entries) {
+            if (entry.locale == null) {
+                // The manifest is composed from the feature's name and version
+                digest.update(MANIFEST_PATH);
+            } else {
+                digest.update(entry.locale.getName());
+                digest.update(entry.resource.getRelativePath());
+                digest.updateContent(entry.resource.getFileResource());
+            }
+        }
+        return digest.finish();
+    }
+
+    private void writeFragment(List<Entry> entries, String localeExtension)
+            throws Exception {
+        directory.mkdir();
+        try {
+            for (Entry entry : entries) {
+                if (entry.locale == null) {
+                    FileOutputStream fileOut = new FileOutputStream(new File(
+                            directory, MANIFEST_PATH));
+                    Manifest manifest = composeManifestContent(localeExtension);
+                    manifest.write(fileOut);
+                } else {
+                    writeResource(eclipseInstallPlugin, entry.resource,
+                            entry.locale);
+                }
+            }
+        } finally {
+            if (bundleClasspathStream != null) {
+                bundleClasspathStream.close();
+                bundleClasspathStream = null;
+            }
+        }
+    }
+
     private int computePropertyCoverageForLocale(Configuration config,
             ResourceProxy eclipseTargetResource,
             ResourceProxy translationResource) throws Exception {
@@ -335,6 +393,20 @@ public class NonJarNLFragment implements NLFragment {
                 + Messages.getString("Characters_underscore") + locale.getName() + resourceExtension; //$NON-NLS-1$
     }
 
+    /**
+     * A translated resource to be written to the fragment for a locale or,
+     * without a locale, the fragment's manifest.
+     */
+    private static class Entry {
+        private final ResourceProxy resource;
+        private final LocaleProxy locale;
+
+        Entry(ResourceProxy resource, LocaleProxy locale) {
+            this.resource = resource;
+            this.locale = locale;
+        }
+    }
+
     private Map<String, PluginProxy> getPluginOrFeatureForSpecifiedLocales(
             Configuration config, PluginProxy plugin) {
         if (plugin.isFeature()) {
@@ -20,6 +20,8 @@ import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 
+import javax.xml.stream.XMLStreamWriter;
+
 import org.eclipse.babel.build.core.Configuration;
 import org.eclipse.babel.build.core.LocaleProxy;
 import org.eclipse.babel.build.core.PluginProxy;
@@ -28,7 +30,7 @@ import org.eclipse.babel.build.core.coverage.LanguagePackCoverageReport;
 import org.eclipse.babel.build.core.coverage.PluginCoverageInformation;
 import org.eclipse.babel.build.core.coverage.ResourceCoverageInformation;
 import org.eclipse.babel.build.core.xml.Element;
-import org.eclipse.babel.build.core.xml.XmlWriter;
+import org.eclipse.babel.build.core.xml.StreamingXmlWriter;
 import org.eclipse.babel.build.core.xml.Builder.ToNode;
 
 public class HtmlCoverageReport implements CoverageReport {
@@ -299,6 +301,23 @@ public class HtmlCoverageReport implements CoverageReport {
     }
 
     public void render(OutputStream stream) throws Exception {
-        build().render(new XmlWriter(stream));
+        XMLStreamWriter writer = StreamingXmlWriter.createWriter(stream);
+        try {
+            render(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes the report to the given stream writer, element by element, as
+     * the plugins of the coverage report are visited.
+     *
+     * @param writer
+     *            The writer, which is flushed but not closed.
+     * @throws Exception
+     */
+    public void render(XMLStreamWriter writer) throws Exception {
+        build().render(new StreamingXmlWriter(writer));
     }
 }
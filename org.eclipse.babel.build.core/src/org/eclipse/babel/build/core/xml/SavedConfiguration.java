@@ -101,6 +101,10 @@ public class SavedConfiguration implements Configuration {
         return false;
     }
 
+    public boolean reproducible() {
+        return false;
+    }
+
     public String localeExtension() {
         // TODO Auto-generated method stub
         return null;
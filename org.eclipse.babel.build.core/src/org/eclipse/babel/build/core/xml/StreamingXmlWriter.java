@@ -0,0 +1,131 @@
+package org.eclipse.babel.build.core.xml;
+
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+
+/**
+ * Passes the events of a rendered {@link Element} on to an
+ * {@link XMLStreamWriter}, laid out like {@link XmlWriter} does.
+ *
+ * Nothing is buffered apart from what the stream writer buffers itself, so
+ * elements produced lazily by {@link Builder#sequence} are written out and
+ * can be discarded one at a time. Unlike {@link XmlWriter}, text and
+ * attribute values are escaped and the output is always encoded in UTF-8.
+ */
+public class StreamingXmlWriter implements ContentHandler {
+    private static final String ENCODING = "UTF-8";
+
+    private final XMLStreamWriter out;
+
+    public StreamingXmlWriter(XMLStreamWriter out) {
+        this.out = out;
+    }
+
+    /**
+     * Creates a UTF-8 stream writer for the given output stream.
+     *
+     * @param out
+     *            The stream to write to. It is not closed by the returned
+     *            writer.
+     * @return The stream writer.
+     * @throws XMLStreamException
+     */
+    public static XMLStreamWriter createWriter(OutputStream out)
+            throws XMLStreamException {
+        return XMLOutputFactory.newInstance().createXMLStreamWriter(out,
+                ENCODING);
+    }
+
+    public void characters(char[] ch, int start, int length)
+            throws SAXException {
+        try {
+            out.writeCharacters(ch, start, length);
+        } catch (XMLStreamException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    public void endDocument() throws SAXException {
+        try {
+            out.writeEndDocument();
+            out.flush();
+        } catch (XMLStreamException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    public void endElement(String uri, String localName, String name)
+            throws SAXException {
+        try {
+            out.writeEndElement();
+            out.writeCharacters("\n");
+        } catch (XMLStreamException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    public void endPrefixMapping(String prefix) throws SAXException {
+        // elements are written without namespaces
+    }
+
+    public void ignorableWhitespace(char[] ch, int start, int length)
+            throws SAXException {
+        // the layout is fixed by the writer
+    }
+
+    public void processingInstruction(String target, String data)
+            throws SAXException {
+        try {
+            out.writeProcessingInstruction(target, data);
+        } catch (XMLStreamException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    public void setDocumentLocator(Locator locator) {
+        // there is no source document to report locations for
+    }
+
+    public void skippedEntity(String name) throws SAXException {
+        try {
+            out.writeEntityRef(name);
+        } catch (XMLStreamException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    public void startDocument() throws SAXException {
+        try {
+            out.writeStartDocument(ENCODING, "1.0");
+            out.writeCharacters("\n");
+        } catch (XMLStreamException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    public void startElement(String uri, String localName, String name,
+            Attributes atts) throws SAXException {
+        try {
+            out.writeStartElement(localName);
+            for (int i = 0; i < atts.getLength(); i++) {
+                out.writeAttribute(atts.getQName(i), atts.getValue(i));
+            }
+        } catch (XMLStreamException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    public void startPrefixMapping(String prefix, String uri)
+            throws SAXException {
+        // elements are written without namespaces
+    }
+
+}
@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 
 import org.eclipse.babel.build.core.Configuration;
 import org.eclipse.babel.build.core.Filter;
+import org.eclipse.babel.build.core.FilterSet;
 import org.eclipse.babel.build.core.LocaleGroup;
 import org.eclipse.babel.build.core.LocaleProxy;
 import org.eclipse.babel.build.core.PluginProxy;
@@ -48,6 +49,7 @@ public class UserInterfaceConfiguration implements Configuration {
     private final Set<LocaleGroup> fLocaleGroups;
     private final Set<String> fExcludeList;
     private List<Filter> fReportFilters;
+    private FilterSet fReportFilterSet;
     private File fReport;
     private final LanguagePackGenerationHandler fParentHandler;
     private final boolean fIncludeXmlReport;
@@ -74,6 +76,7 @@ public class UserInterfaceConfiguration implements Configuration {
         this.fExcludeList = excludeList;
         this.fReport = new File(fWorkingDirectory, "coverage.xml");
         this.fReportFilters = buildFilterList(reportFilterPatterns);
+        this.fReportFilterSet = new FilterSet(fReportFilters);
         eclipseInstall();
 
         fLocaleExtension = "";
@@ -103,6 +106,7 @@ public class UserInterfaceConfiguration implements Configuration {
         this.fExcludeList = excludeList;
         this.fReport = new File(fWorkingDirectory, "coverage.xml");
         this.fReportFilters = buildFilterList(reportFilterPatterns);
+        this.fReportFilterSet = new FilterSet(fReportFilters);
         eclipseInstall();
 
         fLocaleExtension = "";
@@ -251,12 +255,7 @@ public class UserInterfaceConfiguration implements Configuration {
     }
 
     public boolean includeResource(PluginProxy plugin, ResourceProxy resource) {
-        for (Filter filter : fReportFilters) {
-            if (filter.matches(plugin, resource)) {
-                return filter.isInclusive();
-            }
-        }
-        return true;
+        return fReportFilterSet.includeResource(plugin, resource);
     }
 
     public void setProgressMonitor(IProgressMonitor monitor) {
@@ -276,6 +275,10 @@ public class UserInterfaceConfiguration implements Configuration {
         return fLongReport;
     }
 
+    public boolean reproducible() {
+        return helper.getSourceDateEpoch() != null;
+    }
+
     public String localeExtension() {
         return fLocaleExtension;
     }
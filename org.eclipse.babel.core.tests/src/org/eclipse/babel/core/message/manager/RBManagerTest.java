@@ -0,0 +1,130 @@
+package org.eclipse.babel.core.message.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+/**
+ * Runs as a plug-in test, since {@link RBManager} listens to the projects of
+ * the workspace.
+ */
+public class RBManagerTest extends TestCase {
+
+    private static final int THREADS = 16;
+
+    private static final int PROJECTS = 8;
+
+    private static final int ROUNDS = 200;
+
+    private final List<IProject> projects = new ArrayList<IProject>();
+
+    @Override
+    protected void setUp() throws Exception {
+        for (int i = 0; i < PROJECTS; i++) {
+            IProject project = ResourcesPlugin.getWorkspace().getRoot()
+                    .getProject("rbmanager.test" + i);
+            if (!project.exists()) {
+                project.create(null);
+            }
+            project.open(null);
+            projects.add(project);
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (IProject project : projects) {
+            project.delete(true, true, null);
+        }
+    }
+
+    public void testConcurrentGetInstance() throws Exception {
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Callable<RBManager[]>> tasks = new ArrayList<Callable<RBManager[]>>();
+        for (int t = 0; t < THREADS; t++) {
+            final int offset = t;
+            tasks.add(new Callable<RBManager[]>() {
+                public RBManager[] call() throws Exception {
+                    start.await();
+                    RBManager[] managers = new RBManager[PROJECTS];
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (int i = 0; i < PROJECTS; i++) {
+                            // every thread starts with another project
+                            int index = (i + offset) % PROJECTS;
+                            IProject project = projects.get(index);
+                            RBManager manager = round % 2 == 0 ? RBManager
+                                    .getInstance(project) : RBManager
+                                    .getInstance(project.getName());
+                            assertNotNull(manager);
+                            if (managers[index] == null) {
+                                managers[index] = manager;
+                            } else {
+                                assertSame(managers[index], manager);
+                            }
+                        }
+                    }
+                    return managers;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<RBManager[]>> results = executor.invokeAll(tasks);
+            RBManager[] first = results.get(0).get();
+            for (Future<RBManager[]> result : results) {
+                RBManager[] managers = result.get();
+                for (int i = 0; i < PROJECTS; i++) {
+                    assertSame(first[i], managers[i]);
+                }
+            }
+            for (int i = 0; i < PROJECTS; i++) {
+                for (int j = i + 1; j < PROJECTS; j++) {
+                    assertNotSame(first[i], first[j]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testCloseDropsInstance() throws Exception {
+        IProject project = projects.get(0);
+        RBManager manager = RBManager.getInstance(project);
+        assertSame(manager, RBManager.getInstance(project.getName()));
+
+        project.close(null);
+        assertNull(RBManager.getInstance(project.getName()));
+
+        project.open(null);
+        RBManager reopened = RBManager.getInstance(project.getName());
+        assertNotNull(reopened);
+        assertNotSame(manager, reopened);
+        assertSame(reopened, RBManager.getInstance(project));
+
+        // the managers of the other projects are kept
+        IProject other = projects.get(1);
+        RBManager otherManager = RBManager.getInstance(other);
+        project.close(null);
+        assertSame(otherManager, RBManager.getInstance(other.getName()));
+    }
+
+    public void testDeleteDropsInstance() throws Exception {
+        IProject project = projects.get(0);
+        RBManager manager = RBManager.getInstance(project.getName());
+
+        project.delete(true, true, null);
+        project.create(null);
+        project.open(null);
+        assertNotSame(manager, RBManager.getInstance(project.getName()));
+    }
+}
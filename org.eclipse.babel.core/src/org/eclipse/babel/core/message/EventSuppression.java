@@ -0,0 +1,213 @@
+package org.eclipse.babel.core.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.babel.core.message.resource.IMessagesResource;
+
+/**
+ * A scope in which the changes of a messages bundle group, or of a single
+ * messages bundle, are made without notifying anybody, for instance while
+ * TapiJI writes them to the files itself. It replaces the global flags of the
+ * former <code>DirtyHack</code>.
+ * <p>
+ * A scope only applies to the thread that opened it, so that concurrent
+ * changes of other groups, or of the same group by other threads, still fire
+ * their events. It must be closed by the same thread:
+ *
+ * <pre>
+ * EventSuppression suppression = group.suppressEvents();
+ * try {
+ *     ...
+ * } finally {
+ *     suppression.close();
+ * }
+ * </pre>
+ *
+ * Two kinds of scopes exist: one drops the property change events of the
+ * group, of its bundles and of their messages, so that, e.g., an open editor
+ * does not get dirty. The other keeps the messages resources of open editors
+ * from being modified while the bundles are written to the files. Scopes may
+ * be nested.
+ * </p>
+ */
+public final class EventSuppression {
+
+    /** The scopes opened by the current thread, innermost last. */
+    private static final ThreadLocal<List<EventSuppression>> ACTIVE = new ThreadLocal<List<EventSuppression>>();
+
+    private final Object target;
+    private final boolean editorModification;
+    private final Thread owner;
+    private boolean closed;
+
+    private EventSuppression(Object target, boolean editorModification) {
+        this.target = target;
+        this.editorModification = editorModification;
+        this.owner = Thread.currentThread();
+
+        List<EventSuppression> active = ACTIVE.get();
+        if (active == null) {
+            active = new ArrayList<EventSuppression>(2);
+            ACTIVE.set(active);
+        }
+        active.add(this);
+    }
+
+    /**
+     * Drops the property change events of the given group, of its bundles and
+     * of their messages fired by the current thread, until the scope is
+     * closed. Events fired by other threads are not affected.
+     *
+     * @param group
+     *            the messages bundle group
+     * @return the scope to close
+     * @see IMessagesBundleGroup#suppressEvents()
+     */
+    public static EventSuppression suppressEvents(IMessagesBundleGroup group) {
+        return new EventSuppression(group, false);
+    }
+
+    /**
+     * Keeps the current thread from modifying the resources of open editors
+     * of the bundles of the given group, until the scope is closed.
+     *
+     * @param group
+     *            the messages bundle group
+     * @return the scope to close
+     */
+    public static EventSuppression suppressEditorModification(
+            IMessagesBundleGroup group) {
+        return new EventSuppression(group, true);
+    }
+
+    /**
+     * Keeps the current thread from modifying the resource of an open editor
+     * of the given bundle, until the scope is closed.
+     *
+     * @param bundle
+     *            the messages bundle
+     * @return the scope to close
+     */
+    public static EventSuppression suppressEditorModification(
+            IMessagesBundle bundle) {
+        return new EventSuppression(bundle, true);
+    }
+
+    /**
+     * Closes this scope. Closing it again has no effect.
+     *
+     * @throws IllegalStateException
+     *             if called by another thread than the one which opened the
+     *             scope
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException(
+                    "An event suppression must be closed by its thread"); //$NON-NLS-1$
+        }
+        closed = true;
+
+        List<EventSuppression> active = ACTIVE.get();
+        for (int i = active.size() - 1; i >= 0; i--) {
+            if (active.get(i) == this) {
+                active.remove(i);
+                break;
+            }
+        }
+        if (active.isEmpty()) {
+            ACTIVE.remove();
+        }
+    }
+
+    /**
+     * Answers whether the current thread suppresses the events of the given
+     * group.
+     *
+     * @param group
+     *            a messages bundle group
+     * @return <code>true</code> if the events must not be fired
+     */
+    public static boolean isSuppressed(IMessagesBundleGroup group) {
+        List<EventSuppression> active = ACTIVE.get();
+        if (active == null) {
+            return false;
+        }
+        for (EventSuppression suppression : active) {
+            if (!suppression.editorModification && suppression.target == group) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Answers whether the current thread suppresses the events of the given
+     * bundle, as part of its group.
+     *
+     * @param bundle
+     *            a messages bundle
+     * @return <code>true</code> if the events must not be fired
+     */
+    public static boolean isSuppressed(IMessagesBundle bundle) {
+        List<EventSuppression> active = ACTIVE.get();
+        if (active == null) {
+            return false;
+        }
+        for (EventSuppression suppression : active) {
+            if (!suppression.editorModification
+                    && suppression.contains(bundle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Answers whether the current thread must not modify the given resource of
+     * an open editor.
+     *
+     * @param resource
+     *            the messages resource of an editor
+     * @return <code>true</code> if the resource must not be modified
+     */
+    public static boolean isEditorModificationSuppressed(
+            IMessagesResource resource) {
+        List<EventSuppression> active = ACTIVE.get();
+        if (active == null) {
+            return false;
+        }
+        for (EventSuppression suppression : active) {
+            if (suppression.editorModification
+                    && suppression.containsResource(resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean contains(IMessagesBundle bundle) {
+        if (target == bundle) {
+            return true;
+        }
+        return target instanceof IMessagesBundleGroup
+                && ((IMessagesBundleGroup) target).getMessagesBundle(bundle
+                        .getLocale()) == bundle;
+    }
+
+    private boolean containsResource(IMessagesResource resource) {
+        if (target instanceof IMessagesBundle) {
+            return ((IMessagesBundle) target).getResource() == resource;
+        }
+        for (IMessagesBundle bundle : ((IMessagesBundleGroup) target)
+                .getMessagesBundles()) {
+            if (bundle.getResource() == resource) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
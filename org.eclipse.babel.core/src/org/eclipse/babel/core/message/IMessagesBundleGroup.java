@@ -197,4 +197,13 @@ public interface IMessagesBundleGroup {
      *            the new message name
      */
     void renameMessageKeys(String sourceKey, String targetKey);
+
+    /**
+     * Drops the property change events of this group, of its bundles and of
+     * their messages fired by the current thread, until the returned scope is
+     * closed.
+     * 
+     * @return the scope, to be closed by the current thread
+     */
+    EventSuppression suppressEvents();
 }
@@ -0,0 +1,222 @@
+package org.eclipse.babel.core.message.checks.proximity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests many values against one pattern for a minimum
+ * {@link LevenshteinDistanceAnalyzer} similarity.
+ * <p>
+ * A value is accepted exactly when
+ * <code>LevenshteinDistanceAnalyzer.analyse(value, pattern)</code> reaches
+ * the minimum similarity, but most values are rejected without computing a
+ * distance:
+ * <ul>
+ * <li>the minimum similarity is turned into a maximum edit distance, which
+ * the length difference alone may already exceed;</li>
+ * <li>every edit destroys at most two bigrams, so a value sharing too few
+ * bigrams with the pattern cannot be close enough;</li>
+ * <li>the remaining values are compared within a diagonal band of the
+ * maximum distance, giving up as soon as a whole row exceeds it.</li>
+ * </ul>
+ * The bigrams of each value are cached for the lifetime of the filter, which
+ * is meant to be created for one pattern and discarded with it. Instances are
+ * not thread-safe.
+ * </p>
+ */
+public class LevenshteinDistanceFilter {
+
+    private final String pattern;
+    private final double minimumSimilarity;
+    private final int[] patternBigrams;
+    private final Map<String, int[]> bigrams = new HashMap<String, int[]>();
+
+    private int[] previousRow = new int[0];
+    private int[] currentRow = new int[0];
+
+    /**
+     * @param pattern
+     *            the pattern values are compared to
+     * @param minimumSimilarity
+     *            the lowest similarity, as computed by
+     *            {@link LevenshteinDistanceAnalyzer}, for a value to be
+     *            accepted
+     */
+    public LevenshteinDistanceFilter(String pattern, double minimumSimilarity) {
+        this.pattern = pattern;
+        this.minimumSimilarity = minimumSimilarity;
+        this.patternBigrams = computeBigrams(pattern);
+    }
+
+    /**
+     * Gets the similarity of the given value to the pattern if it reaches the
+     * minimum similarity.
+     *
+     * @param value
+     *            the value to test
+     * @return the similarity as computed by
+     *         {@link LevenshteinDistanceAnalyzer#analyse(String, String)}, or
+     *         {@link Double#NaN} if the value is not similar enough
+     */
+    public double similarity(String value) {
+        int maxLength = Math.max(value.length(), pattern.length());
+        int maxDistance = getMaxDistance(maxLength);
+        if (maxDistance < 0
+                || Math.abs(value.length() - pattern.length()) > maxDistance) {
+            return Double.NaN;
+        }
+
+        // Strings within k edits share at least (maxLength - 1 - 2k) bigrams
+        int requiredBigrams = maxLength - 1 - 2 * maxDistance;
+        if (requiredBigrams > 0
+                && countCommon(getBigrams(value), patternBigrams) < requiredBigrams) {
+            return Double.NaN;
+        }
+
+        int distance = distance(value, pattern, maxDistance);
+        if (distance > maxDistance) {
+            return Double.NaN;
+        }
+        return similarity(distance, maxLength);
+    }
+
+    /**
+     * The largest distance that still reaches the minimum similarity, or -1
+     * if there is none.
+     */
+    private int getMaxDistance(int maxLength) {
+        if (maxLength == 0) {
+            // the analyzer divides zero by zero
+            return -1;
+        }
+        int distance = (int) Math.min(maxLength,
+                Math.floor((1d - minimumSimilarity) * maxLength) + 1);
+        // correct the rounding of the estimate
+        while (distance >= 0
+                && !(similarity(distance, maxLength) >= minimumSimilarity)) {
+            distance--;
+        }
+        return distance;
+    }
+
+    private static double similarity(double distance, int maxLength) {
+        // same expression as LevenshteinDistanceAnalyzer.analyse
+        return 1d - (distance / maxLength);
+    }
+
+    /**
+     * Computes the edit distance of the given strings if it does not exceed
+     * <code>maxDistance</code>.
+     *
+     * @param s
+     *            source string
+     * @param t
+     *            target string
+     * @param maxDistance
+     *            the largest distance of interest
+     * @return the distance, or a value greater than <code>maxDistance</code>
+     *         if the distance is larger
+     */
+    int distance(String s, String t, int maxDistance) {
+        int n = s.length();
+        int m = t.length();
+        if (Math.abs(n - m) > maxDistance) {
+            return maxDistance + 1;
+        }
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+        if (previousRow.length <= m) {
+            previousRow = new int[m + 1];
+            currentRow = new int[m + 1];
+        }
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        // cells outside the band are never read as they count as too far
+        int tooFar = maxDistance + 1;
+
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= maxDistance ? j : tooFar;
+        }
+        for (int i = 1; i <= n; i++) {
+            char s_i = s.charAt(i - 1);
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(m, i + maxDistance);
+
+            current[0] = i <= maxDistance ? i : tooFar;
+            if (from > 1) {
+                current[from - 1] = tooFar;
+            }
+            int rowMinimum = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = s_i == t.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1),
+                        previous[j - 1] + cost);
+                if (d > tooFar) {
+                    d = tooFar;
+                }
+                current[j] = d;
+                if (d < rowMinimum) {
+                    rowMinimum = d;
+                }
+            }
+            if (to < m) {
+                current[to + 1] = tooFar;
+            }
+            if (rowMinimum > maxDistance) {
+                return tooFar;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m];
+    }
+
+    private int[] getBigrams(String value) {
+        int[] result = bigrams.get(value);
+        if (result == null) {
+            result = computeBigrams(value);
+            bigrams.put(value, result);
+        }
+        return result;
+    }
+
+    /**
+     * The bigrams of the given string, each packed into an int, sorted.
+     */
+    private static int[] computeBigrams(String value) {
+        if (value.length() < 2) {
+            return new int[0];
+        }
+        int[] result = new int[value.length() - 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (value.charAt(i) << 16) | value.charAt(i + 1);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Counts the bigrams two sorted bigram arrays have in common, duplicates
+     * included.
+     */
+    private static int countCommon(int[] a, int[] b) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+}
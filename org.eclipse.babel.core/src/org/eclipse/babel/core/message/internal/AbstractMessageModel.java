@@ -13,10 +13,11 @@ package org.eclipse.babel.core.message.internal;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-import org.eclipse.babel.core.configuration.DirtyHack;
 import org.eclipse.babel.core.util.BabelUtils;
 
 /**
@@ -29,8 +30,25 @@ import org.eclipse.babel.core.util.BabelUtils;
  * @author Karsten Lentzsch (karsten@jgoodies.com)
  */
 public abstract class AbstractMessageModel implements Serializable {
-    /** Handles <code>PropertyChangeListeners</code>. */
-    private transient PropertyChangeSupport changeSupport;
+
+    /**
+     * Name of the single property change fired by {@link #resumeEvents()} in
+     * place of the events fired while events were suspended.
+     */
+    public static final String PROPERTY_RELOADED = "reloaded"; //$NON-NLS-1$
+
+    private static final PropertyChangeListener[] EMPTY_LISTENERS = new PropertyChangeListener[] {};
+
+    /**
+     * The <code>PropertyChangeListeners</code>, which are iterated without
+     * copying them for every event.
+     */
+    private transient volatile List<PropertyChangeListener> listeners;
+
+    /** Nesting depth of {@link #suspendEvents()}. */
+    private transient int suspendCount;
+    /** Whether an event was dropped while events were suspended. */
+    private transient boolean eventsPending;
 
     /**
      * Adds a PropertyChangeListener to the listener list. The listener is
@@ -46,10 +64,10 @@ public abstract class AbstractMessageModel implements Serializable {
         if (listener == null) {
             return;
         }
-        if (changeSupport == null) {
-            changeSupport = new PropertyChangeSupport(this);
+        if (listeners == null) {
+            listeners = new CopyOnWriteArrayList<PropertyChangeListener>();
         }
-        changeSupport.addPropertyChangeListener(listener);
+        listeners.add(listener);
     }
 
     /**
@@ -64,10 +82,10 @@ public abstract class AbstractMessageModel implements Serializable {
      */
     /* default */final synchronized void removePropertyChangeListener(
             final PropertyChangeListener listener) {
-        if (listener == null || changeSupport == null) {
+        if (listener == null || listeners == null) {
             return;
         }
-        changeSupport.removePropertyChangeListener(listener);
+        listeners.remove(listener);
     }
 
     /**
@@ -79,10 +97,74 @@ public abstract class AbstractMessageModel implements Serializable {
      *         registered
      */
     /* default */final synchronized PropertyChangeListener[] getPropertyChangeListeners() {
-        if (changeSupport == null) {
-            return new PropertyChangeListener[0];
+        if (listeners == null) {
+            return EMPTY_LISTENERS;
+        }
+        return listeners.toArray(EMPTY_LISTENERS);
+    }
+
+    /**
+     * Returns the live list of the property change listeners registered on
+     * this component, for dispatching an event without copying them. The list
+     * must not be modified.
+     * 
+     * @return the property change listeners, possibly empty
+     */
+    /* default */final List<PropertyChangeListener> getPropertyChangeListenerList() {
+        List<PropertyChangeListener> list = listeners;
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return list;
+    }
+
+    /**
+     * Suspends the events of this component until the matching call of
+     * {@link #resumeEvents()}, for instance while a bulk of messages is
+     * loaded. Calls may be nested.
+     */
+    public final synchronized void suspendEvents() {
+        suspendCount++;
+    }
+
+    /**
+     * Resumes the events suspended by {@link #suspendEvents()}. If events were
+     * dropped in the meantime, the outermost call fires a single property
+     * change named {@link #PROPERTY_RELOADED} instead of them.
+     */
+    public final void resumeEvents() {
+        synchronized (this) {
+            if (suspendCount == 0 || --suspendCount > 0 || !eventsPending) {
+                return;
+            }
+            eventsPending = false;
+        }
+        firePropertyChange(PROPERTY_RELOADED, null, null);
+    }
+
+    /**
+     * Answers whether the events of this component are currently dropped by
+     * an {@link org.eclipse.babel.core.message.EventSuppression}.
+     * 
+     * @return <code>true</code> if no property change must be fired
+     */
+    protected boolean isSuppressed() {
+        return false;
+    }
+
+    /**
+     * Answers whether an event about to be fired must be dropped because
+     * events are suspended, in which case {@link #resumeEvents()} fires
+     * {@link #PROPERTY_RELOADED}.
+     * 
+     * @return <code>true</code> if the event must not be fired
+     */
+    protected final synchronized boolean deferEvent() {
+        if (suspendCount == 0) {
+            return false;
         }
-        return changeSupport.getPropertyChangeListeners();
+        eventsPending = true;
+        return true;
     }
 
     /**
@@ -100,10 +182,14 @@ public abstract class AbstractMessageModel implements Serializable {
      */
     protected final void firePropertyChange(final String propertyName,
             final Object oldValue, final Object newValue) {
-        if (changeSupport == null || !DirtyHack.isFireEnabled()) {
+        if (oldValue != null && newValue != null && oldValue.equals(newValue)) {
+            return;
+        }
+        if (listeners == null || isSuppressed() || deferEvent()) {
             return;
         }
-        changeSupport.firePropertyChange(propertyName, oldValue, newValue);
+        dispatch(new PropertyChangeEvent(this, propertyName, oldValue,
+                newValue));
     }
 
     /**
@@ -121,10 +207,10 @@ public abstract class AbstractMessageModel implements Serializable {
      */
     protected final void firePropertyChange(final String propertyName,
             final boolean oldValue, final boolean newValue) {
-        if (changeSupport == null || !DirtyHack.isFireEnabled()) {
-            return;
+        if (oldValue != newValue) {
+            firePropertyChange(propertyName, Boolean.valueOf(oldValue),
+                    Boolean.valueOf(newValue));
         }
-        changeSupport.firePropertyChange(propertyName, oldValue, newValue);
     }
 
     /**
@@ -137,10 +223,14 @@ public abstract class AbstractMessageModel implements Serializable {
      *            the event that triggered the change
      */
     protected final void firePropertyChange(final PropertyChangeEvent event) {
-        if (changeSupport == null || !DirtyHack.isFireEnabled()) {
+        Object oldValue = event.getOldValue();
+        if (oldValue != null && oldValue.equals(event.getNewValue())) {
             return;
         }
-        changeSupport.firePropertyChange(event);
+        if (listeners == null || isSuppressed() || deferEvent()) {
+            return;
+        }
+        dispatch(event);
     }
 
     /**
@@ -196,10 +286,10 @@ public abstract class AbstractMessageModel implements Serializable {
      */
     protected final void firePropertyChange(final String propertyName,
             final int oldValue, final int newValue) {
-        if (changeSupport == null || !DirtyHack.isFireEnabled()) {
-            return;
+        if (oldValue != newValue) {
+            firePropertyChange(propertyName, Integer.valueOf(oldValue),
+                    Integer.valueOf(newValue));
         }
-        changeSupport.firePropertyChange(propertyName, oldValue, newValue);
     }
 
     /**
@@ -220,6 +310,12 @@ public abstract class AbstractMessageModel implements Serializable {
         firePropertyChange(propertyName, new Long(oldValue), new Long(newValue));
     }
 
+    private void dispatch(final PropertyChangeEvent event) {
+        for (PropertyChangeListener listener : listeners) {
+            listener.propertyChange(event);
+        }
+    }
+
     /**
      * Checks and answers if the two objects are both <code>null</code> or
      * equal.
@@ -15,12 +15,12 @@ package org.eclipse.babel.core.message.internal;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
+import org.eclipse.babel.core.message.EventSuppression;
 import org.eclipse.babel.core.message.IMessage;
 import org.eclipse.babel.core.message.IMessagesBundle;
 import org.eclipse.babel.core.message.IMessagesResourceChangeListener;
@@ -48,7 +48,10 @@ public class MessagesBundle extends AbstractMessageModel implements
 
     private final PropertyChangeListener messageListener = new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent event) {
-            fireMessageChanged(event);
+            // the messages of a suppressed bundle keep quiet as well
+            if (!isSuppressed()) {
+                fireMessageChanged(event);
+            }
         }
     };
     private String comment;
@@ -77,7 +80,10 @@ public class MessagesBundle extends AbstractMessageModel implements
             }
 
             public void propertyChange(PropertyChangeEvent evt) {
-                writetoResource();
+                // a reload comes from the resource, nothing to write back
+                if (!PROPERTY_RELOADED.equals(evt.getPropertyName())) {
+                    writetoResource();
+                }
             }
         });
     }
@@ -138,7 +144,7 @@ public class MessagesBundle extends AbstractMessageModel implements
      *      .IMessagesResourceChangeListener#resourceChanged(org.eclipse.babel.core.message.internal.resource.IMessagesResource)
      */
     public void resourceChanged(IMessagesResource changedResource) {
-        this.resource.deserialize(this);
+        readFromResource();
     }
 
     /**
@@ -151,10 +157,8 @@ public class MessagesBundle extends AbstractMessageModel implements
     public void addMessage(IMessage message) {
         Message m = (Message) message;
         int oldCount = getMessagesCount();
-        if (!orderedKeys.contains(m.getKey())) {
-            orderedKeys.add(m.getKey());
-        }
         if (!keyedMessages.containsKey(m.getKey())) {
+            orderedKeys.add(m.getKey());
             keyedMessages.put(m.getKey(), m);
             m.addMessageListener(messageListener);
             firePropertyChange(PROPERTY_MESSAGES_COUNT, oldCount,
@@ -357,14 +361,28 @@ public class MessagesBundle extends AbstractMessageModel implements
         removePropertyChangeListener(listener);
     }
 
-    public final synchronized IMessagesBundleListener[] getMessagesBundleListeners() {
-        // TODO find more efficient way to avoid class cast.
-        return Arrays.asList(getPropertyChangeListeners()).toArray(
+    public final IMessagesBundleListener[] getMessagesBundleListeners() {
+        return getPropertyChangeListenerList().toArray(
                 EMPTY_MSG_BUNDLE_LISTENERS);
     }
 
+    /**
+     * Reads the messages from the resource, announcing the changes with a
+     * single {@link #PROPERTY_RELOADED} property change instead of an event
+     * per message.
+     */
+    @Override
+    protected boolean isSuppressed() {
+        return EventSuppression.isSuppressed(this);
+    }
+
     private void readFromResource() {
-        this.resource.deserialize(this);
+        suspendEvents();
+        try {
+            this.resource.deserialize(this);
+        } finally {
+            resumeEvents();
+        }
     }
 
     private void writetoResource() {
@@ -372,26 +390,29 @@ public class MessagesBundle extends AbstractMessageModel implements
     }
 
     private void fireMessageAdded(Message message) {
-        IMessagesBundleListener[] listeners = getMessagesBundleListeners();
-        for (int i = 0; i < listeners.length; i++) {
-            IMessagesBundleListener listener = listeners[i];
-            listener.messageAdded(this, message);
+        if (deferEvent()) {
+            return;
+        }
+        for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+            ((IMessagesBundleListener) listener).messageAdded(this, message);
         }
     }
 
     private void fireMessageRemoved(Message message) {
-        IMessagesBundleListener[] listeners = getMessagesBundleListeners();
-        for (int i = 0; i < listeners.length; i++) {
-            IMessagesBundleListener listener = listeners[i];
-            listener.messageRemoved(this, message);
+        if (deferEvent()) {
+            return;
+        }
+        for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+            ((IMessagesBundleListener) listener).messageRemoved(this, message);
         }
     }
 
     private void fireMessageChanged(PropertyChangeEvent event) {
-        IMessagesBundleListener[] listeners = getMessagesBundleListeners();
-        for (int i = 0; i < listeners.length; i++) {
-            IMessagesBundleListener listener = listeners[i];
-            listener.messageChanged(this, event);
+        if (deferEvent()) {
+            return;
+        }
+        for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+            ((IMessagesBundleListener) listener).messageChanged(this, event);
         }
     }
 
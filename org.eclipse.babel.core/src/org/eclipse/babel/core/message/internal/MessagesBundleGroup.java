@@ -13,16 +13,18 @@
 package org.eclipse.babel.core.message.internal;
 
 import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.eclipse.babel.core.message.EventSuppression;
 import org.eclipse.babel.core.message.IMessage;
 import org.eclipse.babel.core.message.IMessagesBundle;
 import org.eclipse.babel.core.message.IMessagesBundleGroup;
@@ -451,41 +453,53 @@ public class MessagesBundleGroup extends AbstractMessageModel implements
         removePropertyChangeListener(listener);
     }
 
-    public final synchronized IMessagesBundleGroupListener[] getMessagesBundleGroupListeners() {
-        // TODO find more efficient way to avoid class cast.
-        return Arrays.asList(getPropertyChangeListeners()).toArray(
-                EMPTY_GROUP_LISTENERS);
+    public final IMessagesBundleGroupListener[] getMessagesBundleGroupListeners() {
+        return getPropertyChangeListenerList().toArray(EMPTY_GROUP_LISTENERS);
     }
 
+    @Override
+    public EventSuppression suppressEvents() {
+        return EventSuppression.suppressEvents(this);
+    }
+
+    @Override
+    protected boolean isSuppressed() {
+        return EventSuppression.isSuppressed(this);
+    }
+
+    /*
+     * The key events are never suspended, as the key tree models are built
+     * from them.
+     */
     private void fireKeyAdded(String key) {
-        IMessagesBundleGroupListener[] listeners = getMessagesBundleGroupListeners();
-        for (int i = 0; i < listeners.length; i++) {
-            IMessagesBundleGroupListener listener = listeners[i];
-            listener.keyAdded(key);
+        for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+            ((IMessagesBundleGroupListener) listener).keyAdded(key);
         }
     }
 
     private void fireKeyRemoved(String key) {
-        IMessagesBundleGroupListener[] listeners = getMessagesBundleGroupListeners();
-        for (int i = 0; i < listeners.length; i++) {
-            IMessagesBundleGroupListener listener = listeners[i];
-            listener.keyRemoved(key);
+        for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+            ((IMessagesBundleGroupListener) listener).keyRemoved(key);
         }
     }
 
     private void fireMessagesBundleAdded(MessagesBundle messagesBundle) {
-        IMessagesBundleGroupListener[] listeners = getMessagesBundleGroupListeners();
-        for (int i = 0; i < listeners.length; i++) {
-            IMessagesBundleGroupListener listener = listeners[i];
-            listener.messagesBundleAdded(messagesBundle);
+        if (deferEvent()) {
+            return;
+        }
+        for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+            ((IMessagesBundleGroupListener) listener)
+                    .messagesBundleAdded(messagesBundle);
         }
     }
 
     private void fireMessagesBundleRemoved(MessagesBundle messagesBundle) {
-        IMessagesBundleGroupListener[] listeners = getMessagesBundleGroupListeners();
-        for (int i = 0; i < listeners.length; i++) {
-            IMessagesBundleGroupListener listener = listeners[i];
-            listener.messagesBundleRemoved(messagesBundle);
+        if (deferEvent()) {
+            return;
+        }
+        for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+            ((IMessagesBundleGroupListener) listener)
+                    .messagesBundleRemoved(messagesBundle);
         }
     }
 
@@ -546,6 +560,49 @@ public class MessagesBundleGroup extends AbstractMessageModel implements
         return this.projectName;
     }
 
+    /**
+     * Whether any bundle of this group has a message for the given key.
+     */
+    private boolean isKeyInBundles(String key) {
+        for (IMessagesBundle messagesBundle : localeBundles.values()) {
+            if (messagesBundle.getMessage(key) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Brings the keys of this group in line with its bundles after one of
+     * them was reloaded, firing the key events for the keys that actually
+     * appeared or disappeared.
+     */
+    private void reconcileKeys(MessagesBundle reloaded) {
+        int oldCount = keys.size();
+        List<String> removed = new ArrayList<String>();
+        for (Iterator<String> it = keys.iterator(); it.hasNext();) {
+            String key = it.next();
+            if (!isKeyInBundles(key)) {
+                it.remove();
+                removed.add(key);
+            }
+        }
+        List<String> added = new ArrayList<String>();
+        for (String key : reloaded.getKeys()) {
+            if (keys.add(key)) {
+                added.add(key);
+            }
+        }
+
+        firePropertyChange(PROPERTY_KEY_COUNT, oldCount, keys.size());
+        for (String key : removed) {
+            fireKeyRemoved(key);
+        }
+        for (String key : added) {
+            fireKeyAdded(key);
+        }
+    }
+
     /**
      * Class listening for changes in underlying messages bundle and relays them
      * to the listeners for MessagesBundleGroup.
@@ -553,45 +610,50 @@ public class MessagesBundleGroup extends AbstractMessageModel implements
     private class MessagesBundleListener implements IMessagesBundleListener {
         @Override
         public void messageAdded(MessagesBundle messagesBundle, Message message) {
+            String key = message.getKey();
             int oldCount = keys.size();
-            IMessagesBundleGroupListener[] listeners = getMessagesBundleGroupListeners();
-            for (int i = 0; i < listeners.length; i++) {
-                IMessagesBundleGroupListener listener = listeners[i];
-                listener.messageAdded(messagesBundle, message);
-                if (getMessages(message.getKey()).length == 1) {
-                    keys.add(message.getKey());
-                    firePropertyChange(PROPERTY_KEY_COUNT, oldCount,
-                            keys.size());
-                    fireKeyAdded(message.getKey());
+            boolean newKey = keys.add(key);
+
+            if (!deferEvent()) {
+                for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+                    ((IMessagesBundleGroupListener) listener).messageAdded(
+                            messagesBundle, message);
                 }
             }
+            if (newKey) {
+                firePropertyChange(PROPERTY_KEY_COUNT, oldCount, keys.size());
+                fireKeyAdded(key);
+            }
         }
 
         @Override
         public void messageRemoved(MessagesBundle messagesBundle,
                 Message message) {
+            String key = message.getKey();
             int oldCount = keys.size();
-            IMessagesBundleGroupListener[] listeners = getMessagesBundleGroupListeners();
-            for (int i = 0; i < listeners.length; i++) {
-                IMessagesBundleGroupListener listener = listeners[i];
-                listener.messageRemoved(messagesBundle, message);
-                int keyMessagesCount = getMessages(message.getKey()).length;
-                if (keyMessagesCount == 0 && keys.contains(message.getKey())) {
-                    keys.remove(message.getKey());
-                    firePropertyChange(PROPERTY_KEY_COUNT, oldCount,
-                            keys.size());
-                    fireKeyRemoved(message.getKey());
+            boolean removedKey = !isKeyInBundles(key) && keys.remove(key);
+
+            if (!deferEvent()) {
+                for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+                    ((IMessagesBundleGroupListener) listener).messageRemoved(
+                            messagesBundle, message);
                 }
             }
+            if (removedKey) {
+                firePropertyChange(PROPERTY_KEY_COUNT, oldCount, keys.size());
+                fireKeyRemoved(key);
+            }
         }
 
         @Override
         public void messageChanged(MessagesBundle messagesBundle,
                 PropertyChangeEvent changeEvent) {
-            IMessagesBundleGroupListener[] listeners = getMessagesBundleGroupListeners();
-            for (int i = 0; i < listeners.length; i++) {
-                IMessagesBundleGroupListener listener = listeners[i];
-                listener.messageChanged(messagesBundle, changeEvent);
+            if (deferEvent()) {
+                return;
+            }
+            for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+                ((IMessagesBundleGroupListener) listener).messageChanged(
+                        messagesBundle, changeEvent);
             }
         }
 
@@ -599,10 +661,16 @@ public class MessagesBundleGroup extends AbstractMessageModel implements
         @Override
         public void propertyChange(PropertyChangeEvent evt) {
             MessagesBundle bundle = (MessagesBundle) evt.getSource();
-            IMessagesBundleGroupListener[] listeners = getMessagesBundleGroupListeners();
-            for (int i = 0; i < listeners.length; i++) {
-                IMessagesBundleGroupListener listener = listeners[i];
-                listener.messagesBundleChanged(bundle, evt);
+            if (PROPERTY_RELOADED.equals(evt.getPropertyName())) {
+                // the bundle's message events were coalesced
+                reconcileKeys(bundle);
+            }
+            if (deferEvent()) {
+                return;
+            }
+            for (PropertyChangeListener listener : getPropertyChangeListenerList()) {
+                ((IMessagesBundleGroupListener) listener)
+                        .messagesBundleChanged(bundle, evt);
             }
         }
     }
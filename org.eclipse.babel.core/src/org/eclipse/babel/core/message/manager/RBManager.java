@@ -11,17 +11,21 @@
 package org.eclipse.babel.core.message.manager;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.eclipse.babel.core.configuration.DirtyHack;
 import org.eclipse.babel.core.factory.MessagesBundleGroupFactory;
+import org.eclipse.babel.core.message.EventSuppression;
 import org.eclipse.babel.core.message.IMessage;
 import org.eclipse.babel.core.message.IMessagesBundle;
 import org.eclipse.babel.core.message.IMessagesBundleGroup;
@@ -34,6 +38,9 @@ import org.eclipse.babel.core.util.NameUtils;
 import org.eclipse.babel.core.util.PDEUtils;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -52,13 +59,16 @@ import org.eclipse.core.runtime.Platform;
  */
 public final class RBManager {
 
-    private static Map<IProject, RBManager> managerMap = new HashMap<IProject, RBManager>();
+    private static ConcurrentMap<IProject, RBManager> managerMap = new ConcurrentHashMap<IProject, RBManager>();
+
+    /** The managers by the name they were requested with, fragments included */
+    private static ConcurrentMap<String, RBManager> managersByName = new ConcurrentHashMap<String, RBManager>();
+
+    private static final AtomicBoolean listening = new AtomicBoolean();
 
     /** <package>.<resourceBundleName> , IMessagesBundleGroup */
     private final Map<String, IMessagesBundleGroup> resourceBundles;
 
-    private static RBManager INSTANCE;
-
     private final List<IMessagesEditorListener> editorListeners;
 
     private final List<IResourceDeltaListener> resourceListeners;
@@ -287,14 +297,21 @@ public final class RBManager {
      */
     private void syncBundles(IMessagesBundleGroup oldBundleGroup,
             IMessagesBundleGroup newBundleGroup) {
+        // no events, else setText of EclipsePropertiesEditorResource would
+        // need an asyncExec
+        EventSuppression suppression = oldBundleGroup.suppressEvents();
+        try {
+            mergeBundles(oldBundleGroup, newBundleGroup);
+        } finally {
+            suppression.close();
+        }
+    }
+
+    private void mergeBundles(IMessagesBundleGroup oldBundleGroup,
+            IMessagesBundleGroup newBundleGroup) {
         List<IMessagesBundle> bundlesToRemove = new ArrayList<IMessagesBundle>();
         List<IMessage> keysToRemove = new ArrayList<IMessage>();
 
-        DirtyHack.setFireEnabled(false); // hebelt AbstractMessageModel aus
-        // sonst m�ssten wir in setText von EclipsePropertiesEditorResource
-        // ein
-        // asyncExec zulassen
-
         for (IMessagesBundle newBundle : newBundleGroup.getMessagesBundles()) {
             IMessagesBundle oldBundle = oldBundleGroup
                     .getMessagesBundle(newBundle.getLocale());
@@ -346,9 +363,6 @@ public final class RBManager {
                 mb.removeMessage(msg.getKey());
             }
         }
-
-        DirtyHack.setFireEnabled(true);
-
     }
 
     /**
@@ -388,19 +402,27 @@ public final class RBManager {
         if (PDEUtils.isFragment(project)) {
             project = PDEUtils.getFragmentHost(project);
         }
+        if (project == null) {
+            return null;
+        }
+
+        RBManager manager = managerMap.get(project);
 
-        INSTANCE = managerMap.get(project);
+        if (manager == null) {
+            listenToProjects();
 
-        if (INSTANCE == null) {
-            INSTANCE = new RBManager();
-            INSTANCE.project = project;
-            managerMap.put(project, INSTANCE);
-            //INSTANCE.detectResourceBundles();
+            RBManager newManager = new RBManager();
+            newManager.project = project;
+            manager = managerMap.putIfAbsent(project, newManager);
+            if (manager == null) {
+                manager = newManager;
+                //manager.detectResourceBundles();
 
-            refactorService = getRefactoringService();
+                refactorService = getRefactoringService();
+            }
         }
 
-        return INSTANCE;
+        return manager;
     }
 
     /**
@@ -410,18 +432,73 @@ public final class RBManager {
      * @return The corresponding {@link RBManager} to the project
      */
     public static RBManager getInstance(String projectName) {
-        for (IProject project : getAllWorkspaceProjects(true)) {
-            if (project.getName().equals(projectName)) {
-                // check if the projectName is a fragment and return the manager
-                // for the host
-                if (PDEUtils.isFragment(project)) {
-                    return getInstance(PDEUtils.getFragmentHost(project));
-                } else {
-                    return getInstance(project);
-                }
+        if (projectName == null) {
+            return null;
+        }
+
+        RBManager manager = managersByName.get(projectName);
+        if (manager != null) {
+            return manager;
+        }
+
+        IProject project = ResourcesPlugin.getWorkspace().getRoot()
+                .getProject(projectName);
+        if (!project.isOpen()) {
+            return null;
+        }
+
+        // for a fragment this is the manager of the host
+        manager = getInstance(project);
+        if (manager != null) {
+            RBManager existing = managersByName.putIfAbsent(projectName,
+                    manager);
+            if (existing != null) {
+                manager = existing;
             }
         }
-        return null;
+        return manager;
+    }
+
+    /**
+     * Starts dropping the managers of projects being closed, deleted or
+     * renamed, once.
+     */
+    private static void listenToProjects() {
+        if (listening.compareAndSet(false, true)) {
+            ResourcesPlugin.getWorkspace().addResourceChangeListener(
+                    new IResourceChangeListener() {
+                        public void resourceChanged(IResourceChangeEvent event) {
+                            if (event.getResource() instanceof IProject) {
+                                // PRE_CLOSE and PRE_DELETE
+                                removeInstance((IProject) event.getResource());
+                            } else if (event.getDelta() != null) {
+                                for (IResourceDelta delta : event.getDelta()
+                                        .getAffectedChildren(
+                                                IResourceDelta.REMOVED)) {
+                                    if (delta.getResource() instanceof IProject) {
+                                        removeInstance((IProject) delta
+                                                .getResource());
+                                    }
+                                }
+                            }
+                        }
+                    },
+                    IResourceChangeEvent.PRE_CLOSE
+                            | IResourceChangeEvent.PRE_DELETE
+                            | IResourceChangeEvent.POST_CHANGE);
+        }
+    }
+
+    /*
+     * Drops the manager of a project and all names it is indexed by, as well
+     * as the name of the project if it is a fragment
+     */
+    private static void removeInstance(IProject project) {
+        RBManager manager = managerMap.remove(project);
+        managersByName.remove(project.getName());
+        if (manager != null) {
+            managersByName.values().removeAll(Collections.singleton(manager));
+        }
     }
 
     /**
@@ -16,6 +16,7 @@ import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Locale;
+import java.util.Map;
 
 import org.eclipse.babel.core.message.internal.MessageException;
 import org.eclipse.babel.core.message.internal.MessagesBundle;
@@ -24,7 +25,7 @@ import org.eclipse.babel.core.message.resource.ser.IPropertiesDeserializerConfig
 import org.eclipse.babel.core.message.resource.ser.IPropertiesSerializerConfig;
 import org.eclipse.babel.core.message.resource.ser.PropertiesDeserializer;
 import org.eclipse.babel.core.message.resource.ser.PropertiesSerializer;
-import org.eclipse.babel.core.util.BabelUtils;
+import org.eclipse.babel.core.util.LocaleSuffixParser;
 import org.eclipse.babel.core.util.NameUtils;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -50,8 +51,6 @@ public class PropertiesFileGroupStrategy implements
     private final String baseName;
     /** File extension. */
     private final String fileExtension;
-    /** Pattern used to match files in this strategy. */
-    private final String fileMatchPattern;
     /** Properties file serializer configuration. */
     private final IPropertiesSerializerConfig serializerConfig;
     /** Properties file deserializer configuration. */
@@ -70,18 +69,11 @@ public class PropertiesFileGroupStrategy implements
         this.serializerConfig = serializerConfig;
         this.deserializerConfig = deserializerConfig;
         this.file = file;
-        this.fileExtension = file.getName().replaceFirst("(.*\\.)(.*)", "$2"); //$NON-NLS-1$ //$NON-NLS-2$
-
-        String patternCore = "((_[a-z]{2,3})|(_[a-z]{2,3}_[A-Z]{2})" //$NON-NLS-1$
-                + "|(_[a-z]{2,3}_[A-Z]{2}_\\w*))?(\\." //$NON-NLS-1$
-                + fileExtension + ")$"; //$NON-NLS-1$
+        String name = file.getName();
+        this.fileExtension = name.substring(name.lastIndexOf('.') + 1);
 
         // Compute and cache name
-        String namePattern = "^(.*?)" + patternCore; //$NON-NLS-1$
-        this.baseName = file.getName().replaceFirst(namePattern, "$1"); //$NON-NLS-1$
-
-        // File matching pattern
-        this.fileMatchPattern = "^(" + baseName + ")" + patternCore; //$NON-NLS-1$//$NON-NLS-2$
+        this.baseName = LocaleSuffixParser.getBundleName(name);
     }
 
     /**
@@ -97,24 +89,14 @@ public class PropertiesFileGroupStrategy implements
      *      #loadMessagesBundles()
      */
     public MessagesBundle[] loadMessagesBundles() throws MessageException {
-        File[] resources = null;
         File parentDir = file.getParentFile();
-        if (parentDir != null) {
-            resources = parentDir.listFiles();
+        if (parentDir == null) {
+            return EMPTY_MESSAGES;
         }
         Collection<MessagesBundle> bundles = new ArrayList<MessagesBundle>();
-        if (resources != null) {
-            for (int i = 0; i < resources.length; i++) {
-                File resource = resources[i];
-                String resourceName = resource.getName();
-                if (resource.isFile() && resourceName.matches(fileMatchPattern)) {
-                    // Build local title
-                    String localeText = resourceName.replaceFirst(
-                            fileMatchPattern, "$2"); //$NON-NLS-1$
-                    Locale locale = BabelUtils.parseLocale(localeText);
-                    bundles.add(createBundle(locale, resource));
-                }
-            }
+        for (Map.Entry<Locale, File> resource : PropertiesFileGroups
+                .getBundleFiles(parentDir, baseName, fileExtension).entrySet()) {
+            bundles.add(createBundle(resource.getKey(), resource.getValue()));
         }
         return bundles.toArray(EMPTY_MESSAGES);
     }
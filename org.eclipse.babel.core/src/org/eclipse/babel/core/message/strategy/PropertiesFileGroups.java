@@ -0,0 +1,143 @@
+package org.eclipse.babel.core.message.strategy;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.babel.core.util.LocaleSuffixParser;
+
+/**
+ * The properties files of a directory, grouped by bundle in a single pass
+ * over the directory, as used by {@link PropertiesFileGroupStrategy}.
+ * <p>
+ * The groupings of the most recently used directories are cached and kept
+ * as long as the last-modified time of the directory does not change, which
+ * happens whenever a file is added, removed or renamed. Opening several
+ * bundles of the same package therefore lists the directory only once.
+ * </p>
+ */
+public final class PropertiesFileGroups {
+
+    /** Number of directories kept in the cache. */
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * Directories modified more recently than this many milliseconds before
+     * their scan are not cached, since a file added within the resolution of
+     * the file system's timestamps would not change the last-modified time.
+     */
+    private static final long TIMESTAMP_RESOLUTION = 2000;
+
+    private static final Map<File, PropertiesFileGroups> CACHE = new LinkedHashMap<File, PropertiesFileGroups>(
+            16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<File, PropertiesFileGroups> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final long lastModified;
+
+    /** The files of each bundle by locale, the bundles by family name. */
+    private final Map<String, Map<Locale, File>> families;
+
+    private PropertiesFileGroups(long lastModified,
+            Map<String, Map<Locale, File>> families) {
+        this.lastModified = lastModified;
+        this.families = Collections.unmodifiableMap(families);
+    }
+
+    /**
+     * Gets the files of a bundle.
+     *
+     * @param directory
+     *            the directory of the bundle
+     * @param baseName
+     *            the base name of the bundle, e.g. <code>messages</code>
+     * @param fileExtension
+     *            the extension of the files, e.g. <code>properties</code>
+     * @return the files of the bundle by locale, with the <code>null</code>
+     *         locale for the default file; empty if there are none
+     */
+    public static Map<Locale, File> getBundleFiles(File directory,
+            String baseName, String fileExtension) {
+        Map<Locale, File> files = getFamilies(directory).get(
+                baseName + '.' + fileExtension);
+        if (files == null) {
+            return Collections.emptyMap();
+        }
+        return files;
+    }
+
+    /**
+     * Gets all bundles of a directory.
+     *
+     * @param directory
+     *            a directory
+     * @return the files of each bundle by locale, the bundles by their file
+     *         name without locale suffix, e.g. <code>messages.properties</code>
+     */
+    public static Map<String, Map<Locale, File>> getFamilies(File directory) {
+        long lastModified = directory.lastModified();
+        synchronized (CACHE) {
+            PropertiesFileGroups groups = CACHE.get(directory);
+            if (groups == null || groups.lastModified != lastModified) {
+                groups = scan(directory, lastModified);
+                long age = System.currentTimeMillis() - lastModified;
+                if (groups != null && age >= TIMESTAMP_RESOLUTION) {
+                    CACHE.put(directory, groups);
+                } else {
+                    CACHE.remove(directory);
+                }
+            }
+            if (groups == null) {
+                return Collections.emptyMap();
+            }
+            return groups.families;
+        }
+    }
+
+    private static PropertiesFileGroups scan(File directory, long lastModified) {
+        File[] resources = directory.listFiles();
+        if (resources == null) {
+            return null;
+        }
+        Map<String, Map<Locale, File>> families = new LinkedHashMap<String, Map<Locale, File>>();
+        for (File resource : resources) {
+            String name = resource.getName();
+            int extension = name.lastIndexOf('.');
+            if (extension < 0 || !resource.isFile()) {
+                continue;
+            }
+            int suffix = LocaleSuffixParser.indexOfLocaleSuffix(name,
+                    extension);
+            String family = name;
+            Locale locale = null;
+            if (suffix >= 0) {
+                family = name.substring(0, suffix) + name.substring(extension);
+                locale = LocaleSuffixParser.getLocale(name.substring(
+                        suffix + 1, extension));
+                if (locale == null) {
+                    // must not take the place of the default file
+                    continue;
+                }
+            }
+
+            Map<Locale, File> files = families.get(family);
+            if (files == null) {
+                files = new LinkedHashMap<Locale, File>(4);
+                families.put(family, files);
+            }
+            files.put(locale, resource);
+        }
+        for (Map.Entry<String, Map<Locale, File>> entry : families.entrySet()) {
+            entry.setValue(Collections.unmodifiableMap(entry.getValue()));
+        }
+        return new PropertiesFileGroups(lastModified, families);
+    }
+}
@@ -10,10 +10,7 @@
  ******************************************************************************/
 package org.eclipse.babel.core.util;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Locale;
-import java.util.StringTokenizer;
 
 /**
  * Utility methods of all kinds used across the Babel API.
@@ -72,36 +69,22 @@ public final class BabelUtils {
 
     /**
      * Parses a string into a locale. The string is expected to be of the same
-     * format of the string obtained by calling Locale.toString().
+     * format of the string obtained by calling Locale.toString(), optionally
+     * preceded by the underscore of a locale suffix.
      * 
      * @param localeString
      *            string representation of a locale
-     * @return a locale or <code>null</code> if string is empty or null
+     * @return a locale or <code>null</code> if string is empty or null, or
+     *         not a valid locale suffix
+     * @see LocaleSuffixParser#getLocale(String)
      */
     public static Locale parseLocale(String localeString) {
         if (localeString == null || localeString.trim().length() == 0) {
             return null;
         }
-        StringTokenizer tokens = new StringTokenizer(localeString, "_"); //$NON-NLS-1$
-        List<String> localeSections = new ArrayList<String>();
-        while (tokens.hasMoreTokens()) {
-            localeSections.add(tokens.nextToken());
+        if (localeString.startsWith("_")) { //$NON-NLS-1$
+            localeString = localeString.substring(1);
         }
-        Locale locale = null;
-        switch (localeSections.size()) {
-        case 1:
-            locale = new Locale(localeSections.get(0));
-            break;
-        case 2:
-            locale = new Locale(localeSections.get(0), localeSections.get(1));
-            break;
-        case 3:
-            locale = new Locale(localeSections.get(0), localeSections.get(1),
-                    localeSections.get(2));
-            break;
-        default:
-            break;
-        }
-        return locale;
+        return LocaleSuffixParser.getLocale(localeString);
     }
 }
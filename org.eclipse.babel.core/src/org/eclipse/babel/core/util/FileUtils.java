@@ -14,7 +14,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 
 import org.eclipse.babel.core.configuration.ConfigurationManager;
-import org.eclipse.babel.core.configuration.DirtyHack;
+import org.eclipse.babel.core.message.EventSuppression;
 import org.eclipse.babel.core.message.IMessagesBundle;
 import org.eclipse.babel.core.message.resource.internal.PropertiesFileResource;
 import org.eclipse.babel.core.message.resource.ser.PropertiesSerializer;
@@ -30,12 +30,12 @@ import org.eclipse.core.resources.ResourcesPlugin;
 public class FileUtils {
 
     public static void writeToFile(IMessagesBundle bundle) {
-        DirtyHack.setEditorModificationEnabled(false);
-
         PropertiesSerializer ps = new PropertiesSerializer(ConfigurationManager
                 .getInstance().getSerializerConfig());
         String editorContent = ps.serialize(bundle);
         IFile file = getFile(bundle);
+        EventSuppression suppression = EventSuppression
+                .suppressEditorModification(bundle);
         try {
             file.refreshLocal(IResource.DEPTH_ZERO, null);
             file.setContents(
@@ -45,7 +45,7 @@ public class FileUtils {
         } catch (Exception e) {
             e.printStackTrace();
         } finally {
-            DirtyHack.setEditorModificationEnabled(true);
+            suppression.close();
         }
     }
 
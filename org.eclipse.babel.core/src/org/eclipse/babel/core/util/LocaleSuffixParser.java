@@ -0,0 +1,200 @@
+package org.eclipse.babel.core.util;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.Set;
+
+/**
+ * Splits the names of resource bundle files into the bundle name and the
+ * locale suffix, as in <code>messages_de_AT.properties</code>, without
+ * regular expressions, and turns the suffix into a {@link Locale}.
+ * <p>
+ * A suffix is made of the segments that
+ * {@link java.util.ResourceBundle.Control#toBundleName(String, Locale)}
+ * appends, each preceded by an underscore: a language, an optional country
+ * (<code>AT</code> or <code>419</code>) and an optional variant, which may
+ * only follow a country or an empty country (<code>en__POSIX</code>). The
+ * language must be a known ISO 639 code, so that underscores inside base
+ * names, as in <code>my_app_messages.properties</code>, are not taken for a
+ * locale. Script subtags (<code>sr_Latn</code>) are not part of a suffix,
+ * since a {@link Locale} cannot hold them before Java 7.
+ * </p>
+ */
+public final class LocaleSuffixParser {
+
+    /** The known ISO 639 language codes, of two and of three letters. */
+    private static final Set<String> LANGUAGES = new HashSet<String>();
+
+    static {
+        for (String language : Locale.getISOLanguages()) {
+            LANGUAGES.add(language);
+            try {
+                LANGUAGES.add(new Locale(language).getISO3Language());
+            } catch (MissingResourceException e) {
+                // no three letter code
+            }
+        }
+        for (Locale locale : Locale.getAvailableLocales()) {
+            if (locale.getLanguage().length() > 0) {
+                LANGUAGES.add(locale.getLanguage());
+            }
+        }
+    }
+
+    private LocaleSuffixParser() {
+        super();
+    }
+
+    /**
+     * Gets the bundle name of a file name, which is the name without its
+     * extension and its locale suffix. A file name without extension is
+     * returned as is.
+     *
+     * @param fileName
+     *            the name of a resource bundle file, such as
+     *            <code>messages_de_AT.properties</code>
+     * @return the bundle name, such as <code>messages</code>
+     */
+    public static String getBundleName(String fileName) {
+        int extension = fileName.lastIndexOf('.');
+        if (extension < 0) {
+            return fileName;
+        }
+        int suffix = indexOfLocaleSuffix(fileName, extension);
+        return fileName.substring(0, suffix < 0 ? extension : suffix);
+    }
+
+    /**
+     * Gets the locale of a locale suffix.
+     *
+     * @param suffix
+     *            the suffix without its leading underscore, such as
+     *            <code>de_AT</code> or <code>en__POSIX</code>
+     * @return the locale, or <code>null</code> if the text is not a valid
+     *         locale suffix
+     */
+    public static Locale getLocale(String suffix) {
+        int end = suffix.length();
+        if (!isLocaleSuffix(suffix, 0, end)) {
+            return null;
+        }
+
+        int languageEnd = indexOfUnderscore(suffix, 0, end);
+        String language = suffix.substring(0, languageEnd);
+        if (languageEnd == end) {
+            return new Locale(language);
+        }
+        int countryEnd = indexOfUnderscore(suffix, languageEnd + 1, end);
+        String country = suffix.substring(languageEnd + 1, countryEnd);
+        if (countryEnd == end) {
+            return new Locale(language, country);
+        }
+        // the variant may contain underscores
+        return new Locale(language, country, suffix.substring(countryEnd + 1));
+    }
+
+    /**
+     * Finds the locale suffix of a name, which is the longest valid one, so
+     * that the base name is the shortest one, as with the former regular
+     * expressions.
+     *
+     * @param name
+     *            the text to search
+     * @param end
+     *            the index where the name ends, e.g. the index of the dot
+     *            before the file extension
+     * @return the index of the underscore where the suffix starts, or
+     *         <code>-1</code> if the name has no locale suffix
+     */
+    public static int indexOfLocaleSuffix(String name, int end) {
+        int suffix = -1;
+        for (int i = end - 1; i > 0; i--) {
+            if (name.charAt(i) == '_' && isLocaleSuffix(name, i + 1, end)) {
+                suffix = i;
+            }
+        }
+        return suffix;
+    }
+
+    /**
+     * Answers whether the text between the given indexes, after the first
+     * underscore of a suffix, is a valid locale suffix.
+     */
+    private static boolean isLocaleSuffix(String name, int start, int end) {
+        // language
+        int segmentEnd = indexOfUnderscore(name, start, end);
+        if (!isLanguage(name, start, segmentEnd)) {
+            return false;
+        }
+        if (segmentEnd == end) {
+            return true;
+        }
+
+        start = segmentEnd + 1;
+        segmentEnd = indexOfUnderscore(name, start, end);
+
+        // country, followed by the variant which may contain underscores
+        if (isCountry(name, start, segmentEnd)) {
+            return segmentEnd == end || isVariant(name, segmentEnd + 1, end);
+        }
+        // an empty country before a variant, as in en__POSIX
+        return start == segmentEnd && segmentEnd + 1 < end
+                && isVariant(name, segmentEnd + 1, end);
+    }
+
+    private static int indexOfUnderscore(String name, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (name.charAt(i) == '_') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isLanguage(String name, int start, int end) {
+        int length = end - start;
+        if (length < 2 || length > 3) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return LANGUAGES.contains(name.substring(start, end));
+    }
+
+    private static boolean isCountry(String name, int start, int end) {
+        if (end - start == 2) {
+            return isUpperCase(name.charAt(start))
+                    && isUpperCase(name.charAt(start + 1));
+        }
+        if (end - start == 3) {
+            for (int i = start; i < end; i++) {
+                char c = name.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isVariant(String name, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (!isUpperCase(c) && (c < 'a' || c > 'z')
+                    && (c < '0' || c > '9') && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+}
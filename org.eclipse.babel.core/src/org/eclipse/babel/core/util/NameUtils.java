@@ -40,13 +40,14 @@ public class NameUtils {
                 + getResourceBundleName(resource);
     }
 
+    /**
+     * Gets the name of the resource bundle of a properties file, which is the
+     * file name without the locale suffix and the extension.
+     * 
+     * @see LocaleSuffixParser#getBundleName(String)
+     */
     public static String getResourceBundleName(IResource res) {
-        String name = res.getName();
-        String regex = "^(.*?)" //$NON-NLS-1$
-                + "((_[a-z]{2,3})|(_[a-z]{2,3}_[A-Z]{2})" //$NON-NLS-1$
-                + "|(_[a-z]{2,3}_[A-Z]{2}_\\w*))?(\\." //$NON-NLS-1$
-                + res.getFileExtension() + ")$"; //$NON-NLS-1$
-        return name.replaceFirst(regex, "$1"); //$NON-NLS-1$
+        return LocaleSuffixParser.getBundleName(res.getName());
     }
 
     public static Locale getLocaleByName(String bundleName, String localeID) {
@@ -54,11 +55,10 @@ public class NameUtils {
         if (theBundleName.contains(".")) {
             // we entered this method with the rbID and not the name!
             theBundleName = theBundleName
-                    .substring(theBundleName.indexOf(".") + 1);
+                    .substring(theBundleName.lastIndexOf(".") + 1);
         }
 
         // Check locale
-        Locale locale = null;
         localeID = localeID.substring(0,
                 localeID.length() - "properties".length() - 1);
         if (localeID.length() == theBundleName.length()) {
@@ -66,25 +66,7 @@ public class NameUtils {
             return null;
         } else {
             localeID = localeID.substring(theBundleName.length() + 1);
-            String[] localeTokens = localeID.split("_");
-
-            switch (localeTokens.length) {
-            case 1:
-                locale = new Locale(localeTokens[0]);
-                break;
-            case 2:
-                locale = new Locale(localeTokens[0], localeTokens[1]);
-                break;
-            case 3:
-                locale = new Locale(localeTokens[0], localeTokens[1],
-                        localeTokens[2]);
-                break;
-            default:
-                locale = null;
-                break;
-            }
+            return LocaleSuffixParser.getLocale(localeID);
         }
-
-        return locale;
     }
 }
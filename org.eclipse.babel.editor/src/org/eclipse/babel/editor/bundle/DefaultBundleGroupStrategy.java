@@ -24,6 +24,7 @@ import org.eclipse.babel.core.message.resource.ser.PropertiesDeserializer;
 import org.eclipse.babel.core.message.resource.ser.PropertiesSerializer;
 import org.eclipse.babel.core.message.strategy.IMessagesBundleGroupStrategy;
 import org.eclipse.babel.core.util.BabelUtils;
+import org.eclipse.babel.core.util.NameUtils;
 import org.eclipse.babel.editor.plugin.MessagesEditorPlugin;
 import org.eclipse.babel.editor.preferences.MsgEditorPreferences;
 import org.eclipse.babel.editor.resource.EclipsePropertiesEditorResource;
@@ -121,12 +122,7 @@ public class DefaultBundleGroupStrategy implements IMessagesBundleGroupStrategy
     }
 
     public static String getResourceBundleName(IResource res) {
-        String name = res.getName();
-        String regex = "^(.*?)" //$NON-NLS-1$
-                + "((_[a-z]{2,3})|(_[a-z]{2,3}_[A-Z]{2})" //$NON-NLS-1$
-                + "|(_[a-z]{2,3}_[A-Z]{2}_\\w*))?(\\." //$NON-NLS-1$
-                + res.getFileExtension() + ")$"; //$NON-NLS-1$
-        return name.replaceFirst(regex, "$1"); //$NON-NLS-1$
+        return NameUtils.getResourceBundleName(res);
     }
 
     /**
@@ -201,6 +201,7 @@ public class MessagesEditorPlugin extends AbstractUIPlugin implements
      * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
      */
     public void stop(BundleContext context) throws Exception {
+        disposeModel();
         plugin = null;
         ResourcesPlugin.getWorkspace().removeResourceChangeListener(
                 resourceChangeListener);
@@ -349,12 +350,16 @@ public class MessagesEditorPlugin extends AbstractUIPlugin implements
     public static ResourceBundleModel getModel(IProgressMonitor monitor) {
         if (plugin.model == null) {
             plugin.model = new ResourceBundleModel(monitor);
+            ResourcesPlugin.getWorkspace().addResourceChangeListener(
+                    plugin.model, IResourceChangeEvent.POST_CHANGE);
         }
         return plugin.model;
     }
 
     public static void disposeModel() {
-        if (plugin != null) {
+        if (plugin != null && plugin.model != null) {
+            ResourcesPlugin.getWorkspace().removeResourceChangeListener(
+                    plugin.model);
             plugin.model = null;
         }
     }
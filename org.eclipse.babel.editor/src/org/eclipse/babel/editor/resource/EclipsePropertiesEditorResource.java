@@ -13,7 +13,7 @@ package org.eclipse.babel.editor.resource;
 
 import java.util.Locale;
 
-import org.eclipse.babel.core.configuration.DirtyHack;
+import org.eclipse.babel.core.message.EventSuppression;
 import org.eclipse.babel.core.message.resource.internal.AbstractPropertiesResource;
 import org.eclipse.babel.core.message.resource.ser.PropertiesDeserializer;
 import org.eclipse.babel.core.message.resource.ser.PropertiesSerializer;
@@ -143,7 +143,7 @@ public class EclipsePropertiesEditorResource extends AbstractPropertiesResource
         // [alst] muss 2x speichern wenn async exec
         // Display.getDefault().asyncExec(new Runnable() {
         // public void run() {
-        if (DirtyHack.isEditorModificationEnabled()) {
+        if (!EventSuppression.isEditorModificationSuppressed(this)) {
             textEditor.getDocumentProvider()
                     .getDocument(textEditor.getEditorInput()).set(content);
         }
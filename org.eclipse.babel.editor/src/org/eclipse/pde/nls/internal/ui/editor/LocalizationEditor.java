@@ -801,6 +801,9 @@ public class LocalizationEditor extends EditorPart {
      */
     @Override
     public void dispose() {
+        if (searchJob != null) {
+            searchJob.cancel();
+        }
         saveSettings();
         if (formImage != null) {
             formImage.dispose();
@@ -822,48 +825,22 @@ public class LocalizationEditor extends EditorPart {
         searchJob = new Job("Localization Editor Search...") {
 
             @Override
-            protected IStatus run(IProgressMonitor monitor) {
+            protected IStatus run(final IProgressMonitor monitor) {
+                final Job job = this;
                 Display.getDefault().syncExec(new Runnable() {
                     public void run() {
                         form.setBusy(true);
                     }
                 });
 
-                String keyPattern = pattern;
-                if (!pattern.endsWith("*")) { //$NON-NLS-1$
-                    keyPattern = pattern.concat("*"); //$NON-NLS-1$
-                }
-                String strPattern = keyPattern;
-                if (strPattern.length() > 0 && !strPattern.startsWith("*")) { //$NON-NLS-1$
-                    strPattern = "*".concat(strPattern); //$NON-NLS-1$
-                }
-
                 ResourceBundleModel model = MessagesEditorPlugin
                         .getModel(new NullProgressMonitor());
-                Locale[] locales = getLocales();
 
-                // Collect keys
-                ResourceBundleKey[] keys;
-                if (!filterOptions.filterPlugins
-                        || filterOptions.pluginPatterns == null
-                        || filterOptions.pluginPatterns.length == 0) {
-
-                    // Ensure the bundles are loaded
-                    for (Locale locale : locales) {
-                        try {
-                            model.loadBundles(locale);
-                        } catch (CoreException e) {
-                            MessagesEditorPlugin.log(e);
-                        }
-                    }
-
-                    try {
-                        keys = model.getAllKeys();
-                    } catch (CoreException e) {
-                        MessagesEditorPlugin.log(e);
-                        keys = new ResourceBundleKey[0];
-                    }
-                } else {
+                // Collect families
+                ResourceBundleFamily[] families = model.getFamilies();
+                if (filterOptions.filterPlugins
+                        && filterOptions.pluginPatterns != null
+                        && filterOptions.pluginPatterns.length > 0) {
                     String[] patterns = filterOptions.pluginPatterns;
                     StringMatcher[] matchers = new StringMatcher[patterns.length];
                     for (int i = 0; i < matchers.length; i++) {
@@ -871,113 +848,48 @@ public class LocalizationEditor extends EditorPart {
                                 false);
                     }
 
-                    int size = 0;
-                    ResourceBundleFamily[] allFamilies = model.getFamilies();
-                    ArrayList<ResourceBundleFamily> families = new ArrayList<ResourceBundleFamily>();
-                    for (int i = 0; i < allFamilies.length; i++) {
-                        ResourceBundleFamily family = allFamilies[i];
+                    ArrayList<ResourceBundleFamily> filteredFamilies = new ArrayList<ResourceBundleFamily>();
+                    for (ResourceBundleFamily family : families) {
                         String pluginId = family.getPluginId();
                         for (StringMatcher matcher : matchers) {
                             if (matcher.match(pluginId)) {
-                                families.add(family);
+                                filteredFamilies.add(family);
                                 break;
                             }
                         }
-
-                    }
-                    for (ResourceBundleFamily family : families) {
-                        size += family.getKeyCount();
-                    }
-
-                    ArrayList<ResourceBundleKey> filteredKeys = new ArrayList<ResourceBundleKey>(
-                            size);
-                    for (ResourceBundleFamily family : families) {
-                        // Ensure the bundles are loaded
-                        for (Locale locale : locales) {
-                            try {
-                                ResourceBundle bundle = family
-                                        .getBundle(locale);
-                                if (bundle != null) {
-                                    bundle.load();
-                                }
-                            } catch (CoreException e) {
-                                MessagesEditorPlugin.log(e);
-                            }
-                        }
-
-                        ResourceBundleKey[] familyKeys = family.getKeys();
-                        for (ResourceBundleKey key : familyKeys) {
-                            filteredKeys.add(key);
-                        }
                     }
-                    keys = filteredKeys
-                            .toArray(new ResourceBundleKey[filteredKeys.size()]);
+                    families = filteredFamilies
+                            .toArray(new ResourceBundleFamily[filteredFamilies
+                                    .size()]);
                 }
 
-                // Filter keys
-                ArrayList<ResourceBundleKey> filtered = new ArrayList<ResourceBundleKey>();
-
-                StringMatcher keyMatcher = new StringMatcher(keyPattern, true,
-                        false);
-                StringMatcher strMatcher = new StringMatcher(strPattern, true,
-                        false);
-                for (ResourceBundleKey key : keys) {
-                    if (monitor.isCanceled()) {
-                        return Status.OK_STATUS;
-                    }
-
-                    // Missing entries
-                    if (filterOptions.keysWithMissingEntriesOnly) {
-                        boolean hasMissingEntry = false;
-                        // Check all columns for missing values
-                        for (Object config : columnConfigs) {
-                            if (config == KEY) {
-                                continue;
-                            }
-                            Locale locale = (Locale) config;
-                            String value = null;
-                            try {
-                                value = key.getValue(locale);
-                            } catch (CoreException e) {
-                                MessagesEditorPlugin.log(e);
-                            }
-                            if (value == null || value.length() == 0) {
-                                hasMissingEntry = true;
-                                break;
+                // Filter keys, showing unsorted matches as they are found
+                LocalizationQuery query = new LocalizationQuery(pattern,
+                        getLocales(), filterOptions.keysWithMissingEntriesOnly,
+                        LocalizationQuery.DEFAULT_CHUNK_SIZE);
+                ResourceBundleKey[] array = query.run(families, monitor,
+                        new LocalizationQuery.ResultCollector() {
+                            private boolean firstChunk = true;
+
+                            public void accept(final ResourceBundleKey[] matches) {
+                                final boolean first = firstChunk;
+                                firstChunk = false;
+                                Display.getDefault().asyncExec(new Runnable() {
+                                    public void run() {
+                                        if (searchJob != job
+                                                || monitor.isCanceled()
+                                                || table.isDisposed()) {
+                                            return;
+                                        }
+                                        appendSearchResult(matches, first);
+                                    }
+                                });
                             }
-                        }
-                        if (!hasMissingEntry) {
-                            continue;
-                        }
-                    }
-
-                    // Match key
-                    if (keyMatcher.match(key.getName())) {
-                        filtered.add(key);
-                        continue;
-                    }
-
-                    // Match entries
-                    for (Object config : columnConfigs) {
-                        if (config == KEY) {
-                            continue;
-                        }
-                        Locale locale = (Locale) config;
-                        String value = null;
-                        try {
-                            value = key.getValue(locale);
-                        } catch (CoreException e) {
-                            MessagesEditorPlugin.log(e);
-                        }
-                        if (strMatcher.match(value)) {
-                            filtered.add(key);
-                            break;
-                        }
-                    }
+                        });
+                if (array == null) {
+                    return Status.OK_STATUS;
                 }
 
-                ResourceBundleKey[] array = filtered
-                        .toArray(new ResourceBundleKey[filtered.size()]);
                 if (sortOrder == KEY) {
                     Arrays.sort(array, new Comparator<ResourceBundleKey>() {
                         public int compare(ResourceBundleKey o1,
@@ -990,19 +902,20 @@ public class LocalizationEditor extends EditorPart {
                     Locale locale = (Locale) sortOrder;
                     Arrays.sort(array, new BundleStringComparator(locale));
                 }
-                entryList = new ResourceBundleKeyList(array);
+                final ResourceBundleKeyList sortedList = new ResourceBundleKeyList(
+                        array);
 
                 if (monitor.isCanceled()) {
                     return Status.OK_STATUS;
                 }
 
-                final ResourceBundleKeyList entryList2 = entryList;
                 Display.getDefault().syncExec(new Runnable() {
                     public void run() {
-                        form.setBusy(false);
-                        if (entryList2 != null) {
-                            entryList = entryList2;
+                        if (searchJob != job || table.isDisposed()) {
+                            return;
                         }
+                        form.setBusy(false);
+                        entryList = sortedList;
                         setSearchResult(entryList);
                     }
                 });
@@ -1018,6 +931,27 @@ public class LocalizationEditor extends EditorPart {
         table.getParent().layout(true, true);
     }
 
+    /**
+     * Shows the next matches of a search that is still running.
+     * 
+     * @param matches
+     *            the matches found since the previous call
+     * @param first
+     *            <code>true</code> for the first matches of a search, which
+     *            replace the previous result; otherwise the rows already shown
+     *            are kept and the new matches are appended
+     */
+    protected void appendSearchResult(ResourceBundleKey[] matches,
+            boolean first) {
+        if (first) {
+            entryList = new ResourceBundleKeyList(matches);
+            setSearchResult(entryList);
+        } else {
+            entryList.append(matches);
+            table.setItemCount(entryList.getSize());
+        }
+    }
+
     protected void setSearchResult(ResourceBundleKeyList entryList) {
         table.removeAll();
         if (entryList != null) {
@@ -0,0 +1,198 @@
+package org.eclipse.pde.nls.internal.ui.editor;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+import org.eclipse.babel.editor.plugin.MessagesEditorPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.pde.nls.internal.ui.model.ResourceBundle;
+import org.eclipse.pde.nls.internal.ui.model.ResourceBundleFamily;
+import org.eclipse.pde.nls.internal.ui.model.ResourceBundleKey;
+import org.eclipse.ui.internal.misc.StringMatcher;
+
+/**
+ * A search over the keys and values of resource bundle families, as run by
+ * the {@link LocalizationEditor}.
+ * <p>
+ * Families are processed one at a time: the bundles of a family are loaded
+ * (bundles that are already loaded and unchanged are reused) and its keys are
+ * matched before the next family is touched. Matches are handed to a
+ * {@link ResultCollector} in chunks, so the first results can be shown long
+ * before the whole workspace has been searched.
+ * </p>
+ */
+@SuppressWarnings("restriction")
+public class LocalizationQuery {
+
+    /**
+     * Receives the matches of a query as they are found.
+     */
+    public interface ResultCollector {
+
+        /**
+         * Called with the next matches, in the order they were found.
+         *
+         * @param matches
+         *            the matches found since the previous call; never empty
+         */
+        public void accept(ResourceBundleKey[] matches);
+
+    }
+
+    public static final int DEFAULT_CHUNK_SIZE = 200;
+
+    private static final Locale ROOT_LOCALE = new Locale("", "", ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+    private final StringMatcher keyMatcher;
+    private final StringMatcher strMatcher;
+    private final Locale[] locales;
+    private final boolean missingEntriesOnly;
+    private final int chunkSize;
+
+    /**
+     * @param pattern
+     *            the search pattern as entered by the user
+     * @param locales
+     *            the locales of the visible columns; only values of these
+     *            locales are matched
+     * @param missingEntriesOnly
+     *            whether to only match keys lacking a value in one of the
+     *            locales
+     * @param chunkSize
+     *            the number of matches to collect before passing them on
+     */
+    public LocalizationQuery(String pattern, Locale[] locales,
+            boolean missingEntriesOnly, int chunkSize) {
+        String keyPattern = pattern;
+        if (!pattern.endsWith("*")) { //$NON-NLS-1$
+            keyPattern = pattern.concat("*"); //$NON-NLS-1$
+        }
+        String strPattern = keyPattern;
+        if (strPattern.length() > 0 && !strPattern.startsWith("*")) { //$NON-NLS-1$
+            strPattern = "*".concat(strPattern); //$NON-NLS-1$
+        }
+        this.keyMatcher = new StringMatcher(keyPattern, true, false);
+        this.strMatcher = new StringMatcher(strPattern, true, false);
+        this.locales = locales;
+        this.missingEntriesOnly = missingEntriesOnly;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Runs the query over the given families.
+     *
+     * @param families
+     *            the families to search
+     * @param monitor
+     *            checked for cancellation between keys
+     * @param collector
+     *            receives the matches in chunks, may be <code>null</code>
+     * @return all matches in the order they were found, or <code>null</code>
+     *         if the query was canceled
+     */
+    public ResourceBundleKey[] run(ResourceBundleFamily[] families,
+            IProgressMonitor monitor, ResultCollector collector) {
+        ArrayList<ResourceBundleKey> filtered = new ArrayList<ResourceBundleKey>();
+        int reported = 0;
+        for (ResourceBundleFamily family : families) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            loadBundles(family);
+
+            for (ResourceBundleKey key : family.getKeys()) {
+                if (monitor.isCanceled()) {
+                    return null;
+                }
+                if (matches(key)) {
+                    filtered.add(key);
+                }
+            }
+
+            if (collector != null && filtered.size() - reported >= chunkSize) {
+                reported = report(filtered, reported, collector);
+            }
+        }
+        if (collector != null && filtered.size() > reported) {
+            report(filtered, reported, collector);
+        }
+        return filtered.toArray(new ResourceBundleKey[filtered.size()]);
+    }
+
+    /**
+     * Tests whether the given key matches this query.
+     *
+     * @param key
+     *            the key to test
+     * @return <code>true</code> if the key matches
+     */
+    public boolean matches(ResourceBundleKey key) {
+        // Missing entries
+        if (missingEntriesOnly) {
+            boolean hasMissingEntry = false;
+            for (Locale locale : locales) {
+                String value = getValue(key, locale);
+                if (value == null || value.length() == 0) {
+                    hasMissingEntry = true;
+                    break;
+                }
+            }
+            if (!hasMissingEntry) {
+                return false;
+            }
+        }
+
+        // Match key
+        if (keyMatcher.match(key.getName())) {
+            return true;
+        }
+
+        // Match entries
+        for (Locale locale : locales) {
+            String value = getValue(key, locale);
+            if (value != null && strMatcher.match(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void loadBundles(ResourceBundleFamily family) {
+        // The keys of a family are only known once its default bundle is loaded
+        loadBundle(family, ROOT_LOCALE);
+        for (Locale locale : locales) {
+            loadBundle(family, locale);
+        }
+    }
+
+    private void loadBundle(ResourceBundleFamily family, Locale locale) {
+        ResourceBundle bundle = family.getBundle(locale);
+        if (bundle != null) {
+            try {
+                bundle.load();
+            } catch (CoreException e) {
+                MessagesEditorPlugin.log(e);
+            }
+        }
+    }
+
+    private String getValue(ResourceBundleKey key, Locale locale) {
+        try {
+            return key.getValue(locale);
+        } catch (CoreException e) {
+            MessagesEditorPlugin.log(e);
+            return null;
+        }
+    }
+
+    private int report(ArrayList<ResourceBundleKey> filtered, int from,
+            ResultCollector collector) {
+        int to = filtered.size();
+        ResourceBundleKey[] chunk = filtered.subList(from, to).toArray(
+                new ResourceBundleKey[to - from]);
+        collector.accept(chunk);
+        return to;
+    }
+
+}
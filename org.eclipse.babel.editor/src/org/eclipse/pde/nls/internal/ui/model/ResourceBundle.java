@@ -12,6 +12,7 @@ package org.eclipse.pde.nls.internal.ui.model;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Locale;
@@ -21,6 +22,7 @@ import java.util.Set;
 
 import org.eclipse.babel.editor.plugin.MessagesEditorPlugin;
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.IJarEntryResource;
 
@@ -50,6 +52,11 @@ public class ResourceBundle extends ResourceBundleElement {
 
     private HashMap<String, String> entries;
 
+    /**
+     * The modification stamp of the underlying file when it was loaded.
+     */
+    private long loadedStamp = IResource.NULL_STAMP;
+
     public ResourceBundle(ResourceBundleFamily parent, Object resource,
             Locale locale) {
         super(parent);
@@ -78,7 +85,8 @@ public class ResourceBundle extends ResourceBundleElement {
     }
 
     public String getString(String key) throws CoreException {
-        load();
+        if (!isLoaded())
+            load();
         return entries.get(key);
     }
 
@@ -97,8 +105,27 @@ public class ResourceBundle extends ResourceBundleElement {
         return entries != null;
     }
 
+    /**
+     * Returns whether the underlying file has been modified since this bundle
+     * was loaded.
+     * 
+     * @return <code>true</code> if the loaded entries are out of date
+     */
+    protected boolean isStale() {
+        if (resource instanceof IFile) {
+            return ((IFile) resource).getModificationStamp() != loadedStamp;
+        }
+        return false;
+    }
+
+    /**
+     * Loads the entries of this bundle. A bundle that is already loaded is
+     * only read again if its file has been modified since.
+     * 
+     * @throws CoreException
+     */
     public void load() throws CoreException {
-        if (isLoaded())
+        if (isLoaded() && !isStale())
             return;
         entries = new HashMap<String, String>();
 
@@ -107,6 +134,7 @@ public class ResourceBundle extends ResourceBundleElement {
                System.out.println("Loading " + resource + "...");
             }
             IFile file = (IFile) resource;
+            loadedStamp = file.getModificationStamp();
             InputStream inputStream = file.getContents();
             Properties properties = new Properties();
             try {
@@ -133,6 +161,7 @@ public class ResourceBundle extends ResourceBundleElement {
 
     protected void unload() {
         entries = null;
+        loadedStamp = IResource.NULL_STAMP;
     }
 
     public boolean isReadOnly() {
@@ -162,14 +191,27 @@ public class ResourceBundle extends ResourceBundleElement {
     }
 
     public void put(String key, String value) throws CoreException {
-        load();
+        if (!isLoaded())
+            load();
         ResourceBundleFamily family = getFamily();
         entries.put(key, value);
         family.addKey(key);
     }
 
+    /**
+     * Returns the keys of this bundle if it is loaded, without loading it.
+     * 
+     * @return the keys, or an empty set if the bundle is not loaded
+     */
+    protected Set<String> getLoadedKeys() {
+        if (!isLoaded())
+            return Collections.emptySet();
+        return entries.keySet();
+    }
+
     public String[] getKeys() throws CoreException {
-        load();
+        if (!isLoaded())
+            load();
         Set<String> keySet = entries.keySet();
         return keySet.toArray(new String[keySet.size()]);
     }
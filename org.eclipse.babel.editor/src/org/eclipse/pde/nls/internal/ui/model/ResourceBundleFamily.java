@@ -108,12 +108,42 @@ public class ResourceBundleFamily extends ResourceBundleElement {
         members.add(bundle);
     }
 
+    protected void removeBundle(ResourceBundle bundle) {
+        members.remove(bundle);
+        rebuildKeys();
+    }
+
+    protected int getBundleCount() {
+        return members.size();
+    }
+
     protected void addKey(String key) {
         if (keys.get(key) == null) {
             keys.put(key, new ResourceBundleKey(this, key));
         }
     }
 
+    /**
+     * Recomputes the known keys from the loaded member bundles, so that keys
+     * of removed bundles, or removed from a reloaded file, are dropped. The
+     * key objects of the remaining keys are kept.
+     */
+    protected void rebuildKeys() {
+        HashMap<String, ResourceBundleKey> oldKeys = keys;
+        keys = new HashMap<String, ResourceBundleKey>();
+        for (ResourceBundle bundle : members) {
+            for (String key : bundle.getLoadedKeys()) {
+                if (keys.get(key) == null) {
+                    ResourceBundleKey bundleKey = oldKeys.get(key);
+                    if (bundleKey == null) {
+                        bundleKey = new ResourceBundleKey(this, key);
+                    }
+                    keys.put(key, bundleKey);
+                }
+            }
+        }
+    }
+
     public ResourceBundleKey[] getKeys() {
         Collection<ResourceBundleKey> values = keys.values();
         return values.toArray(new ResourceBundleKey[values.size()]);
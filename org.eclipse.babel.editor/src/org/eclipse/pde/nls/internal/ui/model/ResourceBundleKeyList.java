@@ -10,20 +10,43 @@
  *******************************************************************************/
 package org.eclipse.pde.nls.internal.ui.model;
 
+import java.util.Arrays;
+
 public class ResourceBundleKeyList {
 
-    private final ResourceBundleKey[] keys;
+    private ResourceBundleKey[] keys;
+
+    private int size;
 
     public ResourceBundleKeyList(ResourceBundleKey[] keys) {
         this.keys = keys;
+        this.size = keys.length;
     }
 
     public ResourceBundleKey getKey(int index) {
+        if (index >= size)
+            throw new ArrayIndexOutOfBoundsException(index);
         return keys[index];
     }
 
     public int getSize() {
-        return keys.length;
+        return size;
+    }
+
+    /**
+     * Appends keys to this list. The capacity grows geometrically, so that a
+     * list built from many small chunks is copied only a few times.
+     * 
+     * @param more
+     *            the keys to append
+     */
+    public void append(ResourceBundleKey[] more) {
+        if (size + more.length > keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(size + more.length,
+                    keys.length * 2));
+        }
+        System.arraycopy(more, 0, keys, size, more.length);
+        size += more.length;
     }
 
 }
@@ -11,6 +11,7 @@
 package org.eclipse.pde.nls.internal.ui.model;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
 
@@ -20,6 +21,10 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -37,15 +42,49 @@ import org.eclipse.osgi.service.resolver.BundleDescription;
 /**
  * A <code>ResourceBundleModel</code> is the host for all
  * {@link ResourceBundleFamily} elements.
+ * <p>
+ * The model is populated from the whole workspace once. When registered as a
+ * resource change listener, it afterwards rescans only the projects touched
+ * by a workspace delta.
+ * </p>
  */
-public class ResourceBundleModel extends ResourceBundleElement {
+public class ResourceBundleModel extends ResourceBundleElement implements
+        IResourceChangeListener {
 
     private static final String PROPERTIES_SUFFIX = ".properties"; //$NON-NLS-1$
 
     private static final String JAVA_NATURE = "org.eclipse.jdt.core.javanature"; //$NON-NLS-1$
 
+    /**
+     * Files whose addition, removal or change affects how the property files
+     * of a project are assigned to families.
+     */
+    private static final String[] PROJECT_SETUP_FILES = { ".classpath", //$NON-NLS-1$
+            ".project", "MANIFEST.MF", "plugin.xml", "fragment.xml" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+    private final IWorkspace workspace;
+
     private ArrayList<ResourceBundleFamily> bundleFamilies = new ArrayList<ResourceBundleFamily>();
 
+    /**
+     * Index of {@link #bundleFamilies} by project, plugin id, package name
+     * and base name.
+     */
+    private HashMap<FamilyKey, ResourceBundleFamily> familyIndex = new HashMap<FamilyKey, ResourceBundleFamily>();
+
+    /**
+     * The bundles contributed by each project, keyed by project name. Bundles
+     * of a fragment project are listed under the fragment, even though they
+     * belong to a family of the host.
+     */
+    private HashMap<String, ArrayList<ResourceBundle>> projectBundles = new HashMap<String, ArrayList<ResourceBundle>>();
+
+    /**
+     * The bundles backed by workspace files. A file may back more than one
+     * bundle if it is found by several of the scans of its project.
+     */
+    private HashMap<IFile, ArrayList<ResourceBundle>> fileBundles = new HashMap<IFile, ArrayList<ResourceBundle>>();
+
     /**
      * The locales for which all bundles have been loaded.
      */
@@ -54,7 +93,20 @@ public class ResourceBundleModel extends ResourceBundleElement {
     private HashSet<Locale> loadedLocales = new HashSet<Locale>();
 
     public ResourceBundleModel(IProgressMonitor monitor) {
+        this(ResourcesPlugin.getWorkspace(), monitor);
+    }
+
+    /**
+     * Creates a model of the given workspace.
+     * 
+     * @param workspace
+     *            the workspace to populate the model from
+     * @param monitor
+     *            the progress monitor
+     */
+    ResourceBundleModel(IWorkspace workspace, IProgressMonitor monitor) {
         super(null);
+        this.workspace = workspace;
         try {
             populateFromWorkspace(monitor);
         } catch (CoreException e) {
@@ -67,12 +119,13 @@ public class ResourceBundleModel extends ResourceBundleElement {
      * 
      * @return all resource bundle families contained in this model
      */
-    public ResourceBundleFamily[] getFamilies() {
+    public synchronized ResourceBundleFamily[] getFamilies() {
         return bundleFamilies.toArray(new ResourceBundleFamily[bundleFamilies
                 .size()]);
     }
 
-    public ResourceBundleFamily[] getFamiliesForPluginId(String pluginId) {
+    public synchronized ResourceBundleFamily[] getFamiliesForPluginId(
+            String pluginId) {
         ArrayList<ResourceBundleFamily> found = new ArrayList<ResourceBundleFamily>();
         for (ResourceBundleFamily family : bundleFamilies) {
             if (family.getPluginId().equals(pluginId)) {
@@ -82,7 +135,8 @@ public class ResourceBundleModel extends ResourceBundleElement {
         return found.toArray(new ResourceBundleFamily[found.size()]);
     }
 
-    public ResourceBundleFamily[] getFamiliesForProjectName(String projectName) {
+    public synchronized ResourceBundleFamily[] getFamiliesForProjectName(
+            String projectName) {
         ArrayList<ResourceBundleFamily> found = new ArrayList<ResourceBundleFamily>();
         for (ResourceBundleFamily family : bundleFamilies) {
             if (family.getProjectName().equals(projectName)) {
@@ -106,7 +160,8 @@ public class ResourceBundleModel extends ResourceBundleElement {
      * @return the array of bundles keys
      * @throws CoreException
      */
-    public ResourceBundleKey[] getAllKeys() throws CoreException {
+    public synchronized ResourceBundleKey[] getAllKeys()
+            throws CoreException {
         Locale root = new Locale("", "", "");
 
         // Ensure default bundle is loaded and count keys
@@ -137,7 +192,8 @@ public class ResourceBundleModel extends ResourceBundleElement {
      *            the locale of the bundles to load
      * @throws CoreException
      */
-    public void loadBundles(Locale locale) throws CoreException {
+    public synchronized void loadBundles(Locale locale)
+            throws CoreException {
         ResourceBundleFamily[] families = getFamilies();
         for (ResourceBundleFamily family : families) {
             ResourceBundle bundle = family.getBundle(locale);
@@ -154,7 +210,7 @@ public class ResourceBundleModel extends ResourceBundleElement {
      * @param locale
      *            the locale of the bundles to unload
      */
-    public void unloadBundles(Locale locale) {
+    public synchronized void unloadBundles(Locale locale) {
         if ("".equals(locale.getLanguage()))
             return; // never unload the default bundles
 
@@ -168,277 +224,449 @@ public class ResourceBundleModel extends ResourceBundleElement {
     }
 
     /**
+     * Updates the model for a workspace delta. Property files that were added
+     * or removed are added to, or removed from, their families; bundles whose
+     * file content changed are reloaded. Projects that were opened, closed,
+     * added or removed, or whose setup files changed, have their bundles
+     * removed and are scanned again. All other families are left untouched.
+     * 
+     * @see org.eclipse.core.resources.IResourceChangeListener#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)
+     */
+    public void resourceChanged(IResourceChangeEvent event) {
+        IResourceDelta delta = event.getDelta();
+        if (delta == null)
+            return;
+
+        final HashSet<IProject> affectedProjects = new HashSet<IProject>();
+        final ArrayList<IFile> addedFiles = new ArrayList<IFile>();
+        final ArrayList<IFile> removedFiles = new ArrayList<IFile>();
+        final ArrayList<IFile> changedFiles = new ArrayList<IFile>();
+        try {
+            delta.accept(new IResourceDeltaVisitor() {
+                public boolean visit(IResourceDelta resourceDelta)
+                        throws CoreException {
+                    IResource resource = resourceDelta.getResource();
+                    int kind = resourceDelta.getKind();
+                    if (resource instanceof IProject) {
+                        if (kind != IResourceDelta.CHANGED
+                                || (resourceDelta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0) {
+                            affectedProjects.add((IProject) resource);
+                            return false;
+                        }
+                    } else if (resource instanceof IFile) {
+                        String name = resource.getName();
+                        if (isProjectSetupFile(name)) {
+                            affectedProjects.add(resource.getProject());
+                        } else if (name.endsWith(PROPERTIES_SUFFIX)) {
+                            if (kind == IResourceDelta.ADDED) {
+                                addedFiles.add((IFile) resource);
+                            } else if (kind == IResourceDelta.REMOVED) {
+                                removedFiles.add((IFile) resource);
+                            } else if ((resourceDelta.getFlags() & IResourceDelta.CONTENT) != 0) {
+                                changedFiles.add((IFile) resource);
+                            }
+                        }
+                    }
+                    return true;
+                }
+            });
+        } catch (CoreException e) {
+            MessagesEditorPlugin.log(e);
+            return;
+        }
+
+        synchronized (this) {
+            for (IProject project : affectedProjects) {
+                removeProject(project.getName());
+                populateFromProject(project);
+            }
+            for (IFile file : removedFiles) {
+                if (!affectedProjects.contains(file.getProject()))
+                    removeFile(file);
+            }
+            for (IFile file : addedFiles) {
+                if (!affectedProjects.contains(file.getProject()))
+                    addFile(file);
+            }
+            for (IFile file : changedFiles) {
+                ArrayList<ResourceBundle> bundles = fileBundles.get(file);
+                if (bundles == null)
+                    continue;
+                for (ResourceBundle bundle : bundles) {
+                    if (bundle.isLoaded()) {
+                        bundle.unload();
+                        if (isLoadedLocale(bundle.getLocale())) {
+                            try {
+                                bundle.load();
+                            } catch (CoreException e) {
+                                MessagesEditorPlugin.log(e);
+                            }
+                        }
+                        bundle.getFamily().rebuildKeys();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all bundles contributed by the given project, and all families
+     * that are left without bundles.
+     * 
+     * @param projectName
+     *            the name of the project
+     */
+    private void removeProject(String projectName) {
+        ArrayList<ResourceBundle> bundles = projectBundles.remove(projectName);
+        if (bundles == null)
+            return;
+        for (ResourceBundle bundle : bundles) {
+            fileBundles.remove(bundle.getUnderlyingResource());
+            removeBundle(bundle);
+        }
+    }
+
+    /**
+     * Removes the bundles of a property file that has been deleted.
+     * 
+     * @param file
+     *            the removed file
+     */
+    private void removeFile(IFile file) {
+        ArrayList<ResourceBundle> bundles = fileBundles.remove(file);
+        if (bundles == null)
+            return;
+        ArrayList<ResourceBundle> contributed = projectBundles.get(file
+                .getProject().getName());
+        for (ResourceBundle bundle : bundles) {
+            if (contributed != null)
+                contributed.remove(bundle);
+            removeBundle(bundle);
+        }
+    }
+
+    /**
+     * Removes a bundle from its family, and the family from the model if it
+     * is left without bundles.
+     */
+    private void removeBundle(ResourceBundle bundle) {
+        ResourceBundleFamily family = bundle.getFamily();
+        family.removeBundle(bundle);
+        if (family.getBundleCount() == 0) {
+            bundleFamilies.remove(family);
+            familyIndex.remove(new FamilyKey(family.getProjectName(), family
+                    .getPluginId(), family.getPackageName(), family
+                    .getBaseName()));
+        }
+    }
+
+    /**
+     * Adds the bundles of a property file that has been created, in the same
+     * way as {@link #populateFromProject(IProject)} would, but without
+     * scanning the rest of its project.
+     * 
+     * @param file
+     *            the added file
+     */
+    private void addFile(IFile file) {
+        IProject project = file.getProject();
+        try {
+            if (!project.isOpen() || !file.exists())
+                return;
+            ProjectInfo info = new ProjectInfo(project);
+            IPath path = file.getProjectRelativePath();
+            boolean inNl = path.segmentCount() > 0
+                    && path.segment(0).equals("nl"); //$NON-NLS-1$
+
+            if (info.isPluginModel) {
+                if (info.isFragment && inNl && path.segmentCount() > 2) {
+                    addNlFile(project, info.pluginId, file);
+                }
+                if ((info.isFragment || info.javaProject == null) && !inNl) {
+                    addProjectFile(project, info.pluginId, file);
+                }
+            }
+
+            IJavaProject javaProject = info.javaProject;
+            if (javaProject != null) {
+                for (IClasspathEntry entry : javaProject
+                        .getResolvedClasspath(true)) {
+                    if (entry.getEntryKind() == IClasspathEntry.CPE_SOURCE
+                            && entry.getPath().isPrefixOf(file.getFullPath())) {
+                        addSourceFile(project, info.pluginId, javaProject,
+                                file);
+                    }
+                }
+                for (Object resource : javaProject.getNonJavaResources()) {
+                    if (resource instanceof IContainer) {
+                        if (((IContainer) resource).getFullPath().isPrefixOf(
+                                file.getFullPath())) {
+                            addProjectFile(project, info.pluginId, file);
+                        }
+                    } else if (file.equals(resource)
+                            && !isIgnoredFilename(file.getName())) {
+                        addProjectFile(project, info.pluginId, file);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            MessagesEditorPlugin.log(e);
+        }
+    }
+
+    private boolean isProjectSetupFile(String filename) {
+        for (String name : PROJECT_SETUP_FILES) {
+            if (name.equals(filename))
+                return true;
+        }
+        return false;
+    }
+
+    private boolean isLoadedLocale(Locale locale) {
+        return "".equals(locale.getLanguage()) //$NON-NLS-1$
+                || loadedLocales.contains(locale);
+    }
+
+    /**
+     * Populates the model from all projects in the workspace.
+     * 
      * @param monitor
      * @throws CoreException
      */
     private void populateFromWorkspace(IProgressMonitor monitor)
             throws CoreException {
-        IWorkspace workspace = ResourcesPlugin.getWorkspace();
         IWorkspaceRoot root = workspace.getRoot();
         IProject[] projects = root.getProjects();
         for (IProject project : projects) {
-            try {
-                if (!project.isOpen())
-                    continue;
-
-                IJavaProject javaProject = (IJavaProject) project
-                        .getNature(JAVA_NATURE);
-                String pluginId = null;
-
-                try {
-                    Class IFragmentModel = Class
-                            .forName("org.eclipse.pde.core.plugin.IFragmentModel");
-                    Class IPluginModelBase = Class
-                            .forName("org.eclipse.pde.core.plugin.IPluginModelBase");
-                    Class PluginRegistry = Class
-                            .forName("org.eclipse.pde.core.plugin.PluginRegistry");
-                    Class IPluginBase = Class
-                            .forName("org.eclipse.pde.core.plugin.IPluginBase");
-                    Class PluginFragmentModel = Class
-                            .forName("org.eclipse.core.runtime.model.PluginFragmentModel");
-
-                    // Plugin and fragment projects
-                    Class pluginModel = (Class) PluginRegistry.getMethod(
-                            "findModel", IProject.class).invoke(null, project);
-                    if (pluginModel != null) {
-                        // Get plugin id
-                        BundleDescription bd = (BundleDescription) IPluginModelBase
-                                .getMethod("getBundleDescription").invoke(
-                                        pluginModel);
-                        pluginId = bd.getName();
-                        // OSGi bundle name
-                        if (pluginId == null) {
-                            Object pluginBase = IPluginModelBase.getMethod(
-                                    "getPluginBase").invoke(pluginModel);
-                            pluginId = (String) IPluginBase.getMethod("getId")
-                                    .invoke(pluginBase); // non-OSGi
-                            // plug-in id
-                        }
-
-                        boolean isFragment = IFragmentModel
-                                .isInstance(pluginModel);
-                        if (isFragment) {
-                            Object pfm = IFragmentModel
-                                    .getMethod("getFragment");
-                            pluginId = (String) PluginFragmentModel.getMethod(
-                                    "getPluginId").invoke(pfm);
-                        }
+            populateFromProject(project);
+        }
+    }
 
-                        // Look for additional 'nl' resources
-                        IFolder nl = project.getFolder("nl"); //$NON-NLS-1$
-                        if (isFragment && nl.exists()) {
-                            IResource[] members = nl.members();
-                            for (IResource member : members) {
-                                if (member instanceof IFolder) {
-                                    IFolder langFolder = (IFolder) member;
-                                    String language = langFolder.getName();
-
-                                    // Collect property files
-                                    IFile[] propertyFiles = collectPropertyFiles(langFolder);
-                                    for (IFile file : propertyFiles) {
-                                        // Compute path name
-                                        IPath path = file
-                                                .getProjectRelativePath();
-                                        String country = ""; //$NON-NLS-1$
-                                        String packageName = null;
-                                        int segmentCount = path.segmentCount();
-                                        if (segmentCount > 1) {
-                                            StringBuilder builder = new StringBuilder();
-
-                                            // Segment 0: 'nl'
-                                            // Segment 1: language code
-                                            // Segment 2: (country code)
-                                            int begin = 2;
-                                            if (segmentCount > 2
-                                                    && isCountry(path
-                                                            .segment(2))) {
-                                                begin = 3;
-                                                country = path.segment(2);
-                                            }
-
-                                            for (int i = begin; i < segmentCount - 1; i++) {
-                                                if (i > begin)
-                                                    builder.append('.');
-                                                builder.append(path.segment(i));
-                                            }
-                                            packageName = builder.toString();
-                                        }
+    /**
+     * Adds the resource bundles found in the given project to this model.
+     * Families are looked up in, and added to, the family index, so bundles
+     * of fragment projects end up in their host's families.
+     * 
+     * @param project
+     *            the project to scan
+     */
+    private void populateFromProject(IProject project) {
+        try {
+            if (!project.isOpen())
+                return;
 
-                                        String baseName = getBaseName(file
-                                                .getName());
+            ProjectInfo info = new ProjectInfo(project);
+            IJavaProject javaProject = info.javaProject;
+            String pluginId = info.pluginId;
 
-                                        ResourceBundleFamily family = getOrCreateFamily(
-                                                project.getName(), pluginId,
-                                                packageName, baseName);
-                                        addBundle(family,
-                                                getLocale(language, country),
-                                                file);
-                                    }
+            try {
+                // Plugin and fragment projects
+                if (info.isPluginModel) {
+                    // Look for additional 'nl' resources
+                    IFolder nl = project.getFolder("nl"); //$NON-NLS-1$
+                    if (info.isFragment && nl.exists()) {
+                        IResource[] members = nl.members();
+                        for (IResource member : members) {
+                            if (member instanceof IFolder) {
+                                // Collect property files
+                                IFile[] propertyFiles = collectPropertyFiles((IFolder) member);
+                                for (IFile file : propertyFiles) {
+                                    addNlFile(project, pluginId, file);
                                 }
                             }
                         }
+                    }
 
-                        // Collect property files
-                        if (isFragment || javaProject == null) {
-                            IFile[] propertyFiles = collectPropertyFiles(project);
-                            for (IFile file : propertyFiles) {
-                                IPath path = file.getProjectRelativePath();
-                                int segmentCount = path.segmentCount();
-
-                                if (segmentCount > 0
-                                        && path.segment(0).equals("nl")) //$NON-NLS-1$
-                                    continue; // 'nl' resource have been
-                                // processed
-                                // above
-
-                                // Guess package name
-                                String packageName = null;
-                                if (segmentCount > 1) {
-                                    StringBuilder builder = new StringBuilder();
-                                    for (int i = 0; i < segmentCount - 1; i++) {
-                                        if (i > 0)
-                                            builder.append('.');
-                                        builder.append(path.segment(i));
-                                    }
-                                    packageName = builder.toString();
-                                }
-
-                                String baseName = getBaseName(file.getName());
-                                String language = getLanguage(file.getName());
-                                String country = getCountry(file.getName());
-
-                                ResourceBundleFamily family = getOrCreateFamily(
-                                        project.getName(), pluginId,
-                                        packageName, baseName);
-                                addBundle(family, getLocale(language, country),
-                                        file);
-                            }
+                    // Collect property files
+                    if (info.isFragment || javaProject == null) {
+                        IFile[] propertyFiles = collectPropertyFiles(project);
+                        for (IFile file : propertyFiles) {
+                            IPath path = file.getProjectRelativePath();
+                            if (path.segmentCount() > 0
+                                    && path.segment(0).equals("nl")) //$NON-NLS-1$
+                                continue; // 'nl' resource have been
+                            // processed
+                            // above
+                            addProjectFile(project, pluginId, file);
                         }
-
                     }
-                } catch (Throwable e) {
-                    // MessagesEditorPlugin.log(e);
+
                 }
+            } catch (Throwable e) {
+                // MessagesEditorPlugin.log(e);
+            }
 
-                // Look for resource bundles in Java packages (output folders,
-                // e.g. 'bin', will be ignored)
-                if (javaProject != null) {
-                    IClasspathEntry[] classpathEntries = javaProject
-                            .getResolvedClasspath(true);
-                    for (IClasspathEntry entry : classpathEntries) {
-                        if (entry.getEntryKind() == IClasspathEntry.CPE_SOURCE) {
-                            IPath path = entry.getPath();
-                            IFolder folder = workspace.getRoot()
-                                    .getFolder(path);
-                            IFile[] propertyFiles = collectPropertyFiles(folder);
-
-                            for (IFile file : propertyFiles) {
-                                String name = file.getName();
-                                String baseName = getBaseName(name);
-                                String language = getLanguage(name);
-                                String country = getCountry(name);
-                                IPackageFragment pf = javaProject
-                                        .findPackageFragment(file.getParent()
-                                                .getFullPath());
-                                String packageName = pf.getElementName();
-
-                                ResourceBundleFamily family = getOrCreateFamily(
-                                        project.getName(), pluginId,
-                                        packageName, baseName);
-
-                                addBundle(family, getLocale(language, country),
-                                        file);
-                            }
-                        } else if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
-                            IPackageFragmentRoot[] findPackageFragmentRoots = javaProject
-                                    .findPackageFragmentRoots(entry);
-                            for (IPackageFragmentRoot packageFragmentRoot : findPackageFragmentRoots) {
-                                IJavaElement[] children = packageFragmentRoot
-                                        .getChildren();
-                                for (IJavaElement child : children) {
-                                    IPackageFragment pf = (IPackageFragment) child;
-                                    Object[] nonJavaResources = pf
-                                            .getNonJavaResources();
-
-                                    for (Object resource : nonJavaResources) {
-                                        if (resource instanceof IJarEntryResource) {
-                                            IJarEntryResource jarEntryResource = (IJarEntryResource) resource;
-                                            String name = jarEntryResource
-                                                    .getName();
-                                            if (name.endsWith(PROPERTIES_SUFFIX)) {
-                                                String baseName = getBaseName(name);
-                                                String language = getLanguage(name);
-                                                String country = getCountry(name);
-                                                String packageName = pf
-                                                        .getElementName();
-
-                                                ResourceBundleFamily family = getOrCreateFamily(
-                                                        project.getName(),
-                                                        pluginId, packageName,
-                                                        baseName);
-
-                                                addBundle(
-                                                        family,
-                                                        getLocale(language,
-                                                                country),
-                                                        jarEntryResource);
-                                            }
+            // Look for resource bundles in Java packages (output folders,
+            // e.g. 'bin', will be ignored)
+            if (javaProject != null) {
+                IClasspathEntry[] classpathEntries = javaProject
+                        .getResolvedClasspath(true);
+                for (IClasspathEntry entry : classpathEntries) {
+                    if (entry.getEntryKind() == IClasspathEntry.CPE_SOURCE) {
+                        IPath path = entry.getPath();
+                        IFolder folder = workspace.getRoot()
+                                .getFolder(path);
+                        IFile[] propertyFiles = collectPropertyFiles(folder);
+
+                        for (IFile file : propertyFiles) {
+                            addSourceFile(project, pluginId, javaProject, file);
+                        }
+                    } else if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
+                        IPackageFragmentRoot[] findPackageFragmentRoots = javaProject
+                                .findPackageFragmentRoots(entry);
+                        for (IPackageFragmentRoot packageFragmentRoot : findPackageFragmentRoots) {
+                            IJavaElement[] children = packageFragmentRoot
+                                    .getChildren();
+                            for (IJavaElement child : children) {
+                                IPackageFragment pf = (IPackageFragment) child;
+                                Object[] nonJavaResources = pf
+                                        .getNonJavaResources();
+
+                                for (Object resource : nonJavaResources) {
+                                    if (resource instanceof IJarEntryResource) {
+                                        IJarEntryResource jarEntryResource = (IJarEntryResource) resource;
+                                        String name = jarEntryResource
+                                                .getName();
+                                        if (name.endsWith(PROPERTIES_SUFFIX)) {
+                                            String baseName = getBaseName(name);
+                                            String language = getLanguage(name);
+                                            String country = getCountry(name);
+                                            String packageName = pf
+                                                    .getElementName();
+
+                                            ResourceBundleFamily family = getOrCreateFamily(
+                                                    project.getName(),
+                                                    pluginId, packageName,
+                                                    baseName);
+
+                                            addBundle(project,
+                                                    family,
+                                                    getLocale(language,
+                                                            country),
+                                                    jarEntryResource);
                                         }
                                     }
                                 }
                             }
                         }
                     }
+                }
 
-                    // Collect non-Java resources
-                    Object[] nonJavaResources = javaProject
-                            .getNonJavaResources();
-                    ArrayList<IFile> files = new ArrayList<IFile>();
-                    for (Object resource : nonJavaResources) {
-                        if (resource instanceof IContainer) {
-                            IContainer container = (IContainer) resource;
-                            collectPropertyFiles(container, files);
-                        } else if (resource instanceof IFile) {
-                            IFile file = (IFile) resource;
-                            String name = file.getName();
-                            if (isIgnoredFilename(name))
-                                continue;
-                            if (name.endsWith(PROPERTIES_SUFFIX)) {
-                                files.add(file);
-                            }
+                // Collect non-Java resources
+                Object[] nonJavaResources = javaProject
+                        .getNonJavaResources();
+                ArrayList<IFile> files = new ArrayList<IFile>();
+                for (Object resource : nonJavaResources) {
+                    if (resource instanceof IContainer) {
+                        IContainer container = (IContainer) resource;
+                        collectPropertyFiles(container, files);
+                    } else if (resource instanceof IFile) {
+                        IFile file = (IFile) resource;
+                        String name = file.getName();
+                        if (isIgnoredFilename(name))
+                            continue;
+                        if (name.endsWith(PROPERTIES_SUFFIX)) {
+                            files.add(file);
                         }
                     }
-                    for (IFile file : files) {
-
-                        // Convert path to package name format
-                        IPath path = file.getProjectRelativePath();
-                        String packageName = null;
-                        int segmentCount = path.segmentCount();
-                        if (segmentCount > 1) {
-                            StringBuilder builder = new StringBuilder();
-                            for (int i = 0; i < segmentCount - 1; i++) {
-                                if (i > 0)
-                                    builder.append('.');
-                                builder.append(path.segment(i));
-                            }
-                            packageName = builder.toString();
-                        }
+                }
+                for (IFile file : files) {
+                    addProjectFile(project, pluginId, file);
+                }
 
-                        String baseName = getBaseName(file.getName());
-                        String language = getLanguage(file.getName());
-                        String country = getCountry(file.getName());
+            }
+        } catch (Exception e) {
+            MessagesEditorPlugin.log(e);
+        }
+    }
 
-                        ResourceBundleFamily family = getOrCreateFamily(
-                                project.getName(), pluginId, packageName,
-                                baseName);
-                        addBundle(family, getLocale(language, country), file);
-                    }
+    /**
+     * Adds a property file of the <code>nl</code> folder of a fragment, whose
+     * path gives its language, its country and its package, as in
+     * <code>nl/de/CH/org/example/messages.properties</code>.
+     */
+    private void addNlFile(IProject project, String pluginId, IFile file)
+            throws CoreException {
+        // Compute path name
+        IPath path = file.getProjectRelativePath();
+        String language = path.segment(1);
+        String country = ""; //$NON-NLS-1$
+        String packageName = null;
+        int segmentCount = path.segmentCount();
+        if (segmentCount > 1) {
+            StringBuilder builder = new StringBuilder();
+
+            // Segment 0: 'nl'
+            // Segment 1: language code
+            // Segment 2: (country code)
+            int begin = 2;
+            if (segmentCount > 2 && isCountry(path.segment(2))) {
+                begin = 3;
+                country = path.segment(2);
+            }
 
-                }
-            } catch (Exception e) {
-                MessagesEditorPlugin.log(e);
+            for (int i = begin; i < segmentCount - 1; i++) {
+                if (i > begin)
+                    builder.append('.');
+                builder.append(path.segment(i));
             }
+            packageName = builder.toString();
         }
+
+        String baseName = getBaseName(file.getName());
+
+        ResourceBundleFamily family = getOrCreateFamily(project.getName(),
+                pluginId, packageName, baseName);
+        addBundle(project, family, getLocale(language, country), file);
+    }
+
+    /**
+     * Adds a property file whose package name is guessed from its project
+     * relative path.
+     */
+    private void addProjectFile(IProject project, String pluginId,
+            IFile file) throws CoreException {
+        // Convert path to package name format
+        IPath path = file.getProjectRelativePath();
+        String packageName = null;
+        int segmentCount = path.segmentCount();
+        if (segmentCount > 1) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < segmentCount - 1; i++) {
+                if (i > 0)
+                    builder.append('.');
+                builder.append(path.segment(i));
+            }
+            packageName = builder.toString();
+        }
+
+        String baseName = getBaseName(file.getName());
+        String language = getLanguage(file.getName());
+        String country = getCountry(file.getName());
+
+        ResourceBundleFamily family = getOrCreateFamily(project.getName(),
+                pluginId, packageName, baseName);
+        addBundle(project, family, getLocale(language, country), file);
+    }
+
+    /**
+     * Adds a property file of a source folder, whose package name is the one
+     * of its package fragment.
+     */
+    private void addSourceFile(IProject project, String pluginId,
+            IJavaProject javaProject, IFile file) throws CoreException {
+        String name = file.getName();
+        String baseName = getBaseName(name);
+        String language = getLanguage(name);
+        String country = getCountry(name);
+        IPackageFragment pf = javaProject.findPackageFragment(file.getParent()
+                .getFullPath());
+        String packageName = pf.getElementName();
+
+        ResourceBundleFamily family = getOrCreateFamily(project.getName(),
+                pluginId, packageName, baseName);
+
+        addBundle(project, family, getLocale(language, country), file);
     }
 
     private IFile[] collectPropertyFiles(IContainer container)
@@ -486,12 +714,28 @@ public class ResourceBundleModel extends ResourceBundleElement {
         return new Locale(language, country);
     }
 
-    private void addBundle(ResourceBundleFamily family, Locale locale,
-            Object resource) throws CoreException {
+    private void addBundle(IProject project, ResourceBundleFamily family,
+            Locale locale, Object resource) throws CoreException {
         ResourceBundle bundle = new ResourceBundle(family, resource, locale);
-        if ("".equals(locale.getLanguage()))
+        if (isLoadedLocale(locale))
             bundle.load();
         family.addBundle(bundle);
+
+        ArrayList<ResourceBundle> bundles = projectBundles.get(project
+                .getName());
+        if (bundles == null) {
+            bundles = new ArrayList<ResourceBundle>();
+            projectBundles.put(project.getName(), bundles);
+        }
+        bundles.add(bundle);
+        if (resource instanceof IFile) {
+            ArrayList<ResourceBundle> sameFile = fileBundles.get(resource);
+            if (sameFile == null) {
+                sameFile = new ArrayList<ResourceBundle>(1);
+                fileBundles.put((IFile) resource, sameFile);
+            }
+            sameFile.add(bundle);
+        }
     }
 
     private String getBaseName(String filename) {
@@ -546,17 +790,15 @@ public class ResourceBundleModel extends ResourceBundleElement {
         if (pluginId != null)
             projectName = null;
 
-        for (ResourceBundleFamily family : bundleFamilies) {
-            if (areEqual(family.getProjectName(), projectName)
-                    && areEqual(family.getPluginId(), pluginId)
-                    && areEqual(family.getPackageName(), packageName)
-                    && areEqual(family.getBaseName(), baseName)) {
-                return family;
-            }
+        FamilyKey key = new FamilyKey(projectName, pluginId, packageName,
+                baseName);
+        ResourceBundleFamily family = familyIndex.get(key);
+        if (family == null) {
+            family = new ResourceBundleFamily(this, projectName, pluginId,
+                    packageName, baseName);
+            bundleFamilies.add(family);
+            familyIndex.put(key, family);
         }
-        ResourceBundleFamily family = new ResourceBundleFamily(this,
-                projectName, pluginId, packageName, baseName);
-        bundleFamilies.add(family);
         return family;
     }
 
@@ -564,9 +806,111 @@ public class ResourceBundleModel extends ResourceBundleElement {
         return filename.equals("build.properties") || filename.equals("logging.properties"); //$NON-NLS-1$ //$NON-NLS-2$
     }
 
-    private boolean areEqual(String str1, String str2) {
+    private static boolean areEqual(String str1, String str2) {
         return str1 == null && str2 == null || str1 != null
                 && str1.equals(str2);
     }
 
+    /**
+     * How the property files of a project are assigned to families: the
+     * plugin id and kind of a plugin or fragment project, and the Java
+     * project, if any.
+     */
+    private static final class ProjectInfo {
+
+        private String pluginId;
+        private boolean isPluginModel;
+        private boolean isFragment;
+        private final IJavaProject javaProject;
+
+        ProjectInfo(IProject project) throws CoreException {
+            javaProject = (IJavaProject) project.getNature(JAVA_NATURE);
+            try {
+                Class IFragmentModel = Class
+                        .forName("org.eclipse.pde.core.plugin.IFragmentModel");
+                Class IPluginModelBase = Class
+                        .forName("org.eclipse.pde.core.plugin.IPluginModelBase");
+                Class PluginRegistry = Class
+                        .forName("org.eclipse.pde.core.plugin.PluginRegistry");
+                Class IPluginBase = Class
+                        .forName("org.eclipse.pde.core.plugin.IPluginBase");
+                Class PluginFragmentModel = Class
+                        .forName("org.eclipse.core.runtime.model.PluginFragmentModel");
+
+                // Plugin and fragment projects
+                Class pluginModel = (Class) PluginRegistry.getMethod(
+                        "findModel", IProject.class).invoke(null, project);
+                if (pluginModel != null) {
+                    // Get plugin id
+                    BundleDescription bd = (BundleDescription) IPluginModelBase
+                            .getMethod("getBundleDescription").invoke(
+                                    pluginModel);
+                    pluginId = bd.getName();
+                    // OSGi bundle name
+                    if (pluginId == null) {
+                        Object pluginBase = IPluginModelBase.getMethod(
+                                "getPluginBase").invoke(pluginModel);
+                        pluginId = (String) IPluginBase.getMethod("getId")
+                                .invoke(pluginBase); // non-OSGi
+                        // plug-in id
+                    }
+
+                    boolean fragment = IFragmentModel.isInstance(pluginModel);
+                    if (fragment) {
+                        Object pfm = IFragmentModel.getMethod("getFragment");
+                        pluginId = (String) PluginFragmentModel.getMethod(
+                                "getPluginId").invoke(pfm);
+                    }
+                    // only scanned as a plugin if fully resolved
+                    isFragment = fragment;
+                    isPluginModel = true;
+                }
+            } catch (Throwable e) {
+                // MessagesEditorPlugin.log(e);
+            }
+        }
+    }
+
+    /**
+     * The identity of a {@link ResourceBundleFamily} in the family index.
+     */
+    private static final class FamilyKey {
+
+        private final String projectName;
+        private final String pluginId;
+        private final String packageName;
+        private final String baseName;
+
+        FamilyKey(String projectName, String pluginId, String packageName,
+                String baseName) {
+            this.projectName = projectName;
+            this.pluginId = pluginId;
+            this.packageName = packageName;
+            this.baseName = baseName;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof FamilyKey))
+                return false;
+            FamilyKey other = (FamilyKey) obj;
+            return areEqual(projectName, other.projectName)
+                    && areEqual(pluginId, other.pluginId)
+                    && areEqual(packageName, other.packageName)
+                    && areEqual(baseName, other.baseName);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 17;
+            hash = 31 * hash + (projectName == null ? 0 : projectName.hashCode());
+            hash = 31 * hash + (pluginId == null ? 0 : pluginId.hashCode());
+            hash = 31 * hash + (packageName == null ? 0 : packageName.hashCode());
+            hash = 31 * hash + (baseName == null ? 0 : baseName.hashCode());
+            return hash;
+        }
+    }
+
 }
@@ -17,7 +17,11 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * A class used to manipulate resource bundle files.
@@ -57,28 +61,119 @@ public class RawBundle {
         }
     }
 
+    /**
+     * The encoding used when a bundle is read from or written to a stream
+     * without specifying one.
+     */
+    public static final String DEFAULT_ENCODING = "ISO-8859-1"; //$NON-NLS-1$
+
     /**
      * The logical lines of the resource bundle.
      */
     private ArrayList<RawLine> lines = new ArrayList<RawLine>();
 
+    /**
+     * Maps each key to its first entry line.
+     */
+    private HashMap<String, EntryLine> entryIndex = new HashMap<String, EntryLine>();
+
+    /**
+     * Whether the entry lines are ordered by key, ignoring case. New entries
+     * of an ordered bundle are placed by binary search.
+     */
+    private boolean ordered = true;
+
+    /**
+     * The key of the last entry line added while reading the bundle.
+     */
+    private String lastKey;
+
+    private String encoding;
+
+    private CharsetEncoder encoder;
+
     public RawBundle() {
+        setEncoding(DEFAULT_ENCODING);
+    }
+
+    /**
+     * Returns the encoding of this bundle.
+     * 
+     * @return the encoding name
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Sets the encoding used by {@link #writeTo(OutputStream)}. Characters of
+     * new values that cannot be represented in this encoding are written as
+     * <code>\\uXXXX</code> escapes; for a Unicode encoding such as UTF-8, no
+     * characters need to be escaped.
+     * 
+     * @param encoding
+     *            the encoding name
+     * @throws UnsupportedCharsetException
+     *             if the encoding is not supported
+     */
+    public void setEncoding(String encoding) {
+        Charset charset = Charset.forName(encoding);
+        this.encoding = encoding;
+        this.encoder = charset.newEncoder();
     }
 
     public EntryLine getEntryLine(String key) {
-        for (RawLine line : lines) {
-            if (line instanceof EntryLine) {
-                EntryLine entryLine = (EntryLine) line;
-                if (entryLine.key.equals(key))
-                    return entryLine;
-            }
-        }
-        return null;
+        return entryIndex.get(key);
     }
 
     public void put(String key, String value) {
+        EntryLine existing = entryIndex.get(key);
+        if (existing != null) {
+            existing.rawData = key + "=" + escape(value) + "\r\n";
+            return;
+        }
 
         // Find insertion position
+        int pos = ordered ? findOrderedPosition(key) : findPosition(key);
+
+        // Append new entry
+        lines.add(pos, new EntryLine(key, key + "=" + escape(value) + "\r\n"));
+        entryIndex.put(key, (EntryLine) lines.get(pos));
+    }
+
+    /**
+     * Removes the entry for the given key.
+     * 
+     * @param key
+     *            the key to remove
+     * @return <code>true</code> if an entry has been removed
+     */
+    public boolean remove(String key) {
+        EntryLine entryLine = entryIndex.remove(key);
+        if (entryLine == null)
+            return false;
+        int size = lines.size();
+        int index = lines.indexOf(entryLine);
+        lines.remove(index);
+
+        // Index a duplicate entry for the same key, if there is one
+        for (int i = index; i < size - 1; i++) {
+            RawLine line = lines.get(i);
+            if (line instanceof EntryLine && ((EntryLine) line).key.equals(key)) {
+                entryIndex.put(key, (EntryLine) line);
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the insertion position of a new key by scanning all entries. The
+     * new entry goes before the first entry with a greater key or, if there
+     * are entries with the same key in a different case, before the last of
+     * those.
+     */
+    private int findPosition(String key) {
         int size = lines.size();
         int pos = -1;
         for (int i = 0; i < size; i++) {
@@ -90,21 +185,75 @@ public class RawBundle {
                     if (pos == -1) {
                         pos = i; // possible insertion position
                     }
-                } else if (compare > 0) {
-                    continue;
-                } else if (key.equals(entryLine.key)) {
-                    entryLine.rawData = key + "=" + escape(value) + "\r\n";
-                    return;
-                } else {
+                } else if (compare == 0) {
                     pos = i; // possible insertion position
                 }
             }
         }
         if (pos == -1)
-            pos = lines.size();
+            pos = size;
+        return pos;
+    }
 
-        // Append new entry
-        lines.add(pos, new EntryLine(key, key + "=" + escape(value) + "\r\n"));
+    /**
+     * Finds the same insertion position as {@link #findPosition(String)} by
+     * binary search. Requires the entries to be ordered.
+     */
+    private int findOrderedPosition(String key) {
+        int size = lines.size();
+        int pos = size;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int entry = nextEntry(mid, high);
+            if (entry == high) {
+                high = mid;
+            } else if (key.compareToIgnoreCase(((EntryLine) lines.get(entry)).key) < 0) {
+                pos = entry;
+                high = entry;
+            } else {
+                low = entry + 1;
+            }
+        }
+
+        // Entries equal to the key ignoring case come right before pos
+        for (int i = pos - 1; i >= 0; i--) {
+            RawLine line = lines.get(i);
+            if (line instanceof EntryLine) {
+                if (key.compareToIgnoreCase(((EntryLine) line).key) == 0)
+                    pos = i;
+                break;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the index of the first entry line in the range
+     * <code>[from, to)</code>, or <code>to</code> if there is none.
+     */
+    private int nextEntry(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (lines.get(i) instanceof EntryLine)
+                return i;
+        }
+        return to;
+    }
+
+    /**
+     * Appends a line read from a bundle file.
+     */
+    private void addLine(RawLine line) {
+        lines.add(line);
+        if (line instanceof EntryLine) {
+            EntryLine entryLine = (EntryLine) line;
+            if (!entryIndex.containsKey(entryLine.key))
+                entryIndex.put(entryLine.key, entryLine);
+            if (lastKey != null && lastKey.compareToIgnoreCase(entryLine.key) > 0)
+                ordered = false;
+            lastKey = entryLine.key;
+        }
     }
 
     private String escape(String str) {
@@ -131,14 +280,10 @@ public class RawBundle {
                 builder.append('\\').append(c);
                 break;
             default:
-                if (31 <= c && c <= 255) {
+                if (31 <= c && encoder.canEncode(c)) {
                     builder.append(c);
                 } else {
-                    builder.append("\\u");
-                    builder.append(hexDigit((c >> 12) & 0x0f));
-                    builder.append(hexDigit((c >> 8) & 0x0f));
-                    builder.append(hexDigit((c >> 4) & 0x0f));
-                    builder.append(hexDigit(c & 0x0f));
+                    appendUnicodeEscape(builder, c);
                 }
                 break;
             }
@@ -146,13 +291,47 @@ public class RawBundle {
         return builder.toString();
     }
 
+    private static void appendUnicodeEscape(StringBuilder builder, char c) {
+        builder.append("\\u");
+        builder.append(hexDigit((c >> 12) & 0x0f));
+        builder.append(hexDigit((c >> 8) & 0x0f));
+        builder.append(hexDigit((c >> 4) & 0x0f));
+        builder.append(hexDigit(c & 0x0f));
+    }
+
     private static char hexDigit(int digit) {
         return "0123456789ABCDEF".charAt(digit); //$NON-NLS-1$
     }
 
+    /**
+     * Writes this bundle using its encoding. Characters that cannot be
+     * represented in the encoding, e.g. after reading a UTF-8 file and
+     * switching to ISO-8859-1, are written as <code>\\uXXXX</code> escapes.
+     * 
+     * @param out
+     *            the stream to write to
+     * @throws IOException
+     */
     public void writeTo(OutputStream out) throws IOException {
-        OutputStreamWriter writer = new OutputStreamWriter(out, "ISO-8859-1");
-        writeTo(writer);
+        OutputStreamWriter writer = new OutputStreamWriter(out, encoding);
+        for (RawLine line : lines) {
+            String rawData = line.rawData;
+            if (!encoder.canEncode(rawData)) {
+                StringBuilder builder = new StringBuilder(rawData.length() + 16);
+                int len = rawData.length();
+                for (int i = 0; i < len; i++) {
+                    char c = rawData.charAt(i);
+                    if (encoder.canEncode(c)) {
+                        builder.append(c);
+                    } else {
+                        appendUnicodeEscape(builder, c);
+                    }
+                }
+                rawData = builder.toString();
+            }
+            writer.write(rawData);
+        }
+        writer.flush();
     }
 
     public void writeTo(Writer writer) throws IOException {
@@ -162,9 +341,27 @@ public class RawBundle {
     }
 
     public static RawBundle createFrom(InputStream in) throws IOException {
+        return createFrom(in, DEFAULT_ENCODING);
+    }
+
+    /**
+     * Reads a bundle from a stream in the given encoding. The encoding is
+     * kept for writing the bundle.
+     * 
+     * @param in
+     *            the stream to read from
+     * @param encoding
+     *            the encoding name
+     * @return the bundle
+     * @throws IOException
+     */
+    public static RawBundle createFrom(InputStream in, String encoding)
+            throws IOException {
         IScannerSource source = CharArraySource
-                .createFrom(new InputStreamReader(in, "ISO-8859-1"));
-        return RawBundle.createFrom(source);
+                .createFrom(new InputStreamReader(in, encoding));
+        RawBundle rawBundle = RawBundle.createFrom(source);
+        rawBundle.setEncoding(encoding);
+        return rawBundle;
     }
 
     public static RawBundle createFrom(Reader reader) throws IOException {
@@ -187,7 +384,7 @@ public class RawBundle {
                 consumeLineSeparator(source);
                 int end = source.getPosition();
                 String line = source.toString(begin, end);
-                rawBundle.lines.add(new CommentLine(line));
+                rawBundle.addLine(new CommentLine(line));
                 continue;
             }
 
@@ -196,7 +393,7 @@ public class RawBundle {
                 consumeLineSeparator(source);
                 int end = source.getPosition();
                 String line = source.toString(begin, end);
-                rawBundle.lines.add(new EmptyLine(line));
+                rawBundle.addLine(new EmptyLine(line));
                 continue;
             }
 
@@ -252,7 +449,7 @@ public class RawBundle {
 
                 String lineData = source.toString(begin, end);
                 EntryLine entryLine = new EntryLine(key, lineData);
-                rawBundle.lines.add(entryLine);
+                rawBundle.addLine(entryLine);
             }
         }
 
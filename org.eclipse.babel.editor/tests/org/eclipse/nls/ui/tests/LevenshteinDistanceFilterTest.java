@@ -0,0 +1,110 @@
+package org.eclipse.nls.ui.tests;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.core.message.checks.proximity.IProximityAnalyzer;
+import org.eclipse.babel.core.message.checks.proximity.LevenshteinDistanceAnalyzer;
+import org.eclipse.babel.core.message.checks.proximity.LevenshteinDistanceFilter;
+
+public class LevenshteinDistanceFilterTest extends TestCase {
+
+    private static final String[] PATTERNS = { "Save", "Open file",
+            "Cancel the operation", "x", "Fichier introuvable" };
+
+    private static final float[] SIMILARITIES = { 0f, 0.5f, 0.75f, 0.9f, 1f };
+
+    private final IProximityAnalyzer analyzer = LevenshteinDistanceAnalyzer
+            .getInstance();
+
+    public void testSameResultAsAnalyzer() {
+        String[] values = createValues(20000);
+        for (String pattern : PATTERNS) {
+            for (float similarity : SIMILARITIES) {
+                assertSameResult(values, pattern, similarity);
+            }
+        }
+    }
+
+    public void testEmptyStrings() {
+        LevenshteinDistanceFilter filter = new LevenshteinDistanceFilter("",
+                0f);
+        assertTrue(Double.isNaN(filter.similarity("")));
+        assertEquals(0d, filter.similarity("a"), 0d);
+        filter = new LevenshteinDistanceFilter("abc", 0.3f);
+        assertTrue(Double.isNaN(filter.similarity("")));
+    }
+
+    public void testIdenticalValue() {
+        LevenshteinDistanceFilter filter = new LevenshteinDistanceFilter(
+                "Save", 1f);
+        assertEquals(1d, filter.similarity("Save"), 0d);
+        assertTrue(Double.isNaN(filter.similarity("save")));
+    }
+
+    private void assertSameResult(String[] values, String pattern,
+            float minimumSimilarity) {
+        LevenshteinDistanceFilter filter = new LevenshteinDistanceFilter(
+                pattern, minimumSimilarity);
+        for (String value : values) {
+            // Compared as FuzzyMatcher used to compare
+            double expected = analyzer.analyse(value, pattern);
+            boolean accepted = expected >= minimumSimilarity;
+            double actual = filter.similarity(value);
+            String message = "'" + value + "' ~ '" + pattern + "' >= "
+                    + minimumSimilarity;
+            assertEquals(message, accepted, !Double.isNaN(actual));
+            if (accepted) {
+                assertEquals(message, expected, actual, 0d);
+            }
+        }
+    }
+
+    /**
+     * Values near the patterns, mutated by a few edits, mixed with random
+     * text and repeated values.
+     */
+    private String[] createValues(int count) {
+        Random random = new Random(4711);
+        String alphabet = "aeiouSsnrtlcx fF";
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && random.nextInt(10) == 0) {
+                values[i] = values[random.nextInt(i)];
+                continue;
+            }
+            StringBuilder value = new StringBuilder();
+            if (random.nextBoolean()) {
+                value.append(PATTERNS[random.nextInt(PATTERNS.length)]);
+                int edits = random.nextInt(6);
+                for (int e = 0; e < edits; e++) {
+                    int pos = random.nextInt(value.length() + 1);
+                    char c = alphabet.charAt(random.nextInt(alphabet.length()));
+                    switch (random.nextInt(3)) {
+                    case 0:
+                        value.insert(pos, c);
+                        break;
+                    case 1:
+                        if (pos < value.length()) {
+                            value.deleteCharAt(pos);
+                        }
+                        break;
+                    default:
+                        if (pos < value.length()) {
+                            value.setCharAt(pos, c);
+                        }
+                    }
+                }
+            } else {
+                int length = random.nextInt(25);
+                for (int c = 0; c < length; c++) {
+                    value.append(alphabet.charAt(random.nextInt(alphabet
+                            .length())));
+                }
+            }
+            values[i] = value.toString();
+        }
+        return values;
+    }
+}
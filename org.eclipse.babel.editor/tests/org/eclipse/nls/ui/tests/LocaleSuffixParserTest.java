@@ -0,0 +1,126 @@
+package org.eclipse.nls.ui.tests;
+
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.core.util.BabelUtils;
+import org.eclipse.babel.core.util.LocaleSuffixParser;
+import org.eclipse.babel.core.util.NameUtils;
+
+public class LocaleSuffixParserTest extends TestCase {
+
+    public void testLanguageAndCountry() {
+        assertEquals("messages", bundleName("messages.properties"));
+        assertEquals("messages", bundleName("messages_de.properties"));
+        assertEquals("messages", bundleName("messages_de_AT.properties"));
+        assertEquals("messages", bundleName("messages_fil.properties"));
+        assertEquals("messages", bundleName("messages_es_419.properties"));
+    }
+
+    public void testVariant() {
+        assertEquals("messages", bundleName("messages_ja_JP_JP.properties"));
+        assertEquals("messages", bundleName("messages_en__POSIX.properties"));
+        assertEquals("messages",
+                bundleName("messages_de_AT_var_iant.properties"));
+    }
+
+    public void testScriptIsNoSuffix() {
+        assertEquals("messages_sr_Latn",
+                bundleName("messages_sr_Latn.properties"));
+        assertEquals("messages_sr_Latn_RS",
+                bundleName("messages_sr_Latn_RS.properties"));
+        assertEquals("messages_zh_Hant_TW",
+                bundleName("messages_zh_Hant_TW.properties"));
+        assertEquals("messages_zh_HANT",
+                bundleName("messages_zh_HANT.properties"));
+    }
+
+    public void testUnderscoresInBaseName() {
+        assertEquals("my_app_messages",
+                bundleName("my_app_messages.properties"));
+        assertEquals("my_app", bundleName("my_app_de.properties"));
+        assertEquals("my_app", bundleName("my_app_de_CH.properties"));
+        assertEquals("foo_bar", bundleName("foo_bar.properties"));
+        assertEquals("foo_bar", bundleName("foo_bar_fr.properties"));
+    }
+
+    public void testNoLocale() {
+        assertEquals("messages_DE", bundleName("messages_DE.properties"));
+        assertEquals("messages_de_at",
+                bundleName("messages_de_at.properties"));
+        assertEquals("messages_xx", bundleName("messages_xx.properties"));
+        assertEquals("messages_de_", bundleName("messages_de_.properties"));
+        assertEquals("_de", bundleName("_de.properties"));
+        assertEquals("messages_de", bundleName("messages_de"));
+    }
+
+    public void testIndexOfLocaleSuffix() {
+        assertEquals(8, LocaleSuffixParser.indexOfLocaleSuffix(
+                "messages_de_AT", 14));
+        assertEquals(-1, LocaleSuffixParser.indexOfLocaleSuffix(
+                "messages_de_AT", 8));
+        assertEquals(8, LocaleSuffixParser.indexOfLocaleSuffix(
+                "messages_de_AT", 11));
+    }
+
+    public void testGetLocale() {
+        assertEquals(new Locale("de"), LocaleSuffixParser.getLocale("de"));
+        assertEquals(new Locale("de", "AT"),
+                LocaleSuffixParser.getLocale("de_AT"));
+        assertEquals(new Locale("es", "419"),
+                LocaleSuffixParser.getLocale("es_419"));
+        assertEquals(new Locale("ja", "JP", "JP"),
+                LocaleSuffixParser.getLocale("ja_JP_JP"));
+        assertEquals(new Locale("en", "", "POSIX"),
+                LocaleSuffixParser.getLocale("en__POSIX"));
+        assertEquals(new Locale("de", "AT", "var_iant"),
+                LocaleSuffixParser.getLocale("de_AT_var_iant"));
+    }
+
+    public void testGetLocaleOfInvalidSuffix() {
+        assertNull(LocaleSuffixParser.getLocale(""));
+        assertNull(LocaleSuffixParser.getLocale("xx"));
+        assertNull(LocaleSuffixParser.getLocale("DE"));
+        assertNull(LocaleSuffixParser.getLocale("de_"));
+        assertNull(LocaleSuffixParser.getLocale("de_at"));
+        assertNull(LocaleSuffixParser.getLocale("en__"));
+        assertNull(LocaleSuffixParser.getLocale("sr_Latn"));
+        assertNull(LocaleSuffixParser.getLocale("sr_Latn_RS"));
+        assertNull(LocaleSuffixParser.getLocale("_de"));
+    }
+
+    public void testParseLocale() {
+        assertEquals(new Locale("de", "AT"), BabelUtils.parseLocale("de_AT"));
+        assertEquals(new Locale("de", "AT"),
+                BabelUtils.parseLocale("_de_AT"));
+        assertEquals(new Locale("en", "", "POSIX"),
+                BabelUtils.parseLocale("en__POSIX"));
+        assertEquals(new Locale("de", "AT", "var_iant"),
+                BabelUtils.parseLocale("de_AT_var_iant"));
+        assertNull(BabelUtils.parseLocale(null));
+        assertNull(BabelUtils.parseLocale(" "));
+        assertNull(BabelUtils.parseLocale("sr_Latn"));
+        assertNull(BabelUtils.parseLocale("stuff/messages_de"));
+    }
+
+    public void testGetLocaleByName() {
+        assertNull(NameUtils.getLocaleByName("messages",
+                "messages.properties"));
+        assertEquals(new Locale("de", "AT"), NameUtils.getLocaleByName(
+                "messages", "messages_de_AT.properties"));
+        assertEquals(new Locale("en", "", "POSIX"),
+                NameUtils.getLocaleByName("messages",
+                        "messages_en__POSIX.properties"));
+        assertEquals(new Locale("de", "AT", "var_iant"),
+                NameUtils.getLocaleByName("org.example.messages",
+                        "messages_de_AT_var_iant.properties"));
+        // a bundle of its own, not the default bundle of messages
+        assertNull(NameUtils.getLocaleByName("messages_sr_Latn",
+                "messages_sr_Latn.properties"));
+    }
+
+    private static String bundleName(String fileName) {
+        return LocaleSuffixParser.getBundleName(fileName);
+    }
+}
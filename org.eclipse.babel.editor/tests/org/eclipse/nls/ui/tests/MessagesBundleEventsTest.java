@@ -0,0 +1,375 @@
+package org.eclipse.nls.ui.tests;
+
+import java.beans.PropertyChangeEvent;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.core.message.EventSuppression;
+import org.eclipse.babel.core.message.IMessage;
+import org.eclipse.babel.core.message.internal.AbstractMessageModel;
+import org.eclipse.babel.core.message.internal.Message;
+import org.eclipse.babel.core.message.internal.MessageException;
+import org.eclipse.babel.core.message.internal.MessagesBundle;
+import org.eclipse.babel.core.message.internal.MessagesBundleGroup;
+import org.eclipse.babel.core.message.internal.MessagesBundleGroupAdapter;
+import org.eclipse.babel.core.message.resource.internal.AbstractPropertiesResource;
+import org.eclipse.babel.core.message.resource.ser.PropertiesDeserializer;
+import org.eclipse.babel.core.message.resource.ser.PropertiesSerializer;
+import org.eclipse.babel.core.message.strategy.IMessagesBundleGroupStrategy;
+
+public class MessagesBundleEventsTest extends TestCase {
+
+    private static final int KEYS = 10000;
+
+    public void testReloadFiresSingleEvent() {
+        StringResource resource = new StringResource(properties(0, KEYS));
+        MessagesBundle bundle = new MessagesBundle(resource);
+        CountingListener listener = new CountingListener();
+        bundle.addMessagesBundleListener(listener);
+
+        resource.reload(properties(KEYS / 2, KEYS * 3 / 2));
+
+        assertEquals(KEYS, bundle.getMessagesCount());
+        assertNull(bundle.getMessage(key(0)));
+        assertEquals(0, listener.messagesAdded);
+        assertEquals(0, listener.messagesRemoved);
+        assertEquals(0, listener.messagesChanged);
+        assertEquals(1, listener.propertyChanges);
+        assertEquals(AbstractMessageModel.PROPERTY_RELOADED,
+                listener.lastProperty);
+        assertNull(resource.written);
+    }
+
+    public void testNestedSuspension() {
+        MessagesBundle bundle = new MessagesBundle(new StringResource(""));
+        CountingListener listener = new CountingListener();
+        bundle.addMessagesBundleListener(listener);
+
+        bundle.suspendEvents();
+        bundle.suspendEvents();
+        bundle.addMessage(new Message("a", Locale.ENGLISH));
+        bundle.resumeEvents();
+        assertEquals(0, listener.propertyChanges);
+        bundle.resumeEvents();
+        assertEquals(1, listener.propertyChanges);
+
+        bundle.suspendEvents();
+        bundle.resumeEvents();
+        assertEquals(1, listener.propertyChanges);
+    }
+
+    public void testGroupFiresKeyEventsOncePerKey() {
+        StringResource resource = new StringResource("");
+        MessagesBundleGroup group = createGroup(resource);
+        CountingListener first = new CountingListener();
+        CountingListener second = new CountingListener();
+        group.addMessagesBundleGroupListener(first);
+        group.addMessagesBundleGroupListener(second);
+
+        resource.reload(properties(0, KEYS));
+        assertEquals(KEYS, group.getMessageKeys().length);
+        assertEquals(KEYS, first.keysAdded);
+        assertEquals(KEYS, second.keysAdded);
+        assertEquals(0, first.messagesAdded);
+        assertEquals(1, first.bundlesChanged);
+
+        resource.reload(properties(0, KEYS / 2));
+        assertEquals(KEYS / 2, group.getMessageKeys().length);
+        assertEquals(KEYS / 2, first.keysRemoved);
+        assertEquals(KEYS / 2, second.keysRemoved);
+        assertFalse(group.isKey(key(KEYS - 1)));
+    }
+
+    public void testGroupKeysFollowSingleMessages() {
+        StringResource resource = new StringResource("");
+        MessagesBundleGroup group = createGroup(resource);
+        CountingListener first = new CountingListener();
+        CountingListener second = new CountingListener();
+        group.addMessagesBundleGroupListener(first);
+        group.addMessagesBundleGroupListener(second);
+
+        group.addMessages("a");
+        assertTrue(group.isKey("a"));
+        assertEquals(1, first.messagesAdded);
+        assertEquals(1, first.keysAdded);
+        assertEquals(1, second.keysAdded);
+
+        group.removeMessages("a");
+        assertFalse(group.isKey("a"));
+        assertEquals(1, first.keysRemoved);
+        assertEquals(1, second.keysRemoved);
+    }
+
+    /**
+     * A group whose events are suppressed by one thread must not silence a
+     * group changed by another thread at the same time.
+     */
+    public void testSuppressionIsConfinedToGroupAndThread() throws Exception {
+        final int changes = 200;
+        final MessagesBundleGroup suppressed = createGroup(new StringResource(
+                properties(0, changes)));
+        final MessagesBundleGroup notified = createGroup(new StringResource(
+                properties(0, changes)));
+        final CountingListener suppressedListener = new CountingListener();
+        final CountingListener notifiedListener = new CountingListener();
+        suppressed.addMessagesBundleGroupListener(suppressedListener);
+        notified.addMessagesBundleGroupListener(notifiedListener);
+
+        // both threads change their group in lockstep
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> sync = executor.submit(new Callable<Object>() {
+                public Object call() throws Exception {
+                    EventSuppression suppression = suppressed.suppressEvents();
+                    try {
+                        change(suppressed, changes, barrier);
+                    } finally {
+                        suppression.close();
+                    }
+                    return null;
+                }
+            });
+            Future<?> edit = executor.submit(new Callable<Object>() {
+                public Object call() throws Exception {
+                    change(notified, changes, barrier);
+                    return null;
+                }
+            });
+            sync.get();
+            edit.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, suppressedListener.messagesChanged);
+        assertEquals(changes, notifiedListener.messagesChanged);
+
+        // the suppression ended with its scope
+        suppressed.getMessage(key(0), Locale.ENGLISH).setText("after");
+        assertEquals(1, suppressedListener.messagesChanged);
+    }
+
+    public void testSuppressionMustBeClosedByItsThread() throws Exception {
+        MessagesBundleGroup group = createGroup(new StringResource(""));
+        final EventSuppression suppression = group.suppressEvents();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> close = executor.submit(new Runnable() {
+                public void run() {
+                    suppression.close();
+                }
+            });
+            try {
+                close.get();
+                fail("closed by another thread");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            assertTrue(EventSuppression.isSuppressed(group));
+        } finally {
+            executor.shutdown();
+            suppression.close();
+        }
+        assertFalse(EventSuppression.isSuppressed(group));
+    }
+
+    private static void change(MessagesBundleGroup group, int changes,
+            CyclicBarrier barrier) throws Exception {
+        for (int i = 0; i < changes; i++) {
+            barrier.await();
+            IMessage message = group.getMessage(key(i), Locale.ENGLISH);
+            message.setText("Changed " + i);
+        }
+    }
+
+    /**
+     * The allocations of a 10k key load must not grow with the number of
+     * listeners, which are no longer copied for every event.
+     */
+    public void testLoadAllocationsIndependentOfListeners() throws Exception {
+        Method allocatedBytes = getAllocatedBytesMethod();
+        if (allocatedBytes == null) {
+            return; // not supported by this VM
+        }
+        for (int i = 0; i < 3; i++) {
+            load(allocatedBytes, 16); // warm up
+        }
+
+        long one = Long.MAX_VALUE;
+        long many = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            one = Math.min(one, load(allocatedBytes, 1));
+            many = Math.min(many, load(allocatedBytes, 16));
+        }
+        assertTrue("allocated " + (many - one) + " more bytes",
+                many - one < KEYS * 8);
+    }
+
+    private long load(Method allocatedBytes, int listeners) throws Exception {
+        StringResource resource = new StringResource("");
+        MessagesBundleGroup group = createGroup(resource);
+        CountingListener listener = new CountingListener();
+        for (int i = 0; i < listeners; i++) {
+            group.addMessagesBundleGroupListener(listener);
+        }
+        String text = properties(0, KEYS);
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = (Long) allocatedBytes.invoke(bean, threadId);
+        resource.reload(text);
+        long after = (Long) allocatedBytes.invoke(bean, threadId);
+
+        assertEquals(KEYS * listeners, listener.keysAdded);
+        return after - before;
+    }
+
+    private static Method getAllocatedBytesMethod() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        try {
+            Method method = Class.forName("com.sun.management.ThreadMXBean") //$NON-NLS-1$
+                    .getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+            method.invoke(bean, Thread.currentThread().getId());
+            return method;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static MessagesBundleGroup createGroup(
+            final StringResource resource) {
+        return new MessagesBundleGroup(new IMessagesBundleGroupStrategy() {
+            public String createMessagesBundleGroupName() {
+                return "messages";
+            }
+
+            public String createMessagesBundleId() {
+                return "messages";
+            }
+
+            public MessagesBundle[] loadMessagesBundles()
+                    throws MessageException {
+                return new MessagesBundle[] { new MessagesBundle(resource) };
+            }
+
+            public MessagesBundle createMessagesBundle(Locale locale)
+                    throws MessageException {
+                throw new MessageException("unsupported");
+            }
+
+            public String getProjectName() {
+                return null;
+            }
+        });
+    }
+
+    private static String properties(int from, int to) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            text.append(key(i)).append("=Value ").append(i).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String key(int i) {
+        return "key." + i;
+    }
+
+    private static class StringResource extends AbstractPropertiesResource {
+        private String text;
+        private String written;
+
+        StringResource(String text) {
+            super(Locale.ENGLISH, new PropertiesSerializer(null),
+                    new PropertiesDeserializer(null));
+            this.text = text;
+        }
+
+        void reload(String text) {
+            this.text = text;
+            fireResourceChange(this);
+        }
+
+        @Override
+        protected String getText() {
+            return text;
+        }
+
+        @Override
+        protected void setText(String text) {
+            this.written = text;
+        }
+
+        public Object getSource() {
+            return this;
+        }
+
+        public String getResourceLocationLabel() {
+            return "test";
+        }
+
+        public void dispose() {
+        }
+    }
+
+    private static class CountingListener extends MessagesBundleGroupAdapter {
+        private int messagesAdded;
+        private int messagesRemoved;
+        private int messagesChanged;
+        private int propertyChanges;
+        private String lastProperty;
+        private int keysAdded;
+        private int keysRemoved;
+        private int bundlesChanged;
+
+        @Override
+        public void messageAdded(MessagesBundle messagesBundle, Message message) {
+            messagesAdded++;
+        }
+
+        @Override
+        public void messageRemoved(MessagesBundle messagesBundle,
+                Message message) {
+            messagesRemoved++;
+        }
+
+        @Override
+        public void messageChanged(MessagesBundle messagesBundle,
+                PropertyChangeEvent changeEvent) {
+            messagesChanged++;
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            propertyChanges++;
+            lastProperty = evt.getPropertyName();
+        }
+
+        @Override
+        public void keyAdded(String key) {
+            keysAdded++;
+        }
+
+        @Override
+        public void keyRemoved(String key) {
+            keysRemoved++;
+        }
+
+        @Override
+        public void messagesBundleChanged(MessagesBundle messagesBundle,
+                PropertyChangeEvent changeEvent) {
+            bundlesChanged++;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.eclipse.nls.ui.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.core.message.strategy.PropertiesFileGroups;
+
+public class PropertiesFileGroupsTest extends TestCase {
+
+    private static final int FAMILIES = 500;
+
+    private File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        directory = File.createTempFile("bundles", "");
+        assertTrue(directory.delete());
+        assertTrue(directory.mkdir());
+        for (int i = 0; i < FAMILIES; i++) {
+            create(family(i) + ".properties");
+            create(family(i) + "_de.properties");
+            create(family(i) + "_fr_CA.properties");
+        }
+        create("my_app_messages.properties");
+        create("my_app_messages_en_US_WIN.properties");
+        create("readme.txt");
+        assertTrue(new File(directory, "sub_de.properties").mkdir());
+        touch(-60000);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (File file : directory.listFiles()) {
+            assertTrue(file.delete());
+        }
+        assertTrue(directory.delete());
+    }
+
+    public void testGroupsFamiliesInOnePass() {
+        Map<String, Map<Locale, File>> families = PropertiesFileGroups
+                .getFamilies(directory);
+        assertEquals(FAMILIES + 2, families.size());
+        for (int i = 0; i < FAMILIES; i++) {
+            Map<Locale, File> files = families.get(family(i) + ".properties");
+            assertEquals(3, files.size());
+            assertEquals(family(i) + ".properties", files.get(null).getName());
+            assertEquals(family(i) + "_de.properties",
+                    files.get(Locale.GERMAN).getName());
+            assertEquals(family(i) + "_fr_CA.properties",
+                    files.get(Locale.CANADA_FRENCH).getName());
+        }
+        assertEquals(1, families.get("readme.txt").size());
+        assertFalse(families.containsKey("sub.properties"));
+
+        Map<Locale, File> files = PropertiesFileGroups.getBundleFiles(
+                directory, "my_app_messages", "properties");
+        assertEquals(2, files.size());
+        assertTrue(files.containsKey(new Locale("en", "US", "WIN")));
+        assertTrue(PropertiesFileGroups.getBundleFiles(directory, "my_app",
+                "properties").isEmpty());
+    }
+
+    public void testCachedUntilDirectoryChanges() throws IOException {
+        Map<String, Map<Locale, File>> families = PropertiesFileGroups
+                .getFamilies(directory);
+        assertSame(families, PropertiesFileGroups.getFamilies(directory));
+
+        create(family(0) + "_it.properties");
+        touch(-30000);
+        Map<Locale, File> files = PropertiesFileGroups.getBundleFiles(
+                directory, family(0), "properties");
+        assertEquals(4, files.size());
+        assertTrue(files.containsKey(Locale.ITALIAN));
+        assertNotSame(families, PropertiesFileGroups.getFamilies(directory));
+    }
+
+    public void testRecentChangesAreNotCached() throws IOException {
+        touch(0);
+        Map<String, Map<Locale, File>> families = PropertiesFileGroups
+                .getFamilies(directory);
+        assertNotSame(families, PropertiesFileGroups.getFamilies(directory));
+
+        // a file added within the same timestamp is still seen
+        long lastModified = directory.lastModified();
+        create(family(1) + "_it.properties");
+        assertTrue(directory.setLastModified(lastModified));
+        assertEquals(4, PropertiesFileGroups.getBundleFiles(directory,
+                family(1), "properties").size());
+    }
+
+    public void testLocaleSuffixes() throws IOException {
+        create("suffixes.properties");
+        create("suffixes_en__POSIX.properties");
+        create("suffixes_de_AT_var_iant.properties");
+        create("suffixes_es_419.properties");
+        create("suffixes_sr_Latn.properties");
+        create("suffixes_sr_Latn_RS.properties");
+        touch(-30000);
+
+        Map<Locale, File> files = PropertiesFileGroups.getBundleFiles(
+                directory, "suffixes", "properties");
+        assertEquals(4, files.size());
+        assertEquals("suffixes.properties", files.get(null).getName());
+        assertEquals("suffixes_en__POSIX.properties",
+                files.get(new Locale("en", "", "POSIX")).getName());
+        assertEquals("suffixes_de_AT_var_iant.properties",
+                files.get(new Locale("de", "AT", "var_iant")).getName());
+        assertEquals("suffixes_es_419.properties",
+                files.get(new Locale("es", "419")).getName());
+        assertFalse(files.containsKey(new Locale("en", "POSIX")));
+        assertFalse(files.containsKey(new Locale("sr", "LATN")));
+
+        // script subtags make bundles of their own
+        files = PropertiesFileGroups.getBundleFiles(directory,
+                "suffixes_sr_Latn", "properties");
+        assertEquals(1, files.size());
+        assertEquals("suffixes_sr_Latn.properties", files.get(null)
+                .getName());
+        assertEquals(1, PropertiesFileGroups.getBundleFiles(directory,
+                "suffixes_sr_Latn_RS", "properties").size());
+    }
+
+    private void create(String name) throws IOException {
+        assertTrue(new File(directory, name).createNewFile());
+    }
+
+    private void touch(long offset) {
+        assertTrue(directory.setLastModified(System.currentTimeMillis()
+                + offset));
+    }
+
+    private static String family(int i) {
+        return "messages" + i;
+    }
+}
@@ -10,9 +10,16 @@
  *******************************************************************************/
 package org.eclipse.nls.ui.tests;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
 
 import junit.framework.TestCase;
 
@@ -66,6 +73,115 @@ public class RawBundleTest extends TestCase {
 
     }
 
+    public void testPutWithKeysDifferingInCase() throws IOException {
+        String input = "" + "a=1\r\n" + "B=2\r\n" + "c=3\r\n";
+        rawBundle = readRawBundle(input);
+        rawBundle.put("b", "4");
+        assertEquals("" + "a=1\r\n" + "b=4\r\n" + "B=2\r\n" + "c=3\r\n",
+                writeToString(rawBundle));
+    }
+
+    public void testPutIntoUnorderedBundle() throws IOException {
+        String input = "" + "b=1\r\n" + "# comment\r\n" + "a=2\r\n";
+        rawBundle = readRawBundle(input);
+        rawBundle.put("c", "3");
+        rawBundle.put("aa", "4");
+        rawBundle.put("a", "5");
+        assertEquals("" + "aa=4\r\n" + "b=1\r\n" + "# comment\r\n"
+                + "a=5\r\n" + "c=3\r\n", writeToString(rawBundle));
+    }
+
+    public void testRemove() throws IOException {
+        String input = "" + "key1=value1\r\n" + "key2=value2\r\n"
+                + "key1=duplicate\r\n";
+        rawBundle = readRawBundle(input);
+        assertTrue(rawBundle.remove("key1"));
+        assertRawData("key1=duplicate\r\n", "key1");
+        assertTrue(rawBundle.remove("key1"));
+        assertNull(rawBundle.getEntryLine("key1"));
+        assertFalse(rawBundle.remove("key1"));
+        assertEquals("key2=value2\r\n", writeToString(rawBundle));
+    }
+
+    public void testBulkPutRoundTrip() throws IOException {
+        int count = 20000;
+        List<String> keys = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add("key." + Integer.toString(i, 36) + (i % 3 == 0 ? ".Label" : ".tooltip"));
+        }
+        Collections.shuffle(keys, new Random(42));
+
+        rawBundle = readRawBundle("# header\r\n\r\n");
+        for (String key : keys) {
+            rawBundle.put(key, "value of " + key);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rawBundle.writeTo(out);
+        byte[] bytes = out.toByteArray();
+
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(bytes));
+        assertEquals(count, properties.size());
+
+        RawBundle reread = RawBundle.createFrom(new ByteArrayInputStream(bytes));
+        String previous = null;
+        for (String key : keys) {
+            assertEquals("value of " + key, properties.getProperty(key));
+            assertNotNull(reread.getEntryLine(key));
+        }
+        Collections.sort(keys, String.CASE_INSENSITIVE_ORDER);
+        StringBuilder expected = new StringBuilder("# header\r\n\r\n");
+        for (String key : keys) {
+            assertTrue(previous == null
+                    || previous.compareToIgnoreCase(key) <= 0);
+            expected.append(key).append("=value of ").append(key)
+                    .append("\r\n");
+            previous = key;
+        }
+        assertEquals(expected.toString(), new String(bytes, "ISO-8859-1"));
+    }
+
+    public void testDefaultEncodingEscapesNonLatin1() throws IOException {
+        rawBundle = readRawBundle("");
+        rawBundle.put("key", "Gr\u00FC\u00DFe \u65E5\u672C");
+        assertRawData("key=Gr\u00FC\u00DFe \\u65E5\\u672C\r\n", "key");
+    }
+
+    public void testUtf8WrittenWithoutEscapes() throws IOException {
+        String input = "key=Gr\u00FC\u00DFe\r\n";
+        rawBundle = RawBundle.createFrom(new ByteArrayInputStream(input
+                .getBytes("UTF-8")), "UTF-8");
+        assertEquals("UTF-8", rawBundle.getEncoding());
+        rawBundle.put("k2", "\u65E5\u672C");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rawBundle.writeTo(out);
+        assertEquals("k2=\u65E5\u672C\r\n" + "key=Gr\u00FC\u00DFe\r\n",
+                new String(out.toByteArray(), "UTF-8"));
+    }
+
+    public void testUtf8BundleWrittenAsLatin1() throws IOException {
+        String input = "# \u65E5\u672C\r\n" + "key=Gr\u00FC\u00DFe \u65E5\u672C\r\n";
+        rawBundle = RawBundle.createFrom(new ByteArrayInputStream(input
+                .getBytes("UTF-8")), "UTF-8");
+        rawBundle.setEncoding("ISO-8859-1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rawBundle.writeTo(out);
+        byte[] bytes = out.toByteArray();
+        assertEquals("# \\u65E5\\u672C\r\n"
+                + "key=Gr\u00FC\u00DFe \\u65E5\\u672C\r\n", new String(bytes,
+                "ISO-8859-1"));
+
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(bytes));
+        assertEquals("Gr\u00FC\u00DFe \u65E5\u672C", properties.getProperty("key"));
+    }
+
+    private String writeToString(RawBundle bundle) throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        bundle.writeTo(stringWriter);
+        return stringWriter.toString();
+    }
+
     private void assertRawData(String expected, String key) {
         EntryLine entryLine = rawBundle.getEntryLine(key);
         assertEquals(expected, entryLine.getRawData());
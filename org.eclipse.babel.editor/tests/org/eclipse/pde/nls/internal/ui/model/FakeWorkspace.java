@@ -0,0 +1,376 @@
+package org.eclipse.pde.nls.internal.ui.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+
+/**
+ * An in-memory workspace of Java projects with a <code>src</code> folder,
+ * made of dynamic proxies that implement only the resource methods the
+ * {@link ResourceBundleModel} uses. Changes are recorded and handed out as a
+ * resource delta by {@link #takeEvent()}.
+ */
+class FakeWorkspace {
+
+    private static final String SOURCE_FOLDER = "src";
+
+    /** The existing resources by full path, in creation order. */
+    private final Map<String, Node> nodes = new LinkedHashMap<String, Node>();
+
+    private final Map<String, Object> proxies = new HashMap<String, Object>();
+
+    /** The changes since the last event, by full path. */
+    private final Map<String, int[]> changes = new LinkedHashMap<String, int[]>();
+
+    private long stamp;
+
+    FakeWorkspace() {
+        nodes.put("/", new Node(IResource.ROOT));
+    }
+
+    IWorkspace getWorkspace() {
+        return (IWorkspace) proxy(IWorkspace.class, "workspace",
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        if (method.getName().equals("getRoot"))
+                            return resource("/", IResource.ROOT);
+                        return objectMethod(proxy, method, args, "workspace");
+                    }
+                });
+    }
+
+    void createProject(String name) {
+        create("/" + name, IResource.PROJECT);
+        create("/" + name + "/" + SOURCE_FOLDER, IResource.FOLDER);
+    }
+
+    void createFile(String path, String content) {
+        String parent = parent(path);
+        if (!nodes.containsKey(parent)) {
+            createFolder(parent);
+        }
+        create(path, IResource.FILE).content = content;
+    }
+
+    void setContents(String path, String content) {
+        Node node = nodes.get(path);
+        node.content = content;
+        node.stamp = ++stamp;
+        record(path, IResourceDelta.CHANGED, IResourceDelta.CONTENT);
+    }
+
+    void delete(String path) {
+        for (String member : new ArrayList<String>(nodes.keySet())) {
+            if (member.equals(path) || member.startsWith(path + "/")) {
+                nodes.remove(member);
+                record(member, IResourceDelta.REMOVED, 0);
+            }
+        }
+    }
+
+    void setOpen(String project, boolean open) {
+        nodes.get(project).open = open;
+        record(project, IResourceDelta.CHANGED, IResourceDelta.OPEN);
+    }
+
+    IFile getFile(String path) {
+        return (IFile) resource(path, IResource.FILE);
+    }
+
+    /**
+     * Returns the changes made since the last call as a post change event.
+     */
+    IResourceChangeEvent takeEvent() {
+        final Map<String, int[]> taken = new LinkedHashMap<String, int[]>(
+                changes);
+        changes.clear();
+        for (String path : new ArrayList<String>(taken.keySet())) {
+            for (String parent = parent(path); parent != null; parent = parent(parent)) {
+                if (!taken.containsKey(parent))
+                    taken.put(parent, new int[] { IResourceDelta.CHANGED, 0 });
+            }
+        }
+        final IResourceDelta delta = delta("/", taken);
+        return (IResourceChangeEvent) proxy(IResourceChangeEvent.class,
+                "event", new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        if (method.getName().equals("getDelta"))
+                            return delta;
+                        if (method.getName().equals("getType"))
+                            return IResourceChangeEvent.POST_CHANGE;
+                        return objectMethod(proxy, method, args, "event");
+                    }
+                });
+    }
+
+    private void createFolder(String path) {
+        String parent = parent(path);
+        if (!nodes.containsKey(parent)) {
+            createFolder(parent);
+        }
+        create(path, IResource.FOLDER);
+    }
+
+    private Node create(String path, int type) {
+        Node node = new Node(type);
+        node.stamp = ++stamp;
+        nodes.put(path, node);
+        record(path, IResourceDelta.ADDED, 0);
+        return node;
+    }
+
+    private void record(String path, int kind, int flags) {
+        int[] change = changes.get(path);
+        if (change == null) {
+            changes.put(path, new int[] { kind, flags });
+        } else if (kind == IResourceDelta.REMOVED
+                && change[0] == IResourceDelta.ADDED) {
+            changes.remove(path);
+        } else if (change[0] == IResourceDelta.CHANGED) {
+            change[0] = kind;
+            change[1] |= flags;
+        }
+    }
+
+    private IResourceDelta delta(final String path,
+            final Map<String, int[]> taken) {
+        final int[] change = taken.get(path);
+        final int type = path.equals("/") ? IResource.ROOT : typeOf(path);
+        final List<IResourceDelta> children = new ArrayList<IResourceDelta>();
+        for (String child : taken.keySet()) {
+            if (path.equals(parent(child)))
+                children.add(delta(child, taken));
+        }
+        return (IResourceDelta) proxy(IResourceDelta.class, "delta " + path,
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) throws Exception {
+                        String name = method.getName();
+                        if (name.equals("getKind"))
+                            return change[0];
+                        if (name.equals("getFlags"))
+                            return change[1];
+                        if (name.equals("getResource"))
+                            return resource(path, type);
+                        if (name.equals("accept")) {
+                            IResourceDeltaVisitor visitor = (IResourceDeltaVisitor) args[0];
+                            if (visitor.visit((IResourceDelta) proxy)) {
+                                for (IResourceDelta child : children)
+                                    child.accept(visitor);
+                            }
+                            return null;
+                        }
+                        return objectMethod(proxy, method, args, "delta "
+                                + path);
+                    }
+                });
+    }
+
+    /**
+     * Guesses the type of a removed resource from its name.
+     */
+    private int typeOf(String path) {
+        Node node = nodes.get(path);
+        if (node != null)
+            return node.type;
+        if (parent(path).equals("/"))
+            return IResource.PROJECT;
+        return path.endsWith(".properties") ? IResource.FILE
+                : IResource.FOLDER;
+    }
+
+    private Object resource(final String path, final int type) {
+        String key = type + path;
+        Object resource = proxies.get(key);
+        if (resource == null) {
+            Class<?> api = type == IResource.FILE ? IFile.class
+                    : type == IResource.FOLDER ? IFolder.class
+                            : type == IResource.PROJECT ? IProject.class
+                                    : IWorkspaceRoot.class;
+            resource = proxy(api, path, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args)
+                        throws Exception {
+                    return invokeResource(proxy, path, type, method, args);
+                }
+            });
+            proxies.put(key, resource);
+        }
+        return resource;
+    }
+
+    private Object invokeResource(Object proxy, String path, int type,
+            Method method, Object[] args) throws Exception {
+        String name = method.getName();
+        Node node = nodes.get(path);
+        Path fullPath = new Path(path);
+        if (name.equals("getName"))
+            return fullPath.lastSegment();
+        if (name.equals("getType"))
+            return type;
+        if (name.equals("getFullPath"))
+            return fullPath;
+        if (name.equals("getProjectRelativePath"))
+            return fullPath.removeFirstSegments(1);
+        if (name.equals("getProject"))
+            return resource("/" + fullPath.segment(0), IResource.PROJECT);
+        if (name.equals("getParent"))
+            return resource(parent(path), parent(path).equals("/")
+                    ? IResource.ROOT : typeOf(parent(path)));
+        if (name.equals("exists"))
+            return node != null && node.type == type;
+        if (name.equals("isOpen"))
+            return node != null && node.open;
+        if (name.equals("isReadOnly") || name.equals("isLinked"))
+            return false;
+        if (name.equals("getModificationStamp"))
+            return node != null ? node.stamp : IResource.NULL_STAMP;
+        if (name.equals("getContents"))
+            return contents(node);
+        if (name.equals("members"))
+            return members(path);
+        if (name.equals("getProjects")) {
+            List<IProject> projects = new ArrayList<IProject>();
+            for (String member : nodes.keySet()) {
+                if (parent(member) != null && parent(member).equals("/"))
+                    projects.add((IProject) resource(member, IResource.PROJECT));
+            }
+            return projects.toArray(new IProject[projects.size()]);
+        }
+        if (name.equals("getFolder") || name.equals("getFile")) {
+            String member = args[0] instanceof IPath ? ((IPath) args[0])
+                    .toString() : args[0].toString();
+            if (!member.startsWith("/"))
+                member = path + "/" + member;
+            return resource(member, name.equals("getFile") ? IResource.FILE
+                    : IResource.FOLDER);
+        }
+        if (name.equals("getNature")) {
+            return node != null && node.open ? javaProject(path) : null;
+        }
+        return objectMethod(proxy, method, args, path);
+    }
+
+    private IResource[] members(String path) {
+        List<IResource> members = new ArrayList<IResource>();
+        for (Map.Entry<String, Node> member : nodes.entrySet()) {
+            if (path.equals(parent(member.getKey())))
+                members.add((IResource) resource(member.getKey(), member
+                        .getValue().type));
+        }
+        return members.toArray(new IResource[members.size()]);
+    }
+
+    private IJavaProject javaProject(final String project) {
+        final String source = project + "/" + SOURCE_FOLDER;
+        final IClasspathEntry entry = (IClasspathEntry) proxy(
+                IClasspathEntry.class, source, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        if (method.getName().equals("getEntryKind"))
+                            return IClasspathEntry.CPE_SOURCE;
+                        if (method.getName().equals("getPath"))
+                            return new Path(source);
+                        return objectMethod(proxy, method, args, source);
+                    }
+                });
+        return (IJavaProject) proxy(IJavaProject.class, project,
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        String name = method.getName();
+                        if (name.equals("getResolvedClasspath"))
+                            return new IClasspathEntry[] { entry };
+                        if (name.equals("findPackageFragment"))
+                            return packageFragment((IPath) args[0]);
+                        if (name.equals("getNonJavaResources")) {
+                            List<IResource> resources = new ArrayList<IResource>();
+                            for (IResource member : members(project)) {
+                                if (!member.getFullPath().toString()
+                                        .equals(source))
+                                    resources.add(member);
+                            }
+                            return resources.toArray();
+                        }
+                        return objectMethod(proxy, method, args, project);
+                    }
+                });
+    }
+
+    private IPackageFragment packageFragment(IPath folder) {
+        final String packageName = folder.removeFirstSegments(2).toString()
+                .replace('/', '.');
+        return (IPackageFragment) proxy(IPackageFragment.class, packageName,
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        if (method.getName().equals("getElementName"))
+                            return packageName;
+                        return objectMethod(proxy, method, args, packageName);
+                    }
+                });
+    }
+
+    private static ByteArrayInputStream contents(Node node)
+            throws UnsupportedEncodingException {
+        return new ByteArrayInputStream(node.content.getBytes("ISO-8859-1"));
+    }
+
+    private static Object proxy(Class<?> api, String name,
+            InvocationHandler handler) {
+        return Proxy.newProxyInstance(FakeWorkspace.class.getClassLoader(),
+                new Class[] { api }, handler);
+    }
+
+    private static Object objectMethod(Object proxy, Method method,
+            Object[] args, String name) {
+        if (method.getName().equals("equals"))
+            return proxy == args[0];
+        if (method.getName().equals("hashCode"))
+            return System.identityHashCode(proxy);
+        if (method.getName().equals("toString"))
+            return name;
+        throw new UnsupportedOperationException(method.toString());
+    }
+
+    private static String parent(String path) {
+        if (path.equals("/"))
+            return null;
+        int slash = path.lastIndexOf('/');
+        return slash == 0 ? "/" : path.substring(0, slash);
+    }
+
+    private static class Node {
+        private final int type;
+        private String content;
+        private long stamp;
+        private boolean open = true;
+
+        Node(int type) {
+            this.type = type;
+        }
+    }
+}
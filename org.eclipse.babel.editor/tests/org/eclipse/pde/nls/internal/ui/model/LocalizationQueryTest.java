@@ -0,0 +1,112 @@
+package org.eclipse.pde.nls.internal.ui.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.pde.nls.internal.ui.editor.LocalizationQuery;
+
+public class LocalizationQueryTest extends TestCase {
+
+    private static final int FAMILIES = 20;
+
+    private ResourceBundleFamily[] families;
+
+    @Override
+    protected void setUp() throws Exception {
+        FakeWorkspace workspace = new FakeWorkspace();
+        workspace.createProject("a");
+        for (int i = 0; i < FAMILIES; i++) {
+            String path = "/a/src/org/a/messages" + i;
+            workspace.createFile(path + ".properties", "match." + i
+                    + "=x\nother." + i + "=y\n");
+            workspace.createFile(path + "_de.properties", "match." + i
+                    + "=x\nother." + i + "=treffer\n");
+        }
+        families = new ResourceBundleModel(workspace.getWorkspace(),
+                new NullProgressMonitor()).getFamilies();
+    }
+
+    public void testPartialResultsArriveBeforeCompletion() {
+        final List<ResourceBundleKey> streamed = new ArrayList<ResourceBundleKey>();
+        final List<Integer> loadedAtChunk = new ArrayList<Integer>();
+        LocalizationQuery query = new LocalizationQuery("match",
+                new Locale[] { Locale.GERMAN }, false, 5);
+        ResourceBundleKey[] result = query.run(families,
+                new NullProgressMonitor(),
+                new LocalizationQuery.ResultCollector() {
+                    public void accept(ResourceBundleKey[] matches) {
+                        assertTrue(matches.length > 0);
+                        streamed.addAll(Arrays.asList(matches));
+                        loadedAtChunk.add(countLoadedGermanBundles());
+                    }
+                });
+
+        assertEquals(FAMILIES, result.length);
+        assertEquals(Arrays.asList(result), streamed);
+        assertEquals(FAMILIES / 5, loadedAtChunk.size());
+        // the first chunk was passed on while most families were unsearched
+        assertTrue(loadedAtChunk.get(0) < FAMILIES);
+        assertEquals(FAMILIES, countLoadedGermanBundles());
+    }
+
+    public void testValuesOfVisibleLocalesMatch() {
+        LocalizationQuery query = new LocalizationQuery("treffer",
+                new Locale[] { Locale.GERMAN }, false, 5);
+        ResourceBundleKey[] result = query.run(families,
+                new NullProgressMonitor(), null);
+        assertEquals(FAMILIES, result.length);
+        for (ResourceBundleKey key : result) {
+            assertTrue(key.getName().startsWith("other."));
+        }
+    }
+
+    public void testCancelStopsTheQuery() {
+        final NullProgressMonitor monitor = new NullProgressMonitor();
+        final int[] chunks = new int[1];
+        LocalizationQuery query = new LocalizationQuery("*",
+                new Locale[] { Locale.GERMAN }, false, 2);
+        ResourceBundleKey[] result = query.run(families, monitor,
+                new LocalizationQuery.ResultCollector() {
+                    public void accept(ResourceBundleKey[] matches) {
+                        chunks[0]++;
+                        monitor.setCanceled(true);
+                    }
+                });
+        assertNull(result);
+        assertEquals(1, chunks[0]);
+    }
+
+    public void testAppendToKeyList() {
+        ResourceBundleKey[] keys = families[0].getKeys();
+        ResourceBundleKeyList list = new ResourceBundleKeyList(
+                new ResourceBundleKey[] { keys[0] });
+        for (int i = 0; i < 100; i++) {
+            list.append(new ResourceBundleKey[] { keys[1], keys[0] });
+        }
+        assertEquals(201, list.getSize());
+        assertSame(keys[1], list.getKey(199));
+        assertSame(keys[0], list.getKey(200));
+        try {
+            list.getKey(201);
+            fail("read beyond the size");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    private int countLoadedGermanBundles() {
+        int loaded = 0;
+        for (ResourceBundleFamily family : families) {
+            ResourceBundle bundle = family.getBundle(Locale.GERMAN);
+            if (bundle != null && bundle.isLoaded()) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,176 @@
+package org.eclipse.pde.nls.internal.ui.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * Applies scripted workspace deltas to a model and compares it with a model
+ * populated from scratch after each step.
+ */
+public class ResourceBundleModelTest extends TestCase {
+
+    private static final String MESSAGES = "/a/src/org/a/messages";
+
+    private FakeWorkspace workspace;
+    private ResourceBundleModel model;
+
+    @Override
+    protected void setUp() throws Exception {
+        workspace = new FakeWorkspace();
+        workspace.createProject("a");
+        workspace.createFile(MESSAGES + ".properties", "one=1\ntwo=2\n");
+        workspace.createFile(MESSAGES + "_de.properties",
+                "one=eins\nthree=drei\n");
+        workspace.createFile(MESSAGES + "_fr.properties", "one=un\n");
+        workspace.createFile("/a/src/org/a/other.properties", "other=x\n");
+        workspace.createFile("/a/conf/app.properties", "app=y\n");
+        workspace.createProject("b");
+        workspace.createFile("/b/src/org/b/messages.properties", "b=1\n");
+        workspace.takeEvent();
+
+        model = new ResourceBundleModel(workspace.getWorkspace(),
+                new NullProgressMonitor());
+        model.loadBundles(Locale.GERMAN);
+    }
+
+    public void testInitialModel() throws CoreException {
+        assertEquals(4, model.getFamilies().length);
+        assertKeys("one", "three", "two");
+        assertEqualsFullModel();
+    }
+
+    public void testAddFile() throws CoreException {
+        ResourceBundle german = bundle(Locale.GERMAN);
+        workspace.createFile(MESSAGES + "_it.properties", "four=quattro\n");
+        step();
+
+        assertNotNull(bundle(Locale.ITALIAN));
+        // the other bundles have not been scanned again
+        assertSame(german, bundle(Locale.GERMAN));
+    }
+
+    public void testAddPackage() throws CoreException {
+        workspace.createFile("/b/src/org/b/sub/labels.properties", "l=1\n");
+        workspace.createFile("/b/src/org/b/sub/labels_de.properties",
+                "l=eins\n");
+        step();
+        assertEquals(5, model.getFamilies().length);
+    }
+
+    public void testRemoveKey() throws CoreException {
+        workspace.setContents(MESSAGES + ".properties", "one=1\n");
+        step();
+        assertKeys("one", "three");
+
+        workspace.setContents(MESSAGES + "_de.properties", "one=eins\n");
+        step();
+        assertKeys("one");
+    }
+
+    public void testRemoveFile() throws CoreException {
+        workspace.delete(MESSAGES + "_de.properties");
+        step();
+        assertNull(bundle(Locale.GERMAN));
+        assertKeys("one", "two");
+
+        workspace.delete(MESSAGES + ".properties");
+        step();
+        assertKeys();
+
+        workspace.delete(MESSAGES + "_fr.properties");
+        workspace.delete("/a/conf");
+        step();
+        assertEquals(2, model.getFamilies().length);
+    }
+
+    public void testMoveFile() throws CoreException {
+        workspace.delete(MESSAGES + "_fr.properties");
+        workspace.createFile("/b/src/org/b/messages_fr.properties", "b=un\n");
+        step();
+        assertEquals(2, family("b").getBundles().length);
+    }
+
+    public void testCloseAndOpenProject() throws CoreException {
+        workspace.setOpen("/a", false);
+        step();
+        assertEquals(1, model.getFamilies().length);
+
+        workspace.setOpen("/a", true);
+        step();
+        assertEquals(4, model.getFamilies().length);
+    }
+
+    public void testRemoveProject() throws CoreException {
+        workspace.delete("/b");
+        step();
+        assertNull(family("b"));
+    }
+
+    private void step() throws CoreException {
+        model.resourceChanged(workspace.takeEvent());
+        assertEqualsFullModel();
+    }
+
+    private void assertEqualsFullModel() throws CoreException {
+        ResourceBundleModel full = new ResourceBundleModel(workspace
+                .getWorkspace(), new NullProgressMonitor());
+        full.loadBundles(Locale.GERMAN);
+        assertEquals(dump(full), dump(model));
+    }
+
+    private void assertKeys(String... expected) {
+        ResourceBundleFamily family = family("a");
+        List<String> keys = new ArrayList<String>();
+        if (family != null) {
+            for (ResourceBundleKey key : family.getKeys()) {
+                keys.add(key.getName());
+            }
+        }
+        Collections.sort(keys);
+        assertEquals(java.util.Arrays.asList(expected), keys);
+    }
+
+    private ResourceBundle bundle(Locale locale) {
+        return family("a").getBundle(locale);
+    }
+
+    private ResourceBundleFamily family(String project) {
+        for (ResourceBundleFamily family : model.getFamilies()) {
+            if (family.getProjectName().equals(project)
+                    && family.getBaseName().equals("messages")) {
+                return family;
+            }
+        }
+        return null;
+    }
+
+    private static String dump(ResourceBundleModel model) {
+        List<String> lines = new ArrayList<String>();
+        for (ResourceBundleFamily family : model.getFamilies()) {
+            String name = family.getProjectName() + "|"
+                    + family.getPackageName() + "|" + family.getBaseName();
+            for (ResourceBundle bundle : family.getBundles()) {
+                IFile file = (IFile) bundle.getUnderlyingResource();
+                lines.add(name + " bundle " + bundle.getLocale() + " "
+                        + file.getFullPath() + " loaded=" + bundle.isLoaded());
+            }
+            for (ResourceBundleKey key : family.getKeys()) {
+                lines.add(name + " key " + key.getName());
+            }
+        }
+        Collections.sort(lines);
+        StringBuilder dump = new StringBuilder();
+        for (String line : lines) {
+            dump.append(line).append('\n');
+        }
+        return dump.toString();
+    }
+}
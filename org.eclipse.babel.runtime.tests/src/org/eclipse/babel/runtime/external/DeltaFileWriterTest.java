@@ -0,0 +1,248 @@
+package org.eclipse.babel.runtime.external;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.TestCase;
+
+public class DeltaFileWriterTest extends TestCase {
+
+    private static final int ENTRIES = 2000;
+
+    private File directory;
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+        directory = File.createTempFile("translations", "");
+        assertTrue(directory.delete());
+        assertTrue(directory.mkdir());
+        file = new File(directory, "messages_de.properties");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (File child : directory.listFiles()) {
+            child.delete();
+        }
+        directory.delete();
+    }
+
+    public void testFailedReplaceKeepsOldFile() throws IOException {
+        DeltaFileWriter.writeTemp(file, snapshot("old"));
+        try {
+            DeltaFileWriter.replace(new File(directory, "missing.tmp"), file);
+            fail("replaced by a missing file");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals(snapshot("old"), load(file));
+    }
+
+    public void testReplaceExistingFile() throws IOException {
+        File tempFile = new File(directory, file.getName() + ".tmp");
+        DeltaFileWriter.writeTemp(file, snapshot("old"));
+        DeltaFileWriter.writeTemp(tempFile, snapshot("new"));
+
+        DeltaFileWriter.replace(tempFile, file);
+        assertEquals(snapshot("new"), load(file));
+        assertFalse(tempFile.exists());
+        assertFalse(backup().exists());
+    }
+
+    /**
+     * The path taken where renaming onto an existing file fails.
+     */
+    public void testReplaceWithBackup() throws IOException {
+        File tempFile = new File(directory, file.getName() + ".tmp");
+        DeltaFileWriter.writeTemp(file, snapshot("old"));
+        DeltaFileWriter.writeTemp(tempFile, snapshot("new"));
+        DeltaFileWriter.writeTemp(backup(), snapshot("stale"));
+
+        DeltaFileWriter.replaceWithBackup(tempFile, file);
+        assertEquals(snapshot("new"), load(file));
+        assertFalse(tempFile.exists());
+        assertFalse(backup().exists());
+
+        // the first write of a file has nothing to back up
+        file.delete();
+        DeltaFileWriter.writeTemp(tempFile, snapshot("first"));
+        DeltaFileWriter.replaceWithBackup(tempFile, file);
+        assertEquals(snapshot("first"), load(file));
+    }
+
+    public void testFailedReplaceWithBackupKeepsOldFile() throws IOException {
+        DeltaFileWriter.writeTemp(file, snapshot("old"));
+        try {
+            DeltaFileWriter.replaceWithBackup(new File(directory,
+                    "missing.tmp"), file);
+            fail("replaced by a missing file");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals(snapshot("old"), load(file));
+        assertFalse(backup().exists());
+    }
+
+    /**
+     * Killed after the old file was moved to the backup, before the new one
+     * was in place.
+     */
+    public void testRecoverRestoresBackup() throws IOException {
+        DeltaFileWriter.writeTemp(backup(), snapshot("old"));
+        DeltaFileWriter.recover(file);
+        assertEquals(snapshot("old"), load(file));
+        assertFalse(backup().exists());
+    }
+
+    /**
+     * Killed after the new file was in place, before the backup was deleted.
+     */
+    public void testRecoverDropsBackup() throws IOException {
+        DeltaFileWriter.writeTemp(file, snapshot("new"));
+        DeltaFileWriter.writeTemp(backup(), snapshot("old"));
+        DeltaFileWriter.recover(file);
+        assertEquals(snapshot("new"), load(file));
+        assertFalse(backup().exists());
+
+        DeltaFileWriter.recover(file);
+        assertEquals(snapshot("new"), load(file));
+    }
+
+    /**
+     * A writer killed while the temporary file is written leaves it
+     * truncated, but the delta file itself untouched.
+     */
+    public void testTruncatedTempFileKeepsOldFile() throws IOException {
+        DeltaFileWriter writer = new DeltaFileWriter(Long.MAX_VALUE);
+        writer.schedule(file, snapshot("old"));
+        writer.flush();
+
+        File tempFile = new File(directory, file.getName() + ".tmp");
+        DeltaFileWriter.writeTemp(tempFile, snapshot("new"));
+        truncate(tempFile, tempFile.length() / 2);
+        assertEquals(snapshot("old"), load(file));
+
+        writer.schedule(file, snapshot("new"));
+        writer.flush();
+        assertEquals(snapshot("new"), load(file));
+        assertFalse(tempFile.exists());
+    }
+
+    /**
+     * Kills a JVM that keeps rewriting the delta file and checks that the
+     * file holds either snapshot completely.
+     */
+    public void testKilledWriterLeavesOldOrNewFile() throws Exception {
+        String java = System.getProperty("java.home") + File.separator
+                + "bin" + File.separator + "java";
+        for (int i = 0; i < 3; i++) {
+            Process process = new ProcessBuilder(java, "-cp",
+                    System.getProperty("java.class.path"),
+                    DeltaFileWriterTest.class.getName(),
+                    file.getAbsolutePath()).redirectErrorStream(true).start();
+            try {
+                // wait for the first rename and let it continue a while
+                for (int wait = 0; !file.exists() && wait < 200; wait++) {
+                    Thread.sleep(50);
+                }
+                Thread.sleep(100 + i * 70);
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+
+            Properties survivor = load(file);
+            assertTrue(survivor.equals(snapshot("old"))
+                    || survivor.equals(snapshot("new")));
+        }
+    }
+
+    /**
+     * The executor, the shutdown hook and the activator may flush at the
+     * same time: the last queued snapshot must end up on disk.
+     */
+    public void testConcurrentFlushesKeepNewestSnapshot() throws Exception {
+        final DeltaFileWriter writer = new DeltaFileWriter(Long.MAX_VALUE);
+        List<Thread> flushers = new ArrayList<Thread>();
+        final AtomicBoolean done = new AtomicBoolean();
+        for (int i = 0; i < 4; i++) {
+            Thread flusher = new Thread() {
+                @Override
+                public void run() {
+                    while (!done.get()) {
+                        writer.flush();
+                    }
+                }
+            };
+            flusher.start();
+            flushers.add(flusher);
+        }
+        try {
+            for (int i = 0; i < 50; i++) {
+                writer.schedule(file, snapshot("value" + i));
+                Thread.sleep(2);
+            }
+        } finally {
+            done.set(true);
+            for (Thread flusher : flushers) {
+                flusher.join();
+            }
+        }
+        writer.flush();
+        assertEquals(snapshot("value49"), load(file));
+    }
+
+    /**
+     * Rewrites the file given as argument with alternating snapshots until
+     * killed.
+     */
+    public static void main(String[] args) throws IOException {
+        File file = new File(args[0]);
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        for (int i = 0;; i++) {
+            DeltaFileWriter.writeTemp(tempFile, snapshot(i % 2 == 0 ? "old"
+                    : "new"));
+            DeltaFileWriter.replace(tempFile, file);
+        }
+    }
+
+    private File backup() {
+        return new File(directory, file.getName() + ".bak");
+    }
+
+    private static Properties snapshot(String value) {
+        Properties properties = new Properties();
+        for (int i = 0; i < ENTRIES; i++) {
+            properties.setProperty("key." + i, value + " " + i);
+        }
+        return properties;
+    }
+
+    private static Properties load(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream input = new FileInputStream(file);
+        try {
+            properties.load(input);
+        } finally {
+            input.close();
+        }
+        return properties;
+    }
+
+    private static void truncate(File file, long length) throws IOException {
+        FileOutputStream output = new FileOutputStream(file, true);
+        try {
+            output.getChannel().truncate(length);
+        } finally {
+            output.close();
+        }
+    }
+}
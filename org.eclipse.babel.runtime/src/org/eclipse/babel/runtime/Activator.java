@@ -17,6 +17,7 @@ import java.net.URL;
 import org.eclipse.babel.runtime.external.ITranslatableSet;
 import org.eclipse.babel.runtime.external.TranslatableText;
 import org.eclipse.babel.runtime.external.TranslatableResourceBundle;
+import org.eclipse.babel.runtime.external.TranslatableResourceFile;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jface.resource.ImageDescriptor;
@@ -78,6 +79,7 @@ public class Activator extends AbstractUIPlugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		TranslatableResourceFile.flushPendingSaves();
 		plugin = null;
 		super.stop(context);
 	}
@@ -0,0 +1,257 @@
+package org.eclipse.babel.runtime.external;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.babel.runtime.Messages;
+import org.eclipse.core.internal.runtime.RuntimeLog;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Write-behind queue for the delta files in the <code>.translations</code>
+ * state area.
+ * <P>
+ * Saving a delta file only records a snapshot of its properties. The snapshots
+ * are written out by a background thread once no further save has been
+ * requested for the configured delay, so a burst of edits to the same bundle
+ * costs a single write. Each file is first written to a temporary file in the
+ * same directory and then renamed over the old one, so a crash leaves either
+ * the old or the new content on disk, never a truncated file. Where the
+ * platform cannot rename onto an existing file, the old file is kept as a
+ * backup until the new one is in place, and restored on the next load.
+ * <P>
+ * The delay, in milliseconds, can be set with the system property
+ * <code>org.eclipse.babel.runtime.saveDelay</code>. Pending snapshots are
+ * flushed when the plug-in stops and, failing that, from a shutdown hook.
+ */
+class DeltaFileWriter {
+
+	static final String SAVE_DELAY_PROPERTY = "org.eclipse.babel.runtime.saveDelay"; //$NON-NLS-1$
+
+	private static final long DEFAULT_SAVE_DELAY = 500;
+
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
+	private static final String BACKUP_SUFFIX = ".bak"; //$NON-NLS-1$
+
+	private static DeltaFileWriter instance;
+
+	/**
+	 * Pending snapshots, keyed by target file. A <code>null</code> snapshot
+	 * means the target file is to be deleted. Guarded by <code>this</code>.
+	 */
+	private final Map<File, Properties> pending = new LinkedHashMap<File, Properties>();
+
+	/**
+	 * Held while a batch is taken from the queue and written, so that the
+	 * executor, the shutdown hook and <code>Activator.stop</code> never write
+	 * the same temporary file at once, and batches are written in the order
+	 * they were queued.
+	 */
+	private final Object writeLock = new Object();
+
+	private final long delay;
+
+	private final ScheduledExecutorService executor;
+
+	private boolean flushScheduled = false;
+
+	DeltaFileWriter(long delay) {
+		this.delay = delay;
+		this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Translation delta writer"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	static synchronized DeltaFileWriter getDefault() {
+		if (instance == null) {
+			instance = new DeltaFileWriter(Long.getLong(SAVE_DELAY_PROPERTY, DEFAULT_SAVE_DELAY).longValue());
+			Runtime.getRuntime().addShutdownHook(new Thread("Translation delta flush") { //$NON-NLS-1$
+				public void run() {
+					instance.flush();
+				}
+			});
+		}
+		return instance;
+	}
+
+	/**
+	 * Writes the pending snapshots of the default writer, if one has been
+	 * created at all.
+	 */
+	static void flushDefault() {
+		DeltaFileWriter writer;
+		synchronized (DeltaFileWriter.class) {
+			writer = instance;
+		}
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Queues a snapshot to be written to the given file. A snapshot queued
+	 * earlier for the same file and not yet written is replaced.
+	 *
+	 * @param file the delta file
+	 * @param snapshot a private copy of the properties to write, or
+	 * 		<code>null</code> if the file is to be deleted
+	 */
+	synchronized void schedule(File file, Properties snapshot) {
+		pending.put(file, snapshot);
+		if (!flushScheduled) {
+			flushScheduled = true;
+			executor.schedule(new Runnable() {
+				public void run() {
+					flush();
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Writes all pending snapshots now, on the calling thread.
+	 */
+	void flush() {
+		synchronized (writeLock) {
+			Map<File, Properties> batch;
+			synchronized (this) {
+				flushScheduled = false;
+				if (pending.isEmpty()) {
+					return;
+				}
+				batch = new LinkedHashMap<File, Properties>(pending);
+				pending.clear();
+			}
+			for (Map.Entry<File, Properties> entry : batch.entrySet()) {
+				if (entry.getValue() == null) {
+					delete(entry.getKey());
+				} else {
+					write(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+	private void delete(File file) {
+		if (file.exists() && !file.delete()) {
+			String message = TranslatableNLS.bind(Messages.exception_failedDelete, file).getLocalizedText();
+			RuntimeLog.log(new Status(IStatus.WARNING, "org.eclipse.babel.runtime", IStatus.WARNING, message, null));
+		}
+	}
+
+	private void write(File file, Properties properties) {
+		File parentFile = file.getParentFile();
+		if (parentFile == null)
+			return;
+		parentFile.mkdirs();
+		File tempFile = new File(parentFile, file.getName() + TEMP_SUFFIX);
+		try {
+			writeTemp(tempFile, properties);
+			replace(tempFile, file);
+		} catch (IOException e) {
+			tempFile.delete();
+			String message = TranslatableNLS.bind(Messages.exception_saveException, file).getLocalizedText();
+			RuntimeLog.log(new Status(IStatus.ERROR, "org.eclipse.babel.runtime", IStatus.ERROR, message, e));
+		}
+	}
+
+	/**
+	 * Stores the properties into the given file and forces the content to
+	 * disk before returning.
+	 */
+	static void writeTemp(File tempFile, Properties properties) throws IOException {
+		FileOutputStream fos = new FileOutputStream(tempFile, false);
+		BufferedOutputStream output = new BufferedOutputStream(fos);
+		try {
+			properties.store(output, null);
+			output.flush();
+			fos.getFD().sync();
+		} finally {
+			try {
+				output.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Moves the fully written temporary file over the target. A rename within
+	 * one directory is atomic on POSIX file systems. Where the platform
+	 * refuses to rename onto an existing file, as on Windows, the old file is
+	 * moved aside to a backup first, which {@link #recover(File)} restores if
+	 * the new file never made it into place.
+	 */
+	static void replace(File tempFile, File file) throws IOException {
+		if (!tempFile.renameTo(file)) {
+			replaceWithBackup(tempFile, file);
+		}
+	}
+
+	static void replaceWithBackup(File tempFile, File file) throws IOException {
+		if (!tempFile.exists()) {
+			throw new IOException("Cannot rename " + tempFile + " to " + file); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		File backupFile = getBackupFile(file);
+		backupFile.delete();
+		if (file.exists() && !file.renameTo(backupFile)) {
+			throw new IOException("Cannot rename " + file + " to " + backupFile); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (!tempFile.renameTo(file)) {
+			backupFile.renameTo(file);
+			throw new IOException("Cannot rename " + tempFile + " to " + file); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		backupFile.delete();
+	}
+
+	/**
+	 * Cleans up after a replace that was interrupted on a platform without
+	 * atomic renames: the backup is restored if the new file never made it
+	 * into place, and dropped otherwise. Called before a delta file is read.
+	 */
+	static void recover(File file) {
+		DeltaFileWriter writer;
+		synchronized (DeltaFileWriter.class) {
+			writer = instance;
+		}
+		if (writer == null) {
+			restoreBackup(file);
+		} else {
+			synchronized (writer.writeLock) {
+				restoreBackup(file);
+			}
+		}
+	}
+
+	private static void restoreBackup(File file) {
+		File backupFile = getBackupFile(file);
+		if (!backupFile.exists()) {
+			return;
+		}
+		if (file.exists()) {
+			backupFile.delete();
+		} else if (!backupFile.renameTo(file)) {
+			String message = TranslatableNLS.bind(Messages.exception_loadException, file).getLocalizedText();
+			RuntimeLog.log(new Status(IStatus.WARNING, "org.eclipse.babel.runtime", IStatus.WARNING, message, null));
+		}
+	}
+
+	private static File getBackupFile(File file) {
+		return new File(file.getParentFile(), file.getName() + BACKUP_SUFFIX);
+	}
+}
@@ -12,14 +12,11 @@
 package org.eclipse.babel.runtime.external;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
@@ -68,6 +65,7 @@ public class TranslatableResourceFile {
 	protected void load() {
 		InputStream input = null;
 		updatedProperties = new Properties();
+		DeltaFileWriter.recover(updatedPropertiesFile.toFile());
 		try {
 			input = new BufferedInputStream(new FileInputStream(updatedPropertiesFile.toFile()));
 			updatedProperties.load(input);
@@ -132,42 +130,28 @@ public class TranslatableResourceFile {
         return keys;
 	}
 
+	/**
+	 * Queues the current delta for writing. The file is written in the
+	 * background once no further edits have been saved for a short while, see
+	 * {@link DeltaFileWriter}.
+	 */
 	public void save() {
+		File file = updatedPropertiesFile.toFile();
 		if (updatedProperties.isEmpty()) {
 			// nothing to save. delete existing file if one exists.
-			if (updatedPropertiesFile.toFile().exists() && !updatedPropertiesFile.toFile().delete()) {
-				String message = TranslatableNLS.bind(Messages.exception_failedDelete, updatedPropertiesFile).getLocalizedText();
-				RuntimeLog.log(new Status(IStatus.WARNING, "org.eclipse.babel.runtime", IStatus.WARNING, message, null));
-			}
+			DeltaFileWriter.getDefault().schedule(file, null);
 			return;
 		}
 
 		updatedProperties.put(VERSION_KEY, VERSION_VALUE);
-		OutputStream output = null;
-		FileOutputStream fos = null;
-		try {
-			// create the parent dirs if they don't exist
-			File parentFile = updatedPropertiesFile.toFile().getParentFile();
-			if (parentFile == null)
-				return;
-			parentFile.mkdirs();
-			// set append to be false so we overwrite current settings.
-			fos = new FileOutputStream(updatedPropertiesFile.toOSString(), false);
-			output = new BufferedOutputStream(fos);
-			updatedProperties.store(output, null);
-			output.flush();
-			fos.getFD().sync();
-		} catch (IOException e) {
-			String message = TranslatableNLS.bind(Messages.exception_saveException, updatedPropertiesFile).getLocalizedText();
-			RuntimeLog.log(new Status(IStatus.ERROR, "org.eclipse.babel.runtime", IStatus.ERROR, message, e));
-		} finally {
-			if (output != null)
-				try {
-					output.close();
-				} catch (IOException e) {
-					// ignore
-				}
-		}
+		DeltaFileWriter.getDefault().schedule(file, (Properties)updatedProperties.clone());
+	}
+
+	/**
+	 * Writes all delta files that have been saved but not yet written.
+	 */
+	public static void flushPendingSaves() {
+		DeltaFileWriter.flushDefault();
 	}
 
 	/**
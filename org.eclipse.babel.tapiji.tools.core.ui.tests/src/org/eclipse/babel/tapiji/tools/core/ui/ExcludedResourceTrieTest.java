@@ -0,0 +1,131 @@
+package org.eclipse.babel.tapiji.tools.core.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.tapiji.tools.core.model.IResourceDescriptor;
+import org.eclipse.babel.tapiji.tools.core.model.ResourceDescriptor;
+import org.eclipse.core.runtime.Path;
+
+public class ExcludedResourceTrieTest extends TestCase {
+
+    private final ExcludedResourceTrie trie = new ExcludedResourceTrie();
+
+    public void testExactAndAncestorLookup() {
+        trie.add(new Path("/p/src/a"));
+
+        assertTrue(isExcluded("/p/src/a", false));
+        assertFalse(isExcluded("/p/src", false));
+        assertFalse(isExcluded("/p/src/a/b.properties", false));
+        assertTrue(isExcluded("/p/src/a/b.properties", true));
+        assertTrue(isExcluded("/p/src/a/b/c.properties", true));
+        assertFalse(isExcluded("/p/src/ab/c.properties", true));
+        assertFalse(isExcluded("/p/src/b", true));
+        assertFalse(isExcluded("/q/src/a", true));
+    }
+
+    public void testProjectOnlyCountsForItself() {
+        trie.add(new Path("/p"));
+
+        assertTrue(isExcluded("/p", false));
+        assertTrue(isExcluded("/p", true));
+        assertFalse(isExcluded("/p/src/a.properties", true));
+    }
+
+    public void testNestedExclusions() {
+        trie.add(new Path("/p/src/a/b"));
+        trie.add(new Path("/p/src/a"));
+        trie.add(new Path("/p/src/a/b/c/d.properties"));
+
+        assertTrue(isExcluded("/p/src/a", false));
+        assertTrue(isExcluded("/p/src/a/b", false));
+        assertFalse(isExcluded("/p/src/a/b/c", false));
+        assertTrue(isExcluded("/p/src/a/b/c/d.properties", false));
+        assertTrue(isExcluded("/p/src/a/x.properties", true));
+    }
+
+    public void testReinclusion() {
+        trie.add(new Path("/p/src/a"));
+        trie.add(new Path("/p/src/a/b"));
+        trie.add(new Path("/p/src/a/b/c.properties"));
+
+        // including the outer folder keeps the nested exclusions
+        trie.remove(new Path("/p/src/a"));
+        assertFalse(isExcluded("/p/src/a", false));
+        assertFalse(isExcluded("/p/src/a/x.properties", true));
+        assertTrue(isExcluded("/p/src/a/b", false));
+        assertTrue(isExcluded("/p/src/a/b/x.properties", true));
+        assertTrue(isExcluded("/p/src/a/b/c.properties", false));
+
+        trie.remove(new Path("/p/src/a/b/c.properties"));
+        assertFalse(isExcluded("/p/src/a/b/c.properties", false));
+        assertTrue(isExcluded("/p/src/a/b/c.properties", true));
+
+        trie.remove(new Path("/p/src/a/b"));
+        assertFalse(isExcluded("/p/src/a/b/c.properties", true));
+
+        // excluding again after everything was included
+        trie.add(new Path("/p/src/a"));
+        assertTrue(isExcluded("/p/src/a/b/c.properties", true));
+    }
+
+    public void testRemovingUnknownPaths() {
+        trie.add(new Path("/p/src/a"));
+
+        trie.remove(new Path("/p/src"));
+        trie.remove(new Path("/p/src/a/b"));
+        trie.remove(new Path("/q"));
+
+        assertTrue(isExcluded("/p/src/a", false));
+        assertFalse(isExcluded("/p/src", false));
+    }
+
+    public void testFragmentFolders() {
+        // a fragment is a project of its own, whose folders mirror the host's
+        trie.add(new Path("/org.example/nl/de"));
+        trie.add(new Path("/org.example.nl/src/messages_fr.properties"));
+
+        assertTrue(isExcluded("/org.example/nl/de/a.properties", true));
+        assertFalse(isExcluded("/org.example.nl/nl/de/a.properties", true));
+        assertFalse(isExcluded("/org.example/src/messages_fr.properties",
+                false));
+        assertTrue(isExcluded("/org.example.nl/src/messages_fr.properties",
+                false));
+        assertFalse(isExcluded("/org.example.nl/src/messages_de.properties",
+                true));
+
+        trie.remove(new Path("/org.example/nl/de"));
+        assertFalse(isExcluded("/org.example/nl/de/a.properties", true));
+        assertTrue(isExcluded("/org.example.nl/src/messages_fr.properties",
+                false));
+    }
+
+    public void testResetReplacesPaths() {
+        trie.add(new Path("/p/old"));
+
+        List<IResourceDescriptor> descriptors = new ArrayList<IResourceDescriptor>();
+        descriptors.add(descriptor("p", "src/a"));
+        descriptors.add(descriptor("org.example.nl", "nl/de"));
+        trie.reset(descriptors);
+
+        assertFalse(isExcluded("/p/old", true));
+        assertTrue(isExcluded("/p/src/a", false));
+        assertTrue(isExcluded("/p/src/a/b.properties", true));
+        assertTrue(isExcluded("/org.example.nl/nl/de", false));
+        assertFalse(isExcluded("/org.example/nl/de", true));
+    }
+
+    private boolean isExcluded(String path, boolean checkAncestors) {
+        return trie.isExcluded(new Path(path), checkAncestors);
+    }
+
+    private static IResourceDescriptor descriptor(String project,
+            String relativePath) {
+        ResourceDescriptor descriptor = new ResourceDescriptor();
+        descriptor.setProjectName(project);
+        descriptor.setRelativePath(relativePath);
+        return descriptor;
+    }
+}
@@ -0,0 +1,154 @@
+package org.eclipse.babel.tapiji.tools.core.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.tapiji.tools.core.model.manager.ResourceBundleChangedEvent;
+
+public class KeyHoverCacheTest extends TestCase {
+
+    /** The values of the fake bundles, by bundle and key. */
+    private final Map<String, Map<String, String>> bundles = new HashMap<String, Map<String, String>>();
+
+    /** The bundles and keys rendered, in order. */
+    private final List<String> rendered = new ArrayList<String>();
+
+    private final List<String> registered = new ArrayList<String>();
+
+    private final KeyHoverCache cache = new KeyHoverCache() {
+        @Override
+        protected String createHoverString(String rbName, String key) {
+            rendered.add(rbName + "/" + key);
+            Map<String, String> bundle = bundles.get(rbName);
+            if (bundle == null || !bundle.containsKey(key)) {
+                return null;
+            }
+            StringBuilder html = new StringBuilder();
+            appendHtml(html, bundle.get(key));
+            return html.toString();
+        }
+
+        @Override
+        protected void register(String rbName) {
+            registered.add(rbName);
+        }
+
+        @Override
+        protected void unregister(String rbName) {
+            registered.remove(rbName);
+        }
+    };
+
+    public void testEscapesMarkup() {
+        assertEquals("a &lt;b&gt;bold&lt;/b&gt; &amp; &amp;amp;",
+                html("a <b>bold</b> & &amp;"));
+        assertEquals("&lt;script&gt;alert(\"x\")&lt;/script&gt;",
+                html("<script>alert(\"x\")</script>"));
+    }
+
+    public void testBreaksLines() {
+        assertEquals("first<br/>second<br/>", html("first\nsecond\n"));
+        assertEquals("&lt;<br/>&gt;", html("<\n>"));
+    }
+
+    public void testKeepsOtherCharacters() {
+        assertEquals("", html(""));
+        String plain = "'quoted' \"text\"\t{0}";
+        assertEquals(plain, html(plain));
+        String nonAscii = "Gr\u00fc\u00dfe \u65e5\u672c";
+        assertEquals(nonAscii, html(nonAscii));
+    }
+
+    public void testRendersEachKeyOnce() {
+        put("messages", "a", "A");
+        put("messages", "b", "B");
+
+        assertEquals("A", cache.get("messages", "a"));
+        assertEquals("A", cache.get("messages", "a"));
+        assertEquals("B", cache.get("messages", "b"));
+        assertEquals("B", cache.get("messages", "b"));
+
+        assertEquals(2, rendered.size());
+        assertEquals(1, registered.size());
+    }
+
+    public void testMissingKeysAreNotCached() {
+        put("messages", "a", "A");
+
+        assertNull(cache.get("messages", "missing"));
+        assertNull(cache.get("messages", "missing"));
+        assertEquals(2, rendered.size());
+
+        put("messages", "missing", "found");
+        assertEquals("found", cache.get("messages", "missing"));
+    }
+
+    public void testBundleChangeDropsOnlyThatBundle() {
+        put("messages", "a", "A");
+        put("errors", "a", "E");
+        cache.get("messages", "a");
+        cache.get("errors", "a");
+
+        put("messages", "a", "A2");
+        put("errors", "a", "E2");
+        cache.resourceBundleChanged(new ResourceBundleChangedEvent(
+                ResourceBundleChangedEvent.MODIFIED, "messages", null));
+
+        assertEquals("A2", cache.get("messages", "a"));
+        assertEquals("E", cache.get("errors", "a"));
+        assertEquals(2, registered.size());
+    }
+
+    public void testClearDropsAllBundles() {
+        put("messages", "a", "A");
+        put("errors", "a", "E");
+        cache.get("messages", "a");
+        cache.get("errors", "a");
+
+        put("messages", "a", "A2");
+        put("errors", "a", "E2");
+        cache.clear();
+
+        assertEquals("A2", cache.get("messages", "a"));
+        assertEquals("E2", cache.get("errors", "a"));
+        // still registered, so no second registration
+        assertEquals(2, registered.size());
+    }
+
+    public void testRemovedBundleRegistersAgain() {
+        put("messages", "a", "A");
+        cache.get("messages", "a");
+
+        cache.remove("messages");
+        registered.clear();
+        put("messages", "a", "A2");
+
+        assertEquals("A2", cache.get("messages", "a"));
+        assertEquals(1, registered.size());
+    }
+
+    public void testChangeOfUnknownBundle() {
+        cache.resourceBundleChanged(new ResourceBundleChangedEvent(
+                ResourceBundleChangedEvent.DELETED, "unknown", null));
+        assertTrue(registered.isEmpty());
+    }
+
+    private void put(String rbName, String key, String value) {
+        Map<String, String> bundle = bundles.get(rbName);
+        if (bundle == null) {
+            bundle = new HashMap<String, String>();
+            bundles.put(rbName, bundle);
+        }
+        bundle.put(key, value);
+    }
+
+    private static String html(String text) {
+        StringBuilder html = new StringBuilder();
+        KeyHoverCache.appendHtml(html, text);
+        return html.toString();
+    }
+}
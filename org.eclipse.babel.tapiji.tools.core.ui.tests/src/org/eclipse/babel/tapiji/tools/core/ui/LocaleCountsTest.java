@@ -0,0 +1,146 @@
+package org.eclipse.babel.tapiji.tools.core.ui;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+
+public class LocaleCountsTest extends TestCase {
+
+    private final LocaleCounts counts = new LocaleCounts();
+
+    public void testAddAndRemove() {
+        IResource de = file("messages_de.properties");
+        IResource errorsDe = file("errors_de.properties");
+        IResource deAt = file("messages_de_AT.properties");
+
+        counts.add(de);
+        counts.add(errorsDe);
+        counts.add(deAt);
+        assertLocales(new Locale("de"), new Locale("de", "AT"));
+
+        counts.remove(de);
+        assertLocales(new Locale("de"), new Locale("de", "AT"));
+        counts.remove(errorsDe);
+        assertLocales(new Locale("de", "AT"));
+        counts.remove(deAt);
+        assertLocales();
+    }
+
+    public void testDefaultLocaleIsLeftOut() {
+        counts.add(file("messages.properties"));
+        counts.add(file("my_app_messages.properties"));
+        assertLocales();
+    }
+
+    public void testFoldersAreLeftOut() {
+        counts.add(folder("messages_de"));
+        assertLocales();
+    }
+
+    public void testRemoveAll() {
+        IResource de = file("messages_de.properties");
+        IResource fr = file("messages_fr.properties");
+        counts.add(de);
+        counts.add(fr);
+        counts.add(file("errors_fr.properties"));
+
+        counts.removeAll(Arrays.asList(de, fr));
+        assertLocales(new Locale("fr"));
+        counts.removeAll(null);
+        assertLocales(new Locale("fr"));
+    }
+
+    public void testUnknownRemovalKeepsCounts() {
+        IResource de = file("messages_de.properties");
+        counts.add(de);
+        counts.remove(file("messages_fr.properties"));
+        assertLocales(new Locale("de"));
+
+        counts.remove(de);
+        counts.remove(de);
+        counts.add(de);
+        assertLocales(new Locale("de"));
+    }
+
+    public void testSnapshots() {
+        Set<Locale> empty = counts.getLocales();
+        counts.add(file("messages_de.properties"));
+        Set<Locale> de = counts.getLocales();
+        assertTrue(empty.isEmpty());
+        assertEquals(1, de.size());
+
+        // another file of a counted locale keeps the snapshot
+        counts.add(file("errors_de.properties"));
+        assertSame(de, counts.getLocales());
+
+        try {
+            counts.getLocales().clear();
+            fail("the locales must not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    public void testSuffixesAreReadLikeBundleNames() {
+        counts.add(file("messages_en__POSIX.properties"));
+        counts.add(file("messages_de_AT_var_iant.properties"));
+        counts.add(file("messages_es_419.properties"));
+        assertLocales(new Locale("en", "", "POSIX"), new Locale("de", "AT",
+                "var_iant"), new Locale("es", "419"));
+    }
+
+    public void testScriptsAreNoLocales() {
+        // bundles of their own, not the sr locale of messages
+        counts.add(file("messages_sr_Latn.properties"));
+        counts.add(file("messages_sr_Latn_RS.properties"));
+        counts.add(file("messages_zh_Hant_TW.properties"));
+        assertLocales();
+    }
+
+    private void assertLocales(Locale... expected) {
+        assertEquals(new HashSet<Locale>(Arrays.asList(expected)),
+                counts.getLocales());
+    }
+
+    private static IResource file(String name) {
+        return resource(IFile.class, name);
+    }
+
+    private static IResource folder(String name) {
+        return resource(IFolder.class, name);
+    }
+
+    private static IResource resource(Class<? extends IResource> type,
+            final String name) {
+        return (IResource) Proxy.newProxyInstance(
+                LocaleCountsTest.class.getClassLoader(),
+                new Class<?>[] { type }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        String methodName = method.getName();
+                        if (methodName.equals("getName")) {
+                            return name;
+                        } else if (methodName.equals("getParent")) {
+                            return null;
+                        } else if (methodName.equals("equals")) {
+                            return proxy == args[0];
+                        } else if (methodName.equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        } else if (methodName.equals("toString")) {
+                            return name;
+                        }
+                        throw new UnsupportedOperationException(methodName);
+                    }
+                });
+    }
+}
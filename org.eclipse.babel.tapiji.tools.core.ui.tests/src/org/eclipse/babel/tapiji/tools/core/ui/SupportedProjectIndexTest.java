@@ -0,0 +1,286 @@
+package org.eclipse.babel.tapiji.tools.core.ui;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+
+public class SupportedProjectIndexTest extends TestCase {
+
+    private static final int PROJECTS = 200;
+
+    /** The projects of the fake workspace. */
+    private final List<FakeProject> projects = new CopyOnWriteArrayList<FakeProject>();
+
+    private final List<IResourceChangeListener> listeners = new CopyOnWriteArrayList<IResourceChangeListener>();
+
+    /** All names any project had, to look up in the index. */
+    private final List<String> names = new ArrayList<String>();
+
+    private IWorkspace workspace;
+
+    @Override
+    protected void setUp() throws Exception {
+        workspace = createWorkspace();
+        for (int i = 0; i < PROJECTS; i++) {
+            projects.add(new FakeProject("project" + i, i % 2 == 0));
+            names.add("project" + i);
+        }
+    }
+
+    public void testInitialIndex() {
+        SupportedProjectIndex index = new SupportedProjectIndex(workspace);
+        assertSame(projects.get(0).handle, index.getProject("project0"));
+        assertSame(projects.get(0).handle, index.getProject("PROJECT0"));
+        assertNull(index.getProject("project1"));
+        assertNull(index.getProject("unknown"));
+        assertIndexed(index);
+    }
+
+    public void testOpenCloseAndRename() {
+        SupportedProjectIndex index = new SupportedProjectIndex(workspace);
+
+        for (int i = 0; i < PROJECTS; i += 3) {
+            setOpen(projects.get(i), false);
+        }
+        assertIndexed(index);
+
+        for (int i = 0; i < PROJECTS; i += 5) {
+            rename(i, projects.get(i).name.toUpperCase(Locale.ENGLISH)
+                    + "_renamed");
+        }
+        assertIndexed(index);
+
+        for (int i = 0; i < PROJECTS; i += 3) {
+            setOpen(projects.get(i), true);
+        }
+        assertIndexed(index);
+
+        for (int i = 1; i < PROJECTS; i += 4) {
+            FakeProject project = projects.get(i);
+            project.nature = !project.nature;
+            fire(project, IResourceDelta.CHANGED, IResourceDelta.DESCRIPTION);
+        }
+        assertIndexed(index);
+
+        FakeProject removed = projects.remove(0);
+        fire(removed, IResourceDelta.REMOVED, 0);
+        assertIndexed(index);
+    }
+
+    public void testChangesDuringInitialScan() throws Exception {
+        final boolean[] stop = new boolean[1];
+        Thread changes = new Thread() {
+            @Override
+            public void run() {
+                while (!isStopped()) {
+                    for (FakeProject project : projects) {
+                        setOpen(project, !project.open);
+                    }
+                }
+            }
+
+            private boolean isStopped() {
+                synchronized (stop) {
+                    return stop[0];
+                }
+            }
+        };
+        changes.start();
+        List<SupportedProjectIndex> indexes = new ArrayList<SupportedProjectIndex>();
+        for (int i = 0; i < 20; i++) {
+            indexes.add(new SupportedProjectIndex(workspace));
+        }
+        synchronized (stop) {
+            stop[0] = true;
+        }
+        changes.join();
+
+        for (SupportedProjectIndex index : indexes) {
+            assertIndexed(index);
+        }
+    }
+
+    /**
+     * Checks the index against the current state of the workspace.
+     */
+    private void assertIndexed(SupportedProjectIndex index) {
+        for (String name : names) {
+            FakeProject expected = null;
+            for (FakeProject project : projects) {
+                if (project.name.equalsIgnoreCase(name) && project.open
+                        && project.nature) {
+                    expected = project;
+                }
+            }
+            assertSame(name, expected == null ? null : expected.handle, index
+                    .getProject(name));
+        }
+    }
+
+    private void setOpen(FakeProject project, boolean open) {
+        project.open = open;
+        fire(project, IResourceDelta.CHANGED, IResourceDelta.OPEN);
+    }
+
+    private void rename(int i, String newName) {
+        FakeProject project = projects.get(i);
+        FakeProject renamed = new FakeProject(newName, project.nature);
+        renamed.open = project.open;
+        projects.set(i, renamed);
+        names.add(newName);
+        fire(project, IResourceDelta.REMOVED, IResourceDelta.MOVED_TO);
+        fire(renamed, IResourceDelta.ADDED, IResourceDelta.MOVED_FROM);
+    }
+
+    private void fire(FakeProject project, int kind, int flags) {
+        final IResourceDelta child = delta(project.handle, kind, flags,
+                new IResourceDelta[0]);
+        final IResourceDelta root = delta(null, IResourceDelta.CHANGED, 0,
+                new IResourceDelta[] { child });
+        IResourceChangeEvent event = proxy(IResourceChangeEvent.class,
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        if (method.getName().equals("getDelta")) {
+                            return root;
+                        }
+                        if (method.getName().equals("getType")) {
+                            return Integer
+                                    .valueOf(IResourceChangeEvent.POST_CHANGE);
+                        }
+                        throw new UnsupportedOperationException(method
+                                .getName());
+                    }
+                });
+        for (IResourceChangeListener listener : listeners) {
+            listener.resourceChanged(event);
+        }
+    }
+
+    private static IResourceDelta delta(final IResource resource,
+            final int kind, final int flags, final IResourceDelta[] children) {
+        return proxy(IResourceDelta.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("getResource")) {
+                    return resource;
+                }
+                if (name.equals("getKind")) {
+                    return Integer.valueOf(kind);
+                }
+                if (name.equals("getFlags")) {
+                    return Integer.valueOf(flags);
+                }
+                if (name.equals("getAffectedChildren")) {
+                    return children;
+                }
+                if (name.equals("findMember")) {
+                    return null;
+                }
+                throw new UnsupportedOperationException(name);
+            }
+        });
+    }
+
+    private IWorkspace createWorkspace() {
+        final IWorkspaceRoot root = proxy(IWorkspaceRoot.class,
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        if (method.getName().equals("getProjects")) {
+                            List<IProject> handles = new ArrayList<IProject>();
+                            for (FakeProject project : projects) {
+                                handles.add(project.handle);
+                            }
+                            return handles.toArray(new IProject[handles
+                                    .size()]);
+                        }
+                        throw new UnsupportedOperationException(method
+                                .getName());
+                    }
+                });
+        return proxy(IWorkspace.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("getRoot")) {
+                    return root;
+                }
+                if (name.equals("addResourceChangeListener")) {
+                    listeners.add((IResourceChangeListener) args[0]);
+                    return null;
+                }
+                if (name.equals("removeResourceChangeListener")) {
+                    listeners.remove(args[0]);
+                    return null;
+                }
+                throw new UnsupportedOperationException(name);
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SupportedProjectIndexTest.class
+                .getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    /**
+     * A project of the fake workspace and its handle.
+     */
+    private class FakeProject implements InvocationHandler {
+        final String name;
+        final IProject handle;
+        volatile boolean open = true;
+        volatile boolean nature;
+
+        FakeProject(String name, boolean nature) {
+            this.name = name;
+            this.nature = nature;
+            this.handle = proxy(IProject.class, this);
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String methodName = method.getName();
+            if (methodName.equals("getName")) {
+                return name;
+            }
+            if (methodName.equals("getType")) {
+                return Integer.valueOf(IResource.PROJECT);
+            }
+            if (methodName.equals("isOpen")) {
+                // the handle of a removed project is closed
+                return Boolean.valueOf(open && projects.contains(this));
+            }
+            if (methodName.equals("hasNature")) {
+                return Boolean.valueOf(open && nature
+                        && ResourceBundleManager.NATURE_ID.equals(args[0]));
+            }
+            if (methodName.equals("getWorkspace")) {
+                return workspace;
+            }
+            if (methodName.equals("equals")) {
+                return Boolean.valueOf(proxy == args[0]);
+            }
+            if (methodName.equals("hashCode")) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            }
+            if (methodName.equals("toString")) {
+                return name;
+            }
+            throw new UnsupportedOperationException(methodName);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.eclipse.babel.tapiji.tools.core.ui.utils;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.tapiji.tools.core.extensions.ILocation;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+
+public class MarkerAccumulatorTest extends TestCase {
+
+    private static final int FINDINGS = 1000;
+
+    /** The markers of the fake file, each a map of attributes. */
+    private final List<Map<String, Object>> markers = new ArrayList<Map<String, Object>>();
+
+    /**
+     * The number of marker deltas: creations, changes and deletions, where
+     * setting the attributes of a marker created in the same operation is
+     * part of its creation.
+     */
+    private int events;
+
+    /** The markers created in the current workspace operation. */
+    private final List<Map<String, Object>> created = new ArrayList<Map<String, Object>>();
+
+    /** The number of workspace operations run. */
+    private int runs;
+
+    private boolean inRun;
+
+    private IFile file;
+    private IWorkspace workspace;
+
+    @Override
+    protected void setUp() throws Exception {
+        file = createFile();
+        workspace = createWorkspace();
+    }
+
+    public void testUnchangedFindingsCauseNoEvents() {
+        build(0, FINDINGS, 1);
+        assertEquals(FINDINGS, markers.size());
+        assertEquals(FINDINGS, events);
+
+        events = 0;
+        build(0, FINDINGS, 1);
+        assertEquals(FINDINGS, markers.size());
+        assertEquals(0, events);
+    }
+
+    public void testOnlyChangedFindingsCauseEvents() {
+        build(0, FINDINGS, 1);
+
+        // one finding fixed, one new
+        events = 0;
+        build(1, FINDINGS + 1, 1);
+        assertEquals(FINDINGS, markers.size());
+        assertEquals(2, events);
+    }
+
+    public void testCauseIsPartOfTheMarkerIdentity() {
+        build(0, FINDINGS, 1);
+
+        events = 0;
+        MarkerAccumulator accumulator = new MarkerAccumulator(workspace);
+        accumulator.audited(file);
+        for (int i = 0; i < FINDINGS; i++) {
+            report(accumulator, i, i == 0 ? 2 : 1);
+        }
+        // the same range and message with a second cause
+        report(accumulator, 1, 2);
+        apply(accumulator);
+
+        assertEquals(FINDINGS + 1, markers.size());
+        // the marker with the old cause is replaced, the new one created
+        assertEquals(3, events);
+    }
+
+    public void testResourcesNotAuditedKeepTheirMarkers() {
+        build(0, FINDINGS, 1);
+
+        events = 0;
+        MarkerAccumulator accumulator = new MarkerAccumulator(workspace);
+        report(accumulator, FINDINGS, 1);
+        apply(accumulator);
+        assertEquals(FINDINGS + 1, markers.size());
+        assertEquals(1, events);
+    }
+
+    public void testNothingToApplyRunsNoOperation() {
+        new MarkerAccumulator(workspace).apply();
+        assertEquals(0, runs);
+    }
+
+    /**
+     * Audits the file with findings <code>from</code> (inclusive) to
+     * <code>to</code> (exclusive).
+     */
+    private void build(int from, int to, int cause) {
+        MarkerAccumulator accumulator = new MarkerAccumulator(workspace);
+        accumulator.audited(file);
+        for (int i = from; i < to; i++) {
+            report(accumulator, i, cause);
+        }
+        apply(accumulator);
+    }
+
+    /**
+     * Applies the markers and checks that a single workspace operation was
+     * run for them.
+     */
+    private void apply(MarkerAccumulator accumulator) {
+        int before = runs;
+        accumulator.apply();
+        assertEquals(before + 1, runs);
+    }
+
+    private void report(MarkerAccumulator accumulator, int finding, int cause) {
+        accumulator.reportToMarker("Non-externalized string literal 'x"
+                + finding + "'", location(finding * 10, finding * 10 + 4),
+                cause, "x" + finding, null, "text");
+    }
+
+    private ILocation location(final int start, final int end) {
+        return new ILocation() {
+            public IFile getFile() {
+                return file;
+            }
+
+            public int getStartPos() {
+                return start;
+            }
+
+            public int getEndPos() {
+                return end;
+            }
+
+            public String getLiteral() {
+                return null;
+            }
+
+            public Serializable getData() {
+                return null;
+            }
+        };
+    }
+
+    private IWorkspace createWorkspace() {
+        return proxy(IWorkspace.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args)
+                    throws Throwable {
+                if (method.getName().equals("run")) {
+                    runs++;
+                    created.clear();
+                    inRun = true;
+                    try {
+                        ((IWorkspaceRunnable) args[0]).run(null);
+                    } finally {
+                        inRun = false;
+                    }
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private IFile createFile() {
+        return proxy(IFile.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("exists")) {
+                    return Boolean.TRUE;
+                }
+                if (name.equals("findMarkers")) {
+                    assertInRun(name);
+                    IMarker[] result = new IMarker[markers.size()];
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = marker(markers.get(i));
+                    }
+                    return result;
+                }
+                if (name.equals("createMarker")) {
+                    assertInRun(name);
+                    Map<String, Object> attributes = new HashMap<String, Object>();
+                    markers.add(attributes);
+                    created.add(attributes);
+                    events++;
+                    return marker(attributes);
+                }
+                if (name.equals("equals")) {
+                    return Boolean.valueOf(proxy == args[0]);
+                }
+                if (name.equals("hashCode")) {
+                    return Integer.valueOf(System.identityHashCode(proxy));
+                }
+                throw new UnsupportedOperationException(name);
+            }
+        });
+    }
+
+    private IMarker marker(final Map<String, Object> attributes) {
+        return proxy(IMarker.class, new InvocationHandler() {
+            @SuppressWarnings("unchecked")
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                assertInRun(name);
+                if (name.equals("getAttributes")) {
+                    return new HashMap<String, Object>(attributes);
+                }
+                if (name.equals("setAttributes") && args.length == 1) {
+                    attributes.clear();
+                    attributes.putAll((Map<String, Object>) args[0]);
+                    if (!containsSame(created, attributes)) {
+                        events++;
+                    }
+                    return null;
+                }
+                if (name.equals("delete")) {
+                    if (removeSame(markers, attributes)) {
+                        events++;
+                    }
+                    return null;
+                }
+                throw new UnsupportedOperationException(name);
+            }
+        });
+    }
+
+    private void assertInRun(String call) {
+        assertTrue(call + " outside the workspace operation", inRun);
+    }
+
+    private static boolean containsSame(List<?> list, Object element) {
+        for (Object e : list) {
+            if (e == element) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean removeSame(List<?> list, Object element) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == element) {
+                list.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(MarkerAccumulatorTest.class
+                .getClassLoader(), new Class<?>[] { type }, handler));
+    }
+}
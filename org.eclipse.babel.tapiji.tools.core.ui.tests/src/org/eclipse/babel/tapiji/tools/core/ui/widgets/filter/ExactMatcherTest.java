@@ -0,0 +1,243 @@
+package org.eclipse.babel.tapiji.tools.core.ui.widgets.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.editor.api.IValuedKeyTreeNode;
+import org.eclipse.babel.editor.api.KeyTreeFactory;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Widget;
+
+public class ExactMatcherTest extends TestCase {
+
+    private static final String[] PATTERNS = { "menu", "MENU", "e", "ee",
+            "aa", "aaa", "edit.title", ".", "a b", "gr\u00fc\u00dfe",
+            "\u00c9L\u00c8VE", "x", "menu.edit.title.more", "*", "m*u",
+            "?e", "*aa*", "e?i", "a\\*", "\\?" };
+
+    private static final String[] TEXTS = { "menu.edit.title", "Menu",
+            "MENU.MENU.menu", "aaaa", "aAaAa", "eeee", "free time",
+            "Gr\u00fc\u00dfe aus K\u00f6ln", "\u00e9l\u00e8ve \u00c9L\u00c8VE",
+            "a*b", "a?b", "", " ", "x", null };
+
+    private final List<ViewerFilter> filters = new ArrayList<ViewerFilter>();
+
+    private int refreshes;
+
+    private final ExactMatcher matcher = new ExactMatcher(
+            new StructuredViewer() {
+                @Override
+                public void addFilter(ViewerFilter filter) {
+                    filters.add(filter);
+                }
+
+                @Override
+                public void removeFilter(ViewerFilter filter) {
+                    filters.remove(filter);
+                }
+
+                @Override
+                public void refresh() {
+                    refreshes++;
+                }
+
+                @Override
+                protected Widget doFindInputItem(Object element) {
+                    return null;
+                }
+
+                @Override
+                protected Widget doFindItem(Object element) {
+                    return null;
+                }
+
+                @Override
+                protected void doUpdateItem(Widget item, Object element,
+                        boolean fullMap) {
+                }
+
+                @SuppressWarnings("rawtypes")
+                @Override
+                protected List getSelectionFromWidget() {
+                    return new ArrayList<Object>();
+                }
+
+                @Override
+                protected void internalRefresh(Object element) {
+                }
+
+                @Override
+                public void reveal(Object element) {
+                }
+
+                @SuppressWarnings("rawtypes")
+                @Override
+                protected void setSelectionToWidget(List l, boolean reveal) {
+                }
+
+                @Override
+                public Control getControl() {
+                    return null;
+                }
+            });
+
+    public void testSameResultAsSearchingLowerCaseCopies() {
+        for (String pattern : PATTERNS) {
+            matcher.setPattern(pattern);
+            for (String key : TEXTS) {
+                if (key == null) {
+                    continue;
+                }
+                for (String value : TEXTS) {
+                    IValuedKeyTreeNode node = node(key, value, key);
+                    boolean selected = matcher.select(null, null, node);
+                    FilterInfo info = (FilterInfo) node.getInfo();
+
+                    IValuedKeyTreeNode expectedNode = node(key, value, key);
+                    boolean expected = select(pattern, expectedNode);
+                    FilterInfo expectedInfo = (FilterInfo) expectedNode
+                            .getInfo();
+
+                    String message = "'" + pattern + "' in '" + key
+                            + "', '" + value + "'";
+                    assertEquals(message, expected, selected);
+                    assertEquals(message, expectedInfo.isFoundInKey(), info
+                            .isFoundInKey());
+                    assertEquals(message, expectedInfo.getKeyOccurrences(),
+                            info.getKeyOccurrences());
+                    for (Locale locale : node.getLocales()) {
+                        assertEquals(message, expectedInfo
+                                .hasFoundInLocale(locale), info
+                                .hasFoundInLocale(locale));
+                        assertEquals(message, expectedInfo
+                                .getSimilarityLevel(locale), info
+                                .getSimilarityLevel(locale));
+                        assertEquals(message, expectedInfo
+                                .getFoundInLocaleRanges(locale), info
+                                .getFoundInLocaleRanges(locale));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testOverlappingOccurrences() {
+        matcher.setPattern("aa");
+        IValuedKeyTreeNode node = node("aaaa", "bAAAb", null);
+        assertTrue(matcher.select(null, null, node));
+
+        FilterInfo info = (FilterInfo) node.getInfo();
+        assertTrue(info.isFoundInKey());
+        assertEquals(regions(0, 2, 1, 2, 2, 2), info.getKeyOccurrences());
+        assertTrue(info.hasFoundInLocale(Locale.ENGLISH));
+        assertEquals(regions(1, 2, 2, 2), info
+                .getFoundInLocaleRanges(Locale.ENGLISH));
+        assertFalse(info.hasFoundInLocale(Locale.GERMAN));
+    }
+
+    public void testWildcardsSelectWithoutRanges() {
+        matcher.setPattern("m*t");
+        IValuedKeyTreeNode node = node("menu.edit", "more text", "nothing");
+        assertTrue(matcher.select(null, null, node));
+
+        FilterInfo info = (FilterInfo) node.getInfo();
+        assertTrue(info.isFoundInKey());
+        assertTrue(info.getKeyOccurrences().isEmpty());
+        assertTrue(info.hasFoundInLocale(Locale.ENGLISH));
+        assertTrue(info.getFoundInLocaleRanges(Locale.ENGLISH).isEmpty());
+        assertFalse(info.hasFoundInLocale(Locale.GERMAN));
+    }
+
+    public void testEscapedWildcardIsLiteral() {
+        matcher.setPattern("a\\*");
+        assertTrue(matcher.select(null, null, node("a*b", null, null)));
+        assertFalse(matcher.select(null, null, node("ab", null, null)));
+    }
+
+    public void testNullValuesAreNotFound() {
+        matcher.setPattern("menu");
+        IValuedKeyTreeNode node = node("other", null, null);
+        assertFalse(matcher.select(null, null, node));
+
+        FilterInfo info = (FilterInfo) node.getInfo();
+        assertFalse(info.isFoundInKey());
+        assertFalse(info.hasFoundInLocale(Locale.ENGLISH));
+        assertFalse(info.hasFoundInLocale(Locale.GERMAN));
+    }
+
+    public void testSettingPatterns() {
+        matcher.setPattern("menu");
+        assertEquals(1, filters.size());
+        matcher.setPattern("edit");
+        assertEquals(1, filters.size());
+        assertEquals(1, refreshes);
+        assertEquals("edit", matcher.getPattern());
+
+        matcher.setPattern(" ");
+        assertTrue(filters.isEmpty());
+        assertEquals("", matcher.getPattern());
+    }
+
+    private static IValuedKeyTreeNode node(String key, String english,
+            String german) {
+        IValuedKeyTreeNode node = KeyTreeFactory.createKeyTree(null, key, key,
+                null);
+        node.addValue(Locale.ENGLISH, english);
+        node.addValue(Locale.GERMAN, german);
+        return node;
+    }
+
+    private static List<Region> regions(int... offsetsAndLengths) {
+        List<Region> regions = new ArrayList<Region>();
+        for (int i = 0; i < offsetsAndLengths.length; i += 2) {
+            regions.add(new Region(offsetsAndLengths[i],
+                    offsetsAndLengths[i + 1]));
+        }
+        return regions;
+    }
+
+    /**
+     * The selection as it was done before the pattern was searched in place,
+     * on lower case copies of the key and the values.
+     */
+    private static boolean select(String pattern, IValuedKeyTreeNode vEle) {
+        StringMatcher matcher = new StringMatcher("*" + pattern + "*", true,
+                false);
+        FilterInfo filterInfo = new FilterInfo();
+        boolean selected = matcher.match(vEle.getMessageKey());
+
+        if (selected) {
+            int start = -1;
+            while ((start = vEle.getMessageKey().toLowerCase()
+                    .indexOf(pattern.toLowerCase(), start + 1)) >= 0) {
+                filterInfo.addKeyOccurrence(start, pattern.length());
+            }
+            filterInfo.setFoundInKey(true);
+        } else
+            filterInfo.setFoundInKey(false);
+
+        for (Locale l : vEle.getLocales()) {
+            String value = vEle.getValue(l);
+            if (matcher.match(value)) {
+                filterInfo.addFoundInLocale(l);
+                filterInfo.addSimilarity(l, 1d);
+                int start = -1;
+                while ((start = value.toLowerCase().indexOf(
+                        pattern.toLowerCase(), start + 1)) >= 0) {
+                    filterInfo
+                            .addFoundInLocaleRange(l, start, pattern.length());
+                }
+                selected = true;
+            }
+        }
+
+        vEle.setInfo(filterInfo);
+        return selected;
+    }
+}
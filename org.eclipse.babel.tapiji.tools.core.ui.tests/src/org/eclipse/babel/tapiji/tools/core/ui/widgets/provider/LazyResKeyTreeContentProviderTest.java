@@ -0,0 +1,274 @@
+package org.eclipse.babel.tapiji.tools.core.ui.widgets.provider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.core.message.IMessagesBundleGroup;
+import org.eclipse.babel.core.message.internal.MessageException;
+import org.eclipse.babel.core.message.internal.MessagesBundle;
+import org.eclipse.babel.core.message.internal.MessagesBundleGroup;
+import org.eclipse.babel.core.message.resource.internal.AbstractPropertiesResource;
+import org.eclipse.babel.core.message.resource.ser.PropertiesDeserializer;
+import org.eclipse.babel.core.message.resource.ser.PropertiesSerializer;
+import org.eclipse.babel.core.message.strategy.IMessagesBundleGroupStrategy;
+import org.eclipse.babel.core.message.tree.IKeyTreeNode;
+import org.eclipse.babel.core.message.tree.TreeType;
+import org.eclipse.babel.core.message.tree.internal.AbstractKeyTreeModel;
+import org.eclipse.babel.editor.api.IValuedKeyTreeNode;
+import org.eclipse.babel.tapiji.tools.core.model.manager.ResourceBundleChangedEvent;
+
+/**
+ * Plays the part of a virtual tree asking for ranges of rows, and counts the
+ * valued nodes the provider builds for them.
+ */
+public class LazyResKeyTreeContentProviderTest extends TestCase {
+
+    private static final int GROUPS = 10;
+
+    private static final int KEYS_PER_GROUP = 100;
+
+    private static final int KEYS = GROUPS * KEYS_PER_GROUP;
+
+    private MessagesBundleGroup group;
+
+    private AbstractKeyTreeModel model;
+
+    /** The number of valued nodes built. */
+    private int built;
+
+    /** The rows handed to the viewer, by parent. */
+    private final Map<Object, Map<Integer, Object>> rows = new HashMap<Object, Map<Integer, Object>>();
+
+    /** The child counts handed to the viewer. */
+    private final Map<Object, Integer> childCounts = new HashMap<Object, Integer>();
+
+    @Override
+    protected void setUp() throws Exception {
+        StringBuilder properties = new StringBuilder();
+        for (int g = 0; g < GROUPS; g++) {
+            for (int k = 0; k < KEYS_PER_GROUP; k++) {
+                properties.append("group" + g + ".key" + k + "=value" + k
+                        + "\n");
+            }
+        }
+        group = createGroup(properties.toString());
+        model = new AbstractKeyTreeModel(group);
+    }
+
+    public void testFlatBuildsOnlyRequestedRows() {
+        LazyResKeyTreeContentProvider provider = createProvider(TreeType.Flat,
+                LazyResKeyTreeContentProvider.DEFAULT_CACHE_SIZE);
+        provider.updateChildCount(model, 0);
+        assertEquals(KEYS, childCounts.get(model).intValue());
+        assertEquals(0, built);
+
+        request(provider, model, 0, 50);
+        assertEquals(50, built);
+        assertEquals(50, rows.get(model).size());
+
+        // scrolling back does not build the rows again
+        request(provider, model, 0, 50);
+        assertEquals(50, built);
+
+        request(provider, model, KEYS - 50, KEYS);
+        assertEquals(100, built);
+        assertEquals(100, rows.get(model).size());
+    }
+
+    public void testFlatRowsHaveNoChildren() {
+        LazyResKeyTreeContentProvider provider = createProvider(TreeType.Flat,
+                LazyResKeyTreeContentProvider.DEFAULT_CACHE_SIZE);
+        request(provider, model, 0, 1);
+
+        Object row = rows.get(model).get(0);
+        assertTrue(row instanceof IValuedKeyTreeNode);
+        // a key, not one of the groups above the keys
+        assertTrue(((IValuedKeyTreeNode) row).getMessageKey().matches(
+                "group\\d+\\.key\\d+"));
+        assertEquals(0, childCounts.get(row).intValue());
+    }
+
+    public void testTreeBuildsOnlyExpandedChildren() {
+        LazyResKeyTreeContentProvider provider = createProvider(TreeType.Tree,
+                LazyResKeyTreeContentProvider.DEFAULT_CACHE_SIZE);
+        provider.updateChildCount(model, 0);
+        assertEquals(GROUPS, childCounts.get(model).intValue());
+
+        request(provider, model, 0, GROUPS);
+        assertEquals(GROUPS, built);
+
+        Object first = rows.get(model).get(0);
+        assertEquals(KEYS_PER_GROUP, childCounts.get(first).intValue());
+
+        request(provider, first, 0, 5);
+        assertEquals(GROUPS + 5, built);
+        assertEquals(5, rows.get(first).size());
+    }
+
+    public void testCacheIsBounded() {
+        LazyResKeyTreeContentProvider provider = createProvider(TreeType.Flat,
+                100);
+        request(provider, model, 0, 200);
+        assertEquals(200, built);
+
+        // the most recent rows are still cached
+        request(provider, model, 100, 200);
+        assertEquals(200, built);
+
+        // the first ones have been dropped
+        request(provider, model, 0, 10);
+        assertEquals(210, built);
+    }
+
+    public void testBundleChangeClearsCache() {
+        LazyResKeyTreeContentProvider provider = createProvider(TreeType.Flat,
+                LazyResKeyTreeContentProvider.DEFAULT_CACHE_SIZE);
+        request(provider, model, 0, 10);
+        assertEquals(10, built);
+
+        provider.resourceBundleChanged(new ResourceBundleChangedEvent(
+                ResourceBundleChangedEvent.MODIFIED, "messages", null));
+        request(provider, model, 0, 10);
+        assertEquals(20, built);
+    }
+
+    public void testSwitchingTreeTypeClearsCache() {
+        LazyResKeyTreeContentProvider provider = createProvider(TreeType.Tree,
+                LazyResKeyTreeContentProvider.DEFAULT_CACHE_SIZE);
+        request(provider, model, 0, GROUPS);
+        assertEquals(GROUPS, built);
+
+        provider.setTreeType(TreeType.Flat);
+        provider.updateChildCount(model, GROUPS);
+        assertEquals(KEYS, childCounts.get(model).intValue());
+        request(provider, model, 0, GROUPS);
+        assertEquals(2 * GROUPS, built);
+    }
+
+    public void testUnchangedChildCountIsNotSet() {
+        LazyResKeyTreeContentProvider provider = createProvider(TreeType.Flat,
+                LazyResKeyTreeContentProvider.DEFAULT_CACHE_SIZE);
+        provider.updateChildCount(model, KEYS);
+        assertFalse(childCounts.containsKey(model));
+    }
+
+    public void testIndexBeyondChildrenIsIgnored() {
+        LazyResKeyTreeContentProvider provider = createProvider(TreeType.Flat,
+                LazyResKeyTreeContentProvider.DEFAULT_CACHE_SIZE);
+        provider.updateElement(model, KEYS);
+        assertEquals(0, built);
+        assertTrue(rows.isEmpty());
+    }
+
+    /**
+     * Asks for the rows <code>from</code> (inclusive) to <code>to</code>
+     * (exclusive) of the parent, as a virtual tree does when scrolled.
+     */
+    private void request(LazyResKeyTreeContentProvider provider,
+            Object parent, int from, int to) {
+        for (int i = from; i < to; i++) {
+            provider.updateElement(parent, i);
+        }
+    }
+
+    private LazyResKeyTreeContentProvider createProvider(TreeType treeType,
+            int cacheSize) {
+        List<Locale> locales = new ArrayList<Locale>();
+        locales.add(Locale.ENGLISH);
+        LazyResKeyTreeContentProvider provider = new LazyResKeyTreeContentProvider(
+                locales, null, null, treeType, cacheSize) {
+            @Override
+            protected IValuedKeyTreeNode createValuedNode(IKeyTreeNode kti,
+                    IMessagesBundleGroup messagesBundleGroup) {
+                built++;
+                return super.createValuedNode(kti, messagesBundleGroup);
+            }
+
+            @Override
+            public IMessagesBundleGroup getBundle() {
+                return group;
+            }
+
+            @Override
+            protected void replace(Object parent, int index, Object element) {
+                Map<Integer, Object> children = rows.get(parent);
+                if (children == null) {
+                    children = new HashMap<Integer, Object>();
+                    rows.put(parent, children);
+                }
+                children.put(index, element);
+            }
+
+            @Override
+            protected void setChildCount(Object element, int count) {
+                childCounts.put(element, count);
+            }
+        };
+        // no viewer and no project, so the provider does not listen
+        provider.inputChanged(null, null, model);
+        return provider;
+    }
+
+    private static MessagesBundleGroup createGroup(final String properties) {
+        return new MessagesBundleGroup(new IMessagesBundleGroupStrategy() {
+            public String createMessagesBundleGroupName() {
+                return "messages";
+            }
+
+            public String createMessagesBundleId() {
+                return "messages";
+            }
+
+            public MessagesBundle[] loadMessagesBundles()
+                    throws MessageException {
+                return new MessagesBundle[] { new MessagesBundle(
+                        new StringResource(properties)) };
+            }
+
+            public MessagesBundle createMessagesBundle(Locale locale)
+                    throws MessageException {
+                throw new MessageException("unsupported");
+            }
+
+            public String getProjectName() {
+                return null;
+            }
+        });
+    }
+
+    private static class StringResource extends AbstractPropertiesResource {
+        private String text;
+
+        StringResource(String text) {
+            super(Locale.ENGLISH, new PropertiesSerializer(null),
+                    new PropertiesDeserializer(null));
+            this.text = text;
+        }
+
+        @Override
+        protected String getText() {
+            return text;
+        }
+
+        @Override
+        protected void setText(String text) {
+            this.text = text;
+        }
+
+        public Object getSource() {
+            return this;
+        }
+
+        public String getResourceLocationLabel() {
+            return "test";
+        }
+
+        public void dispose() {
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.eclipse.babel.tapiji.tools.core.ui.widgets.sorter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.editor.api.IValuedKeyTreeNode;
+import org.eclipse.babel.tapiji.tools.core.ui.views.messagesview.SortInfo;
+
+public class ValuedKeyTreeItemSorterTest extends TestCase {
+
+    private static final Locale SWEDISH = new Locale("sv");
+
+    public void testGermanSortsUmlautsWithBaseLetters() {
+        String aepfel = "\u00C4pfel";
+        String oefen = "\u00D6fen";
+        assertEquals(Arrays.asList("Apfel", aepfel, "Birne", "Ofen", oefen,
+                "Zucker"), sort(Locale.GERMAN, "Zucker", oefen, "Birne",
+                aepfel, "Ofen", "Apfel"));
+    }
+
+    public void testSwedishSortsUmlautsAfterZ() {
+        String aal = "\u00C5l";
+        String aelg = "\u00C4lg";
+        String oel = "\u00D6l";
+        assertEquals(Arrays.asList("Apa", "Zebra", aal, aelg, oel), sort(
+                SWEDISH, oel, aelg, "Zebra", aal, "Apa"));
+    }
+
+    public void testFrenchAccents() {
+        String eleve = "\u00E9l\u00E8ve";
+        String ecole = "\u00E9cole";
+        String elan = "\u00C9lan";
+        String zebre = "z\u00E8bre";
+        String coteCircumflex = "c\u00F4te";
+        String coteAcute = "cot\u00E9";
+        List<String> sorted = sort(Locale.FRENCH, eleve, "Ecole", zebre,
+                coteCircumflex, "cote", ecole, coteAcute, elan);
+        // accents and case only decide between otherwise equal words
+        assertEquals(Arrays.asList("cote", coteCircumflex, coteAcute), sorted
+                .subList(0, 3));
+        assertEquals(zebre, sorted.get(sorted.size() - 1));
+        assertTrue(sorted.indexOf(elan) < sorted.indexOf(eleve));
+        assertEquals(1, Math.abs(sorted.indexOf("Ecole")
+                - sorted.indexOf(ecole)));
+        assertTrue(sorted.indexOf(ecole) < sorted.indexOf(eleve));
+        assertEquals(collatorOrder(Locale.FRENCH, sorted), sorted);
+    }
+
+    public void testMixedCaseStaysTogether() {
+        for (Locale locale : new Locale[] { Locale.GERMAN, Locale.FRENCH,
+                SWEDISH }) {
+            List<String> sorted = sort(locale, "banana", "Apple", "cherry",
+                    "apple", "Banana");
+            assertEquals(Arrays.asList("apple", "apple", "banana", "banana",
+                    "cherry"), lowerCase(sorted));
+            assertEquals(collatorOrder(locale, sorted), sorted);
+        }
+    }
+
+    public void testDescendingAndMissingValues() {
+        SortInfo info = sortInfo(Locale.GERMAN);
+        info.setDESC(true);
+        String aepfel = "\u00C4pfel";
+        Object[] nodes = nodes(Locale.GERMAN, aepfel, null, "Birne", "Apfel");
+        new ValuedKeyTreeItemSorter(null, info).sort(null, nodes);
+        assertEquals(Arrays.asList("Birne", aepfel, "Apfel", ""), values(
+                Locale.GERMAN, nodes));
+    }
+
+    public void testCompareMatchesSort() {
+        ValuedKeyTreeItemSorter sorter = new ValuedKeyTreeItemSorter(null,
+                sortInfo(SWEDISH));
+        Object[] nodes = nodes(SWEDISH, "\u00D6l", "Apa", "\u00C5l", "Zebra");
+        assertTrue(sorter.compare(null, nodes[1], nodes[3]) < 0);
+        assertTrue(sorter.compare(null, nodes[3], nodes[2]) < 0);
+        assertTrue(sorter.compare(null, nodes[2], nodes[0]) < 0);
+        assertEquals(0, sorter.compare(null, nodes[0], nodes[0]));
+    }
+
+    private static List<String> sort(Locale locale, String... values) {
+        Object[] nodes = nodes(locale, values);
+        new ValuedKeyTreeItemSorter(null, sortInfo(locale)).sort(null, nodes);
+        return values(locale, nodes);
+    }
+
+    private static SortInfo sortInfo(Locale locale) {
+        SortInfo info = new SortInfo();
+        info.setVisibleLocales(Arrays.asList(Locale.ENGLISH, locale));
+        info.setColIdx(2);
+        return info;
+    }
+
+    private static List<String> collatorOrder(Locale locale,
+            List<String> values) {
+        List<String> sorted = new ArrayList<String>(values);
+        Collections.sort(sorted, Collator.getInstance(locale));
+        return sorted;
+    }
+
+    private static List<String> lowerCase(List<String> values) {
+        List<String> result = new ArrayList<String>();
+        for (String value : values) {
+            result.add(value.toLowerCase(Locale.ENGLISH));
+        }
+        return result;
+    }
+
+    private static List<String> values(Locale locale, Object[] nodes) {
+        List<String> values = new ArrayList<String>();
+        for (Object node : nodes) {
+            String value = ((IValuedKeyTreeNode) node).getValue(locale);
+            values.add(value == null ? "" : value);
+        }
+        return values;
+    }
+
+    private static Object[] nodes(Locale locale, String... values) {
+        Object[] nodes = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            nodes[i] = node("key" + i, locale, values[i]);
+        }
+        return nodes;
+    }
+
+    private static IValuedKeyTreeNode node(final String key,
+            final Locale locale, final String value) {
+        return (IValuedKeyTreeNode) Proxy.newProxyInstance(
+                ValuedKeyTreeItemSorterTest.class.getClassLoader(),
+                new Class<?>[] { IValuedKeyTreeNode.class },
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        String name = method.getName();
+                        if (name.equals("getValue")) {
+                            return locale.equals(args[0]) ? value : key;
+                        }
+                        if (name.equals("getMessageKey")) {
+                            return key;
+                        }
+                        if (name.equals("equals")) {
+                            return Boolean.valueOf(proxy == args[0]);
+                        }
+                        if (name.equals("hashCode")) {
+                            return Integer.valueOf(System
+                                    .identityHashCode(proxy));
+                        }
+                        throw new UnsupportedOperationException(name);
+                    }
+                });
+    }
+}
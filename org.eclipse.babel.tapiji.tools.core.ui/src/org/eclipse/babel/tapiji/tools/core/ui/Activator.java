@@ -71,6 +71,7 @@ public class Activator extends AbstractUIPlugin {
     public void stop(BundleContext context) throws Exception {
         // save state of ResourceBundleManager
         ResourceBundleManager.saveManagerState();
+        SupportedProjectIndex.dispose();
 
         plugin = null;
         super.stop(context);
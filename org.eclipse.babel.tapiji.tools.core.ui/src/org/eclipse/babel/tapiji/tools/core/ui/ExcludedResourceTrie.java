@@ -0,0 +1,100 @@
+package org.eclipse.babel.tapiji.tools.core.ui;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.babel.tapiji.tools.core.model.IResourceDescriptor;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * Holds the full paths of the resources excluded from internationalization
+ * as a trie over their path segments, so that
+ * {@link ResourceBundleManager#isResourceExcluded(org.eclipse.core.resources.IResource)}
+ * is answered by one walk down the segments of the resource's path without
+ * creating any objects.
+ */
+class ExcludedResourceTrie {
+
+    private final Node root = new Node();
+
+    /**
+     * Replaces the excluded paths with the ones of the given descriptors.
+     */
+    void reset(Collection<IResourceDescriptor> descriptors) {
+        root.children = null;
+        for (IResourceDescriptor descriptor : descriptors) {
+            add(Path.ROOT.append(descriptor.getProjectName()).append(
+                    descriptor.getRelativePath()));
+        }
+    }
+
+    void add(IPath path) {
+        Node node = root;
+        for (int i = 0; i < path.segmentCount(); i++) {
+            if (node.children == null) {
+                node.children = new HashMap<String, Node>();
+            }
+            Node child = node.children.get(path.segment(i));
+            if (child == null) {
+                child = new Node();
+                node.children.put(path.segment(i), child);
+            }
+            node = child;
+        }
+        node.excluded = true;
+    }
+
+    void remove(IPath path) {
+        remove(root, path, 0);
+    }
+
+    /**
+     * @param path
+     *            the full path of a resource
+     * @param checkAncestors
+     *            whether the resource is excluded as well if one of its
+     *            ancestors below the project is
+     * @return <code>true</code> if the resource is excluded
+     */
+    boolean isExcluded(IPath path, boolean checkAncestors) {
+        Node node = root;
+        for (int i = 0; i < path.segmentCount(); i++) {
+            node = node.children != null ? node.children.get(path.segment(i))
+                    : null;
+            if (node == null) {
+                return false;
+            }
+            // the project itself only counts for the project
+            if (checkAncestors && i > 0 && node.excluded) {
+                return true;
+            }
+        }
+        return node.excluded;
+    }
+
+    /*
+     * Unmarks the path and drops the nodes left without any excluded path
+     * below them, returns whether the given node can be dropped
+     */
+    private static boolean remove(Node node, IPath path, int segment) {
+        if (segment == path.segmentCount()) {
+            node.excluded = false;
+        } else if (node.children != null) {
+            Node child = node.children.get(path.segment(segment));
+            if (child != null && remove(child, path, segment + 1)) {
+                node.children.remove(path.segment(segment));
+                if (node.children.isEmpty()) {
+                    node.children = null;
+                }
+            }
+        }
+        return !node.excluded && node.children == null;
+    }
+
+    private static class Node {
+        private Map<String, Node> children;
+        private boolean excluded;
+    }
+}
@@ -0,0 +1,108 @@
+package org.eclipse.babel.tapiji.tools.core.ui;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.babel.tapiji.tools.core.model.IResourceBundleChangedListener;
+import org.eclipse.babel.tapiji.tools.core.model.manager.ResourceBundleChangedEvent;
+
+/**
+ * The rendered hover texts of the keys of a project, by bundle and key. The
+ * cache listens to the bundles it holds texts for, and drops the texts of a
+ * bundle whenever it changes.
+ */
+abstract class KeyHoverCache implements IResourceBundleChangedListener {
+
+    // a bundle is present as long as the cache is registered for it
+    private final ConcurrentMap<String, Map<String, String>> hoverStrings = new ConcurrentHashMap<String, Map<String, String>>();
+
+    /**
+     * @return the hover text of the key, or <code>null</code> if the bundle
+     *         does not contain it
+     */
+    String get(String rbName, String key) {
+        Map<String, String> bundleHovers = hoverStrings.get(rbName);
+        if (bundleHovers == null) {
+            register(rbName);
+            bundleHovers = new ConcurrentHashMap<String, String>();
+            Map<String, String> existing = hoverStrings.putIfAbsent(rbName,
+                    bundleHovers);
+            if (existing != null) {
+                unregister(rbName);
+                bundleHovers = existing;
+            }
+        }
+
+        String hoverText = bundleHovers.get(key);
+        if (hoverText == null) {
+            hoverText = createHoverString(rbName, key);
+            if (hoverText != null && hoverText.length() > 0) {
+                bundleHovers.put(key, hoverText);
+            }
+        }
+        return hoverText;
+    }
+
+    @Override
+    public void resourceBundleChanged(ResourceBundleChangedEvent event) {
+        Map<String, String> bundleHovers = hoverStrings.get(event.getBundle());
+        if (bundleHovers != null) {
+            bundleHovers.clear();
+        }
+    }
+
+    /**
+     * Drops the texts of all bundles, but keeps listening to them.
+     */
+    void clear() {
+        for (Map<String, String> bundleHovers : hoverStrings.values()) {
+            bundleHovers.clear();
+        }
+    }
+
+    /**
+     * Forgets a bundle whose listeners have been removed.
+     */
+    void remove(String rbName) {
+        hoverStrings.remove(rbName);
+    }
+
+    /**
+     * Renders the hover text of a key, <code>null</code> if the bundle does
+     * not contain it.
+     */
+    protected abstract String createHoverString(String rbName, String key);
+
+    /**
+     * Registers the cache for the changes of a bundle.
+     */
+    protected abstract void register(String rbName);
+
+    protected abstract void unregister(String rbName);
+
+    /*
+     * Appends text to a hover, escaping markup and breaking lines
+     */
+    static void appendHtml(StringBuilder html, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '<':
+                html.append("&lt;");
+                break;
+            case '>':
+                html.append("&gt;");
+                break;
+            case '&':
+                html.append("&amp;");
+                break;
+            case '\n':
+                html.append("<br/>");
+                break;
+            default:
+                html.append(c);
+            }
+        }
+    }
+}
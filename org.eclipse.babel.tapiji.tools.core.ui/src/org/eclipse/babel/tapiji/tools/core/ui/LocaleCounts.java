@@ -0,0 +1,75 @@
+package org.eclipse.babel.tapiji.tools.core.ui;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.babel.core.util.NameUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+
+/**
+ * Counts the resource bundle files of a project per locale, so that the
+ * locales the project provides are known without visiting its bundles. The
+ * default locale is left out.
+ */
+class LocaleCounts {
+
+    private final Map<Locale, Integer> counts = new HashMap<Locale, Integer>();
+
+    private volatile Set<Locale> locales = Collections.emptySet();
+
+    void add(IResource resource) {
+        count(resource, 1);
+    }
+
+    void remove(IResource resource) {
+        count(resource, -1);
+    }
+
+    void removeAll(Collection<IResource> resources) {
+        if (resources != null) {
+            for (IResource resource : resources) {
+                count(resource, -1);
+            }
+        }
+    }
+
+    /**
+     * @return the counted locales as an unmodifiable snapshot
+     */
+    Set<Locale> getLocales() {
+        return locales;
+    }
+
+    private void count(IResource resource, int delta) {
+        if (!(resource instanceof IFile)) {
+            return;
+        }
+        Locale locale = NameUtils.getLocaleByName(
+                NameUtils.getResourceBundleName(resource), resource.getName());
+        if (locale == null) {
+            return;
+        }
+
+        synchronized (counts) {
+            Integer count = counts.get(locale);
+            int newCount = (count != null ? count : 0) + delta;
+            if (newCount > 0) {
+                counts.put(locale, newCount);
+            } else {
+                counts.remove(locale);
+            }
+
+            // only a locale coming or going changes the snapshot
+            if ((count == null) != (newCount <= 0)) {
+                locales = Collections.unmodifiableSet(new HashSet<Locale>(
+                        counts.keySet()));
+            }
+        }
+    }
+}
@@ -18,15 +18,19 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.eclipse.babel.core.configuration.DirtyHack;
 import org.eclipse.babel.core.factory.MessageFactory;
+import org.eclipse.babel.core.message.EventSuppression;
 import org.eclipse.babel.core.message.IMessage;
 import org.eclipse.babel.core.message.IMessagesBundle;
 import org.eclipse.babel.core.message.IMessagesBundleGroup;
+import org.eclipse.babel.core.message.manager.IMessagesEditorListener;
 import org.eclipse.babel.core.message.manager.IResourceDeltaListener;
 import org.eclipse.babel.core.message.manager.RBManager;
 import org.eclipse.babel.core.util.FileUtils;
+import org.eclipse.babel.core.util.LocaleSuffixParser;
 import org.eclipse.babel.core.util.NameUtils;
 import org.eclipse.babel.tapiji.tools.core.Logger;
 import org.eclipse.babel.tapiji.tools.core.model.IResourceBundleChangedListener;
@@ -44,7 +48,6 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceVisitor;
-import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -65,7 +68,7 @@ public class ResourceBundleManager {
 	private static boolean checkResourceExclusionRoot = false;
 
 	/*** MEMBER SECTION ***/
-	private static Map<IProject, ResourceBundleManager> rbmanager = new HashMap<IProject, ResourceBundleManager>();
+	private static ConcurrentMap<IProject, ResourceBundleManager> rbmanager = new ConcurrentHashMap<IProject, ResourceBundleManager>();
 
 	public static final String RESOURCE_BUNDLE_EXTENSION = ".properties";
 
@@ -74,13 +77,38 @@ public class ResourceBundleManager {
 
 	private Map<String, String> bundleNames = new HashMap<String, String>();
 
+	// the number of bundle resources per locale, the default locale is left
+	// out
+	private final LocaleCounts localeCounts = new LocaleCounts();
+
 	private Map<String, List<IResourceBundleChangedListener>> listeners = new HashMap<String, List<IResourceBundleChangedListener>>();
 
 	private List<IResourceExclusionListener> exclusionListeners = new ArrayList<IResourceExclusionListener>();
 
+	// rendered hover texts by bundle and key
+	private KeyHoverCache hoverStrings = new KeyHoverCache() {
+		@Override
+		protected String createHoverString(String rbName, String key) {
+			return createKeyHoverString(rbName, key);
+		}
+
+		@Override
+		protected void register(String rbName) {
+			registerResourceBundleChangeListener(rbName, this);
+		}
+
+		@Override
+		protected void unregister(String rbName) {
+			unregisterResourceBundleChangeListener(rbName, this);
+		}
+	};
+
 	// global
 	private static Set<IResourceDescriptor> excludedResources = new HashSet<IResourceDescriptor>();
 
+	// the full paths of the excludedResources
+	private static ExcludedResourceTrie excludedPaths = new ExcludedResourceTrie();
+
 	private static Map<String, Set<IResource>> allBundles = new HashMap<String, Set<IResource>>();
 
 	// private static IResourceChangeListener changelistener; //
@@ -94,35 +122,61 @@ public class ResourceBundleManager {
 	/* Host project */
 	private IProject project = null;
 
+	/* The manager of the project the listeners are registered with */
+	private volatile RBManager rbManager;
+
+	/* Whether the project was open when the bundles were detected */
+	private volatile boolean detectedOpen;
+
 	/** State-Serialization Information **/
 	private static boolean state_loaded = false;
 
 	private static IStateLoader stateLoader;
 
-	// Define private constructor
-	private ResourceBundleManager(IProject project) {
-		this.project = project;
+	private final IResourceDeltaListener deltaListener = new IResourceDeltaListener() {
 
-		RBManager.getInstance(project).addResourceDeltaListener(
-				new IResourceDeltaListener() {
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void onDelete(IMessagesBundleGroup bundleGroup) {
+			localeCounts.removeAll(resources.remove(bundleGroup
+					.getResourceBundleId()));
+		}
 
-					/**
-					 * {@inheritDoc}
-					 */
-					@Override
-					public void onDelete(IMessagesBundleGroup bundleGroup) {
-						resources.remove(bundleGroup.getResourceBundleId());
-					}
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void onDelete(String resourceBundleId, IResource resource) {
+			if (resources.get(resourceBundleId).remove(resource)) {
+				localeCounts.remove(resource);
+			}
+		}
+	};
 
-					/**
-					 * {@inheritDoc}
-					 */
-					@Override
-					public void onDelete(String resourceBundleId,
-							IResource resource) {
-						resources.get(resourceBundleId).remove(resource);
-					}
-				});
+	// messages edited in place do not fire resource bundle change events
+	private final IMessagesEditorListener editorListener = new IMessagesEditorListener() {
+
+		@Override
+		public void onSave() {
+			hoverStrings.clear();
+		}
+
+		@Override
+		public void onModify() {
+			hoverStrings.clear();
+		}
+
+		@Override
+		public void onResourceChanged(IMessagesBundle bundle) {
+			hoverStrings.clear();
+		}
+	};
+
+	// Define private constructor
+	private ResourceBundleManager(IProject project) {
+		this.project = project;
 	}
 
 	public static ResourceBundleManager getManager(IProject project) {
@@ -133,6 +187,7 @@ public class ResourceBundleManager {
 				stateLoader.loadState();
 				state_loaded = true;
 				excludedResources = stateLoader.getExcludedResources();
+				excludedPaths.reset(excludedResources);
 			} else {
 				Logger.logError("State-Loader uninitialized! Unable to restore project state.");
 			}
@@ -145,13 +200,57 @@ public class ResourceBundleManager {
 
 		ResourceBundleManager manager = rbmanager.get(project);
 		if (manager == null) {
-			manager = new ResourceBundleManager(project);
-			rbmanager.put(project, manager);
-			manager.detectResourceBundles();
+			ResourceBundleManager newManager = new ResourceBundleManager(
+					project);
+			manager = rbmanager.putIfAbsent(project, newManager);
+			if (manager == null) {
+				manager = newManager;
+			}
 		}
+		manager.attach();
 		return manager;
 	}
 
+	/*
+	 * Registers with the current RBManager of the project and detects the
+	 * bundles. RBManager drops its instance of a project that is closed or
+	 * deleted, and the new one neither knows the bundles nor the listeners,
+	 * so a manager whose project has been closed, reopened or recreated moves
+	 * its listeners over and detects the bundles again. The listeners
+	 * registered with this manager are kept.
+	 */
+	private void attach() {
+		if (!isOutdated()) {
+			return;
+		}
+		synchronized (this) {
+			if (!isOutdated()) {
+				return;
+			}
+			if (rbManager != null) {
+				rbManager.removeResourceDeltaListener(deltaListener);
+				rbManager.removeMessagesEditorListener(editorListener);
+			}
+			rbManager = RBManager.getInstance(project);
+			detectedOpen = project.isOpen();
+			rbManager.addResourceDeltaListener(deltaListener);
+			rbManager.addMessagesEditorListener(editorListener);
+
+			for (Set<IResource> bundleResources : resources.values()) {
+				localeCounts.removeAll(bundleResources);
+			}
+			resources.clear();
+			bundleNames.clear();
+			hoverStrings.clear();
+			detectResourceBundles();
+		}
+	}
+
+	private boolean isOutdated() {
+		return rbManager != RBManager.getInstance(project)
+				|| detectedOpen != project.isOpen();
+	}
+
 	public Set<Locale> getProvidedLocales(String bundleName) {
 		RBManager instance = RBManager.getInstance(project);
 
@@ -169,12 +268,7 @@ public class ResourceBundleManager {
 	}
 
 	public static String getResourceBundleName(IResource res) {
-		String name = res.getName();
-		String regex = "^(.*?)" //$NON-NLS-1$
-				+ "((_[a-z]{2,3})|(_[a-z]{2,3}_[A-Z]{2})" //$NON-NLS-1$
-				+ "|(_[a-z]{2,3}_[A-Z]{2}_\\w*))?(\\." //$NON-NLS-1$
-				+ res.getFileExtension() + ")$"; //$NON-NLS-1$
-		return name.replaceFirst(regex, "$1"); //$NON-NLS-1$
+		return NameUtils.getResourceBundleName(res);
 	}
 
 	protected boolean isResourceBundleLoaded(String bundleName) {
@@ -222,6 +316,7 @@ public class ResourceBundleManager {
 		}
 
 		res.add(resource);
+		localeCounts.add(resource);
 		resources.put(bundleName, res);
 		allBundles.put(bundleName, new HashSet<IResource>(res));
 		bundleNames.put(bundleName, getResourceBundleName(resource));
@@ -239,9 +334,10 @@ public class ResourceBundleManager {
 
 	protected void removeAllBundleResources(String bundleName) {
 		unloadResourceBundle(bundleName);
-		resources.remove(bundleName);
+		localeCounts.removeAll(resources.remove(bundleName));
 		// allBundles.remove(bundleName);
 		listeners.remove(bundleName);
+		hoverStrings.remove(bundleName);
 	}
 
 	public void unloadResourceBundle(String name) {
@@ -269,9 +365,7 @@ public class ResourceBundleManager {
 	}
 
 	public IResource getResourceFile(String file) {
-		String regex = "^(.*?)" + "((_[a-z]{2,3})|(_[a-z]{2,3}_[A-Z]{2})"
-				+ "|(_[a-z]{2,3}_[A-Z]{2}_\\w*))?(\\." + "properties" + ")$";
-		String bundleName = file.replaceFirst(regex, "$1");
+		String bundleName = LocaleSuffixParser.getBundleName(file);
 		IResource resource = null;
 
 		for (IResource res : resources.get(bundleName)) {
@@ -382,6 +476,10 @@ public class ResourceBundleManager {
 	}
 
 	public String getKeyHoverString(String rbName, String key) {
+		return hoverStrings.get(rbName, key);
+	}
+
+	private String createKeyHoverString(String rbName, String key) {
 		try {
 			RBManager instance = RBManager.getInstance(project);
 			IMessagesBundleGroup bundleGroup = instance
@@ -390,16 +488,19 @@ public class ResourceBundleManager {
 				return null;
 			}
 
-			String hoverText = "<html><head></head><body>";
+			StringBuilder hoverText = new StringBuilder(
+					"<html><head></head><body>");
 
 			for (IMessage message : bundleGroup.getMessages(key)) {
 				String displayName = message.getLocale() == null ? "Default"
 						: message.getLocale().getDisplayName();
-				String value = message.getValue();
-				hoverText += "<b><i>" + displayName + "</i></b><br/>"
-						+ value.replace("\n", "<br/>") + "<br/><br/>";
+				hoverText.append("<b><i>");
+				KeyHoverCache.appendHtml(hoverText, displayName);
+				hoverText.append("</i></b><br/>");
+				KeyHoverCache.appendHtml(hoverText, message.getValue());
+				hoverText.append("<br/><br/>");
 			}
-			return hoverText + "</body></html>";
+			return hoverText.append("</body></html>").toString();
 		} catch (Exception e) {
 			// silent catch
 			return "";
@@ -428,6 +529,7 @@ public class ResourceBundleManager {
 
 		// exclude resource
 		excludedResources.add(rd);
+		excludedPaths.add(res.getFullPath());
 		Collection<IResource> changedExclusions = new HashSet<IResource>();
 		changedExclusions.add(res);
 		fireResourceExclusionEvent(new ResourceExclusionEvent(changedExclusions));
@@ -435,10 +537,13 @@ public class ResourceBundleManager {
 		// Check if the excluded resource represents a resource-bundle
 		if (org.eclipse.babel.tapiji.tools.core.ui.utils.RBFileUtils
 				.isResourceBundleFile(res)) {
+			addExcludedBundleResource(res);
 			String bundleName = getResourceBundleId(res);
 			Set<IResource> resSet = resources.remove(bundleName);
 			if (resSet != null) {
-				resSet.remove(res);
+				if (resSet.remove(res)) {
+					localeCounts.remove(res);
+				}
 
 				if (!resSet.isEmpty()) {
 					resources.put(bundleName, resSet);
@@ -519,7 +624,7 @@ public class ResourceBundleManager {
 		final Collection<IResource> changedResourceBundles = new HashSet<IResource>();
 		final IResource resource = res;
 
-		if (!excludedResources.contains(new ResourceDescriptor(res))) {
+		if (!excludedPaths.isExcluded(res.getFullPath(), false)) {
 			Logger.logError("requested to include non-excluded resource");
 		} else {
 			try {
@@ -528,8 +633,8 @@ public class ResourceBundleManager {
 					@Override
 					public boolean visit(IResource resource)
 							throws CoreException {
-						if (excludedResources.contains(new ResourceDescriptor(
-								resource))) {
+						if (excludedPaths.isExcluded(resource.getFullPath(),
+								false)) {
 							// check if the changed resource is a resource
 							// bundle
 							if (org.eclipse.babel.tapiji.tools.core.ui.utils.RBFileUtils
@@ -551,6 +656,7 @@ public class ResourceBundleManager {
 					for (Object r : changedResources) {
 						excludedResources.remove(new ResourceDescriptor(
 								(IResource) r));
+						excludedPaths.remove(((IResource) r).getFullPath());
 						monitor.worked(1);
 					}
 
@@ -558,9 +664,8 @@ public class ResourceBundleManager {
 					// too
 					final IResource parentResource = res.getParent();
 					if (parentResource instanceof IFolder
-							&& excludedResources
-									.contains(new ResourceDescriptor(
-											parentResource))) {
+							&& excludedPaths.isExcluded(
+									parentResource.getFullPath(), false)) {
 						final Collection<IResource> childResources = new HashSet<IResource>();
 
 						parentResource.accept(new IResourceVisitor() {
@@ -568,9 +673,8 @@ public class ResourceBundleManager {
 							@Override
 							public boolean visit(IResource resource)
 									throws CoreException {
-								if (excludedResources
-										.contains(new ResourceDescriptor(
-												resource))
+								if (excludedPaths.isExcluded(
+										resource.getFullPath(), false)
 										&& !resource.equals(parentResource)) {
 									childResources.add(resource);
 									return false;
@@ -582,6 +686,7 @@ public class ResourceBundleManager {
 						if (childResources.size() == 0) {
 							excludedResources.remove(new ResourceDescriptor(
 									(IResource) parentResource));
+							excludedPaths.remove(parentResource.getFullPath());
 							changedResources.add(parentResource);
 							monitor.worked(1);
 						}
@@ -659,8 +764,6 @@ public class ResourceBundleManager {
 	}
 
 	public static boolean isResourceExcluded(IResource res) {
-		IResource resource = res;
-
 		if (!state_loaded) {
 			IStateLoader stateLoader = getStateLoader();
 			if (stateLoader != null) {
@@ -670,31 +773,23 @@ public class ResourceBundleManager {
 			}
 		}
 
-		boolean isExcluded = false;
-
-		do {
-			if (excludedResources.contains(new ResourceDescriptor(resource))) {
-				if (org.eclipse.babel.tapiji.tools.core.ui.utils.RBFileUtils
-						.isResourceBundleFile(resource)) {
-					Set<IResource> resources = allBundles
-							.remove(getResourceBundleName(resource));
-					if (resources == null) {
-						resources = new HashSet<IResource>();
-					}
-					resources.add(resource);
-					allBundles.put(getResourceBundleName(resource), resources);
-				}
-
-				isExcluded = true;
-				break;
-			}
-			resource = resource.getParent();
-		} while (resource != null
-				&& !(resource instanceof IProject || resource instanceof IWorkspaceRoot)
-				&& checkResourceExclusionRoot);
+		return excludedPaths.isExcluded(res.getFullPath(),
+				checkResourceExclusionRoot);
+	}
 
-		return isExcluded; // excludedResources.contains(new
-		// ResourceDescriptor(res));
+	/**
+	 * Records an excluded resource bundle file, so that it is still offered
+	 * by {@link #getAllResourceBundleResources(String)}, e.g. to include it
+	 * again.
+	 */
+	public void addExcludedBundleResource(IResource resource) {
+		String bundleName = getResourceBundleName(resource);
+		Set<IResource> resources = allBundles.get(bundleName);
+		if (resources == null) {
+			resources = new HashSet<IResource>();
+			allBundles.put(bundleName, resources);
+		}
+		resources.add(resource);
 	}
 
 	public IFile getRandomFile(String bundleName) {
@@ -724,18 +819,10 @@ public class ResourceBundleManager {
 	}
 
 	public static ResourceBundleManager getManager(String projectName) {
-		for (IProject p : getAllSupportedProjects()) {
-			if (p.getName().equalsIgnoreCase(projectName)) {
-				// check if the projectName is a fragment and return the manager
-				// for the host
-				if (FragmentProjectUtils.isFragment(p)) {
-					return getManager(FragmentProjectUtils.getFragmentHost(p));
-				} else {
-					return getManager(p);
-				}
-			}
-		}
-		return null;
+		// the index maps the name of a fragment to its host
+		IProject project = SupportedProjectIndex.getDefault().getProject(
+				projectName);
+		return project != null ? getManager(project) : null;
 	}
 
 	public IFile getResourceBundleFile(String resourceBundle, Locale l) {
@@ -802,18 +889,19 @@ public class ResourceBundleManager {
 		IMessage entry = bundleGroup.getMessage(key, locale);
 
 		if (entry == null) {
-			DirtyHack.setFireEnabled(false);
-
-			IMessagesBundle messagesBundle = bundleGroup
-					.getMessagesBundle(locale);
-			IMessage m = MessageFactory.createMessage(key, locale);
-			m.setText(message);
-			messagesBundle.addMessage(m);
-
-			FileUtils.writeToFile(messagesBundle);
-			instance.fireResourceChanged(messagesBundle);
-
-			DirtyHack.setFireEnabled(true);
+			EventSuppression suppression = bundleGroup.suppressEvents();
+			try {
+				IMessagesBundle messagesBundle = bundleGroup
+						.getMessagesBundle(locale);
+				IMessage m = MessageFactory.createMessage(key, locale);
+				m.setText(message);
+				messagesBundle.addMessage(m);
+
+				FileUtils.writeToFile(messagesBundle);
+				instance.fireResourceChanged(messagesBundle);
+			} finally {
+				suppression.close();
+			}
 
 			// notify the PropertyKeySelectionTree
 			instance.fireEditorChanged();
@@ -833,16 +921,17 @@ public class ResourceBundleManager {
 		IMessagesBundleGroup messagesBundleGroup = instance
 				.getMessagesBundleGroup(resourceBundleId);
 
-		DirtyHack.setFireEnabled(false);
+		EventSuppression suppression = messagesBundleGroup.suppressEvents();
+		try {
+			for (String key : keys) {
+				messagesBundleGroup.removeMessages(key);
+			}
 
-		for (String key : keys) {
-			messagesBundleGroup.removeMessages(key);
+			instance.writeToFile(messagesBundleGroup);
+		} finally {
+			suppression.close();
 		}
 
-		instance.writeToFile(messagesBundleGroup);
-
-		DirtyHack.setFireEnabled(true);
-
 		// notify the PropertyKeySelectionTree
 		instance.fireEditorChanged();
 	}
@@ -866,25 +955,12 @@ public class ResourceBundleManager {
 		}
 	}
 
+	/**
+	 * @return the locales of all resource bundles of the project, except for
+	 *         the default locale, as an unmodifiable set
+	 */
 	public Set<Locale> getProjectProvidedLocales() {
-		Set<Locale> locales = new HashSet<Locale>();
-
-		for (String bundleId : getResourceBundleNames()) {
-			Set<Locale> rb_l = getProvidedLocales(bundleId);
-			if (!rb_l.isEmpty()) {
-				Object[] bundlelocales = rb_l.toArray();
-				for (Object l : bundlelocales) {
-					/*
-					 * TODO check if useful to add the default. For now the
-					 * default is not being used and is ignored as it is null
-					 */
-					if (l != null && !locales.contains(l)) {
-						locales.add((Locale) l);
-					}
-				}
-			}
-		}
-		return locales;
+		return localeCounts.getLocales();
 	}
 
 	public static IStateLoader getStateLoader() {
@@ -0,0 +1,161 @@
+package org.eclipse.babel.tapiji.tools.core.ui;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.babel.tapiji.tools.core.Logger;
+import org.eclipse.babel.tapiji.tools.core.util.FragmentProjectUtils;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * Indexes the open projects with the {@link ResourceBundleManager#NATURE_ID}
+ * by name, ignoring case, for {@link ResourceBundleManager#getManager(String)}
+ * . Fragment projects are indexed with their host project.
+ * <p>
+ * The index is built from one pass over the workspace projects when it is
+ * first used and afterwards follows the project deltas of the resource change
+ * events: projects being added, removed, renamed, opened or closed and changes
+ * of their description (natures) or of the bundle manifest of fragments.
+ * </p>
+ */
+class SupportedProjectIndex implements IResourceChangeListener {
+
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
+
+    private static SupportedProjectIndex instance;
+
+    private final IWorkspace workspace;
+
+    /** The supported projects by name, fragments mapped to their host. */
+    private final Map<String, IProject> hosts = new TreeMap<String, IProject>(
+            String.CASE_INSENSITIVE_ORDER);
+
+    /** The indexed fragments, whose host may change with any project. */
+    private final Set<IProject> fragments = new HashSet<IProject>();
+
+    /**
+     * Creates an index of the given workspace and takes the initial pass over
+     * its projects. The listener is registered before the pass, which holds
+     * the index's lock, so that no project change between the two is lost.
+     */
+    SupportedProjectIndex(IWorkspace workspace) {
+        this.workspace = workspace;
+        workspace.addResourceChangeListener(this,
+                IResourceChangeEvent.POST_CHANGE);
+        scan();
+    }
+
+    /**
+     * Gets the shared index, which starts listening to the workspace on first
+     * use.
+     *
+     * @return the shared index
+     */
+    static synchronized SupportedProjectIndex getDefault() {
+        if (instance == null) {
+            instance = new SupportedProjectIndex(ResourcesPlugin.getWorkspace());
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the shared index from listening to the workspace.
+     */
+    static synchronized void dispose() {
+        if (instance != null) {
+            instance.workspace.removeResourceChangeListener(instance);
+            instance = null;
+        }
+    }
+
+    private synchronized void scan() {
+        for (IProject project : workspace.getRoot().getProjects()) {
+            update(project);
+        }
+    }
+
+    /**
+     * Looks up a supported project by name.
+     *
+     * @param projectName
+     *            the name of the project, in any case
+     * @return the project or, for a fragment, its host project, or
+     *         <code>null</code> if there is no such supported project
+     */
+    synchronized IProject getProject(String projectName) {
+        return hosts.get(projectName);
+    }
+
+    public synchronized void resourceChanged(IResourceChangeEvent event) {
+        IResourceDelta delta = event.getDelta();
+        if (delta == null) {
+            return;
+        }
+
+        boolean projectsChanged = false;
+        for (IResourceDelta child : delta.getAffectedChildren()) {
+            if (child.getResource().getType() != IResource.PROJECT) {
+                continue;
+            }
+
+            IProject project = (IProject) child.getResource();
+            if (child.getKind() == IResourceDelta.ADDED
+                    || child.getKind() == IResourceDelta.REMOVED) {
+                // a renamed project is removed under its old name and added
+                // under the new one
+                update(project);
+                projectsChanged = true;
+            } else if ((child.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0) {
+                update(project);
+                projectsChanged = true;
+            } else if (child.findMember(new Path(MANIFEST)) != null) {
+                update(project);
+            }
+        }
+
+        if (projectsChanged) {
+            // a fragment's host may have been added, removed or renamed
+            for (IProject fragment : new HashSet<IProject>(fragments)) {
+                update(fragment);
+            }
+        }
+    }
+
+    private void update(IProject project) {
+        if (project.equals(hosts.get(project.getName()))
+                || fragments.contains(project)) {
+            hosts.remove(project.getName());
+        }
+        fragments.remove(project);
+
+        try {
+            if (!project.isOpen()
+                    || !project.hasNature(ResourceBundleManager.NATURE_ID)) {
+                return;
+            }
+        } catch (CoreException e) {
+            Logger.logError(e);
+            return;
+        }
+
+        if (FragmentProjectUtils.isFragment(project)) {
+            fragments.add(project);
+            IProject host = FragmentProjectUtils.getFragmentHost(project);
+            if (host != null) {
+                hosts.put(project.getName(), host);
+            }
+        } else {
+            hosts.put(project.getName(), project);
+        }
+    }
+}
@@ -38,6 +38,9 @@ public class ResourceBundleDetectionVisitor implements IResourceVisitor,
                 if (!ResourceBundleManager.isResourceExcluded(resource)) {
                     ResourceBundleManager.getManager(project)
                             .addBundleResource(resource);
+                } else {
+                    ResourceBundleManager.getManager(project)
+                            .addExcludedBundleResource(resource);
                 }
                 return false;
             } else {
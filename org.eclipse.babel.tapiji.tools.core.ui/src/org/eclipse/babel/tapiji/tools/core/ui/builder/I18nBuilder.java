@@ -28,6 +28,7 @@ import org.eclipse.babel.tapiji.tools.core.ui.extensions.I18nAuditor;
 import org.eclipse.babel.tapiji.tools.core.ui.extensions.I18nRBAuditor;
 import org.eclipse.babel.tapiji.tools.core.ui.extensions.I18nResourceAuditor;
 import org.eclipse.babel.tapiji.tools.core.ui.utils.EditorUtils;
+import org.eclipse.babel.tapiji.tools.core.ui.utils.MarkerAccumulator;
 import org.eclipse.babel.tapiji.tools.core.ui.utils.RBFileUtils;
 import org.eclipse.core.resources.ICommand;
 import org.eclipse.core.resources.IProject;
@@ -183,15 +184,19 @@ public class I18nBuilder extends IncrementalProjectBuilder {
 			}
 		}
 
+		// string literal markers are collected and applied after the audit
+		MarkerAccumulator markers = new MarkerAccumulator();
+
 		for (IResource resource : resources) {
 			monitor.subTask("'" + resource.getFullPath().toOSString() + "'");
 			if (monitor.isCanceled()) {
 				throw new OperationCanceledException();
 			}
 
-			if (!EditorUtils.deleteAuditMarkersForResource(resource)) {
+			if (!EditorUtils.deleteAuditRBMarkersForResource(resource)) {
 				continue;
 			}
+			markers.audited(resource);
 
 			if (ResourceBundleManager.isResourceExcluded(resource)) {
 				continue;
@@ -234,21 +239,23 @@ public class I18nBuilder extends IncrementalProjectBuilder {
 
 		for (I18nAuditor a : extensionManager.getRegisteredI18nAuditors()) {
 			if (a instanceof I18nResourceAuditor) {
-				handleI18NAuditorMarkers((I18nResourceAuditor) a);
+				handleI18NAuditorMarkers((I18nResourceAuditor) a, markers);
 			}
 			if (a instanceof I18nRBAuditor) {
 				handleI18NAuditorMarkers((I18nRBAuditor) a);
 				((I18nRBAuditor) a).resetProblems();
 			}
 		}
+		markers.apply();
 
 		monitor.done();
 	}
 
-	private void handleI18NAuditorMarkers(I18nResourceAuditor ra) {
+	private void handleI18NAuditorMarkers(I18nResourceAuditor ra,
+			MarkerAccumulator markers) {
 		try {
 			for (ILocation problem : ra.getConstantStringLiterals()) {
-				EditorUtils
+				markers
 						.reportToMarker(
 								org.eclipse.babel.tapiji.tools.core.util.EditorUtils
 										.getFormattedMessage(
@@ -263,7 +270,7 @@ public class I18nBuilder extends IncrementalProjectBuilder {
 
 			// Report all broken Resource-Bundle references
 			for (ILocation brokenLiteral : ra.getBrokenResourceReferences()) {
-				EditorUtils
+				markers
 						.reportToMarker(
 								org.eclipse.babel.tapiji.tools.core.util.EditorUtils
 										.getFormattedMessage(
@@ -284,7 +291,7 @@ public class I18nBuilder extends IncrementalProjectBuilder {
 			// Report all broken definitions to Resource-Bundle
 			// references
 			for (ILocation brokenLiteral : ra.getBrokenBundleReferences()) {
-				EditorUtils
+				markers
 						.reportToMarker(
 								org.eclipse.babel.tapiji.tools.core.util.EditorUtils
 										.getFormattedMessage(
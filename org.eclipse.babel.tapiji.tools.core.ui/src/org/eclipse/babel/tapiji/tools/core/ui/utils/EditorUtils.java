@@ -1,6 +1,9 @@
 package org.eclipse.babel.tapiji.tools.core.ui.utils;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 import org.eclipse.babel.editor.IMessagesEditor;
 import org.eclipse.babel.tapiji.tools.core.Logger;
@@ -107,6 +110,23 @@ public class EditorUtils {
         return true;
     }
 
+    /**
+     * Deletes the resource bundle audit markers of the resource bundle the
+     * resource belongs to, but leaves the string literal audit markers of the
+     * resource to a {@link MarkerAccumulator}.
+     */
+    public static boolean deleteAuditRBMarkersForResource(IResource resource) {
+        try {
+            if (resource != null && resource.exists()) {
+                deleteAllAuditRBMarkersFromRB(resource);
+            }
+        } catch (CoreException e) {
+            Logger.logError(e);
+            return false;
+        }
+        return true;
+    }
+
     /*
      * Delete all RB_MARKER from the hole resourcebundle
      */
@@ -134,21 +154,8 @@ public class EditorUtils {
             int cause, String key, ILocation data, String context) {
         try {
             IMarker marker = problem.getFile().createMarker(MARKER_ID);
-            marker.setAttribute(IMarker.MESSAGE, string);
-            marker.setAttribute(IMarker.CHAR_START, problem.getStartPos());
-            marker.setAttribute(IMarker.CHAR_END, problem.getEndPos());
-            marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
-            marker.setAttribute("cause", cause);
-            marker.setAttribute("key", key);
-            marker.setAttribute("context", context);
-            if (data != null) {
-                marker.setAttribute("bundleName", data.getLiteral());
-                marker.setAttribute("bundleStart", data.getStartPos());
-                marker.setAttribute("bundleEnd", data.getEndPos());
-            }
-
-            // TODO: init attributes
-            marker.setAttribute("stringLiteral", string);
+            marker.setAttributes(getMarkerAttributes(string, problem, cause,
+                    key, data, context));
         } catch (CoreException e) {
             Logger.logError(e);
             return;
@@ -157,6 +164,35 @@ public class EditorUtils {
         Logger.logInfo(string);
     }
 
+    /*
+     * The attributes of a MARKER_ID marker, also used to compare collected
+     * markers with existing ones in MarkerAccumulator
+     */
+    static Map<String, Object> getMarkerAttributes(String string,
+            ILocation problem, int cause, String key, ILocation data,
+            String context) {
+        Map<String, Object> attributes = new HashMap<String, Object>();
+        attributes.put(IMarker.MESSAGE, string);
+        attributes.put(IMarker.CHAR_START, problem.getStartPos());
+        attributes.put(IMarker.CHAR_END, problem.getEndPos());
+        attributes.put(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+        attributes.put("cause", cause);
+        attributes.put("key", key);
+        attributes.put("context", context);
+        if (data != null) {
+            attributes.put("bundleName", data.getLiteral());
+            attributes.put("bundleStart", data.getStartPos());
+            attributes.put("bundleEnd", data.getEndPos());
+        }
+
+        // TODO: init attributes
+        attributes.put("stringLiteral", string);
+
+        // a marker does not keep null attributes
+        attributes.values().removeAll(Collections.singleton(null));
+        return attributes;
+    }
+
     public static void reportToRBMarker(String string, ILocation problem,
             int cause, String key, String problemPartnerFile, ILocation data,
             String context) {
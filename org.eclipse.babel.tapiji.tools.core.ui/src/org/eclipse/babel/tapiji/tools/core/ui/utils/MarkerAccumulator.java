@@ -0,0 +1,163 @@
+package org.eclipse.babel.tapiji.tools.core.ui.utils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.babel.tapiji.tools.core.Logger;
+import org.eclipse.babel.tapiji.tools.core.extensions.ILocation;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Collects the string literal audit markers ({@link EditorUtils#MARKER_ID}) of
+ * a whole build and applies them in one workspace operation.
+ * <p>
+ * Instead of deleting all markers of the audited resources and creating them
+ * again, {@link #apply()} compares the collected markers with the existing
+ * ones by cause, character range and message. Only the markers that are new
+ * are created and only the ones no longer reported are deleted, so an
+ * unchanged resource causes no marker delta at all.
+ * </p>
+ */
+public class MarkerAccumulator {
+
+    private final IWorkspace workspace;
+
+    /** The resources audited in this build, which own all of their markers. */
+    private final Set<IResource> audited = new LinkedHashSet<IResource>();
+
+    /** The attributes of the collected markers by resource and marker key. */
+    private final Map<IResource, Map<String, Map<String, Object>>> markers = new LinkedHashMap<IResource, Map<String, Map<String, Object>>>();
+
+    /**
+     * Creates an accumulator for the markers of the workspace.
+     */
+    public MarkerAccumulator() {
+        this(ResourcesPlugin.getWorkspace());
+    }
+
+    /**
+     * Creates an accumulator for the markers of the given workspace.
+     */
+    MarkerAccumulator(IWorkspace workspace) {
+        this.workspace = workspace;
+    }
+
+    /**
+     * Registers a resource as audited. Its existing markers that are not
+     * reported again are deleted by {@link #apply()}.
+     *
+     * @param resource
+     *            the audited resource
+     */
+    public void audited(IResource resource) {
+        audited.add(resource);
+    }
+
+    /**
+     * Collects a marker, with the same attributes as
+     * {@link EditorUtils#reportToMarker(String, ILocation, int, String, ILocation, String)}
+     * would create it.
+     */
+    public void reportToMarker(String string, ILocation problem, int cause,
+            String key, ILocation data, String context) {
+        Map<String, Object> attributes = EditorUtils.getMarkerAttributes(
+                string, problem, cause, key, data, context);
+
+        IResource resource = problem.getFile();
+        Map<String, Map<String, Object>> resourceMarkers = markers
+                .get(resource);
+        if (resourceMarkers == null) {
+            resourceMarkers = new LinkedHashMap<String, Map<String, Object>>();
+            markers.put(resource, resourceMarkers);
+        }
+        resourceMarkers.put(getKey(attributes), attributes);
+    }
+
+    /**
+     * Brings the markers of the audited and reported resources in line with
+     * the collected ones, within a single {@link IWorkspaceRunnable}.
+     */
+    public void apply() {
+        if (audited.isEmpty() && markers.isEmpty()) {
+            return;
+        }
+
+        try {
+            workspace.run(new IWorkspaceRunnable() {
+                @Override
+                public void run(IProgressMonitor monitor) throws CoreException {
+                    Set<IResource> resources = new LinkedHashSet<IResource>(
+                            audited);
+                    resources.addAll(markers.keySet());
+                    for (IResource resource : resources) {
+                        if (resource.exists()) {
+                            apply(resource);
+                        }
+                    }
+                }
+            }, null, IWorkspace.AVOID_UPDATE, null);
+        } catch (CoreException e) {
+            Logger.logError(e);
+        }
+
+        audited.clear();
+        markers.clear();
+    }
+
+    private void apply(IResource resource) throws CoreException {
+        Map<String, Map<String, Object>> reported = markers.get(resource);
+        if (reported == null) {
+            reported = new HashMap<String, Map<String, Object>>();
+        }
+
+        // keep the markers reported again, update their other attributes
+        // where they changed
+        Set<String> existing = new HashSet<String>();
+        for (IMarker marker : resource.findMarkers(EditorUtils.MARKER_ID,
+                false, IResource.DEPTH_ZERO)) {
+            Map<String, Object> attributes = marker.getAttributes();
+            String key = getKey(attributes);
+            Map<String, Object> reportedAttributes = reported.get(key);
+
+            if (reportedAttributes == null || existing.contains(key)) {
+                // only resources audited in this build lose their markers
+                if (audited.contains(resource)) {
+                    marker.delete();
+                } else {
+                    existing.add(key);
+                }
+            } else {
+                if (!reportedAttributes.equals(attributes)) {
+                    marker.setAttributes(reportedAttributes);
+                }
+                existing.add(key);
+            }
+        }
+
+        for (Map.Entry<String, Map<String, Object>> entry : reported
+                .entrySet()) {
+            if (!existing.contains(entry.getKey())) {
+                IMarker marker = resource.createMarker(EditorUtils.MARKER_ID);
+                marker.setAttributes(entry.getValue());
+                Logger.logInfo((String) entry.getValue().get(IMarker.MESSAGE));
+            }
+        }
+    }
+
+    private static String getKey(Map<String, Object> attributes) {
+        return attributes.get("cause") + ":"
+                + attributes.get(IMarker.CHAR_START) + ":"
+                + attributes.get(IMarker.CHAR_END) + ":"
+                + attributes.get(IMarker.MESSAGE);
+    }
+}
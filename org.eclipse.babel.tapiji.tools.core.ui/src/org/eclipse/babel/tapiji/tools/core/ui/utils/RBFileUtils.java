@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
+import org.eclipse.babel.core.util.LocaleSuffixParser;
 import org.eclipse.babel.tapiji.tools.core.Logger;
 import org.eclipse.babel.tapiji.tools.core.ui.Activator;
 import org.eclipse.babel.tapiji.tools.core.ui.ResourceBundleManager;
@@ -199,22 +200,7 @@ public class RBFileUtils extends Action {
             locale = null; // Default locale
         } else {
             localeID = localeID.substring(baseBundleName.length() + 1);
-            String[] localeTokens = localeID.split("_");
-            switch (localeTokens.length) {
-            case 1:
-                locale = new Locale(localeTokens[0]);
-                break;
-            case 2:
-                locale = new Locale(localeTokens[0], localeTokens[1]);
-                break;
-            case 3:
-                locale = new Locale(localeTokens[0], localeTokens[1],
-                        localeTokens[2]);
-                break;
-            default:
-                locale = new Locale("");
-                break;
-            }
+            locale = LocaleSuffixParser.getLocale(localeID);
         }
         return locale;
     }
@@ -12,8 +12,8 @@
  ******************************************************************************/
 package org.eclipse.babel.tapiji.tools.core.ui.views.messagesview.dnd;
 
-import org.eclipse.babel.core.configuration.DirtyHack;
 import org.eclipse.babel.core.factory.MessageFactory;
+import org.eclipse.babel.core.message.EventSuppression;
 import org.eclipse.babel.core.message.IMessage;
 import org.eclipse.babel.core.message.IMessagesBundle;
 import org.eclipse.babel.core.message.IMessagesBundleGroup;
@@ -139,40 +139,41 @@ public class KeyTreeItemDropTarget extends DropTargetAdapter {
                         IMessagesBundleGroup bundleGroup = contentProvider
                                 .getBundle();
 
-                        DirtyHack.setFireEnabled(false);
-                        DirtyHack.setEditorModificationEnabled(false); // editor
-                        // won't
-                        // get
-                        // dirty
-
-                        // add new bundle entries of source node + all children
-                        addBundleEntries(newKeyPrefix, sourceTreeNode,
-                                bundleGroup);
-
-                        // if drag & drop is move event, delete source entry +
-                        // it's children
-                        if (event.detail == DND.DROP_MOVE) {
-                            remBundleEntries(sourceTreeNode, bundleGroup);
+                        // the editor won't get dirty
+                        EventSuppression events = bundleGroup.suppressEvents();
+                        EventSuppression editors = EventSuppression
+                                .suppressEditorModification(bundleGroup);
+                        try {
+                            // add new bundle entries of source node + all
+                            // children
+                            addBundleEntries(newKeyPrefix, sourceTreeNode,
+                                    bundleGroup);
+
+                            // if drag & drop is move event, delete source
+                            // entry + it's children
+                            if (event.detail == DND.DROP_MOVE) {
+                                remBundleEntries(sourceTreeNode, bundleGroup);
+                            }
+
+                            // Store changes
+                            RBManager manager = RBManager
+                                    .getInstance(((MessagesBundleGroup) bundleGroup)
+                                            .getProjectName());
+
+                            manager.writeToFile(bundleGroup);
+                            manager.fireEditorChanged(); // refresh the View
+
+                            target.refresh();
+                        } finally {
+                            editors.close();
+                            events.close();
                         }
-
-                        // Store changes
-                        RBManager manager = RBManager
-                                .getInstance(((MessagesBundleGroup) bundleGroup)
-                                        .getProjectName());
-
-                        manager.writeToFile(bundleGroup);
-                        manager.fireEditorChanged(); // refresh the View
-
-                        target.refresh();
                     } else {
                         event.detail = DND.DROP_NONE;
                     }
 
                 } catch (Exception e) {
                     Logger.logError(e);
-                } finally {
-                    DirtyHack.setFireEnabled(true);
-                    DirtyHack.setEditorModificationEnabled(true);
                 }
             }
         });
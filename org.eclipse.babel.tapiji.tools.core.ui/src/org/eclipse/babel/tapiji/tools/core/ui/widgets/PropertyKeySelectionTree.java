@@ -22,8 +22,8 @@ import java.util.Locale;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
-import org.eclipse.babel.core.configuration.DirtyHack;
 import org.eclipse.babel.core.factory.MessageFactory;
+import org.eclipse.babel.core.message.EventSuppression;
 import org.eclipse.babel.core.message.IMessage;
 import org.eclipse.babel.core.message.IMessagesBundle;
 import org.eclipse.babel.core.message.IMessagesBundleGroup;
@@ -386,32 +386,34 @@ public class PropertyKeySelectionTree extends Composite implements
                                     IMessagesBundle messagesBundle = bundleGroup
                                             .getMessagesBundle(l);
 
-                                    DirtyHack.setFireEnabled(false);
-
-                                    IMessage message = messagesBundle
-                                            .getMessage(activeKey);
-                                    if (message == null) {
-                                        IMessage newMessage = MessageFactory
-                                                .createMessage(activeKey, l);
-                                        newMessage.setText(String
-                                                .valueOf(value));
-                                        newMessage.setComment(comment);
-                                        messagesBundle.addMessage(newMessage);
-                                    } else {
-                                        message.setText(String.valueOf(value));
-                                        message.setComment(comment);
-                                    }
-
-                                    FileUtils.writeToFile(messagesBundle);
-                                    RBManager
-                                            .getInstance(manager.getProject())
-                                            .fireResourceChanged(messagesBundle);
+                                    EventSuppression suppression = bundleGroup
+                                            .suppressEvents();
+                                    try {
+                                        IMessage message = messagesBundle
+                                                .getMessage(activeKey);
+                                        if (message == null) {
+                                            IMessage newMessage = MessageFactory
+                                                    .createMessage(activeKey, l);
+                                            newMessage.setText(String
+                                                    .valueOf(value));
+                                            newMessage.setComment(comment);
+                                            messagesBundle.addMessage(newMessage);
+                                        } else {
+                                            message.setText(String.valueOf(value));
+                                            message.setComment(comment);
+                                        }
 
-                                    // update TreeViewer
-                                    vkti.setValue(l, String.valueOf(value));
-                                    treeViewer.refresh();
+                                        FileUtils.writeToFile(messagesBundle);
+                                        RBManager
+                                                .getInstance(manager.getProject())
+                                                .fireResourceChanged(messagesBundle);
 
-                                    DirtyHack.setFireEnabled(true);
+                                        // update TreeViewer
+                                        vkti.setValue(l, String.valueOf(value));
+                                        treeViewer.refresh();
+                                    } finally {
+                                        suppression.close();
+                                    }
                                 }
                             }
                         }
@@ -23,6 +23,9 @@ public class ExactMatcher extends ViewerFilter {
     protected String pattern = "";
     protected StringMatcher matcher;
 
+    /** Whether the pattern has no wildcards and is simply searched for. */
+    private boolean literal;
+
     public ExactMatcher(StructuredViewer viewer) {
         this.viewer = viewer;
     }
@@ -36,6 +39,8 @@ public class ExactMatcher extends ViewerFilter {
         if (p != null && p.trim().length() > 0) {
             pattern = p;
             matcher = new StringMatcher("*" + pattern + "*", true, false);
+            literal = pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0
+                    && pattern.indexOf('\\') < 0;
             if (!filtering)
                 viewer.addFilter(this);
             else
@@ -53,15 +58,15 @@ public class ExactMatcher extends ViewerFilter {
     public boolean select(Viewer viewer, Object parentElement, Object element) {
         IValuedKeyTreeNode vEle = (IValuedKeyTreeNode) element;
         FilterInfo filterInfo = new FilterInfo();
-        boolean selected = matcher.match(vEle.getMessageKey());
+
+        String key = vEle.getMessageKey();
+        int start = indexOf(key, 0);
+        boolean selected = literal ? start >= 0 : matcher.match(key);
 
         if (selected) {
-            int start = -1;
-            while ((start = vEle.getMessageKey().toLowerCase()
-                    .indexOf(pattern.toLowerCase(), start + 1)) >= 0) {
+            for (; start >= 0; start = indexOf(key, start + 1)) {
                 filterInfo.addKeyOccurrence(start, pattern.length());
             }
-            filterInfo.setFoundInKey(selected);
             filterInfo.setFoundInKey(true);
         } else
             filterInfo.setFoundInKey(false);
@@ -69,12 +74,11 @@ public class ExactMatcher extends ViewerFilter {
         // Iterate translations
         for (Locale l : vEle.getLocales()) {
             String value = vEle.getValue(l);
-            if (matcher.match(value)) {
+            start = indexOf(value, 0);
+            if (literal ? start >= 0 : matcher.match(value)) {
                 filterInfo.addFoundInLocale(l);
                 filterInfo.addSimilarity(l, 1d);
-                int start = -1;
-                while ((start = value.toLowerCase().indexOf(
-                        pattern.toLowerCase(), start + 1)) >= 0) {
+                for (; start >= 0; start = indexOf(value, start + 1)) {
                     filterInfo
                             .addFoundInLocaleRange(l, start, pattern.length());
                 }
@@ -86,4 +90,28 @@ public class ExactMatcher extends ViewerFilter {
         return selected;
     }
 
+    /**
+     * Finds the next occurrence of the pattern in the given text, ignoring
+     * case, without copying the text.
+     *
+     * @param text
+     *            the text to search, may be <code>null</code>
+     * @param from
+     *            the index to start the search from
+     * @return the index of the occurrence or -1 if there is none
+     */
+    protected int indexOf(String text, int from) {
+        if (text == null) {
+            return -1;
+        }
+        int length = pattern.length();
+        int last = text.length() - length;
+        for (int i = from; i <= last; i++) {
+            if (text.regionMatches(true, i, pattern, 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
 }
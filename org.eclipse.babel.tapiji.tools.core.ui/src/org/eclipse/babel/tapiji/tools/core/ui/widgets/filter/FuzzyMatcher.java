@@ -13,6 +13,7 @@ package org.eclipse.babel.tapiji.tools.core.ui.widgets.filter;
 import java.util.Locale;
 
 import org.eclipse.babel.core.message.checks.proximity.IProximityAnalyzer;
+import org.eclipse.babel.core.message.checks.proximity.LevenshteinDistanceFilter;
 import org.eclipse.babel.editor.api.AnalyzerFactory;
 import org.eclipse.babel.editor.api.IValuedKeyTreeNode;
 import org.eclipse.jface.viewers.StructuredViewer;
@@ -23,6 +24,9 @@ public class FuzzyMatcher extends ExactMatcher {
     protected IProximityAnalyzer lvda;
     protected float minimumSimilarity = 0.75f;
 
+    /** Created for the current pattern on first use. */
+    private LevenshteinDistanceFilter distanceFilter;
+
     public FuzzyMatcher(StructuredViewer viewer) {
         super(viewer);
         lvda = AnalyzerFactory.getLevenshteinDistanceAnalyzer();
@@ -35,6 +39,13 @@ public class FuzzyMatcher extends ExactMatcher {
 
     public void setMinimumSimilarity(float similarity) {
         this.minimumSimilarity = similarity;
+        distanceFilter = null;
+    }
+
+    @Override
+    public void setPattern(String p) {
+        distanceFilter = null;
+        super.setPattern(p);
     }
 
     @Override
@@ -45,12 +56,17 @@ public class FuzzyMatcher extends ExactMatcher {
         IValuedKeyTreeNode vkti = (IValuedKeyTreeNode) element;
         FilterInfo filterInfo = (FilterInfo) vkti.getInfo();
 
+        if (distanceFilter == null) {
+            distanceFilter = new LevenshteinDistanceFilter(getPattern(),
+                    minimumSimilarity);
+        }
+
         for (Locale l : vkti.getLocales()) {
             String value = vkti.getValue(l);
             if (filterInfo.hasFoundInLocale(l))
                 continue;
-            double dist = lvda.analyse(value, getPattern());
-            if (dist >= minimumSimilarity) {
+            double dist = distanceFilter.similarity(value);
+            if (!Double.isNaN(dist)) {
                 filterInfo.addFoundInLocale(l);
                 filterInfo.addSimilarity(l, dist);
                 match = true;
@@ -0,0 +1,250 @@
+package org.eclipse.babel.tapiji.tools.core.ui.widgets.provider;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.babel.core.message.IMessagesBundleGroup;
+import org.eclipse.babel.core.message.tree.IKeyTreeNode;
+import org.eclipse.babel.core.message.tree.IKeyTreeVisitor;
+import org.eclipse.babel.core.message.tree.TreeType;
+import org.eclipse.babel.editor.api.IValuedKeyTreeNode;
+import org.eclipse.babel.tapiji.tools.core.model.IResourceBundleChangedListener;
+import org.eclipse.babel.tapiji.tools.core.model.manager.ResourceBundleChangedEvent;
+import org.eclipse.babel.tapiji.tools.core.ui.ResourceBundleManager;
+import org.eclipse.jface.viewers.ILazyTreeContentProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * A {@link ResKeyTreeContentProvider} for trees created with
+ * <code>SWT.VIRTUAL</code>, which only creates the valued nodes of the rows
+ * the viewer asks for.
+ * <p>
+ * The valued nodes are kept in a cache of bounded size, least recently used
+ * first out, which is cleared whenever the resource bundle changes. In
+ * <code>Flat</code> mode the list of keys is computed once per input, but
+ * their values are looked up as rows become visible.
+ * </p>
+ * <p>
+ * JFace neither sorts nor filters the rows of a lazy tree, and a virtual tree
+ * cannot be expanded all at once. The provider therefore does not replace the
+ * {@link ResKeyTreeContentProvider} of trees that use a sorter, matchers or
+ * <code>expandAll</code>, such as the <code>PropertyKeySelectionTree</code>.
+ * </p>
+ */
+public class LazyResKeyTreeContentProvider extends ResKeyTreeContentProvider
+        implements ILazyTreeContentProvider, IResourceBundleChangedListener {
+
+    /** Number of valued nodes kept by default. */
+    public static final int DEFAULT_CACHE_SIZE = 500;
+
+    private final Map<IKeyTreeNode, IValuedKeyTreeNode> valuedNodes;
+
+    private Object input;
+
+    /** The keys of the input in <code>Flat</code> mode, computed on demand. */
+    private IKeyTreeNode[] flatKeys;
+
+    /** The manager and bundle the provider listens to. */
+    private ResourceBundleManager manager;
+    private String listenedBundleId;
+
+    public LazyResKeyTreeContentProvider(List<Locale> locales,
+            String projectName, String bundleId, TreeType treeType) {
+        this(locales, projectName, bundleId, treeType, DEFAULT_CACHE_SIZE);
+    }
+
+    public LazyResKeyTreeContentProvider(List<Locale> locales,
+            String projectName, String bundleId, TreeType treeType,
+            final int cacheSize) {
+        super(locales, projectName, bundleId, treeType);
+        this.valuedNodes = new LinkedHashMap<IKeyTreeNode, IValuedKeyTreeNode>(
+                16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<IKeyTreeNode, IValuedKeyTreeNode> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public void updateElement(Object parent, int index) {
+        IKeyTreeNode[] children = getChildNodes(parent);
+        if (index >= children.length) {
+            return;
+        }
+
+        IValuedKeyTreeNode node = getValuedNode(children[index]);
+        replace(parent, index, node);
+        setChildCount(node, getChildNodes(node).length);
+    }
+
+    @Override
+    public void updateChildCount(Object element, int currentChildCount) {
+        int count = getChildNodes(element).length;
+        if (count != currentChildCount) {
+            setChildCount(element, count);
+        }
+    }
+
+    /**
+     * Hands the viewer the element of a row.
+     */
+    protected void replace(Object parent, int index, Object element) {
+        treeViewer.replace(parent, index, element);
+    }
+
+    /**
+     * Hands the viewer the number of children of an element.
+     */
+    protected void setChildCount(Object element, int count) {
+        treeViewer.setChildCount(element, count);
+    }
+
+    @Override
+    public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+        super.inputChanged(viewer, oldInput, newInput);
+        this.treeViewer = (TreeViewer) viewer;
+        this.input = newInput;
+        clearCache();
+
+        unregisterListener();
+        if (newInput != null && getProjectName() != null
+                && getBundleId() != null) {
+            manager = ResourceBundleManager.getManager(getProjectName());
+            if (manager != null) {
+                listenedBundleId = getBundleId();
+                manager.registerResourceBundleChangeListener(listenedBundleId,
+                        this);
+            }
+        }
+    }
+
+    @Override
+    public void resourceBundleChanged(ResourceBundleChangedEvent event) {
+        clearCache();
+
+        final TreeViewer viewer = treeViewer;
+        if (viewer == null || viewer.getControl() == null
+                || viewer.getControl().isDisposed()) {
+            return;
+        }
+
+        if (Display.getCurrent() != null) {
+            refreshViewer(viewer);
+            return;
+        }
+
+        viewer.getControl().getDisplay().asyncExec(new Runnable() {
+
+            @Override
+            public void run() {
+                refreshViewer(viewer);
+            }
+        });
+    }
+
+    @Override
+    public void setTreeType(TreeType treeType) {
+        clearCache();
+        super.setTreeType(treeType);
+    }
+
+    @Override
+    public void dispose() {
+        unregisterListener();
+        clearCache();
+        super.dispose();
+    }
+
+    private IValuedKeyTreeNode getValuedNode(IKeyTreeNode node) {
+        if (node instanceof IValuedKeyTreeNode) {
+            return (IValuedKeyTreeNode) node;
+        }
+
+        synchronized (valuedNodes) {
+            IValuedKeyTreeNode valuedNode = valuedNodes.get(node);
+            if (valuedNode == null) {
+                IMessagesBundleGroup messagesBundleGroup = getBundle();
+                valuedNode = createValuedNode(node, messagesBundleGroup);
+                valuedNodes.put(node, valuedNode);
+            }
+            return valuedNode;
+        }
+    }
+
+    private IKeyTreeNode[] getChildNodes(Object parent) {
+        if (getKeyTreeModel() == null) {
+            return new IKeyTreeNode[0];
+        }
+
+        switch (getTreeType()) {
+        case Tree:
+            if (parent == input) {
+                return getKeyTreeModel().getRootNodes();
+            }
+            return getKeyTreeModel().getChildren((IKeyTreeNode) parent);
+        case Flat:
+            if (parent == input) {
+                return getFlatKeys();
+            }
+            return new IKeyTreeNode[0];
+        default:
+            // Should not happen
+            return new IKeyTreeNode[0];
+        }
+    }
+
+    private synchronized IKeyTreeNode[] getFlatKeys() {
+        if (flatKeys == null) {
+            final List<IKeyTreeNode> actualKeys = new ArrayList<IKeyTreeNode>();
+            getKeyTreeModel().accept(new IKeyTreeVisitor() {
+                public void visitKeyTreeNode(IKeyTreeNode node) {
+                    if (node.isUsedAsKey()) {
+                        actualKeys.add(node);
+                    }
+                }
+            }, getKeyTreeModel().getRootNode());
+            flatKeys = actualKeys.toArray(new IKeyTreeNode[actualKeys.size()]);
+        }
+        return flatKeys;
+    }
+
+    /**
+     * Hands the viewer the child count of the new key tree, since a virtual
+     * tree only asks for the count of rows it has not seen yet, and then
+     * makes it fetch its visible rows again.
+     */
+    private void refreshViewer(TreeViewer viewer) {
+        if (viewer.getControl().isDisposed() || input == null) {
+            return;
+        }
+        viewer.setChildCount(input, getChildNodes(input).length);
+        viewer.refresh();
+    }
+
+    private void clearCache() {
+        synchronized (valuedNodes) {
+            valuedNodes.clear();
+        }
+        synchronized (this) {
+            flatKeys = null;
+        }
+    }
+
+    private void unregisterListener() {
+        if (manager != null) {
+            manager.unregisterResourceBundleChangeListener(listenedBundleId,
+                    this);
+            manager = null;
+            listenedBundleId = null;
+        }
+    }
+}
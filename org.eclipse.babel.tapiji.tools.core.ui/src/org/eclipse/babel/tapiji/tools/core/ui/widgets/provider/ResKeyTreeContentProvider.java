@@ -91,32 +91,40 @@ public class ResKeyTreeContentProvider implements ITreeContentProvider {
             if (o instanceof IValuedKeyTreeNode)
                 items.add((IValuedKeyTreeNode) o);
             else {
-                IKeyTreeNode kti = (IKeyTreeNode) o;
-                IValuedKeyTreeNode vkti = KeyTreeFactory.createKeyTree(
-                        kti.getParent(), kti.getName(), kti.getMessageKey(),
-                        messagesBundleGroup);
+                items.add(createValuedNode((IKeyTreeNode) o,
+                        messagesBundleGroup));
+            }
+        }
 
-                for (IKeyTreeNode k : kti.getChildren()) {
-                    vkti.addChild(k);
-                }
+        return items.toArray();
+    }
 
-                // init translations
-                for (Locale l : locales) {
-                    try {
-                        IMessage message = messagesBundleGroup
-                                .getMessagesBundle(l).getMessage(
-                                        kti.getMessageKey());
-                        if (message != null) {
-                            vkti.addValue(l, message.getValue());
-                        }
-                    } catch (Exception e) {
-                    }
+    /**
+     * Wraps a key tree node in a valued node holding the messages of the
+     * visible locales.
+     */
+    protected IValuedKeyTreeNode createValuedNode(IKeyTreeNode kti,
+            IMessagesBundleGroup messagesBundleGroup) {
+        IValuedKeyTreeNode vkti = KeyTreeFactory.createKeyTree(
+                kti.getParent(), kti.getName(), kti.getMessageKey(),
+                messagesBundleGroup);
+
+        for (IKeyTreeNode k : kti.getChildren()) {
+            vkti.addChild(k);
+        }
+
+        // init translations
+        for (Locale l : locales) {
+            try {
+                IMessage message = messagesBundleGroup.getMessagesBundle(l)
+                        .getMessage(kti.getMessageKey());
+                if (message != null) {
+                    vkti.addValue(l, message.getValue());
                 }
-                items.add(vkti);
+            } catch (Exception e) {
             }
         }
-
-        return items.toArray();
+        return vkti;
     }
 
     @Override
@@ -209,6 +217,14 @@ public class ResKeyTreeContentProvider implements ITreeContentProvider {
         return bundleId;
     }
 
+    public String getProjectName() {
+        return projectName;
+    }
+
+    protected IAbstractKeyTreeModel getKeyTreeModel() {
+        return keyTreeModel;
+    }
+
     @Override
     public void dispose() {
         // TODO Auto-generated method stub
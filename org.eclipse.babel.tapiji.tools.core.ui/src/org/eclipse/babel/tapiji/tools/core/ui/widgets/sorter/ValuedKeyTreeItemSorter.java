@@ -10,7 +10,11 @@
  ******************************************************************************/
 package org.eclipse.babel.tapiji.tools.core.ui.widgets.sorter;
 
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.IdentityHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import org.eclipse.babel.editor.api.IValuedKeyTreeNode;
 import org.eclipse.babel.tapiji.tools.core.ui.views.messagesview.SortInfo;
@@ -23,6 +27,15 @@ public class ValuedKeyTreeItemSorter extends ViewerSorter {
     private StructuredViewer viewer;
     private SortInfo sortInfo;
 
+    private Collator collator;
+    private Locale collatorLocale;
+
+    /**
+     * Collation keys of the values of the elements being sorted, only set
+     * while {@link #sort(Viewer, Object[])} runs.
+     */
+    private Map<Object, CollationKey> collationKeys;
+
     public ValuedKeyTreeItemSorter(StructuredViewer viewer, SortInfo sortInfo) {
         this.viewer = viewer;
         this.sortInfo = sortInfo;
@@ -44,34 +57,97 @@ public class ValuedKeyTreeItemSorter extends ViewerSorter {
         this.sortInfo = sortInfo;
     }
 
+    /**
+     * Sorts by a locale column comparing collation keys, which are computed
+     * once per element and sort rather than on every comparison.
+     */
     @Override
-    public int compare(Viewer viewer, Object e1, Object e2) {
-        try {
-            if (!(e1 instanceof IValuedKeyTreeNode && e2 instanceof IValuedKeyTreeNode))
-                return super.compare(viewer, e1, e2);
-            IValuedKeyTreeNode comp1 = (IValuedKeyTreeNode) e1;
-            IValuedKeyTreeNode comp2 = (IValuedKeyTreeNode) e2;
-
-            int result = 0;
-
-            if (sortInfo == null)
-                return 0;
-
-            if (sortInfo.getColIdx() == 0)
-                result = comp1.getMessageKey().compareTo(comp2.getMessageKey());
-            else {
-                Locale loc = sortInfo.getVisibleLocales().get(
-                        sortInfo.getColIdx() - 1);
-                result = (comp1.getValue(loc) == null ? "" : comp1
-                        .getValue(loc))
-                        .compareTo((comp2.getValue(loc) == null ? "" : comp2
-                                .getValue(loc)));
+    public void sort(Viewer viewer, Object[] elements) {
+        if (!isSortedByLocale()) {
+            super.sort(viewer, elements);
+            return;
+        }
+        Locale loc = getSortLocale();
+        Collator collator = getCollator(loc);
+        Map<Object, CollationKey> keys = new IdentityHashMap<Object, CollationKey>(
+                elements.length);
+        for (Object element : elements) {
+            if (element instanceof IValuedKeyTreeNode) {
+                keys.put(element, collator.getCollationKey(getValue(
+                        (IValuedKeyTreeNode) element, loc)));
             }
+        }
+        collationKeys = keys;
+        try {
+            super.sort(viewer, elements);
+        } finally {
+            collationKeys = null;
+        }
+    }
 
-            return result * (sortInfo.isDESC() ? -1 : 1);
-        } catch (Exception e) {
+    @Override
+    public int compare(Viewer viewer, Object e1, Object e2) {
+        if (!(e1 instanceof IValuedKeyTreeNode && e2 instanceof IValuedKeyTreeNode))
+            return super.compare(viewer, e1, e2);
+        IValuedKeyTreeNode comp1 = (IValuedKeyTreeNode) e1;
+        IValuedKeyTreeNode comp2 = (IValuedKeyTreeNode) e2;
+
+        int result = 0;
+
+        if (sortInfo == null)
             return 0;
+
+        if (!isSortedByLocale())
+            result = comp1.getMessageKey().compareTo(comp2.getMessageKey());
+        else {
+            Locale loc = getSortLocale();
+            result = getCollationKey(comp1, loc).compareTo(
+                    getCollationKey(comp2, loc));
         }
+
+        return result * (sortInfo.isDESC() ? -1 : 1);
+    }
+
+    /**
+     * Whether the sort column is one of the visible locale columns rather
+     * than the key column.
+     */
+    private boolean isSortedByLocale() {
+        return sortInfo != null && sortInfo.getColIdx() > 0
+                && sortInfo.getVisibleLocales() != null
+                && sortInfo.getColIdx() <= sortInfo.getVisibleLocales().size();
+    }
+
+    /**
+     * The locale of the sort column, <code>null</code> for the default
+     * bundle.
+     */
+    private Locale getSortLocale() {
+        return sortInfo.getVisibleLocales().get(sortInfo.getColIdx() - 1);
+    }
+
+    private Collator getCollator(Locale loc) {
+        // the default bundle has no locale of its own
+        Locale collationLocale = loc == null ? Locale.getDefault() : loc;
+        if (collator == null || !collationLocale.equals(collatorLocale)) {
+            collator = Collator.getInstance(collationLocale);
+            collatorLocale = collationLocale;
+        }
+        return collator;
+    }
+
+    private CollationKey getCollationKey(IValuedKeyTreeNode node, Locale loc) {
+        CollationKey key = collationKeys != null ? collationKeys.get(node)
+                : null;
+        if (key == null) {
+            key = getCollator(loc).getCollationKey(getValue(node, loc));
+        }
+        return key;
+    }
+
+    private String getValue(IValuedKeyTreeNode node, Locale loc) {
+        String value = node.getValue(loc);
+        return value == null ? "" : value;
     }
 
 }
@@ -0,0 +1,150 @@
+package org.eclipse.babel.tapiji.tools.java.ui.autocompletion;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.eclipse.babel.core.message.internal.MessageException;
+import org.eclipse.babel.core.message.internal.MessagesBundle;
+import org.eclipse.babel.core.message.internal.MessagesBundleGroup;
+import org.eclipse.babel.core.message.resource.internal.AbstractPropertiesResource;
+import org.eclipse.babel.core.message.resource.ser.PropertiesDeserializer;
+import org.eclipse.babel.core.message.resource.ser.PropertiesSerializer;
+import org.eclipse.babel.core.message.strategy.IMessagesBundleGroupStrategy;
+
+public class MessageKeyIndexTest extends TestCase {
+
+    private static final String[] KEYS = { "menu.edit.title", "menu.edit",
+            "menu.file.title", "Menu.exit", "menuEditTitle", "message",
+            "msg.error_text", "other" };
+
+    private final MessageKeyIndex index = new MessageKeyIndex(KEYS);
+
+    public void testPrefixMatchesIgnoreCase() {
+        assertEquals(Arrays.asList("menu.edit", "menu.edit.title",
+                "Menu.exit", "menu.file.title", "menuEditTitle"), index
+                .getPrefixMatches("menu"));
+        assertEquals(Arrays.asList("menu.edit", "menu.edit.title"), index
+                .getPrefixMatches("MENU.ED"));
+        assertEquals(KEYS.length, index.getPrefixMatches("").size());
+        assertEquals(Collections.emptyList(), index.getPrefixMatches("z"));
+        assertEquals(Collections.emptyList(), index
+                .getPrefixMatches("menu.edit.title.more"));
+    }
+
+    public void testSegmentPrefixes() {
+        assertEquals(Arrays.asList("menu.edit.title", "menuEditTitle",
+                "msg.error_text"), index.getMatches("m.e.t"));
+        assertEquals(Arrays.asList("msg.error_text"), index
+                .getMatches("ms.e.t"));
+        assertEquals(Arrays.asList("menu.edit", "menu.edit.title",
+                "menu.exit", "menuedittitle"), lowerCase(index
+                .getMatches("me.e")));
+        assertTrue(index.getMatches("m.x").isEmpty());
+    }
+
+    public void testCamelCase() {
+        assertTrue(index.getMatches("mET").containsAll(
+                Arrays.asList("menu.edit.title", "menuEditTitle")));
+        assertTrue(MessageKeyIndex.matches("mET", "menuEditTitle"));
+        assertTrue(MessageKeyIndex.matches("menEdT", "menuEditTitle"));
+        assertFalse(MessageKeyIndex.matches("mT", "menuEditTitle"));
+    }
+
+    public void testWordsMustNotRunIntoNextWord() {
+        assertFalse(MessageKeyIndex.matches("m.editt", "menu.edit.title"));
+        assertFalse(MessageKeyIndex.matches("mEditt", "menu.editTitle"));
+        assertTrue(MessageKeyIndex.matches("mEditT", "menu.editTitle"));
+    }
+
+    public void testPrefixMatchesComeFirst() {
+        List<String> matches = new MessageKeyIndex(new String[] {
+                "m.e.t.x", "menu.edit.title" }).getMatches("m.e.t");
+        assertEquals(Arrays.asList("m.e.t.x", "menu.edit.title"), matches);
+    }
+
+    public void testIndexInvalidatedByKeyChanges() {
+        MessagesBundleGroup group = createGroup();
+        MessageKeyIndex first = MessageKeyIndex.getIndex(group);
+        assertEquals(1, first.size());
+        assertSame(first, MessageKeyIndex.getIndex(group));
+
+        group.addMessages("menu.edit.title");
+        MessageKeyIndex second = MessageKeyIndex.getIndex(group);
+        assertNotSame(first, second);
+        assertEquals(Arrays.asList("menu.edit.title"), second
+                .getMatches("m.e.t"));
+
+        group.removeMessages("menu.edit.title");
+        assertTrue(MessageKeyIndex.getIndex(group).getMatches("m.e.t")
+                .isEmpty());
+    }
+
+    private static List<String> lowerCase(List<String> keys) {
+        for (int i = 0; i < keys.size(); i++) {
+            keys.set(i, keys.get(i).toLowerCase(Locale.ENGLISH));
+        }
+        return keys;
+    }
+
+    private static MessagesBundleGroup createGroup() {
+        return new MessagesBundleGroup(new IMessagesBundleGroupStrategy() {
+            public String createMessagesBundleGroupName() {
+                return "messages";
+            }
+
+            public String createMessagesBundleId() {
+                return "messages";
+            }
+
+            public MessagesBundle[] loadMessagesBundles()
+                    throws MessageException {
+                return new MessagesBundle[] { new MessagesBundle(
+                        new StringResource("other=x\n")) };
+            }
+
+            public MessagesBundle createMessagesBundle(Locale locale)
+                    throws MessageException {
+                throw new MessageException("unsupported");
+            }
+
+            public String getProjectName() {
+                return null;
+            }
+        });
+    }
+
+    private static class StringResource extends AbstractPropertiesResource {
+        private String text;
+
+        StringResource(String text) {
+            super(Locale.ENGLISH, new PropertiesSerializer(null),
+                    new PropertiesDeserializer(null));
+            this.text = text;
+        }
+
+        @Override
+        protected String getText() {
+            return text;
+        }
+
+        @Override
+        protected void setText(String text) {
+            this.text = text;
+        }
+
+        public Object getSource() {
+            return this;
+        }
+
+        public String getResourceLocationLabel() {
+            return "test";
+        }
+
+        public void dispose() {
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.eclipse.babel.tapiji.tools.java.ui.autocompletion.CreateResourceBundl
 import org.eclipse.babel.tapiji.tools.java.ui.autocompletion.InsertResourceBundleReferenceProposal;
 import org.eclipse.babel.tapiji.tools.java.ui.autocompletion.KeyRefactoringProposal;
 import org.eclipse.babel.tapiji.tools.java.ui.autocompletion.MessageCompletionProposal;
+import org.eclipse.babel.tapiji.tools.java.ui.autocompletion.MessageKeyIndex;
 import org.eclipse.babel.tapiji.tools.java.ui.autocompletion.NewResourceBundleEntryProposal;
 import org.eclipse.babel.tapiji.tools.java.ui.autocompletion.NoActionProposal;
 import org.eclipse.babel.tapiji.tools.java.ui.util.ASTutilsUI;
@@ -224,18 +225,17 @@ public class MessageCompletionProposalComputer implements
         if (fullToken.length() > 0) {
             boolean hit = false;
             // If a part of a String has already been entered
-            for (String key : bundleGroup.getMessageKeys()) {
-                if (key.toLowerCase().startsWith(fullToken.toLowerCase())) {
-                    if (!key.equals(fullToken)) {
-                        completions.add(new MessageCompletionProposal(
-                                tokenStart, tokenEnd - tokenStart, key, false));
-                    } else {
-                        hit = true;
-                        // Refactoring function
-                        completions.add(new KeyRefactoringProposal(tokenStart,
-                                fullToken, manager.getProject().getName(),
-                                bundleName, null));
-                    }
+            for (String key : MessageKeyIndex.getIndex(bundleGroup).getMatches(
+                    fullToken)) {
+                if (!key.equals(fullToken)) {
+                    completions.add(new MessageCompletionProposal(tokenStart,
+                            tokenEnd - tokenStart, key, false));
+                } else {
+                    hit = true;
+                    // Refactoring function
+                    completions.add(new KeyRefactoringProposal(tokenStart,
+                            fullToken, manager.getProject().getName(),
+                            bundleName, null));
                 }
             }
             if (!hit) {
@@ -0,0 +1,276 @@
+package org.eclipse.babel.tapiji.tools.java.ui.autocompletion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.babel.core.message.IMessagesBundleGroup;
+import org.eclipse.babel.core.message.internal.MessagesBundle;
+import org.eclipse.babel.core.message.internal.MessagesBundleGroup;
+import org.eclipse.babel.core.message.internal.MessagesBundleGroupAdapter;
+
+/**
+ * Sorted index over the message keys of a resource bundle group, used to
+ * collect key completion proposals.
+ * <p>
+ * The keys are held in an array sorted case-insensitively, so all keys
+ * starting with a given prefix form one block that is found by binary search.
+ * Besides plain prefixes, patterns may abbreviate the words of a key: words
+ * are separated by <code>.</code>, <code>_</code> or <code>-</code> or start
+ * with an upper case letter, and each word of the pattern has to be a prefix
+ * of the corresponding word of the key. <code>m.e.t</code> and
+ * <code>mET</code> both match <code>menu.edit.title</code>.
+ * </p>
+ * <p>
+ * Indexes obtained with {@link #getIndex(IMessagesBundleGroup)} are shared
+ * and dropped as soon as keys or bundles are added to or removed from the
+ * group.
+ * </p>
+ */
+public class MessageKeyIndex {
+
+    private static final Map<IMessagesBundleGroup, MessageKeyIndex> indexes = new WeakHashMap<IMessagesBundleGroup, MessageKeyIndex>();
+
+    private final String[] keys;
+
+    /**
+     * @param keys
+     *            the keys to index; the array is not modified
+     */
+    public MessageKeyIndex(String[] keys) {
+        this.keys = keys.clone();
+        Arrays.sort(this.keys, String.CASE_INSENSITIVE_ORDER);
+    }
+
+    /**
+     * Returns the index of the keys of the given group, creating it if
+     * necessary.
+     *
+     * @param group
+     *            the resource bundle group
+     * @return the key index
+     */
+    public static synchronized MessageKeyIndex getIndex(
+            IMessagesBundleGroup group) {
+        MessageKeyIndex index = indexes.get(group);
+        if (index == null) {
+            index = new MessageKeyIndex(group.getMessageKeys());
+            if (group instanceof MessagesBundleGroup) {
+                // groups of other kinds do not report changes, don't cache
+                if (!indexes.containsKey(group)) {
+                    ((MessagesBundleGroup) group)
+                            .addMessagesBundleGroupListener(new Invalidator(
+                                    group));
+                }
+                indexes.put(group, index);
+            }
+        }
+        return index;
+    }
+
+    private static synchronized void invalidate(IMessagesBundleGroup group) {
+        // keep the entry so that the listener is not registered twice
+        if (indexes.containsKey(group)) {
+            indexes.put(group, null);
+        }
+    }
+
+    /**
+     * Gets the number of indexed keys.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Gets all keys starting with the given prefix, ignoring case.
+     *
+     * @param prefix
+     *            the prefix
+     * @return the matching keys in case-insensitive order
+     */
+    public List<String> getPrefixMatches(String prefix) {
+        List<String> matches = new ArrayList<String>();
+        for (int i = lowerBound(prefix); i < keys.length
+                && startsWithIgnoreCase(keys[i], prefix); i++) {
+            matches.add(keys[i]);
+        }
+        return matches;
+    }
+
+    /**
+     * Gets all keys matching the given pattern. Keys starting with the pattern
+     * come first, followed by the keys whose words are abbreviated by the
+     * pattern.
+     *
+     * @param pattern
+     *            the pattern as entered by the user
+     * @return the matching keys
+     */
+    public List<String> getMatches(String pattern) {
+        List<String> matches = getPrefixMatches(pattern);
+
+        String[] words = splitPattern(pattern);
+        if (words.length < 2) {
+            return matches;
+        }
+        // The first word of a key has to start with the first pattern word,
+        // so only that block of the index needs to be looked at
+        String first = words[0];
+        for (int i = lowerBound(first); i < keys.length
+                && startsWithIgnoreCase(keys[i], first); i++) {
+            String key = keys[i];
+            if (!startsWithIgnoreCase(key, pattern)
+                    && matchesWords(words, key)) {
+                matches.add(key);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Tests whether the words of the given pattern abbreviate the words of
+     * the given key.
+     *
+     * @param pattern
+     *            the pattern
+     * @param key
+     *            the key to test
+     * @return <code>true</code> if the key matches the pattern
+     */
+    public static boolean matches(String pattern, String key) {
+        return startsWithIgnoreCase(key, pattern)
+                || matchesWords(splitPattern(pattern), key);
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (String.CASE_INSENSITIVE_ORDER.compare(keys[mid], prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean startsWithIgnoreCase(String key, String prefix) {
+        return key.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static boolean matchesWords(String[] words, String key) {
+        if (words.length == 0) {
+            return false;
+        }
+        int pos = nextWordStart(key, 0);
+        for (int w = 0; w < words.length; w++) {
+            String word = words[w];
+            int end = pos + word.length();
+            if (pos >= key.length()
+                    || !key.regionMatches(true, pos, word, 0, word.length())) {
+                return false;
+            }
+            // the pattern word must not run into the next key word
+            for (int i = pos + 1; i < end; i++) {
+                if (isSeparator(key, i) || isWordStart(key, i)) {
+                    return false;
+                }
+            }
+            pos = nextWordStart(key, end);
+        }
+        return true;
+    }
+
+    /**
+     * Splits a pattern into words. Unlike in keys, every upper case letter of
+     * a pattern starts a new word, so that <code>mET</code> is read as
+     * <code>m</code>, <code>E</code>, <code>T</code>.
+     */
+    private static String[] splitPattern(String pattern) {
+        List<String> words = new ArrayList<String>();
+        int start = -1;
+        for (int i = 0; i < pattern.length(); i++) {
+            if (isSeparator(pattern, i)) {
+                if (start >= 0) {
+                    words.add(pattern.substring(start, i));
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            } else if (Character.isUpperCase(pattern.charAt(i))) {
+                words.add(pattern.substring(start, i));
+                start = i;
+            }
+        }
+        if (start >= 0) {
+            words.add(pattern.substring(start));
+        }
+        return words.toArray(new String[words.size()]);
+    }
+
+    private static int nextWordStart(String key, int from) {
+        int i = from;
+        while (i < key.length()
+                && (isSeparator(key, i) || !isWordStart(key, i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Whether a new word of the key starts at the given (non-separator)
+     * position: after a separator or at a change from lower case or digit to
+     * upper case.
+     */
+    private static boolean isWordStart(String key, int i) {
+        if (i == 0 || isSeparator(key, i - 1)) {
+            return true;
+        }
+        char previous = key.charAt(i - 1);
+        return Character.isUpperCase(key.charAt(i))
+                && (Character.isLowerCase(previous) || Character
+                        .isDigit(previous));
+    }
+
+    private static boolean isSeparator(String text, int i) {
+        char c = text.charAt(i);
+        return c == '.' || c == '_' || c == '-';
+    }
+
+    private static class Invalidator extends MessagesBundleGroupAdapter {
+
+        private final IMessagesBundleGroup group;
+
+        Invalidator(IMessagesBundleGroup group) {
+            this.group = group;
+        }
+
+        @Override
+        public void keyAdded(String key) {
+            invalidate(group);
+        }
+
+        @Override
+        public void keyRemoved(String key) {
+            invalidate(group);
+        }
+
+        @Override
+        public void messagesBundleAdded(MessagesBundle messagesBundle) {
+            invalidate(group);
+        }
+
+        @Override
+        public void messagesBundleRemoved(MessagesBundle messagesBundle) {
+            invalidate(group);
+        }
+    }
+
+}
@@ -16,7 +16,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
-import org.eclipse.babel.core.configuration.DirtyHack;
+import org.eclipse.babel.core.message.EventSuppression;
 import org.eclipse.babel.core.message.IMessagesBundle;
 import org.eclipse.babel.core.message.IMessagesBundleGroup;
 import org.eclipse.babel.core.message.manager.RBManager;
@@ -332,21 +332,24 @@ public class ASTutilsUI {
 		IMessagesBundleGroup messagesBundleGroup = rbManager
 				.getMessagesBundleGroup(resourceBundleId);
 
-		DirtyHack.setFireEnabled(false); // now the editor won't get dirty
-		// but with this change, we have to write it manually down ->
-		// rbManager.writeToFile
-		if (KeyRefactoringDialog.ALL_LOCALES.equals(selectedLocale)) {
-			messagesBundleGroup.renameMessageKeys(oldKey, newKey);
-
-		} else {
-			IMessagesBundle messagesBundle = messagesBundleGroup
-					.getMessagesBundle(LocaleUtils.getLocaleByDisplayName(
-							manager.getProvidedLocales(resourceBundleId),
-							selectedLocale));
-			messagesBundle.renameMessageKey(oldKey, newKey);
-			// rbManager.fireResourceChanged(messagesBundle); ??
+		// now the editor won't get dirty but with this change, we have to
+		// write it manually down -> rbManager.writeToFile
+		EventSuppression suppression = messagesBundleGroup.suppressEvents();
+		try {
+			if (KeyRefactoringDialog.ALL_LOCALES.equals(selectedLocale)) {
+				messagesBundleGroup.renameMessageKeys(oldKey, newKey);
+
+			} else {
+				IMessagesBundle messagesBundle = messagesBundleGroup
+						.getMessagesBundle(LocaleUtils.getLocaleByDisplayName(
+								manager.getProvidedLocales(resourceBundleId),
+								selectedLocale));
+				messagesBundle.renameMessageKey(oldKey, newKey);
+				// rbManager.fireResourceChanged(messagesBundle); ??
+			}
+		} finally {
+			suppression.close();
 		}
-		DirtyHack.setFireEnabled(true);
 
 		rbManager.fireEditorChanged(); // notify Resource Bundle View
 		rbManager.writeToFile(rbManager
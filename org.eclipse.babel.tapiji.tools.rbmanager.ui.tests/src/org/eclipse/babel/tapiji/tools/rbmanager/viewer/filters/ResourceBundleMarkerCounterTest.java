@@ -0,0 +1,214 @@
+package org.eclipse.babel.tapiji.tools.rbmanager.viewer.filters;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.Path;
+
+public class ResourceBundleMarkerCounterTest extends TestCase {
+
+    /** Markers currently in the fake workspace. */
+    private final List<IMarker> markers = new ArrayList<IMarker>();
+
+    private final List<IResourceChangeListener> listeners = new ArrayList<IResourceChangeListener>();
+
+    private long nextId = 1;
+
+    public void testCountsRollUpToAncestors() {
+        createMarker("/p/src/a.properties");
+        createMarker("/p/src/a.properties");
+        createMarker("/p/src/sub/b.properties");
+        createMarker("/q/c.properties");
+
+        ResourceBundleMarkerCounter counter = new ResourceBundleMarkerCounter(
+                createWorkspace());
+
+        assertEquals(2, count(counter, "/p/src/a.properties"));
+        assertEquals(1, count(counter, "/p/src/sub"));
+        assertEquals(3, count(counter, "/p/src"));
+        assertEquals(3, count(counter, "/p"));
+        assertEquals(1, count(counter, "/q"));
+        assertEquals(4, count(counter, "/"));
+        assertEquals(0, count(counter, "/p/bin"));
+        assertFalse(counter.hasMarkers(resource("/r")));
+    }
+
+    public void testDeltasUpdateCounts() {
+        IMarker first = createMarker("/p/src/a.properties");
+        ResourceBundleMarkerCounter counter = new ResourceBundleMarkerCounter(
+                createWorkspace());
+
+        IMarker second = createMarker("/p/src/sub/b.properties");
+        fire(delta(IResourceDelta.ADDED, second));
+        assertEquals(2, count(counter, "/p"));
+
+        markers.remove(first);
+        fire(delta(IResourceDelta.REMOVED, first),
+                delta(IResourceDelta.CHANGED, second));
+        assertEquals(0, count(counter, "/p/src/a.properties"));
+        assertEquals(1, count(counter, "/p/src"));
+        assertEquals(1, count(counter, "/"));
+
+        markers.remove(second);
+        fire(delta(IResourceDelta.REMOVED, second));
+        assertEquals(0, count(counter, "/"));
+        assertFalse(counter.hasMarkers(resource("/p")));
+    }
+
+    public void testMarkerInScanAndDeltaCountedOnce() {
+        IMarker marker = createMarker("/p/a.properties");
+        ResourceBundleMarkerCounter counter = new ResourceBundleMarkerCounter(
+                createWorkspace());
+        assertEquals(1, listeners.size());
+
+        // the delta of a marker created before the scan arrives after it
+        fire(delta(IResourceDelta.ADDED, marker));
+        assertEquals(1, count(counter, "/p"));
+
+        // the removal of a marker the scan never saw must not go below zero
+        IMarker removed = marker("/p/b.properties");
+        fire(delta(IResourceDelta.REMOVED, removed));
+        assertEquals(1, count(counter, "/p"));
+        assertEquals(1, count(counter, "/"));
+    }
+
+    private int count(ResourceBundleMarkerCounter counter, String path) {
+        return counter.getMarkerCount(resource(path));
+    }
+
+    private IMarker createMarker(String path) {
+        IMarker marker = marker(path);
+        markers.add(marker);
+        return marker;
+    }
+
+    private void fire(IMarkerDelta... deltas) {
+        final IMarkerDelta[] result = deltas;
+        IResourceChangeEvent event = proxy(IResourceChangeEvent.class,
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        if (method.getName().equals("findMarkerDeltas")) {
+                            return result;
+                        }
+                        if (method.getName().equals("getType")) {
+                            return Integer
+                                    .valueOf(IResourceChangeEvent.POST_CHANGE);
+                        }
+                        throw new UnsupportedOperationException(method
+                                .getName());
+                    }
+                });
+        for (IResourceChangeListener listener : listeners) {
+            listener.resourceChanged(event);
+        }
+    }
+
+    private IWorkspace createWorkspace() {
+        final IWorkspaceRoot root = proxy(IWorkspaceRoot.class,
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        if (method.getName().equals("findMarkers")) {
+                            return markers.toArray(new IMarker[markers
+                                    .size()]);
+                        }
+                        throw new UnsupportedOperationException(method
+                                .getName());
+                    }
+                });
+        return proxy(IWorkspace.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getRoot")) {
+                    return root;
+                }
+                if (method.getName().equals("addResourceChangeListener")) {
+                    listeners.add((IResourceChangeListener) args[0]);
+                    return null;
+                }
+                if (method.getName().equals("removeResourceChangeListener")) {
+                    listeners.remove(args[0]);
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private IMarker marker(String path) {
+        final long id = nextId++;
+        final IResource resource = resource(path);
+        return proxy(IMarker.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getId")) {
+                    return Long.valueOf(id);
+                }
+                if (method.getName().equals("getResource")) {
+                    return resource;
+                }
+                return identity(proxy, method, args);
+            }
+        });
+    }
+
+    private static IMarkerDelta delta(final int kind, final IMarker marker) {
+        return proxy(IMarkerDelta.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getKind")) {
+                    return Integer.valueOf(kind);
+                }
+                if (method.getName().equals("getId")) {
+                    return Long.valueOf(marker.getId());
+                }
+                if (method.getName().equals("getResource")) {
+                    return marker.getResource();
+                }
+                if (method.getName().equals("getMarker")) {
+                    return marker;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static IResource resource(String path) {
+        final Path fullPath = new Path(path);
+        return proxy(IResource.class, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("getFullPath")) {
+                    return fullPath;
+                }
+                return identity(proxy, method, args);
+            }
+        });
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        if (method.getName().equals("equals")) {
+            return Boolean.valueOf(proxy == args[0]);
+        }
+        if (method.getName().equals("hashCode")) {
+            return Integer.valueOf(System.identityHashCode(proxy));
+        }
+        throw new UnsupportedOperationException(method.getName());
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(
+                ResourceBundleMarkerCounterTest.class.getClassLoader(),
+                new Class<?>[] { type }, handler));
+    }
+}
@@ -10,6 +10,7 @@
  ******************************************************************************/
 package org.eclipse.babel.tapiji.tools.rbmanager;
 
+import org.eclipse.babel.tapiji.tools.rbmanager.viewer.filters.ResourceBundleMarkerCounter;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
@@ -49,6 +50,7 @@ public class RBManagerActivator extends AbstractUIPlugin {
      * )
      */
     public void stop(BundleContext context) throws Exception {
+        ResourceBundleMarkerCounter.dispose();
         plugin = null;
         super.stop(context);
     }
@@ -10,23 +10,38 @@
  ******************************************************************************/
 package org.eclipse.babel.tapiji.tools.rbmanager.viewer.filters;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.eclipse.babel.tapiji.tools.core.ui.utils.EditorUtils;
 import org.eclipse.babel.tapiji.tools.core.ui.utils.ResourceUtils;
 import org.eclipse.babel.tapiji.tools.core.util.FragmentProjectUtils;
-import org.eclipse.babel.tapiji.tools.core.util.RBFileUtils;
 import org.eclipse.babel.tapiji.tools.rbmanager.model.VirtualResourceBundle;
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
-import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
-import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
 
 public class ProblematicResourceBundleFilter extends ViewerFilter {
 
+    /**
+     * The fragments of the projects seen while filtering the children of one
+     * parent, <code>null</code> outside of {@link #filter}.
+     */
+    private Map<IProject, List<IProject>> fragments;
+
+    @Override
+    public Object[] filter(Viewer viewer, Object parent, Object[] elements) {
+        fragments = new HashMap<IProject, List<IProject>>();
+        try {
+            return super.filter(viewer, parent, elements);
+        } finally {
+            fragments = null;
+        }
+    }
+
     /**
      * Shows only IContainer and VirtualResourcebundles with all his
      * properties-files, which have RB_Marker.
@@ -36,49 +51,49 @@ public class ProblematicResourceBundleFilter extends ViewerFilter {
         if (element instanceof IFile) {
             return true;
         }
+        ResourceBundleMarkerCounter markers = ResourceBundleMarkerCounter
+                .getDefault();
         if (element instanceof VirtualResourceBundle) {
             for (IResource f : ((VirtualResourceBundle) element).getFiles()) {
-                if (RBFileUtils.hasResourceBundleMarker(f)) {
+                if (markers.hasMarkers(f)) {
                     return true;
                 }
             }
         }
         if (element instanceof IContainer) {
-            try {
-                IMarker[] ms = null;
-                if ((ms = ((IContainer) element).findMarkers(
-                        EditorUtils.RB_MARKER_ID, true,
-                        IResource.DEPTH_INFINITE)).length > 0) {
-                    return true;
-                }
+            IContainer container = (IContainer) element;
+            if (markers.hasMarkers(container)) {
+                return true;
+            }
+            IProject project = container.getProject();
+            if (project == null
+                    || markers.getMarkerCount(project) == markers
+                            .getMarkerCount(project.getWorkspace().getRoot())) {
+                // no other project, so no fragment, has markers
+                return false;
+            }
 
-                List<IContainer> fragmentContainer = ResourceUtils
-                        .getCorrespondingFolders((IContainer) element,
-                                FragmentProjectUtils
-                                        .getFragments(((IContainer) element)
-                                                .getProject()));
+            List<IContainer> fragmentContainer = ResourceUtils
+                    .getCorrespondingFolders(container, getFragments(project));
 
-                IMarker[] fragment_ms;
-                for (IContainer c : fragmentContainer) {
-                    try {
-                        if (c.exists()) {
-                            fragment_ms = c.findMarkers(
-                                    EditorUtils.RB_MARKER_ID, false,
-                                    IResource.DEPTH_INFINITE);
-                            ms = org.eclipse.babel.tapiji.tools.core.util.EditorUtils
-                                    .concatMarkerArray(ms, fragment_ms);
-                        }
-                    } catch (CoreException e) {
-                        e.printStackTrace();
-                    }
-                }
-                if (ms.length > 0) {
+            for (IContainer c : fragmentContainer) {
+                if (markers.hasMarkers(c)) {
                     return true;
                 }
-
-            } catch (CoreException e) {
             }
         }
         return false;
     }
+
+    private List<IProject> getFragments(IProject project) {
+        if (fragments == null) {
+            return FragmentProjectUtils.getFragments(project);
+        }
+        List<IProject> projectFragments = fragments.get(project);
+        if (projectFragments == null) {
+            projectFragments = FragmentProjectUtils.getFragments(project);
+            fragments.put(project, projectFragments);
+        }
+        return projectFragments;
+    }
 }
@@ -0,0 +1,167 @@
+package org.eclipse.babel.tapiji.tools.rbmanager.viewer.filters;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.babel.tapiji.tools.core.Logger;
+import org.eclipse.babel.tapiji.tools.core.ui.utils.EditorUtils;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Keeps the number of resource bundle markers ({@link EditorUtils#RB_MARKER_ID}
+ * ) on and below every resource of the workspace, so that filters can tell
+ * whether a container holds problems without searching it.
+ * <p>
+ * The counts are taken from one scan of the workspace when the counter is
+ * first used and afterwards follow the marker deltas of the resource change
+ * events. A marker counts for its resource and for all of the resource's
+ * ancestors. Markers are tracked by id, so a marker that is both found by the
+ * scan and reported by a delta is counted once.
+ * </p>
+ */
+public class ResourceBundleMarkerCounter implements IResourceChangeListener {
+
+    private static ResourceBundleMarkerCounter instance;
+
+    private final IWorkspace workspace;
+
+    /** Marker counts by full path, resources without markers are left out. */
+    private final Map<IPath, Integer> counts = new HashMap<IPath, Integer>();
+
+    /** The full path of the resource of every counted marker by marker id. */
+    private final Map<Long, IPath> markerPaths = new HashMap<Long, IPath>();
+
+    /**
+     * Creates a counter for the given workspace and takes the initial counts.
+     * The listener is registered before the scan, so that no marker change
+     * between the two is lost.
+     */
+    ResourceBundleMarkerCounter(IWorkspace workspace) {
+        this.workspace = workspace;
+        workspace.addResourceChangeListener(this,
+                IResourceChangeEvent.POST_CHANGE);
+        scan();
+    }
+
+    /**
+     * Gets the shared counter, which starts listening to the workspace on
+     * first use.
+     *
+     * @return the shared counter
+     */
+    public static synchronized ResourceBundleMarkerCounter getDefault() {
+        if (instance == null) {
+            instance = new ResourceBundleMarkerCounter(ResourcesPlugin
+                    .getWorkspace());
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the shared counter, if any, from listening to the workspace.
+     */
+    public static synchronized void dispose() {
+        if (instance != null) {
+            instance.workspace.removeResourceChangeListener(instance);
+            instance = null;
+        }
+    }
+
+    private synchronized void scan() {
+        try {
+            for (IMarker marker : workspace.getRoot().findMarkers(
+                    EditorUtils.RB_MARKER_ID, true, IResource.DEPTH_INFINITE)) {
+                markerAdded(marker.getId(), marker.getResource().getFullPath());
+            }
+        } catch (CoreException e) {
+            Logger.logError(e);
+        }
+    }
+
+    @Override
+    public synchronized void resourceChanged(IResourceChangeEvent event) {
+        IMarkerDelta[] deltas = event.findMarkerDeltas(
+                EditorUtils.RB_MARKER_ID, true);
+        for (IMarkerDelta delta : deltas) {
+            switch (delta.getKind()) {
+            case IResourceDelta.ADDED:
+                markerAdded(delta.getId(), delta.getResource().getFullPath());
+                break;
+            case IResourceDelta.REMOVED:
+                markerRemoved(delta.getId());
+                break;
+            default:
+                // an attribute change does not affect the count
+            }
+        }
+    }
+
+    /**
+     * Gets the number of resource bundle markers on the given resource and
+     * its descendants.
+     *
+     * @param resource
+     *            a resource
+     * @return the number of markers
+     */
+    public synchronized int getMarkerCount(IResource resource) {
+        Integer count = counts.get(resource.getFullPath());
+        return count == null ? 0 : count.intValue();
+    }
+
+    /**
+     * Whether the given resource or one of its descendants has a resource
+     * bundle marker.
+     *
+     * @param resource
+     *            a resource
+     * @return <code>true</code> if there is at least one marker
+     */
+    public boolean hasMarkers(IResource resource) {
+        return getMarkerCount(resource) > 0;
+    }
+
+    private void markerAdded(long id, IPath path) {
+        if (markerPaths.put(Long.valueOf(id), path) == null) {
+            add(path, 1);
+        }
+    }
+
+    private void markerRemoved(long id) {
+        IPath path = markerPaths.remove(Long.valueOf(id));
+        if (path != null) {
+            add(path, -1);
+        }
+    }
+
+    /**
+     * Adds the given number of markers to the count of the resource at the
+     * given path and to the counts of all its ancestors, up to the workspace
+     * root.
+     */
+    private void add(IPath path, int markers) {
+        IPath current = path;
+        while (true) {
+            Integer count = counts.get(current);
+            int newCount = (count == null ? 0 : count.intValue()) + markers;
+            if (newCount > 0) {
+                counts.put(current, Integer.valueOf(newCount));
+            } else {
+                counts.remove(current);
+            }
+            if (current.segmentCount() == 0) {
+                break;
+            }
+            current = current.removeLastSegments(1);
+        }
+    }
+}